@@ -1,5 +1,7 @@
 package Animations;
 
+import engine.UpdateScheduler;
+
 import java.util.Random;
 /*
 * The basic background stars effect during the game
@@ -30,21 +32,22 @@ public class BasicGameSpace {
 
     // Update star locations
     public void update() {
-        int i = 0;
-        for (Star star : stars) {
-            if(this.speed != 3){
-                star.y += star.speed;
-            }
-            else{
-                star.y += 3;
-            }
-            positions[i][1] = star.y;
-
-            if (star.y >= 525) {
-                star.y = 0;
-                positions[i][1] = 0;
-            }
-            i++;
+        UpdateScheduler.getInstance().forRange(stars.length, this::updateStar);
+    }
+
+    private void updateStar(int i) {
+        Star star = stars[i];
+        if(this.speed != 3){
+            star.y += star.speed;
+        }
+        else{
+            star.y += 3;
+        }
+        positions[i][1] = star.y;
+
+        if (star.y >= 525) {
+            star.y = 0;
+            positions[i][1] = 0;
         }
     }
 
@@ -8,7 +8,7 @@ import java.util.Random;
 
 public class Explosion {
 
-    private static final int NUM_PARTICLES = 40;
+    public static final int NUM_PARTICLES = 40;
     private Particle[] particles;
     private boolean active;
     private boolean enemy;
@@ -0,0 +1,15 @@
+package engine;
+
+/**
+ * Game counters that achievement rules can depend on.
+ */
+public enum AchievementCounter {
+    /** Enemy ships destroyed by all players. */
+    SHIPS_DESTROYED,
+    /** Bullets fired by all players. */
+    BULLETS_SHOT,
+    /** Total score of all players. */
+    SCORE,
+    /** Hits taken by the players on the current screen. */
+    DAMAGE_TAKEN
+}
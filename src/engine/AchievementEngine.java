@@ -0,0 +1,115 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental achievement evaluation. Each rule is indexed by the counter it
+ * depends on; only rules of counters that changed since the last evaluation
+ * are checked, and unlocks go through the achievement id.
+ */
+public final class AchievementEngine {
+
+    private static final AchievementCounter[] COUNTERS = AchievementCounter.values();
+
+    /** Manager receiving the unlocks. */
+    private final AchievementManager manager;
+    /** Rules, indexed by achievement id. */
+    private final List<AchievementRule> rules;
+    /** Achievement ids per counter ordinal. */
+    private final int[][] idsByCounter;
+    /** Current counter values. */
+    private final long[] values = new long[COUNTERS.length];
+    /** Bit per counter ordinal, set when the counter changed. */
+    private int dirty;
+
+    /**
+     * Constructor.
+     *
+     * @param manager
+     *            Manager receiving the unlocks.
+     * @param rules
+     *            Rules, in achievement id order.
+     */
+    public AchievementEngine(final AchievementManager manager, final List<AchievementRule> rules) {
+        this.manager = manager;
+        this.rules = rules;
+
+        List<List<Integer>> byCounter = new ArrayList<>();
+        for (int i = 0; i < COUNTERS.length; i++)
+            byCounter.add(new ArrayList<>());
+        for (int id = 0; id < rules.size(); id++) {
+            AchievementCounter counter = rules.get(id).getCounter();
+            if (counter != null)
+                byCounter.get(counter.ordinal()).add(id);
+        }
+
+        this.idsByCounter = new int[COUNTERS.length][];
+        for (int c = 0; c < COUNTERS.length; c++) {
+            List<Integer> ids = byCounter.get(c);
+            this.idsByCounter[c] = new int[ids.size()];
+            for (int i = 0; i < ids.size(); i++)
+                this.idsByCounter[c][i] = ids.get(i);
+        }
+    }
+
+    /**
+     * Sets a counter, marking its rules for evaluation if the value changed.
+     *
+     * @param counter
+     *            Counter to set.
+     * @param value
+     *            New value.
+     */
+    public void set(final AchievementCounter counter, final long value) {
+        int c = counter.ordinal();
+        if (this.values[c] != value) {
+            this.values[c] = value;
+            this.dirty |= 1 << c;
+        }
+    }
+
+    /**
+     * Adds to a counter.
+     *
+     * @param counter
+     *            Counter to increase.
+     * @param delta
+     *            Amount to add.
+     */
+    public void add(final AchievementCounter counter, final long delta) {
+        set(counter, this.values[counter.ordinal()] + delta);
+    }
+
+    /**
+     * Getter for a counter value.
+     *
+     * @param counter
+     *            Counter to read.
+     * @return Current value.
+     */
+    public long get(final AchievementCounter counter) {
+        return this.values[counter.ordinal()];
+    }
+
+    /**
+     * Evaluates the rules of every counter changed since the last call.
+     *
+     * @return Number of achievements unlocked.
+     */
+    public int evaluate() {
+        int unlocked = 0;
+        while (this.dirty != 0) {
+            int c = Integer.numberOfTrailingZeros(this.dirty);
+            this.dirty &= this.dirty - 1;
+            long value = this.values[c];
+            for (int id : this.idsByCounter[c]) {
+                if (!this.manager.isUnlocked(id) && this.rules.get(id).isSatisfiedBy(value)) {
+                    this.manager.unlock(id);
+                    unlocked++;
+                }
+            }
+        }
+        return unlocked;
+    }
+}
@@ -3,7 +3,10 @@ package engine;
 import screen.GameScreen;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import engine.SoundManager;
 import java.util.LinkedList;
 import java.util.Queue;
@@ -20,29 +23,93 @@ public class AchievementManager {
 
     private  static AchievementManager instance;
 
-    public AchievementManager() {
+    /** Achievement rules, loaded once; the list index is the achievement id. */
+    private static List<AchievementRule> rules;
+    /** Achievement id by name. */
+    private static Map<String, Integer> idsByName;
+
+    /** Evaluates the counter-based rules; wired up by {@link #create()}. */
+    private AchievementEngine engine;
+
+    /** Use {@link #create()}; subclasses get a manager without a rule engine. */
+    protected AchievementManager() {
         this.achievements = createDefaultAchievements();
     }
 
+    /**
+     * Creates a manager and registers it with a rule engine. The engine is
+     * attached after construction so the constructor never hands out {@code this}.
+     */
+    public static AchievementManager create() {
+        AchievementManager manager = new AchievementManager();
+        manager.engine = new AchievementEngine(manager, getRules());
+        return manager;
+    }
+
+    /**
+     * Returns the achievement rules, loading them on first use.
+     * Falls back to the built-in list if the rules file is missing or empty.
+     */
+    private static synchronized List<AchievementRule> getRules() {
+        if (rules == null) {
+            List<AchievementRule> loaded = FileManager.getInstance().loadAchievementRules();
+            rules = Collections.unmodifiableList(loaded.isEmpty() ? createBuiltInRules() : loaded);
+            Map<String, Integer> ids = new HashMap<>();
+            for (int id = 0; id < rules.size(); id++) {
+                ids.putIfAbsent(rules.get(id).getName(), id);
+            }
+            idsByName = ids;
+        }
+        return rules;
+    }
+
+    /** Built-in achievements, used when no rules file is available. */
+    private static List<AchievementRule> createBuiltInRules() {
+        AchievementRule.Comparison atLeast = AchievementRule.Comparison.AT_LEAST;
+        List<AchievementRule> list = new ArrayList<>();
+        list.add(new AchievementRule("First Blood", "Defeat your first enemy.",
+                AchievementCounter.SHIPS_DESTROYED, atLeast, 1));
+        list.add(new AchievementRule("Survivor", "Clear a round without losing a life.", null, atLeast, 0));
+        list.add(new AchievementRule("Clear", "Clear 5 levels.", null, atLeast, 0));
+        list.add(new AchievementRule("Sharpshooter", "Record an accuracy of more than 80 percent", null, atLeast, 0));
+        list.add(new AchievementRule("50 Bullets", "Fire 50 Bullets.",
+                AchievementCounter.BULLETS_SHOT, atLeast, 50));
+        list.add(new AchievementRule("Get 3000 Score", "Get more than 3,000 points",
+                AchievementCounter.SCORE, atLeast, 3000));
+        list.add(new AchievementRule("Perfect Shooter", "Destroy all enemies with perfect accuracy.", null, atLeast, 0));
+        return list;
+    }
+
     /** Defines the default achievements available in the game. */
     private List<Achievement> createDefaultAchievements() {
         List<Achievement> list = new ArrayList<>();
-        list.add(new Achievement("First Blood", "Defeat your first enemy."));
-        list.add(new Achievement("Survivor", "Clear a round without losing a life."));
-        list.add(new Achievement("Clear", "Clear 5 levels."));
-        list.add(new Achievement("Sharpshooter", "Record an accuracy of more than 80 percent"));
-        list.add(new Achievement("50 Bullets", "Fire 50 Bullets."));
-        list.add(new Achievement("Get 3000 Score", "Get more than 3,000 points"));
-        list.add(new Achievement("Perfect Shooter", "Destroy all enemies with perfect accuracy."));
+        for (AchievementRule rule : getRules()) {
+            list.add(new Achievement(rule.getName(), rule.getDescription()));
+        }
         return list;
     }
 
+    /** Achievement names in id order, matched by name to the saved table columns. */
+    private static List<String> names() {
+        List<String> names = new ArrayList<>();
+        for (AchievementRule rule : getRules()) {
+            names.add(rule.getName());
+        }
+        return names;
+    }
+
+    /** Returns the rule engine fed with game counters. */
+    public AchievementEngine getEngine() {
+        return engine;
+    }
+
     /**
      * Loads the achievements from FileManager using a boolean list
-     * and converts them into Achievement objects.
+     * and converts them into Achievement objects. Saved unlocks are
+     * matched by achievement name, so the rules file can be reordered.
      */
     public void loadFromBooleans(String userName) throws IOException {
-        List<Boolean> flags = FileManager.getInstance().searchAchievementsByName(userName);
+        List<Boolean> flags = FileManager.getInstance().searchAchievementsByName(userName, names());
         this.achievements = createDefaultAchievements();
         for (int i = 0; i < flags.size() && i < achievements.size(); i++) {
             if (flags.get(i)) {
@@ -52,15 +119,16 @@ public class AchievementManager {
     }
 
     /**
-     * Converts the achievements into a boolean list and
-     * saves them using FileManager.
+     * Saves the names of the unlocked achievements using FileManager.
      */
     public void saveToFile(String userName, String mode) throws IOException {
-        List<Boolean> flags = new ArrayList<>();
+        List<String> unlocked = new ArrayList<>();
         for (Achievement a : achievements) {
-            flags.add(a.isUnlocked());
+            if (a.isUnlocked()) {
+                unlocked.add(a.getName());
+            }
         }
-        FileManager.getInstance().unlockAchievement(userName, flags, mode); // mode 추가
+        FileManager.getInstance().unlockAchievement(userName, unlocked, mode); // mode 추가
     }
 
     /** Returns the current achievement list. */
@@ -70,33 +138,59 @@ public class AchievementManager {
 
     /** Unlocks the achievement by name. */
     public void unlock(String name) {
-        for (Achievement a : achievements) {
-            if (a.getName().equals(name) && !a.isUnlocked()) {
-                a.unlock();
-                SoundManager.playOnce("sound/achievement.wav");
-                logger.info("Achievement unlocked: " + a);
-                toastQueue.offer(new Toast(a, TOAST_DURATION_MS));
-            }
+        getRules();
+        Integer id = idsByName.get(name);
+        if (id != null) {
+            unlock(id);
+        }
+    }
+
+    /** Unlocks the achievement by id (its index in the rules file; saves use the name). */
+    public void unlock(int id) {
+        if (id < 0 || id >= achievements.size()) return;
+        Achievement a = achievements.get(id);
+        if (!a.isUnlocked()) {
+            a.unlock();
+            SoundManager.playOnce("sound/achievement.wav");
+            logger.info("Achievement unlocked: " + a);
+            toastQueue.offer(a);
         }
     }
-    private final Queue<Toast> toastQueue = new LinkedList<>();
-    private Toast activeToast = null;
+
+    /** Checks if the achievement with the given id is unlocked. */
+    public boolean isUnlocked(int id) {
+        return id >= 0 && id < achievements.size() && achievements.get(id).isUnlocked();
+    }
+    private final Queue<Achievement> toastQueue = new LinkedList<>();
+    private Achievement activeToast = null;
     private static final int TOAST_DURATION_MS = 3000;
+    /** Ends the active toast, scheduled on the shared timer wheel. */
+    private final Runnable expireToast = this::expireToast;
 
     public void update() {
-        if (activeToast == null || !activeToast.alive()) {
-            activeToast = toastQueue.poll();
-            if (activeToast != null) {
-                activeToast.ttl.reset();
-            }
+        if (activeToast == null) {
+            showNextToast();
+        }
+    }
+
+    /** Shows the next queued toast and schedules its expiry. */
+    private void showNextToast() {
+        activeToast = toastQueue.poll();
+        if (activeToast != null) {
+            Core.getTimerWheel().schedule(TOAST_DURATION_MS, expireToast);
         }
     }
 
+    private void expireToast() {
+        activeToast = null;
+        showNextToast();
+    }
+
 
     public List<Achievement> getActiveToasts() {
         List<Achievement> activeList = new ArrayList<>();
-        if (activeToast != null && activeToast.alive()) {
-            activeList.add(activeToast.achievement);
+        if (activeToast != null) {
+            activeList.add(activeToast);
         }
         return activeList;
     }
@@ -106,21 +200,7 @@ public class AchievementManager {
      * @return If there is at least one pop-up left, true, or false
      */
     public boolean hasPendingToasts() {
-        return (activeToast != null && activeToast.alive()) || !toastQueue.isEmpty();
-    }
-
-    private static final class Toast {
-        final Achievement achievement;
-        final Cooldown ttl;
-
-        Toast(Achievement achievement, int ms) {
-            this.achievement = achievement;
-            this.ttl = Core.getCooldown(ms);
-        }
-
-        boolean alive() {
-            return !ttl.checkFinished();
-        }
+        return activeToast != null || !toastQueue.isEmpty();
     }
 
     /**
@@ -129,7 +209,7 @@ public class AchievementManager {
      */
     protected static AchievementManager getInstance() {
         if (instance == null)
-            instance = new AchievementManager();
+            instance = create();
         return instance;
     }
 
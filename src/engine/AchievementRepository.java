@@ -0,0 +1,383 @@
+package engine;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * In-memory index of res/achievement.csv.
+ * The table is loaded once into a bitset per "mode:player" record and an
+ * inverted index of completers per achievement column. New unlocks are
+ * appended to a journal (res/achievement.journal, "mode,player,column" per
+ * line, column -1 for a new record without unlocks) and folded back into
+ * the CSV by a checkpoint once the journal grows, so lookups and saves never
+ * rescan the table. Journal appends and checkpoints are written behind by the
+ * {@link PersistenceService}.
+ */
+public final class AchievementRepository {
+
+    /** Journal entries kept before the CSV is rewritten. */
+    private static final int CHECKPOINT_THRESHOLD = 64;
+    /** Table file name in the resource folder. */
+    private static final String TABLE_NAME = "achievement.csv";
+    /** Journal file name in the resource folder. */
+    private static final String JOURNAL_NAME = "achievement.journal";
+
+    private static AchievementRepository instance;
+    private static final Logger logger = Core.getLogger();
+
+    /** Folder holding the table and the journal. */
+    private final Path directory;
+    /** Achievement column names, in column order. */
+    private final List<String> columns = new ArrayList<>();
+    /** Column index by lower case achievement name. */
+    private final Map<String, Integer> columnsByName = new HashMap<>();
+    /** Unlocked columns per "mode:player" key, in file order. */
+    private final Map<String, BitSet> records = new LinkedHashMap<>();
+    /** First record key of each player name. */
+    private final Map<String, String> keysByName = new HashMap<>();
+    /** "mode:player" keys that completed each column. */
+    private final List<Set<String>> completers = new ArrayList<>();
+    /** Entries appended to the journal since the last checkpoint. */
+    private int journalEntries;
+    /** Append channel of the journal, opened lazily. */
+    private FileChannel journal;
+    /** Journal lines not yet written. */
+    private final StringBuilder unsynced = new StringBuilder();
+
+    /**
+     * Constructor, loads the table and replays the journal.
+     *
+     * @param directory
+     *            Folder holding the table.
+     * @throws IOException
+     *             In case of loading problems.
+     */
+    AchievementRepository(final Path directory) throws IOException {
+        this.directory = directory;
+        loadTable();
+        replayJournal();
+    }
+
+    /**
+     * Returns the shared instance, backed by the res folder.
+     *
+     * @return Shared achievement repository.
+     * @throws IOException
+     *             In case of loading problems.
+     */
+    public static synchronized AchievementRepository getInstance() throws IOException {
+        if (instance == null)
+            instance = new AchievementRepository(Paths.get(System.getProperty("user.dir"), "res"));
+        return instance;
+    }
+
+    private void loadTable() throws IOException {
+        Path table = this.directory.resolve(TABLE_NAME);
+        if (!Files.exists(table)) {
+            logger.info("Achievement file not found, starting with an empty table.");
+            return;
+        }
+        List<String> lines = Files.readAllLines(table, StandardCharsets.UTF_8);
+        if (lines.isEmpty())
+            return;
+
+        String[] header = lines.get(0).split(",");
+        for (int i = 2; i < header.length; i++)
+            addColumn(header[i].trim());
+
+        for (int l = 1; l < lines.size(); l++) {
+            String[] fields = lines.get(l).split(",");
+            if (fields.length < 3)
+                continue;
+            BitSet flags = record(fields[0].trim(), fields[1].trim());
+            for (int i = 2; i < fields.length; i++) {
+                if (fields[i].trim().equals("1"))
+                    set(fields[0].trim() + ":" + fields[1].trim(), flags, i - 2);
+            }
+        }
+        logger.info("Loaded " + this.records.size() + " achievement records.");
+    }
+
+    private void replayJournal() throws IOException {
+        Path file = this.directory.resolve(JOURNAL_NAME);
+        if (!Files.exists(file))
+            return;
+        String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        String[] lines = content.split("\n", -1);
+        // The last element is empty unless the final append was torn.
+        for (int l = 0; l < lines.length - 1; l++) {
+            String[] fields = lines[l].split(",");
+            if (fields.length != 3)
+                continue;
+            try {
+                int column = Integer.parseInt(fields[2]);
+                BitSet flags = record(fields[0], fields[1]);
+                if (column >= 0)
+                    set(fields[0] + ":" + fields[1], flags, column);
+                this.journalEntries++;
+            } catch (NumberFormatException e) {
+                logger.warning("Skipping malformed journal line: " + lines[l]);
+            }
+        }
+        if (this.journalEntries > 0 || !lines[lines.length - 1].isEmpty())
+            checkpoint();
+    }
+
+    private void addColumn(final String name) {
+        this.columnsByName.putIfAbsent(name.toLowerCase(), this.columns.size());
+        this.columns.add(name);
+        this.completers.add(new LinkedHashSet<>());
+    }
+
+    /** Returns the record of a player, creating an empty one if needed. */
+    private BitSet record(final String mode, final String player) {
+        String key = mode + ":" + player;
+        BitSet flags = this.records.get(key);
+        if (flags == null) {
+            flags = new BitSet();
+            this.records.put(key, flags);
+            this.keysByName.putIfAbsent(player, key);
+        }
+        return flags;
+    }
+
+    private void set(final String key, final BitSet flags, final int column) {
+        while (this.completers.size() <= column)
+            addColumn("");
+        flags.set(column);
+        this.completers.get(column).add(key);
+    }
+
+    /**
+     * Makes sure every achievement has a column. Columns are matched by
+     * name, so rules can be reordered or inserted without moving saved
+     * unlocks; an unknown name takes the first unnamed column (one the
+     * journal used before the header was rewritten) or a new one at the end.
+     * Named columns are never renamed.
+     *
+     * @param names
+     *            Achievement names.
+     */
+    public synchronized void ensureColumns(final List<String> names) {
+        for (String name : names) {
+            String key = name.trim().toLowerCase();
+            if (this.columnsByName.containsKey(key))
+                continue;
+            int column = this.columns.indexOf("");
+            if (column < 0) {
+                addColumn(name.trim());
+            } else {
+                this.columns.set(column, name.trim());
+                this.columnsByName.put(key, column);
+            }
+        }
+    }
+
+    /**
+     * Returns the unlocked flags of the first record of a player.
+     *
+     * @param player
+     *            Player name.
+     * @return One flag per column, all false if the player has no record.
+     */
+    public synchronized List<Boolean> getFlags(final String player) {
+        String key = this.keysByName.get(player);
+        BitSet flags = key == null ? null : this.records.get(key);
+        List<Boolean> list = new ArrayList<>(this.columns.size());
+        for (int i = 0; i < this.columns.size(); i++)
+            list.add(flags != null && flags.get(i));
+        return list;
+    }
+
+    /**
+     * Returns the unlocked flags of the first record of a player for the
+     * given achievements, matched by name.
+     *
+     * @param player
+     *            Player name.
+     * @param names
+     *            Achievement names.
+     * @return One flag per name, false for names without a column.
+     */
+    public synchronized List<Boolean> getFlags(final String player, final List<String> names) {
+        String key = this.keysByName.get(player);
+        BitSet flags = key == null ? null : this.records.get(key);
+        List<Boolean> list = new ArrayList<>(names.size());
+        for (String name : names) {
+            Integer column = this.columnsByName.get(name.trim().toLowerCase());
+            list.add(flags != null && column != null && flags.get(column));
+        }
+        return list;
+    }
+
+    /**
+     * Marks achievements as unlocked for a player and mode, by name, adding
+     * columns for names the table does not have yet.
+     *
+     * @param player
+     *            Player name.
+     * @param mode
+     *            Numeric game mode, "1" or "2".
+     * @param names
+     *            Names of the unlocked achievements.
+     */
+    public synchronized void unlockByName(final String player, final String mode, final Collection<String> names) {
+        ensureColumns(new ArrayList<>(names));
+        List<Boolean> unlocked = new ArrayList<>(Collections.nCopies(this.columns.size(), false));
+        for (String name : names)
+            unlocked.set(this.columnsByName.get(name.trim().toLowerCase()), true);
+        unlock(player, mode, unlocked);
+    }
+
+    /**
+     * Marks achievements as unlocked for a player and mode. Flags are never
+     * cleared; only newly set ones are journaled, in the background.
+     *
+     * @param player
+     *            Player name.
+     * @param mode
+     *            Numeric game mode, "1" or "2".
+     * @param unlocked
+     *            Unlocked flags, by column.
+     */
+    public synchronized void unlock(final String player, final String mode, final List<Boolean> unlocked) {
+        String key = mode + ":" + player;
+        boolean isNew = !this.records.containsKey(key);
+        BitSet flags = record(mode, player);
+        int before = this.unsynced.length();
+        for (int i = 0; i < unlocked.size(); i++) {
+            if (unlocked.get(i) && !flags.get(i)) {
+                set(key, flags, i);
+                this.unsynced.append(mode).append(',').append(player).append(',').append(i).append('\n');
+                this.journalEntries++;
+            }
+        }
+        if (isNew && this.unsynced.length() == before) {
+            // Column -1 records a player without any unlocks, as the table did.
+            this.unsynced.append(mode).append(',').append(player).append(",-1\n");
+            this.journalEntries++;
+        }
+        if (this.unsynced.length() > before)
+            PersistenceService.getInstance().submit(this.directory.resolve(JOURNAL_NAME).toString(), this::flush);
+    }
+
+    /**
+     * Returns the players who completed an achievement.
+     *
+     * @param name
+     *            Achievement name, case insensitive.
+     * @return "mode:player" keys, in the order they were recorded.
+     */
+    public synchronized List<String> getCompleters(final String name) {
+        Integer column = this.columnsByName.get(name.trim().toLowerCase());
+        if (column == null) {
+            logger.warning("Achievement not found: " + name);
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(this.completers.get(column));
+    }
+
+    /**
+     * Appends the unwritten journal lines and syncs them to disk, or
+     * checkpoints once the journal has grown past the threshold.
+     *
+     * @throws IOException
+     *             In case of writing problems.
+     */
+    public synchronized void flush() throws IOException {
+        if (this.journalEntries >= CHECKPOINT_THRESHOLD) {
+            checkpoint();
+            return;
+        }
+        if (this.unsynced.length() == 0)
+            return;
+        if (this.journal == null || !this.journal.isOpen())
+            this.journal = FileChannel.open(this.directory.resolve(JOURNAL_NAME),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        ByteBuffer buffer = ByteBuffer.wrap(this.unsynced.toString().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining())
+            this.journal.write(buffer);
+        this.journal.force(false);
+        this.unsynced.setLength(0);
+    }
+
+    /**
+     * Rewrites the table with the journaled unlocks and empties the journal.
+     *
+     * @throws IOException
+     *             In case of writing problems.
+     */
+    public synchronized void checkpoint() throws IOException {
+        Path table = this.directory.resolve(TABLE_NAME);
+        Path temp = this.directory.resolve(TABLE_NAME + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             BufferedWriter writer = new BufferedWriter(
+                     new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8))) {
+            writer.write("mode,player");
+            for (String column : this.columns)
+                writer.write("," + column);
+            writer.newLine();
+            for (Map.Entry<String, BitSet> record : this.records.entrySet()) {
+                int split = record.getKey().indexOf(':');
+                writer.write(record.getKey().substring(0, split) + "," + record.getKey().substring(split + 1));
+                for (int i = 0; i < this.columns.size(); i++)
+                    writer.write(record.getValue().get(i) ? ",1" : ",0");
+                writer.newLine();
+            }
+            writer.flush();
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, table, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, table, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        if (this.journal != null) {
+            this.journal.close();
+            this.journal = null;
+        }
+        Files.deleteIfExists(this.directory.resolve(JOURNAL_NAME));
+        this.journalEntries = 0;
+        this.unsynced.setLength(0);
+    }
+
+    /**
+     * Checkpoints pending journal entries and closes the journal.
+     * Unwritten entries are included since the table is written from memory.
+     *
+     * @throws IOException
+     *             In case of writing problems.
+     */
+    public synchronized void close() throws IOException {
+        if (this.journalEntries > 0)
+            checkpoint();
+        if (this.journal != null) {
+            this.journal.close();
+            this.journal = null;
+        }
+    }
+}
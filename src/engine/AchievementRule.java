@@ -0,0 +1,102 @@
+package engine;
+
+/**
+ * Definition of an achievement and, optionally, the counter threshold that
+ * unlocks it. Rules are loaded from res/achievement_rules.csv.
+ */
+public final class AchievementRule {
+
+    /** Comparison between a counter and the rule threshold. */
+    public enum Comparison {
+        AT_LEAST(">="),
+        EQUALS("==");
+
+        private final String symbol;
+
+        Comparison(final String symbol) {
+            this.symbol = symbol;
+        }
+
+        static Comparison fromSymbol(final String symbol) {
+            for (Comparison comparison : values())
+                if (comparison.symbol.equals(symbol))
+                    return comparison;
+            throw new IllegalArgumentException("Unknown comparison: " + symbol);
+        }
+    }
+
+    private final String name;
+    private final String description;
+    /** Counter the rule depends on, null if unlocked directly by the game. */
+    private final AchievementCounter counter;
+    private final Comparison comparison;
+    private final long threshold;
+
+    /**
+     * Constructor.
+     *
+     * @param name
+     *            Achievement name.
+     * @param description
+     *            Achievement description.
+     * @param counter
+     *            Counter the rule depends on, or null.
+     * @param comparison
+     *            Comparison against the threshold.
+     * @param threshold
+     *            Counter value that unlocks the achievement.
+     */
+    public AchievementRule(final String name, final String description,
+                           final AchievementCounter counter,
+                           final Comparison comparison, final long threshold) {
+        this.name = name;
+        this.description = description;
+        this.counter = counter;
+        this.comparison = comparison;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Parses a rule line: counter,comparison,threshold,name,description.
+     * A counter of "-" declares an achievement without a counter rule.
+     *
+     * @param line
+     *            Line to parse.
+     * @return Parsed rule.
+     * @throws IllegalArgumentException
+     *             If the line is malformed.
+     */
+    public static AchievementRule parse(final String line) {
+        String[] fields = line.split(",", 5);
+        if (fields.length < 5)
+            throw new IllegalArgumentException("Expected 5 fields, got " + fields.length);
+
+        String counterName = fields[0].trim();
+        AchievementCounter counter = counterName.equals("-")
+                ? null : AchievementCounter.valueOf(counterName);
+        Comparison comparison = Comparison.fromSymbol(fields[1].trim());
+        long threshold = Long.parseLong(fields[2].trim());
+        String name = fields[3].trim();
+        if (name.isEmpty())
+            throw new IllegalArgumentException("Empty achievement name");
+        return new AchievementRule(name, fields[4].trim(), counter, comparison, threshold);
+    }
+
+    /**
+     * Checks if a counter value satisfies the rule.
+     *
+     * @param value
+     *            Current counter value.
+     * @return True if the achievement should unlock.
+     */
+    public boolean isSatisfiedBy(final long value) {
+        if (this.comparison == Comparison.EQUALS)
+            return value == this.threshold;
+        return value >= this.threshold;
+    }
+
+    public String getName() { return name; }
+    public String getDescription() { return description; }
+    public AchievementCounter getCounter() { return counter; }
+    public long getThreshold() { return threshold; }
+}
@@ -0,0 +1,302 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Bindings from {@link InputAction}s to device buttons. An action may have
+ * any number of bindings, on any number of devices, and is active when one
+ * of them is.
+ *
+ * Bindings are stored in a small versioned text file, one action per line:
+ *
+ * <pre>
+ * version=2
+ * P1_LEFT=key:65
+ * UP=key:38,key:87
+ * </pre>
+ *
+ * Actions missing from the file keep their default bindings. Files without
+ * a version line are the original format (two lines of three key codes, for
+ * the movement and shooting keys of each player) and are read as such.
+ */
+public final class ActionMap {
+
+    /** Version of the file format written by {@link #format()}. */
+    public static final int VERSION = 2;
+    /** Device name of the keyboard. */
+    public static final String KEYBOARD = "key";
+
+    private static final Logger logger = Core.getLogger();
+
+    /** Bindings of each action. */
+    private final Map<InputAction, List<Binding>> bindings = new EnumMap<>(InputAction.class);
+
+    /**
+     * A device button bound to an action.
+     */
+    public static final class Binding {
+
+        private final String device;
+        private final int code;
+
+        /**
+         * @param device
+         *            Device name.
+         * @param code
+         *            Button code on the device.
+         */
+        public Binding(final String device, final int code) {
+            this.device = device;
+            this.code = code;
+        }
+
+        public String getDevice() {
+            return this.device;
+        }
+
+        public int getCode() {
+            return this.code;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof Binding && ((Binding) other).code == this.code
+                    && ((Binding) other).device.equals(this.device);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.device.hashCode() * 31 + this.code;
+        }
+
+        @Override
+        public String toString() {
+            return this.device + ":" + this.code;
+        }
+    }
+
+    /**
+     * Constructor, binds every action to its default keys.
+     */
+    public ActionMap() {
+        for (InputAction action : InputAction.values())
+            resetToDefault(action);
+    }
+
+    private void resetToDefault(final InputAction action) {
+        List<Binding> list = new ArrayList<>();
+        for (int key : action.getDefaultKeys())
+            list.add(new Binding(KEYBOARD, key));
+        this.bindings.put(action, list);
+    }
+
+    /**
+     * @param action
+     *            Action.
+     * @return Bindings of the action, in priority order.
+     */
+    public List<Binding> getBindings(final InputAction action) {
+        return Collections.unmodifiableList(this.bindings.get(action));
+    }
+
+    /**
+     * Adds a binding to an action, if it is not bound already.
+     *
+     * @param action
+     *            Action.
+     * @param binding
+     *            Binding to add.
+     */
+    public void bind(final InputAction action, final Binding binding) {
+        List<Binding> list = this.bindings.get(action);
+        if (!list.contains(binding))
+            list.add(binding);
+    }
+
+    /**
+     * Removes a binding from an action.
+     *
+     * @param action
+     *            Action.
+     * @param binding
+     *            Binding to remove.
+     */
+    public void unbind(final InputAction action, final Binding binding) {
+        this.bindings.get(action).remove(binding);
+    }
+
+    /**
+     * @param action
+     *            Action.
+     * @return First key bound to the action, or -1.
+     */
+    public int getPrimaryKey(final InputAction action) {
+        for (Binding binding : this.bindings.get(action))
+            if (binding.device.equals(KEYBOARD))
+                return binding.code;
+        return -1;
+    }
+
+    /**
+     * Replaces the first key bound to the action, keeping the others.
+     *
+     * @param action
+     *            Action.
+     * @param keyCode
+     *            New key.
+     */
+    public void setPrimaryKey(final InputAction action, final int keyCode) {
+        List<Binding> list = this.bindings.get(action);
+        Binding binding = new Binding(KEYBOARD, keyCode);
+        list.remove(binding);
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i).device.equals(KEYBOARD)) {
+                list.set(i, binding);
+                return;
+            }
+        }
+        list.add(0, binding);
+    }
+
+    /**
+     * @param devices
+     *            Devices, polled for this tick.
+     * @return Mask of the actions held, or tapped during the tick.
+     */
+    long down(final List<InputDevice> devices) {
+        return compute(devices, false);
+    }
+
+    /**
+     * @param devices
+     *            Devices, polled for this tick.
+     * @return Mask of the actions that went down during the tick.
+     */
+    long pressed(final List<InputDevice> devices) {
+        return compute(devices, true);
+    }
+
+    private long compute(final List<InputDevice> devices, final boolean edges) {
+        long mask = 0;
+        for (Map.Entry<InputAction, List<Binding>> entry : this.bindings.entrySet()) {
+            List<Binding> list = entry.getValue();
+            for (int i = 0; i < list.size(); i++) {
+                Binding binding = list.get(i);
+                InputDevice device = find(devices, binding.device);
+                if (device != null && (edges ? device.wasPressed(binding.code)
+                        : device.isDown(binding.code))) {
+                    mask |= entry.getKey().bit();
+                    break;
+                }
+            }
+        }
+        return mask;
+    }
+
+    private static InputDevice find(final List<InputDevice> devices, final String name) {
+        for (int i = 0; i < devices.size(); i++)
+            if (devices.get(i).getName().equals(name))
+                return devices.get(i);
+        return null;
+    }
+
+    /**
+     * @return Bindings in the file format, one line per action.
+     */
+    public String format() {
+        StringBuilder text = new StringBuilder("version=").append(VERSION)
+                .append(System.lineSeparator());
+        for (Map.Entry<InputAction, List<Binding>> entry : this.bindings.entrySet()) {
+            text.append(entry.getKey().name()).append('=');
+            List<Binding> list = entry.getValue();
+            for (int i = 0; i < list.size(); i++)
+                text.append(i == 0 ? "" : ",").append(list.get(i));
+            text.append(System.lineSeparator());
+        }
+        return text.toString();
+    }
+
+    /**
+     * Reads bindings from the lines of a file, in either format. Actions
+     * missing from the file keep their default bindings, and malformed lines
+     * are skipped.
+     *
+     * @param lines
+     *            Lines of the file.
+     * @return Bindings read.
+     */
+    public static ActionMap parse(final List<String> lines) {
+        ActionMap map = new ActionMap();
+        List<String> entries = new ArrayList<>();
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (!trimmed.isEmpty() && !trimmed.startsWith("#"))
+                entries.add(trimmed);
+        }
+        if (entries.isEmpty())
+            return map;
+        if (!entries.get(0).startsWith("version=")) {
+            map.parseVersion1(entries);
+            return map;
+        }
+
+        try {
+            int version = Integer.parseInt(entries.get(0).substring("version=".length()).trim());
+            if (version > VERSION)
+                logger.warning("Key config version " + version + " is newer than "
+                        + VERSION + "; reading what is understood.");
+        } catch (NumberFormatException e) {
+            logger.warning("Invalid key config version: " + entries.get(0));
+        }
+        for (String entry : entries.subList(1, entries.size()))
+            map.parseEntry(entry);
+        return map;
+    }
+
+    /** Original format: P1 and P2 left, right and shoot keys. */
+    private void parseVersion1(final List<String> entries) {
+        for (int player = 0; player < 2 && player < entries.size(); player++) {
+            String[] parts = entries.get(player).split(",");
+            InputAction[] actions = InputAction.ofPlayer(player);
+            try {
+                for (int i = 0; i < actions.length && i < parts.length; i++)
+                    setPrimaryKey(actions[i], Integer.parseInt(parts[i].trim()));
+            } catch (NumberFormatException e) {
+                logger.warning("Invalid key config line: " + entries.get(player));
+            }
+        }
+    }
+
+    private void parseEntry(final String entry) {
+        int separator = entry.indexOf('=');
+        InputAction action;
+        try {
+            action = InputAction.valueOf(entry.substring(0, Math.max(0, separator)).trim());
+        } catch (IllegalArgumentException e) {
+            logger.warning("Unknown action in key config: " + entry);
+            return;
+        }
+        List<Binding> list = new ArrayList<>();
+        for (String value : entry.substring(separator + 1).split(",")) {
+            String binding = value.trim();
+            int colon = binding.indexOf(':');
+            if (binding.isEmpty())
+                continue;
+            try {
+                if (colon < 0)
+                    list.add(new Binding(KEYBOARD, Integer.parseInt(binding)));
+                else
+                    list.add(new Binding(binding.substring(0, colon),
+                            Integer.parseInt(binding.substring(colon + 1))));
+            } catch (NumberFormatException e) {
+                logger.warning("Invalid binding for " + action + ": " + binding);
+            }
+        }
+        this.bindings.put(action, list);
+    }
+}
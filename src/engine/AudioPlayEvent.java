@@ -0,0 +1,28 @@
+package engine;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event covering the start of a sound.
+ */
+@Name("game.AudioPlay")
+@Label("Audio Play")
+@Category({ "Game", "Audio" })
+public final class AudioPlayEvent extends jdk.jfr.Event {
+
+    @Label("Resource")
+    public String resource;
+
+    @Label("Looped")
+    public boolean looped;
+
+    @Label("Open Latency")
+    @Timespan(Timespan.NANOSECONDS)
+    public long openNanos;
+
+    @Label("Played")
+    public boolean played;
+}
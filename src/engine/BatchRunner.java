@@ -0,0 +1,268 @@
+package engine;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * Command line runner playing many headless {@link Simulation}s in parallel,
+ * over a grid of level and drop weight parameters, and writing one CSV line
+ * of averages per grid point.
+ *
+ * <pre>
+ * java -cp build/classes/java/main engine.BatchRunner \
+ *     --games 200 --speed 40,60,80 --shooting 1500,2500 --weights 50/25/20/5,40/30/20/10
+ * </pre>
+ *
+ * Options, all optional:
+ * <ul>
+ * <li>--games N: games per grid point (100).</li>
+ * <li>--seed S: seed of the first game (1); game i of every grid point uses
+ * seed S + i, so grid points are compared on the same games.</li>
+ * <li>--threads T: worker threads (one per core); 0 runs every game on its
+ * own virtual thread.</li>
+ * <li>--minutes M: longest game in simulated minutes (10).</li>
+ * <li>--width, --height, --speed, --shooting: comma separated values of the
+ * formation width, formation height, base speed and shooting frequency,
+ * replacing those of every level in res/level.csv.</li>
+ * <li>--weights: comma separated drop tier weights, each NONE/COMMON/...
+ * in {@link ItemManager.DropTier} order.</li>
+ * <li>--out FILE: report file (standard output).</li>
+ * </ul>
+ *
+ * The report starts with a comment line naming the parts of the game the
+ * simulation leaves out ({@link Simulation#NOT_SIMULATED}), then the header.
+ */
+public final class BatchRunner {
+
+    /** Columns of the report. */
+    static final String HEADER = "width,height,speed,shooting,weights,games,"
+            + "survival_s,score,accuracy,levels_cleared,lives_lost,drops,pickups,"
+            + "tick_p50_us,tick_p99_us,tick_max_us";
+
+    /**
+     * Private constructor, run from the command line.
+     */
+    private BatchRunner() {
+    }
+
+    /**
+     * One combination of the parameter grid; null values keep the level's.
+     */
+    static final class GridPoint {
+
+        final Integer width;
+        final Integer height;
+        final Integer speed;
+        final Integer shooting;
+        final double[] weights;
+
+        GridPoint(final Integer width, final Integer height, final Integer speed,
+                  final Integer shooting, final double[] weights) {
+            this.width = width;
+            this.height = height;
+            this.speed = speed;
+            this.shooting = shooting;
+            this.weights = weights;
+        }
+
+        /**
+         * @param levels
+         *            Levels of the game.
+         * @return Levels with this point's values, or the levels themselves
+         *         if the point replaces nothing.
+         */
+        List<GameSettings> apply(final List<GameSettings> levels) {
+            if (this.width == null && this.height == null && this.speed == null
+                    && this.shooting == null)
+                return levels;
+            List<GameSettings> applied = new ArrayList<>(levels.size());
+            for (GameSettings level : levels)
+                applied.add(new GameSettings(
+                        this.width != null ? this.width : level.getFormationWidth(),
+                        this.height != null ? this.height : level.getFormationHeight(),
+                        this.speed != null ? this.speed : level.getBaseSpeed(),
+                        this.shooting != null ? this.shooting : level.getShootingFrecuency()));
+            return applied;
+        }
+    }
+
+    /**
+     * Runs the batch.
+     *
+     * @param args
+     *            Options, see the class comment.
+     */
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        System.setProperty("java.awt.headless", "true");
+        Map<String, String> options = parseOptions(args);
+        int games = Integer.parseInt(options.getOrDefault("games", "100"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "1"));
+        int threads = Integer.parseInt(options.getOrDefault("threads",
+                Integer.toString(Runtime.getRuntime().availableProcessors())));
+        int maxTicks = Integer.parseInt(options.getOrDefault("minutes", "10")) * 60 * Simulation.FPS;
+
+        // Entities log every shot; a batch only cares about problems.
+        Core.getLogger().setLevel(Level.WARNING);
+        // Loads the sprites once, so collisions use the game's masks.
+        DrawManager.getInstance();
+        List<GameSettings> levels = GameSettings.getGameSettings();
+        List<GridPoint> grid = grid(options);
+
+        ExecutorService executor = threads <= 0
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(threads, daemonThreads());
+        List<List<Future<Simulation.Result>>> futures = new ArrayList<>();
+        for (GridPoint point : grid) {
+            List<GameSettings> pointLevels = point.apply(levels);
+            List<Future<Simulation.Result>> pointFutures = new ArrayList<>(games);
+            for (int i = 0; i < games; i++) {
+                Simulation simulation = new Simulation(pointLevels, seed + i, maxTicks, point.weights);
+                pointFutures.add(executor.submit(simulation::run));
+            }
+            futures.add(pointFutures);
+        }
+
+        String out = options.get("out");
+        PrintStream report = out == null ? System.out
+                : new PrintStream(Files.newOutputStream(Paths.get(out)), true, StandardCharsets.UTF_8);
+        try {
+            report.println("# not simulated: " + Simulation.NOT_SIMULATED);
+            report.println(HEADER);
+            for (int p = 0; p < grid.size(); p++) {
+                List<Simulation.Result> results = new ArrayList<>(games);
+                for (Future<Simulation.Result> future : futures.get(p))
+                    results.add(future.get());
+                report.println(formatLine(grid.get(p), results));
+            }
+        } catch (ExecutionException e) {
+            Core.getLogger().severe("Simulation failed: " + e.getCause());
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+            if (report != System.out)
+                report.close();
+        }
+    }
+
+    /** Reads "--name value" pairs. */
+    static Map<String, String> parseOptions(final String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length)
+                throw new IllegalArgumentException("Expected --option value: " + args[i]);
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+
+    /** Every combination of the grid options. */
+    static List<GridPoint> grid(final Map<String, String> options) {
+        List<GridPoint> grid = new ArrayList<>();
+        for (Integer width : ints(options.get("width")))
+            for (Integer height : ints(options.get("height")))
+                for (Integer speed : ints(options.get("speed")))
+                    for (Integer shooting : ints(options.get("shooting")))
+                        for (double[] weights : weights(options.get("weights")))
+                            grid.add(new GridPoint(width, height, speed, shooting, weights));
+        return grid;
+    }
+
+    private static List<Integer> ints(final String values) {
+        List<Integer> list = new ArrayList<>();
+        if (values == null) {
+            list.add(null);
+            return list;
+        }
+        for (String value : values.split(","))
+            list.add(Integer.valueOf(value.trim()));
+        return list;
+    }
+
+    private static List<double[]> weights(final String values) {
+        List<double[]> list = new ArrayList<>();
+        if (values == null) {
+            list.add(null);
+            return list;
+        }
+        int tiers = ItemManager.DropTier.values().length;
+        for (String value : values.split(",")) {
+            String[] parts = value.trim().split("/");
+            if (parts.length != tiers)
+                throw new IllegalArgumentException("Expected " + tiers + " drop weights: " + value);
+            double[] tierWeights = new double[tiers];
+            for (int i = 0; i < tiers; i++)
+                tierWeights[i] = Double.parseDouble(parts[i]);
+            list.add(tierWeights);
+        }
+        return list;
+    }
+
+    /** Averages of the games of one grid point, as a report line. */
+    static String formatLine(final GridPoint point, final List<Simulation.Result> results) {
+        double survival = 0;
+        double score = 0;
+        double levels = 0;
+        double livesLost = 0;
+        double drops = 0;
+        double pickups = 0;
+        long shots = 0;
+        long kills = 0;
+        LatencyHistogram.Snapshot ticks = new LatencyHistogram().snapshot();
+        for (Simulation.Result result : results) {
+            survival += result.getSurvivalSeconds();
+            score += result.score;
+            levels += result.levelsCleared;
+            livesLost += result.livesLost;
+            drops += result.itemsDropped;
+            pickups += result.itemsPicked;
+            shots += result.bulletsShot;
+            kills += result.shipsDestroyed;
+            ticks = ticks.plus(result.tickTime);
+        }
+        int n = Math.max(1, results.size());
+        return String.format(Locale.ROOT, "%s,%s,%s,%s,%s,%d,%.1f,%.1f,%.3f,%.2f,%.2f,%.2f,%.2f,%.1f,%.1f,%.1f",
+                valueOf(point.width), valueOf(point.height), valueOf(point.speed),
+                valueOf(point.shooting), point.weights == null ? "" : weightsOf(point.weights),
+                results.size(), survival / n, score / n,
+                shots == 0 ? 0.0 : (double) kills / shots, levels / n, livesLost / n,
+                drops / n, pickups / n,
+                ticks.percentile(50) / 1000.0, ticks.percentile(99) / 1000.0,
+                ticks.percentile(100) / 1000.0);
+    }
+
+    private static String valueOf(final Integer value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static String weightsOf(final double[] weights) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < weights.length; i++)
+            text.append(i == 0 ? "" : "/").append(weights[i]);
+        return text.toString();
+    }
+
+    /** Daemon workers named "sim-N". */
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "sim-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,60 @@
+package engine;
+
+import entity.Bullet;
+import entity.Entity;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * What a {@link ShipController} may look at when deciding a ship's move:
+ * the screen width, the bullets in flight and the enemies worth aiming at.
+ *
+ * A screen refreshes it once per tick, before asking its controllers, and
+ * reuses it for the whole game.
+ */
+public final class Battlefield {
+
+    /** Width of the playing area. */
+    private int width;
+    /** Bullets in flight; enemy bullets move down (positive speed). */
+    private Collection<Bullet> bullets = Collections.emptyList();
+    /** Enemies that can be shot at this tick. */
+    private final List<Entity> targets = new ArrayList<>();
+
+    /**
+     * Starts a new tick, forgetting the previous targets.
+     *
+     * @param width
+     *            Width of the playing area.
+     * @param bullets
+     *            Bullets in flight.
+     */
+    public void reset(final int width, final Collection<Bullet> bullets) {
+        this.width = width;
+        this.bullets = bullets;
+        this.targets.clear();
+    }
+
+    /**
+     * @param target
+     *            Enemy that can be shot at this tick.
+     */
+    public void addTarget(final Entity target) {
+        this.targets.add(target);
+    }
+
+    public int getWidth() {
+        return this.width;
+    }
+
+    public Collection<Bullet> getBullets() {
+        return this.bullets;
+    }
+
+    public List<Entity> getTargets() {
+        return this.targets;
+    }
+}
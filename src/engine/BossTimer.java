@@ -27,6 +27,16 @@ public class BossTimer {
         }
     }
 
+    /**
+     * 이어하기: 이미 흐른 시간만큼 앞당겨서 타이머 시작
+     */
+    public void resume(int currentLevel, long elapsed) {
+        if(currentLevel == BOSS_LEVEL) {
+            this.startTime = timeProvider.getCurrentTime() - elapsed;
+            this.isRunning = true;
+        }
+    }
+
     /**
      * 타이머 종료
      * TODO: 실행 중일 때만 종료 시간을 기록하고 멈추도록 구현해야 함
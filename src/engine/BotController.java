@@ -0,0 +1,118 @@
+package engine;
+
+import entity.Bullet;
+import entity.Entity;
+import entity.Ship;
+
+import java.util.List;
+
+/**
+ * Heuristic ship controller for automated play: it sidesteps the enemy
+ * bullet that would hit the ship first, and otherwise slides under the
+ * lowest enemy and shoots whenever an enemy is straight above.
+ *
+ * It plays well enough to survive a few levels, which is all load and
+ * balance runs need; it is deliberately not perfect.
+ */
+public final class BotController implements ShipController {
+
+    /** Ticks ahead an enemy bullet is considered a threat. */
+    static final int LOOKAHEAD_TICKS = 30;
+    /** Extra room kept on each side of the ship when dodging. */
+    static final int DODGE_MARGIN = 4;
+
+    @Override
+    public long control(final int playerIndex, final Ship ship, final Battlefield field) {
+        InputAction[] controls = InputAction.ofPlayer(playerIndex);
+        int center = ship.getPositionX() + ship.getWidth() / 2;
+        long actions = 0;
+
+        int dodge = dodgeDirection(ship, field);
+        if (dodge != 0) {
+            actions |= (dodge < 0 ? controls[0] : controls[1]).bit();
+        } else {
+            Entity target = lowestTarget(field.getTargets(), center);
+            if (target != null) {
+                int targetCenter = target.getPositionX() + target.getWidth() / 2;
+                if (targetCenter < center - ship.getSpeed())
+                    actions |= controls[0].bit();
+                else if (targetCenter > center + ship.getSpeed())
+                    actions |= controls[1].bit();
+            }
+        }
+        if (hasTargetAbove(field.getTargets(), center))
+            actions |= controls[2].bit();
+        return actions;
+    }
+
+    /**
+     * @return -1 to move left, 1 to move right, or 0 if no bullet threatens
+     *         the ship.
+     */
+    static int dodgeDirection(final Ship ship, final Battlefield field) {
+        int left = ship.getPositionX();
+        int right = left + ship.getWidth();
+        Bullet threat = null;
+        int threatTicks = Integer.MAX_VALUE;
+        int threatX = 0;
+
+        for (Bullet bullet : field.getBullets()) {
+            int speed = bullet.getSpeed();
+            int bottom = bullet.getPositionY() + bullet.getHeight();
+            if (speed <= 0 || bullet.getPositionY() > ship.getPositionY() + ship.getHeight())
+                continue;
+            int ticks = Math.max(0, ship.getPositionY() - bottom) / speed;
+            if (ticks > LOOKAHEAD_TICKS || ticks >= threatTicks)
+                continue;
+            int x = bullet.getPositionX() + bullet.getSpeedX() * ticks;
+            if (x + bullet.getWidth() + DODGE_MARGIN > left && x - DODGE_MARGIN < right) {
+                threat = bullet;
+                threatTicks = ticks;
+                threatX = x + bullet.getWidth() / 2;
+            }
+        }
+        if (threat == null)
+            return 0;
+
+        // Away from the bullet, unless the wall is in the way.
+        int direction = threatX < (left + right) / 2 ? 1 : -1;
+        if (direction > 0 && right + ship.getSpeed() > field.getWidth() - 1)
+            return -1;
+        if (direction < 0 && left - ship.getSpeed() < 1)
+            return 1;
+        return direction;
+    }
+
+    /**
+     * @return Lowest target on screen, the nearest one on ties, or null.
+     */
+    static Entity lowestTarget(final List<Entity> targets, final int center) {
+        Entity lowest = null;
+        for (int i = 0; i < targets.size(); i++) {
+            Entity target = targets.get(i);
+            if (lowest == null || bottomOf(target) > bottomOf(lowest)
+                    || (bottomOf(target) == bottomOf(lowest)
+                        && distance(target, center) < distance(lowest, center)))
+                lowest = target;
+        }
+        return lowest;
+    }
+
+    private static boolean hasTargetAbove(final List<Entity> targets, final int center) {
+        for (int i = 0; i < targets.size(); i++) {
+            Entity target = targets.get(i);
+            if (target.getPositionX() <= center
+                    && center < target.getPositionX() + target.getWidth())
+                return true;
+        }
+        return false;
+    }
+
+    private static int bottomOf(final Entity entity) {
+        return entity.getPositionY() + entity.getHeight();
+    }
+
+    private static int distance(final Entity entity, final int center) {
+        return Math.abs(entity.getPositionX() + entity.getWidth() / 2 - center);
+    }
+}
@@ -0,0 +1,198 @@
+package engine;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import engine.DrawManager.SpriteType;
+import entity.Entity;
+
+/**
+ * Narrow-phase collision test based on the sprite bit masks.
+ * Masks are built once per sprite type and entity size, packed into
+ * 64-bit words per row, and tested with word-level AND operations.
+ */
+public final class CollisionMask {
+
+    /** Bits per packed word. */
+    private static final int WORD_BITS = 64;
+
+    /** Scaled masks, per sprite type and per (width, height) pair. */
+    private static final Map<SpriteType, Map<Integer, CollisionMask>> CACHE =
+            new EnumMap<>(SpriteType.class);
+
+    static {
+        for (SpriteType type : SpriteType.values())
+            CACHE.put(type, new ConcurrentHashMap<>());
+    }
+
+    /** Width of the mask in pixels. */
+    private final int width;
+    /** Height of the mask in pixels. */
+    private final int height;
+    /** Number of packed words in a row. */
+    private final int wordsPerRow;
+    /** Packed rows, bit x of row y is at rows[y * wordsPerRow + x / 64]. */
+    private final long[] rows;
+
+    /**
+     * Constructor, use {@link #of(boolean[][], int, int)} instead.
+     */
+    private CollisionMask(final int width, final int height) {
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = (width + WORD_BITS - 1) / WORD_BITS;
+        this.rows = new long[this.wordsPerRow * height];
+    }
+
+    /**
+     * Builds a mask from a sprite image scaled to the given size, using the
+     * same nearest-pixel mapping as the sprite drawing.
+     *
+     * @param image
+     *            Sprite image, indexed [x][y].
+     * @param width
+     *            Target width in pixels.
+     * @param height
+     *            Target height in pixels.
+     * @return Scaled mask.
+     */
+    static CollisionMask of(final boolean[][] image, final int width, final int height) {
+        CollisionMask mask = new CollisionMask(width, height);
+        int spriteWidth = image.length;
+        int spriteHeight = image[0].length;
+
+        for (int y = 0; y < height; y++) {
+            int sy = y * spriteHeight / height;
+            int base = y * mask.wordsPerRow;
+            for (int x = 0; x < width; x++) {
+                if (image[x * spriteWidth / width][sy])
+                    mask.rows[base + (x >>> 6)] |= 1L << (x & 63);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Returns the cached mask of a sprite scaled to the given size.
+     *
+     * @param type
+     *            Sprite type.
+     * @param width
+     *            Entity width.
+     * @param height
+     *            Entity height.
+     * @return Mask, or null if the sprite is not loaded or the size is empty.
+     */
+    public static CollisionMask get(final SpriteType type, final int width, final int height) {
+        if (type == null || width <= 0 || height <= 0 || width > 0xFFFF || height > 0xFFFF)
+            return null;
+
+        Map<Integer, CollisionMask> bySize = CACHE.get(type);
+        Integer key = (width << 16) | height;
+        CollisionMask mask = bySize.get(key);
+        if (mask == null) {
+            boolean[][] image = DrawManager.getSpriteImage(type);
+            if (image == null || image.length == 0 || image[0].length == 0)
+                return null;
+            mask = of(image, width, height);
+            bySize.put(key, mask);
+        }
+        return mask;
+    }
+
+    /**
+     * Checks if the solid pixels of two entities overlap. Entities without a
+     * loaded sprite fall back to their bounding boxes.
+     *
+     * @param a
+     *            First entity.
+     * @param b
+     *            Second entity.
+     * @return True if the entities collide.
+     */
+    public static boolean collides(final Entity a, final Entity b) {
+        CollisionMask maskA = get(a.getSpriteType(), a.getWidth(), a.getHeight());
+        CollisionMask maskB = get(b.getSpriteType(), b.getWidth(), b.getHeight());
+        if (maskA == null || maskB == null)
+            return true;
+        return maskA.overlaps(a.getPositionX(), a.getPositionY(),
+                maskB, b.getPositionX(), b.getPositionY());
+    }
+
+    /**
+     * Checks if this mask, placed at (x, y), overlaps another mask placed at
+     * (otherX, otherY).
+     *
+     * @param x
+     *            Position of this mask in the X axis.
+     * @param y
+     *            Position of this mask in the Y axis.
+     * @param other
+     *            Other mask.
+     * @param otherX
+     *            Position of the other mask in the X axis.
+     * @param otherY
+     *            Position of the other mask in the Y axis.
+     * @return True if at least one solid pixel is shared.
+     */
+    public boolean overlaps(final int x, final int y, final CollisionMask other,
+                            final int otherX, final int otherY) {
+        int left = Math.max(x, otherX);
+        int right = Math.min(x + this.width, otherX + other.width);
+        int top = Math.max(y, otherY);
+        int bottom = Math.min(y + this.height, otherY + other.height);
+        if (left >= right || top >= bottom)
+            return false;
+
+        int span = right - left;
+        int startA = left - x;
+        int startB = left - otherX;
+
+        for (int row = top; row < bottom; row++) {
+            int rowA = row - y;
+            int rowB = row - otherY;
+            for (int offset = 0; offset < span; offset += WORD_BITS) {
+                long bits = this.extract(rowA, startA + offset)
+                        & other.extract(rowB, startB + offset);
+                int remaining = span - offset;
+                if (remaining < WORD_BITS)
+                    bits &= (1L << remaining) - 1;
+                if (bits != 0)
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads 64 bits of a row starting at a given bit.
+     */
+    private long extract(final int row, final int bit) {
+        int base = row * this.wordsPerRow;
+        int word = bit >>> 6;
+        int shift = bit & 63;
+        long bits = word < this.wordsPerRow ? this.rows[base + word] >>> shift : 0L;
+        if (shift != 0 && word + 1 < this.wordsPerRow)
+            bits |= this.rows[base + word + 1] << (WORD_BITS - shift);
+        return bits;
+    }
+
+    /**
+     * Getter for the mask width.
+     *
+     * @return Width in pixels.
+     */
+    public int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * Getter for the mask height.
+     *
+     * @return Height in pixels.
+     */
+    public int getHeight() {
+        return this.height;
+    }
+}
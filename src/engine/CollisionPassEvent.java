@@ -0,0 +1,32 @@
+package engine;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event covering one collision pass of a game screen.
+ */
+@Name("game.CollisionPass")
+@Label("Collision Pass")
+@Category({ "Game", "Loop" })
+@Description("Bullets checked against ships in one tick")
+@StackTrace(false)
+public final class CollisionPassEvent extends jdk.jfr.Event {
+
+    @Label("Bullets")
+    public int bullets;
+
+    @Label("Checks")
+    @Description("Pairs of entities checked")
+    public int checks;
+
+    @Label("Candidates")
+    @Description("Pairs whose bounding boxes overlap, checked pixel by pixel")
+    public int candidates;
+
+    @Label("Hits")
+    public int hits;
+}
@@ -0,0 +1,182 @@
+package engine;
+
+import java.awt.Color;
+import java.util.Arrays;
+
+/**
+ * Immutable, validated form of one stage of level.csv.
+ * Cell overrides are expanded into flat per-cell arrays indexed by
+ * y * width + x, and the overridden cells are kept in file order.
+ */
+public final class CompiledLevel {
+
+    /** Width of the enemy formation. */
+    private final int width;
+    /** Height of the enemy formation. */
+    private final int height;
+    /** Speed of the enemies. */
+    private final int baseSpeed;
+    /** Frequency of enemy shootings. */
+    private final int shootingFrecuency;
+    /** HP multiplier per cell, 0 if the cell is empty. */
+    private final int[] hp;
+    /** Reward multiplier per cell. */
+    private final int[] reward;
+    /** Color override per cell, null for the default. */
+    private final Color[] colors;
+    /** Overridden cells, in file order. */
+    private final int[] overrides;
+    /** Number of ships in the formation. */
+    private final int shipCount;
+
+    /**
+     * Constructor.
+     *
+     * @param width
+     *            Width of the enemy formation.
+     * @param height
+     *            Height of the enemy formation.
+     * @param baseSpeed
+     *            Speed of the enemies.
+     * @param shootingFrecuency
+     *            Frequency of enemy shootings.
+     * @param hp
+     *            HP multiplier per cell, 0 for an empty cell.
+     * @param reward
+     *            Reward multiplier per cell.
+     * @param colors
+     *            Color override per cell.
+     * @param overrides
+     *            Overridden cells, in file order.
+     */
+    CompiledLevel(final int width, final int height, final int baseSpeed, final int shootingFrecuency,
+                  final int[] hp, final int[] reward, final Color[] colors, final int[] overrides) {
+        this.width = width;
+        this.height = height;
+        this.baseSpeed = baseSpeed;
+        this.shootingFrecuency = shootingFrecuency;
+        this.hp = hp;
+        this.reward = reward;
+        this.colors = colors;
+        this.overrides = overrides;
+
+        int ships = 0;
+        for (int value : hp)
+            if (value != 0)
+                ships++;
+        this.shipCount = ships;
+    }
+
+    /**
+     * Creates the game settings of this stage, with its overrides as change
+     * data.
+     *
+     * @return New game settings.
+     */
+    public GameSettings toGameSettings() {
+        return new GameSettings(this);
+    }
+
+    private int cell(final int x, final int y) {
+        if (x < 0 || x >= this.width || y < 0 || y >= this.height)
+            throw new IndexOutOfBoundsException("(" + x + "," + y + ") outside "
+                    + this.width + "x" + this.height + " formation");
+        return y * this.width + x;
+    }
+
+    /**
+     * @return Width of the enemy formation.
+     */
+    public int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * @return Height of the enemy formation.
+     */
+    public int getHeight() {
+        return this.height;
+    }
+
+    /**
+     * @return Speed of the enemies.
+     */
+    public int getBaseSpeed() {
+        return this.baseSpeed;
+    }
+
+    /**
+     * @return Frequency of enemy shootings.
+     */
+    public int getShootingFrecuency() {
+        return this.shootingFrecuency;
+    }
+
+    /**
+     * @return Number of ships in the formation.
+     */
+    public int getShipCount() {
+        return this.shipCount;
+    }
+
+    /**
+     * @return Whether the cell holds a ship.
+     */
+    public boolean isPresent(final int x, final int y) {
+        return this.hp[cell(x, y)] != 0;
+    }
+
+    /**
+     * @return HP multiplier of the cell, 0 if it is empty.
+     */
+    public int getHpMultiplier(final int x, final int y) {
+        return this.hp[cell(x, y)];
+    }
+
+    /**
+     * @return Reward multiplier of the cell.
+     */
+    public int getRewardMultiplier(final int x, final int y) {
+        return this.reward[cell(x, y)];
+    }
+
+    /**
+     * @return Color override of the cell, null for the default.
+     */
+    public Color getColor(final int x, final int y) {
+        return this.colors[cell(x, y)];
+    }
+
+    /**
+     * @return Number of overridden cells.
+     */
+    public int getOverrideCount() {
+        return this.overrides.length;
+    }
+
+    /**
+     * @return Cell index (y * width + x) of the i-th override, in file order.
+     */
+    public int getOverrideCell(final int i) {
+        return this.overrides[i];
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other)
+            return true;
+        if (!(other instanceof CompiledLevel))
+            return false;
+        CompiledLevel level = (CompiledLevel) other;
+        return this.width == level.width && this.height == level.height
+                && this.baseSpeed == level.baseSpeed
+                && this.shootingFrecuency == level.shootingFrecuency
+                && Arrays.equals(this.hp, level.hp) && Arrays.equals(this.reward, level.reward)
+                && Arrays.equals(this.colors, level.colors) && Arrays.equals(this.overrides, level.overrides);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(this.hp) + Arrays.hashCode(this.overrides);
+    }
+}
@@ -53,7 +53,7 @@ public class Cooldown {
 	 */
 	public final boolean checkFinished() {
 		if ((this.time == 0)
-				|| this.time + this.duration < System.currentTimeMillis())
+				|| this.time + this.duration < GameClock.now())
 			return true;
 		return false;
 	}
@@ -62,10 +62,10 @@ public class Cooldown {
 	 * Restarts the cooldown.
 	 */
 	public final void reset() {
-		this.time = System.currentTimeMillis();
+		this.time = GameClock.now();
 		if (this.variance != 0)
 			this.duration = (this.milliseconds - this.variance)
-					+ (int) (Math.random()
+					+ (int) (GameRandom.nextDouble()
 					* (this.milliseconds + this.variance));
 	}
 
@@ -82,7 +82,7 @@ public class Cooldown {
 
     public int getDuration() {
         if (this.time == 0) return 0; // cooldown hasn't started
-        long elapsed = System.currentTimeMillis() - this.time;
+        long elapsed = GameClock.now() - this.time;
         return Math.max(0, this.duration - (int) elapsed);
     }
 
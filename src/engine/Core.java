@@ -33,14 +33,9 @@ public final class Core {
 
     /** Frame to draw the screen on. */
     private static Frame frame;
-    private static Screen currentScreen;
-    private static List<GameSettings> gameSettings;
     private static final Logger LOGGER = Logger.getLogger(Core.class.getSimpleName());
     private static Handler fileHandler;
     private static ConsoleHandler consoleHandler;
-    private static int NUM_LEVELS; // Total number of levels
-    private static int currentLevel = 1;
-    private static int startLevel = 1;
 
     /**
      * Test implementation.
@@ -62,6 +57,8 @@ public final class Core {
             e.printStackTrace();
         }
 
+        FlightRecording.startIfEnabled(); // -Dgame.jfr=game.jfr: JFR 기록 자동 시작
+
         frame = new Frame(WIDTH, HEIGHT);
         InputManager input = InputManager.getInstance();
         frame.addKeyListener(input); // Register an instance to allow the window to receive keyboard event information
@@ -69,8 +66,16 @@ public final class Core {
         int width = frame.getWidth();
         int height = frame.getHeight();
 
-        gameSettings = GameSettings.getGameSettings();
-        NUM_LEVELS = gameSettings.size(); // Initialize total number of levels
+        // Level progress of this window's session; screens pick up
+        // GameSession.window() as the session of the game thread.
+        List<GameSettings> gameSettings = GameSettings.getGameSettings();
+        Screen currentScreen;
+        int currentLevel = 1;
+        final int startLevel = 1;
+        HotReloader.startIfEnabled(); // -Dgame.hotreload=true: level.csv / item_db.csv 변경 감지
+        MetricsExporter.startIfEnabled(); // -Dgame.metrics.file / -Dgame.metrics.port: 소크 테스트용 지표 내보내기
+        NetHost netHost = NetHost.startIfEnabled(); // -Dgame.net=host: 원격 2P 협동 호스트 (릴레이 포함)
+        NetClient netClient = NetClient.connectIfEnabled(width); // -Dgame.net=join:주소: 원격 호스트의 게임에 2P로 참가
 
 
         // 2P mode: modified to null to allow for switch between 2 modes
@@ -78,27 +83,43 @@ public final class Core {
         boolean coopSelected = false; // false = 1P, true = 2P
 
         int returnCode = 1;
+        if (netClient != null) {
+            // 참가자는 호스트의 게임 화면만 보여주고 종료
+            showScreen(new NetClientScreen(width, height, FPS, netClient), returnCode);
+            netClient.close();
+            returnCode = 0;
+        }
 
         Ship.ShipType shipTypeP1 = Ship.ShipType.NORMAL; // P1 Ship Type
         Ship.ShipType shipTypeP2 = Ship.ShipType.NORMAL; // P2 Ship Type
+
+        // 도중에 꺼진 게임이 저장돼 있으면 그 레벨부터 바로 이어하기
+        QuickSave resume = returnCode == 0 ? null : loadQuickSave();
+        if (resume != null) {
+            gameState = resume.getState();
+            shipTypeP1 = resume.getShipTypeP1();
+            shipTypeP2 = resume.getShipTypeP2();
+            currentLevel = gameState.getLevel();
+            returnCode = 2;
+        }
         do {
             // Game & score.
-            AchievementManager achievementManager = new AchievementManager(); // add 1P/2P achievement manager
+            AchievementManager achievementManager = AchievementManager.create(); // add 1P/2P achievement manager
 
             switch (returnCode) {
                 case 1:
                     currentScreen = new TitleScreen(width, height, FPS);
                     LOGGER.info("Starting " + WIDTH + "x" + HEIGHT + " title screen at " + FPS + " fps.");
-                    returnCode = frame.setScreen(currentScreen);
+                    returnCode = showScreen(currentScreen, returnCode);
                     LOGGER.info("Closing title screen.");
                     break;
 
                 case 2:
                     // 2P mode: building gameState now using user choice
                     if (gameState == null) {
-                        gameState = new GameState(startLevel, MAX_LIVES, coopSelected, 0);
+                        gameState = new GameState(startLevel, MAX_LIVES, coopSelected || netHost != null, 0);
                     } else if (!gameState.teamAlive()) {
-                        gameState = new GameState(currentLevel, MAX_LIVES, coopSelected, 0);
+                        gameState = new GameState(currentLevel, MAX_LIVES, coopSelected || netHost != null, 0);
                     }
 
                     // [ ... case 2: ... ]
@@ -110,17 +131,27 @@ public final class Core {
 
                         currentLevel = gameState.getLevel();
 
-                        // 레벨 시작 전마다 MapScreen을 띄웁니다.
-                        currentScreen = new MapScreen(width, height, FPS, currentLevel);
-                        returnCode = frame.setScreen(currentScreen);
+                        // 레벨 경계에서 다시 읽은 레벨/아이템 데이터를 적용
+                        List<GameSettings> reloaded = HotReloader.applyPending();
+                        if (reloaded != null) {
+                            gameSettings = reloaded;
+                        }
+
+                        // 레벨 시작 전마다 MapScreen을 띄웁니다. (이어하기는 생략)
+                        if (resume == null) {
+                            currentScreen = new MapScreen(width, height, FPS, currentLevel);
+                            returnCode = showScreen(currentScreen, returnCode);
+                        }
 
                         // MapScreen에서 나가지 않았을 경우에만 진행
                         if (returnCode == 1) {
                             returnCode = 9;
                         } else {
-                            // 레벨 시작 전마다 StoryScreen을 띄웁니다.
-                            currentScreen = new StoryScreen(width, height, FPS, currentLevel);
-                            returnCode = frame.setScreen(currentScreen);
+                            // 레벨 시작 전마다 StoryScreen을 띄웁니다. (이어하기는 생략)
+                            if (resume == null) {
+                                currentScreen = new StoryScreen(width, height, FPS, currentLevel);
+                                returnCode = showScreen(currentScreen, returnCode);
+                            }
 
                             if (returnCode == 1) {
                                 returnCode = 9;
@@ -136,12 +167,19 @@ public final class Core {
                                         currentScreen = new GameScreen(
                                                 gameState,
                                                 gameSettings.get(currentLevel - 1),
-                                                bonusLife, width, height, FPS, shipTypeP1, shipTypeP2, achievementManager);
+                                                bonusLife && resume == null, width, height, FPS, shipTypeP1, shipTypeP2, achievementManager);
+                                        if (netHost != null)
+                                            ((GameScreen) currentScreen).setNetHost(netHost);
                                         LOGGER.log(Level.INFO, "Starting Game Screen Level {0}", currentLevel);
                                     }
 
+                                    if (resume != null) {
+                                        ((ReviveScreen) currentScreen).resume(resume);
+                                        resume = null;
+                                    }
+
                                     LOGGER.info("Starting " + WIDTH + "x" + HEIGHT + " game screen at " + FPS + " fps.");
-                                    returnCode = frame.setScreen(currentScreen); // 1. 스크린을 실제로 실행
+                                    returnCode = showScreen(currentScreen, returnCode); // 1. 스크린을 실제로 실행
                                     LOGGER.info("Closing game screen.");
 
                                     // 2. 게임 도중 메뉴로 나갔을 경우 (Pause -> Backspace)
@@ -174,7 +212,7 @@ public final class Core {
                             + gameState.getShipsDestroyed() + " ships destroyed.");
                     if ( returnCode < 9 ) { // 도중 나갔을 경우 ScoreScreen은 표시되지 않습니다.
                         currentScreen = new ScoreScreen(width, height, FPS, gameState, achievementManager);
-                        returnCode = frame.setScreen(currentScreen);
+                        returnCode = showScreen(currentScreen, returnCode);
                     } else if ( returnCode == 9 ) { // 게임 플레이 도중 나갔을 경우 MapScreen으로 돌아갑니다.
                         returnCode = 1;
                     } else returnCode = 2; // MapScreen에서 도중 나갔을 경우 TitleScreen으로 돌아갑니다.
@@ -186,7 +224,7 @@ public final class Core {
                     currentScreen = new AchievementScreen(width, height, FPS);
                     LOGGER.info("Starting " + WIDTH + "x" + HEIGHT
                             + " achievements screen at " + FPS + " fps.");
-                    returnCode = frame.setScreen(currentScreen);
+                    returnCode = showScreen(currentScreen, returnCode);
                     LOGGER.info("Closing achievement screen.");
                     break;
 
@@ -195,7 +233,7 @@ public final class Core {
                     currentScreen = new SettingScreen(width, height, FPS);
                     LOGGER.info("Starting " + WIDTH + "x" + HEIGHT
                             + " setting screen at " + FPS + " fps.");
-                    returnCode = frame.setScreen(currentScreen);
+                    returnCode = showScreen(currentScreen, returnCode);
                     LOGGER.info("Closing setting screen.");
                     frame.removeKeyListener(InputManager.getInstance());
                     frame.addKeyListener(InputManager.getInstance()); // Remove and re-register the input manager, forcing the key setting of the frame to be updated
@@ -207,7 +245,7 @@ public final class Core {
                 case 6:
                     // Ship selection for Player 1.
                     currentScreen = new ShipSelectionScreen(width, height, FPS, 1);
-                    returnCode = frame.setScreen(currentScreen);
+                    returnCode = showScreen(currentScreen, returnCode);
                     shipTypeP1 = ((ShipSelectionScreen) currentScreen).getSelectedShipType();
 
                     // If clicked back button, go back to the screen 1P screen -> Player select screen
@@ -229,7 +267,7 @@ public final class Core {
                     currentScreen = new HighScoreScreen(width, height, FPS);
                     LOGGER.info("Starting " + WIDTH + "x" + HEIGHT
                             + " high score screen at " + FPS + " fps.");
-                    returnCode = frame.setScreen(currentScreen);
+                    returnCode = showScreen(currentScreen, returnCode);
                     LOGGER.info("Closing high score screen.");
                     break;
 
@@ -239,6 +277,11 @@ public final class Core {
 
         } while (returnCode != 0);
 
+        if (netHost != null)
+            netHost.close();
+        MetricsExporter.stopIfRunning();
+        PersistenceService.getInstance().shutdown();
+        FlightRecording.stopIfRunning();
         fileHandler.flush();
         fileHandler.close();
         System.exit(0);
@@ -251,6 +294,43 @@ public final class Core {
 
     }
 
+    /**
+     * Reads the save of a game closed mid-level, if there is one.
+     *
+     * @return Save, or null.
+     */
+    private static QuickSave loadQuickSave() {
+        long start = System.nanoTime();
+        QuickSave save = QuickSave.load();
+        if (save != null)
+            LOGGER.info(String.format("Loaded the saved level %d in %.2f ms",
+                    save.getState().getLevel(), (System.nanoTime() - start) / 1e6));
+        return save;
+    }
+
+    /**
+     * Shows a screen until it finishes, recording the transition for JFR.
+     *
+     * @param screen
+     *             Screen to show.
+     * @param state
+     *             Return code that led to the screen.
+     * @return Return code of the finished screen.
+     */
+    private static int showScreen(final Screen screen, final int state) {
+        ScreenTransitionEvent event = new ScreenTransitionEvent();
+        event.begin();
+        int returnCode = frame.setScreen(screen);
+        event.end();
+        if (event.shouldCommit()) {
+            event.screen = screen.getClass().getSimpleName();
+            event.fromState = state;
+            event.returnCode = returnCode;
+            event.commit();
+        }
+        return returnCode;
+    }
+
     /**
      * Controls access to the logger.
      *
@@ -322,6 +402,15 @@ public final class Core {
         return new Cooldown(milliseconds, variance);
     }
 
+    /**
+     * Controls access to the timer wheel of the current session.
+     *
+     * @return Timer wheel running on the game clock.
+     */
+    public static TimerWheel getTimerWheel() {
+        return GameSession.current().getTimerWheel();
+    }
+
     private static int volumeLevel = 50;
 
     public static int getVolumeLevel() {
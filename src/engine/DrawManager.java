@@ -16,6 +16,8 @@ import java.util.ArrayList;
 import java.util.*;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 
 import Animations.BasicGameSpace;
@@ -61,6 +63,23 @@ public final class DrawManager {
     private static Map<SpriteType, boolean[][]> spriteMap;
 
     private final java.util.List<Explosion> explosions = new java.util.ArrayList<>();
+    /** Explosions triggered by the simulation, not yet drawn. */
+    private final Queue<Explosion> triggeredExplosions = new ConcurrentLinkedQueue<>();
+
+    /** Time from initDrawing to completeDrawing. */
+    private static final LatencyHistogram DRAW_TIME =
+            MetricsRegistry.getInstance().histogram(MetricsRegistry.DRAW);
+    /** Time drawing explosions. */
+    private static final LatencyHistogram EXPLOSIONS_TIME =
+            MetricsRegistry.getInstance().histogram(MetricsRegistry.DRAW_EXPLOSIONS);
+    /** Font of the profiler overlay. */
+    private static final Font OVERLAY_FONT = new Font(Font.MONOSPACED, Font.PLAIN, 11);
+    /** Background of the profiler overlay. */
+    private static final Color OVERLAY_BACKGROUND = new Color(0, 0, 0, 170);
+    /** Start of the frame being drawn. */
+    private long drawStart;
+    /** Time drawing since the last call to takeDrawNanos. */
+    private final AtomicLong drawNanos = new AtomicLong();
 
     private static final int SEPARATION_LINE_HEIGHT = 68;
 
@@ -193,6 +212,8 @@ public final class DrawManager {
         } catch (FontFormatException e) {
             logger.warning("Font formating failed.");
         }
+
+        MetricsRegistry.getInstance().gauge(MetricsRegistry.LIVE_EXPLOSIONS, this.explosions::size);
     }
 
     /**
@@ -206,6 +227,17 @@ public final class DrawManager {
         return instance;
     }
 
+    /**
+     * Returns the loaded image of a sprite, used to build collision masks.
+     *
+     * @param spriteType
+     * Sprite type to look up.
+     * @return Sprite image, or null if sprites are not loaded.
+     */
+    static boolean[][] getSpriteImage(final SpriteType spriteType) {
+        return spriteMap == null ? null : spriteMap.get(spriteType);
+    }
+
     /**
      * Sets the frame to draw the image on.
      *
@@ -224,6 +256,7 @@ public final class DrawManager {
      * Screen to draw in.
      */
     public void initDrawing(final Screen screen) {
+        drawStart = System.nanoTime();
         backBuffer = new BufferedImage(screen.getWidth(), screen.getHeight(),
                 BufferedImage.TYPE_INT_RGB);
 
@@ -248,8 +281,103 @@ public final class DrawManager {
      * Screen to draw on.
      */
     public void completeDrawing(final Screen screen) {
+        if (MetricsOverlay.isVisible())
+            drawMetricsOverlay(MetricsOverlay.getLines());
         graphics.drawImage(backBuffer, frame.getInsets().left,
                 frame.getInsets().top, frame);
+        long elapsed = System.nanoTime() - drawStart;
+        DRAW_TIME.record(elapsed);
+        drawNanos.addAndGet(elapsed);
+    }
+
+    /**
+     * Returns the time spent drawing since the previous call.
+     *
+     * @return Drawing time in nanoseconds.
+     */
+    public long takeDrawNanos() {
+        return drawNanos.getAndSet(0);
+    }
+
+    /**
+     * Draws a frame of a game screen from a snapshot of it, in the order
+     * the game screens used to draw themselves.
+     *
+     * @param screen
+     * Screen to draw in.
+     * @param snapshot
+     * Frame to draw.
+     */
+    public void drawSnapshot(final Screen screen, final RenderSnapshot snapshot) {
+        initDrawing(screen);
+
+        setDeath(snapshot.death);
+        drawExplosions();
+        setLastLife(snapshot.lastLife);
+        updateGameSpace();
+
+        for (int i = 0; i < snapshot.entityCount; i++)
+            drawSprite(snapshot.entitySprite[i], snapshot.entityX[i], snapshot.entityY[i],
+                    snapshot.entityWidth[i], snapshot.entityHeight[i], snapshot.entityColor[i]);
+
+        if (snapshot.score >= 0)
+            drawScore(screen, snapshot.score);
+        if (snapshot.bossTimer >= 0)
+            drawBossTimer(screen, snapshot.bossTimer);
+        drawLives(screen, snapshot.lives, snapshot.coop);
+        drawCoins(screen, snapshot.coins);
+        drawLevel(screen, snapshot.level);
+        drawHorizontalLine(screen, snapshot.separationLine - 1);
+        if (snapshot.inventorySlots > 0)
+            drawItemSlots(snapshot.inventoryItems, snapshot.inventoryRemaining,
+                    snapshot.inventorySlots, 40, snapshot.separationLine - 40);
+        if (snapshot.bossMaxHp > 0)
+            drawBossHPBar(screen, snapshot.bossHp, snapshot.bossMaxHp);
+        if (snapshot.shipCount >= 0)
+            drawShipCount(screen, snapshot.shipCount);
+
+        if (snapshot.countdown >= 0) {
+            drawCountDown(screen, snapshot.level, snapshot.countdown, snapshot.bonusLife);
+            drawHorizontalLine(screen, screen.getHeight() / 2 - screen.getHeight() / 12);
+            drawHorizontalLine(screen, screen.getHeight() / 2 + screen.getHeight() / 12);
+        }
+        if (snapshot.highScoreNotice)
+            drawNewHighScoreNotice(screen);
+        drawAchievementToasts(screen, snapshot.toast == null
+                ? Collections.emptyList() : Collections.singletonList(snapshot.toast));
+        if (snapshot.paused)
+            drawPauseOverlay(screen);
+
+        if (snapshot.reviveSelection >= 0)
+            drawRevivePrompt(screen, snapshot.reviveSelection);
+        else if (snapshot.reviveFailMessage != null)
+            drawReviveFail(screen, snapshot.reviveFailMessage);
+
+        if (snapshot.message != null)
+            drawString(snapshot.message, 10, screen.getHeight() - 20, snapshot.messageColor);
+
+        completeDrawing(screen);
+    }
+
+    /**
+     * Draws the profiler overlay on the upper left corner.
+     *
+     * @param lines
+     * Lines of the overlay.
+     */
+    private void drawMetricsOverlay(final String[] lines) {
+        FontMetrics metrics = backBufferGraphics.getFontMetrics(OVERLAY_FONT);
+        int lineHeight = metrics.getHeight();
+        int width = 0;
+        for (String line : lines)
+            width = Math.max(width, metrics.stringWidth(line));
+
+        backBufferGraphics.setColor(OVERLAY_BACKGROUND);
+        backBufferGraphics.fillRect(4, 4, width + 8, lineHeight * lines.length + 6);
+        backBufferGraphics.setFont(OVERLAY_FONT);
+        backBufferGraphics.setColor(Color.GREEN);
+        for (int i = 0; i < lines.length; i++)
+            backBufferGraphics.drawString(lines[i], 8, 6 + metrics.getAscent() + lineHeight * i);
     }
 
     /**
@@ -264,8 +392,18 @@ public final class DrawManager {
      */
     public void drawEntity(final Entity entity, final int positionX,
                            final int positionY) {
-        boolean[][] image = spriteMap.get(entity.getSpriteType());
+        drawSprite(entity.getSpriteType(), positionX, positionY,
+                entity.getWidth(), entity.getHeight(), colorOf(entity));
+    }
 
+    /**
+     * Returns the color an entity is drawn with.
+     *
+     * @param entity
+     * Entity to be drawn.
+     * @return Color of its sprite.
+     */
+    static Color colorOf(final Entity entity) {
         // 2P mode: start with the entity's own color
         Color color = entity.getColor();
 
@@ -302,16 +440,34 @@ public final class DrawManager {
                 color = new Color(color.getRed(), color.getGreen(), color.getBlue(), 32);
             }
         }
+        return color;
+    }
+
+    /**
+     * Draws a sprite scaled to the size of its entity.
+     *
+     * @param spriteType
+     * Sprite to draw.
+     * @param positionX
+     * Coordinates for the left side of the image.
+     * @param positionY
+     * Coordinates for the upper side of the image.
+     * @param entityWidth
+     * Width of the entity.
+     * @param entityHeight
+     * Height of the entity.
+     * @param color
+     * Color of the sprite.
+     */
+    private void drawSprite(final SpriteType spriteType, final int positionX, final int positionY,
+                            final int entityWidth, final int entityHeight, final Color color) {
+        boolean[][] image = spriteMap.get(spriteType);
 
         // --- Scaling logic ---
         // Original sprite dimensions
         int spriteWidth = image.length;
         int spriteHeight = image[0].length;
 
-        // Entity dimensions (modified via Bullet constructor or other entities)
-        int entityWidth = entity.getWidth();
-        int entityHeight = entity.getHeight();
-
         // Calculate scaling ratios compared to original sprite
         float widthRatio = (float) entityWidth / (spriteWidth * 2);
         float heightRatio = (float) entityHeight / (spriteHeight * 2);
@@ -344,10 +500,15 @@ public final class DrawManager {
     public void triggerExplosion(int x, int y, boolean enemy, boolean finalExplosion) {
         logger.info("Enemy: "+enemy);
         logger.info("final: "+finalExplosion);
-        explosions.add(new Explosion(x, y, enemy, finalExplosion));
+        triggeredExplosions.add(new Explosion(x, y, enemy, finalExplosion));
     }
 
     public void drawExplosions(){
+        long start = System.nanoTime();
+
+        Explosion triggered;
+        while ((triggered = triggeredExplosions.poll()) != null)
+            explosions.add(triggered);
 
         Graphics2D g2d = (Graphics2D) backBufferGraphics;
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
@@ -355,11 +516,13 @@ public final class DrawManager {
         g2d.setColor(Color.WHITE);
 
 
+        // Particles only move themselves, so a crowded screen updates them in parallel.
+        UpdateScheduler.getInstance().forEach(explosions, Explosion.NUM_PARTICLES, Explosion::update);
+
         Iterator<Explosion> iterator = explosions.iterator();
 
         while(iterator.hasNext()){
             Explosion e = iterator.next();
-            e.update();
 
             if (!e.isActive()) {
                 iterator.remove();
@@ -422,6 +585,7 @@ public final class DrawManager {
             }
 
         }
+        EXPLOSIONS_TIME.recordSince(start);
     }
 
 
@@ -1628,6 +1792,31 @@ public final class DrawManager {
                                   final int positionX, final int positionY) {
         if (inventory == null) return;
 
+        ItemEffect.ItemEffectType[] items = new ItemEffect.ItemEffectType[inventory.getMaxSlots()];
+        int[] remaining = new int[items.length];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = inventory.getSlot(i);
+            remaining[i] = inventory.getRemainingDuration(i);
+        }
+        drawItemSlots(items, remaining, items.length, positionX, positionY);
+    }
+
+    /**
+     * Draws item slots, blinking the items about to expire.
+     *
+     * @param items
+     * Item in each slot, or null.
+     * @param remaining
+     * Remaining duration of each item, in milliseconds.
+     * @param slots
+     * Number of slots.
+     * @param positionX
+     * X position for inventory display.
+     * @param positionY
+     * Y position for inventory display.
+     */
+    private void drawItemSlots(final ItemEffect.ItemEffectType[] items, final int[] remaining,
+                               final int slots, final int positionX, final int positionY) {
         final int SLOT_SIZE = 40;
         final int SLOT_SPACING = 5;
         final int BLINK_THRESHOLD_MS = 1000;
@@ -1635,11 +1824,11 @@ public final class DrawManager {
 
 
 
-        for (int i = 0; i < inventory.getMaxSlots(); i++) {
+        for (int i = 0; i < slots; i++) {
             int slotX = positionX + i * (SLOT_SIZE + SLOT_SPACING);
             int slotY = positionY;
 
-            ItemEffect.ItemEffectType itemType = inventory.getSlot(i);
+            ItemEffect.ItemEffectType itemType = items[i];
 
             // Draw item text if slot has item
             if (itemType != null) {
@@ -1662,7 +1851,7 @@ public final class DrawManager {
                 }
 
                 // Check if should blink
-                int remainingTime = inventory.getRemainingDuration(i);
+                int remainingTime = remaining[i];
                 if (remainingTime > 0 && remainingTime <= BLINK_THRESHOLD_MS) {
                     boolean showText = (System.currentTimeMillis() / BLINK_INTERVAL_MS) % 2 == 0;
                     if (!showText) continue; // Skip drawing this item
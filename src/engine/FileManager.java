@@ -3,19 +3,15 @@ package engine;
 import java.awt.Font;
 import java.awt.FontFormatException;
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Logger;
@@ -144,43 +140,8 @@ public final class FileManager {
     }
 
     /**
-     * Returns the application default scores if there is no user high scores
-     * file.
-     *
-     * @return Default high scores.
-     * @throws IOException
-     *             In case of loading problems.
-     */
-    private List<Score> loadDefaultHighScores() throws IOException {
-        List<Score> highScores = new ArrayList<>();
-        InputStream inputStream = null;
-        BufferedReader reader;
-
-        try {
-            inputStream = FileManager.class.getClassLoader().getResourceAsStream("1Pscores.csv");
-            reader = new BufferedReader(new InputStreamReader(inputStream));
-
-            // except first line
-            reader.readLine();
-            String input;
-            while ((input = reader.readLine()) != null) {
-                String[] pair = input.split(",");
-                String name = pair[0], score = pair[1];
-                String mode = pair[2];
-                Score highScore = new Score(name, Integer.parseInt(score), mode);
-                highScores.add(highScore);
-            }
-        } finally {
-            if (inputStream != null)
-                inputStream.close();
-        }
-
-        return highScores;
-    }
-
-    /**
-     * Loads high scores from file, and returns a sorted list of pairs score -
-     * value.
+     * Loads the high score table of a mode from the score store, sorted
+     * fastest first.
      * @param mode
      *      get game mode 1P/2P.
      * @return Sorted list of scores - players.
@@ -188,41 +149,13 @@ public final class FileManager {
      *             In case of loading problems.
      */
     public List<Score> loadHighScores(String mode) throws IOException {
-        List<Score> highScores = new ArrayList<>();
-        InputStream inputStream = null;
-        BufferedReader bufferedReader = null;
-
-        try {
-            String scoresPath = getFilePath(mode+"scores.csv");
-
-            File scoresFile = new File(scoresPath);
-            inputStream = new FileInputStream(scoresFile);
-            bufferedReader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
-            logger.info("Loading user high scores.");
-            // except first line
-            bufferedReader.readLine();
-            String input;
-            while ((input = bufferedReader.readLine()) != null) {
-                String[] pair = input.split(",");
-                String name = pair[0], score = pair[1];
-                Score highScore = new Score(name, Integer.parseInt(score), mode);
-                highScores.add(highScore);
-            }
-        } catch (FileNotFoundException e) {
-            // loads default if there's no user scores.
-            logger.info("Loading default high scores.");
-            highScores = loadDefaultHighScores();
-        } finally {
-            if (bufferedReader != null)
-                bufferedReader.close();
-        }
-
-        Collections.sort(highScores);
-        return highScores;
+        logger.info("Loading user high scores.");
+        return ScoreStore.getInstance().getTopScores(mode);
     }
 
     /**
-     * Saves user high scores to disk.
+     * Records high scores in the score store. Only scores that improve a
+     * player's best are appended.
      *
      * @param highScores
      *            High scores to save.
@@ -233,32 +166,10 @@ public final class FileManager {
      *             In case of loading problems.
      */
     public void saveHighScores(final List<Score> highScores, String mode) throws IOException {
-        OutputStream outputStream = null;
-        BufferedWriter bufferedWriter = null;
-
-        try {
-            String scoresPath = getFilePath(mode+"scores.csv");
-
-            File scoresFile = new File(scoresPath);
-
-            if (!scoresFile.exists())
-                scoresFile.createNewFile();
-
-            outputStream = new FileOutputStream(scoresFile);
-            bufferedWriter = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
-
-            logger.info("Saving user high scores.");
-            bufferedWriter.write("player,score");
-            bufferedWriter.newLine();
-
-            for(Score score : highScores) {
-                bufferedWriter.write(score.getName() + "," + score.getScore());
-                bufferedWriter.newLine();
-            }
-
-        } finally {
-            if (bufferedWriter != null)
-                bufferedWriter.close();
+        ScoreStore store = ScoreStore.getInstance();
+        logger.info("Saving user high scores.");
+        for (Score score : highScores) {
+            store.submit(new Score(score.getName(), score.getScore(), mode));
         }
     }
 
@@ -266,135 +177,32 @@ public final class FileManager {
      * Search Achievement list of user
      *
      * @param userName user's name to search.
+     * @param names    achievement names, matched by name in the saved table.
+     * @return One flag per name.
      * @throws IOException In case of loading problems.
      */
-    public List<Boolean> searchAchievementsByName(String userName) throws IOException {
-        List<Boolean> achievementList = new ArrayList<>();
-
-        try {
-            String achievementPath = getFilePath("achievement.csv");
-
-            try (BufferedReader bReader = new BufferedReader(
-                    new InputStreamReader(new FileInputStream(achievementPath), StandardCharsets.UTF_8))) {
-
-                bReader.readLine(); // Skip header
-                String line;
-                boolean found = false;
-
-                while ((line = bReader.readLine()) != null) {
-                    String[] playRecord = line.split(",");
-                    if (playRecord.length < 3) continue; // Minimum fields: mode, userName, at least 1 achievement
-
-                    String mode = playRecord[0].trim(); // Mode: "1" or "2"
-                    String name = playRecord[1].trim();
-
-                    if (name.equals(userName)) {
-                        found = true;
-                        logger.info("Loading user achievements.");
-                        // Achievements start from index 2
-                        for (int i = 2; i < playRecord.length; i++) {
-                            achievementList.add(playRecord[i].equals("1"));
-                        }
-                        break;
-                    }
-                }
-
-                if (!found) {
-                    logger.info("Loading default achievements.");
-                    for (int i = 0; i < 5; i++) { // Default to 5 achievements, all set to false
-                        achievementList.add(false);
-                    }
-                }
-            }
-
-        } catch (FileNotFoundException e) {
-            logger.info("Achievement file not found, loading default achievements.");
-            for (int i = 0; i < 5; i++) {
-                achievementList.add(false);
-            }
-        }
-
-        return achievementList;
+    public List<Boolean> searchAchievementsByName(String userName, List<String> names) throws IOException {
+        logger.info("Loading user achievements.");
+        return AchievementRepository.getInstance().getFlags(userName, names);
     }
 
-
     /**
      * Unlocks achievements for a specific user.
      *
      * @param userName             The name of the user.
-     * @param unlockedAchievement  A list of booleans representing which achievements have been unlocked.
+     * @param unlockedAchievement  Names of the achievements that have been unlocked.
      */
-    public void unlockAchievement(String userName, List<Boolean> unlockedAchievement, String mode) {
-        List<String[]> records = new ArrayList<>();
-
+    public void unlockAchievement(String userName, Collection<String> unlockedAchievement, String mode) {
         // Extract only numeric part from mode string (e.g., "1P" → "1", "2P" → "2")
         String numericMode = mode.replaceAll("[^0-9]", "");
 
         try {
-            String achievementPath = getFilePath("achievement.csv");
-
-            try (BufferedReader bReader = new BufferedReader(
-                    new InputStreamReader(new FileInputStream(achievementPath), StandardCharsets.UTF_8))) {
-
-                String line;
-                boolean found = false;
-
-                while ((line = bReader.readLine()) != null) {
-                    String[] playRecord = line.split(",");
-
-                    // Skip invalid or incomplete lines
-                    if (playRecord.length < 3) {
-                        records.add(playRecord);
-                        continue;
-                    }
-
-                    String currentMode = playRecord[0].trim();
-                    String name = playRecord[1].trim();
-
-                    // ✅ Match both user name and mode to consider it the same record
-                    if (name.equals(userName) && currentMode.equals(numericMode)) {
-                        found = true;
-                        Logger.getLogger(getClass().getName()).info("Achievement has been updated.");
-                        for (int i = 2; i < playRecord.length; i++) {
-                            if (playRecord[i].equals("0") && unlockedAchievement.get(i - 2)) {
-                                playRecord[i] = "1";
-                            }
-                        }
-                    }
-
-                    records.add(playRecord);
-                }
-
-                // If no existing record found, create a new one
-                if (!found) {
-                    Logger.getLogger(getClass().getName()).info("User not found, creating new record.");
-                    String[] newRecord = new String[unlockedAchievement.size() + 2];
-                    newRecord[0] = numericMode; // Store numeric mode only
-                    newRecord[1] = userName;
-                    for (int i = 0; i < unlockedAchievement.size(); i++) {
-                        newRecord[i + 2] = unlockedAchievement.get(i) ? "1" : "0";
-                    }
-                    records.add(newRecord);
-                }
-            }
-
-            // Write the updated records back to the CSV file
-            try (BufferedWriter bWriter = new BufferedWriter(
-                    new OutputStreamWriter(new FileOutputStream(achievementPath), StandardCharsets.UTF_8))) {
-                for (String[] record : records) {
-                    bWriter.write(String.join(",", record));
-                    bWriter.newLine();
-                }
-            }
-
+            AchievementRepository.getInstance().unlockByName(userName, numericMode, unlockedAchievement);
         } catch (IOException e) {
-            Logger.getLogger(getClass().getName()).info("No achievements to save or error occurred.");
+            logger.info("No achievements to save or error occurred.");
         }
     }
 
-
-
-
     /**
      * Returns a list of users who have completed a specific achievement.
      *
@@ -404,52 +212,45 @@ public final class FileManager {
      * [2025-10-09] Added in commit: feat: add method to retrieve achievement completer
      */
     public List<String> getAchievementCompleter(Achievement achievement) {
-        List<String> completer = new ArrayList<>();
         try {
-            String achievementPath = getFilePath("achievement.csv");
+            return AchievementRepository.getInstance().getCompleters(achievement.getName());
+        } catch (IOException e) {
+            logger.warning("Error reading achievement file.");
+            return new ArrayList<>();
+        }
+    }
 
+    /**
+     * Loads the achievement rules. Blank lines and lines starting with // are
+     * ignored; malformed lines are logged with their line number and skipped.
+     *
+     * @return Rules in file order, empty if the file does not exist.
+     */
+    public List<AchievementRule> loadAchievementRules() {
+        List<AchievementRule> rules = new ArrayList<>();
+        try {
+            String rulesPath = getFilePath("achievement_rules.csv");
             try (BufferedReader bReader = new BufferedReader(
-                    new InputStreamReader(new FileInputStream(achievementPath), StandardCharsets.UTF_8))) {
-
+                    new InputStreamReader(new FileInputStream(rulesPath), StandardCharsets.UTF_8))) {
                 String line;
-                String[] header = bReader.readLine().split(",");
-                int idx = -1;
-
-                // Find the column index of the given achievement name
-                for (int i = 2; i < header.length; i++) { // Achievements start from column index 2
-                    if (header[i].trim().equalsIgnoreCase(achievement.getName().trim())) {
-                        idx = i;
-                        break;
-                    }
-                }
-
-                if (idx == -1) {
-                    logger.warning("Achievement not found: " + achievement.getName());
-                    return completer;
-                }
-
-                // Parse each line in the file
+                int lineNumber = 0;
                 while ((line = bReader.readLine()) != null) {
-                    String[] tokens = line.split(",");
-                    if (tokens.length <= idx) continue;
-
-                    String mode = tokens[0].trim();
-                    String playerName = tokens[1].trim();
-                    String value = tokens[idx].trim();
-
-                    if (value.equals("1")) {
-                        completer.add(mode + ":" + playerName);
+                    lineNumber++;
+                    String trimmed = line.trim();
+                    if (trimmed.isEmpty() || trimmed.startsWith("//")) continue;
+                    try {
+                        rules.add(AchievementRule.parse(trimmed));
+                    } catch (IllegalArgumentException e) {
+                        logger.warning("achievement_rules.csv:" + lineNumber + ": " + e.getMessage());
                     }
                 }
-
             }
-
+            logger.info("Loaded " + rules.size() + " achievement rules.");
+        } catch (FileNotFoundException e) {
+            logger.info("Achievement rules not found, using default achievements.");
         } catch (IOException e) {
-            logger.warning("Error reading achievement file. Returning default users...");
-            completer.add("1:ABC");
-            completer.add("2:DEF");
+            logger.warning("Could not read achievement rules: " + e.getMessage());
         }
-
-        return completer;
+        return rules;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,80 @@
+package engine;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.util.logging.Logger;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+/**
+ * Starts a Java Flight Recorder recording at start-up, so the game events
+ * ({@link FrameEvent}, {@link CollisionPassEvent}, {@link AudioPlayEvent},
+ * {@link PersistenceWriteEvent}, {@link ScreenTransitionEvent}) line up with
+ * the JVM's own in a single file.
+ *
+ * Enabled with -Dgame.jfr=file.jfr; -Dgame.jfr.settings picks the JFR
+ * configuration (default "profile"). The recording is written when the game
+ * exits.
+ */
+public final class FlightRecording {
+
+    /** System property naming the recording file. */
+    public static final String PROPERTY = "game.jfr";
+    /** System property naming the JFR configuration. */
+    public static final String SETTINGS_PROPERTY = "game.jfr.settings";
+    /** Recording file used when the property has no value. */
+    private static final String DEFAULT_FILE = "game.jfr";
+
+    private static final Logger logger = Core.getLogger();
+    private static Recording recording;
+
+    /**
+     * Constructor, not called.
+     */
+    private FlightRecording() {
+
+    }
+
+    /**
+     * Starts recording if the system property is set.
+     */
+    public static synchronized void startIfEnabled() {
+        String file = System.getProperty(PROPERTY);
+        if (recording != null || file == null)
+            return;
+        Path destination = Paths.get(file.isEmpty() ? DEFAULT_FILE : file);
+        String settings = System.getProperty(SETTINGS_PROPERTY, "profile");
+        try {
+            Recording started = new Recording(Configuration.getConfiguration(settings));
+            started.setName("game");
+            started.setDestination(destination);
+            started.setDumpOnExit(true);
+            started.start();
+            recording = started;
+            logger.info("Flight recording to " + destination.toAbsolutePath()
+                    + " with " + settings + " settings.");
+        } catch (IOException | ParseException | IllegalStateException | SecurityException e) {
+            logger.warning("Couldn't start flight recording: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops the recording, if any, and writes it to its file.
+     */
+    public static synchronized void stopIfRunning() {
+        if (recording == null)
+            return;
+        try {
+            recording.stop();
+            logger.info("Flight recording written to " + recording.getDestination() + ".");
+        } catch (IllegalStateException e) {
+            logger.warning("Couldn't stop flight recording: " + e.getMessage());
+        } finally {
+            recording.close();
+            recording = null;
+        }
+    }
+}
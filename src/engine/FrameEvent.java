@@ -0,0 +1,39 @@
+package engine;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event covering one frame of a screen loop.
+ */
+@Name("game.Frame")
+@Label("Frame")
+@Category({ "Game", "Loop" })
+@Description("One tick of a screen loop, split in update, draw and sleep")
+@StackTrace(false)
+public final class FrameEvent extends jdk.jfr.Event {
+
+    @Label("Tick")
+    @Description("Number of the tick since start-up")
+    public long tick;
+
+    @Label("Screen")
+    public String screen;
+
+    @Label("Update")
+    @Description("Time in update(), drawing included")
+    @Timespan(Timespan.NANOSECONDS)
+    public long updateNanos;
+
+    @Label("Draw")
+    @Timespan(Timespan.NANOSECONDS)
+    public long drawNanos;
+
+    @Label("Sleep")
+    @Timespan(Timespan.NANOSECONDS)
+    public long sleepNanos;
+}
@@ -0,0 +1,53 @@
+package engine;
+
+/**
+ * Game time source. While a screen loop is running the time is sampled once
+ * per tick, so every cooldown and timer read during the same tick sees the
+ * same value without calling the system clock again.
+ *
+ * The clock belongs to the calling thread's {@link GameSession}; a headless
+ * session's clock only moves when the simulation advances it.
+ */
+public final class GameClock {
+
+    /**
+     * Private constructor, static access only.
+     */
+    private GameClock() {
+    }
+
+    /**
+     * Samples the system clock, called once at the start of every tick.
+     *
+     * @return Time of the new tick in milliseconds.
+     */
+    public static long tick() {
+        return GameSession.current().tick();
+    }
+
+    /**
+     * Returns the number of ticks since start-up.
+     *
+     * @return Number of the current tick.
+     */
+    public static long getTickCount() {
+        return GameSession.current().getTickCount();
+    }
+
+    /**
+     * Stops driving the clock, called when a screen loop ends. Until the next
+     * tick the clock reads the system time directly.
+     */
+    public static void stop() {
+        GameSession.current().stop();
+    }
+
+    /**
+     * Returns the current game time.
+     *
+     * @return Time of the current tick, or the system time outside a loop.
+     */
+    public static long now() {
+        return GameSession.current().now();
+    }
+}
@@ -0,0 +1,212 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Queues gameplay events during a tick and fans them out to subscribers once
+ * per tick. Events are pre-allocated in a ring buffer and reused, so
+ * publishing does not allocate.
+ */
+public final class GameEventBus {
+
+    /** Default ring capacity, a power of two. */
+    private static final int DEFAULT_CAPACITY = 256;
+
+    /** Kinds of gameplay events. */
+    public enum Type {
+        /** An enemy ship was destroyed by a player. */
+        ENEMY_KILLED,
+        /** A player fired. */
+        SHOT_FIRED,
+        /** A player ship was hit. */
+        PLAYER_HIT,
+        /** A player picked up an item. */
+        ITEM_PICKED
+    }
+
+    /**
+     * Reusable event. Valid only while it is being dispatched; subscribers
+     * must copy any value they want to keep.
+     */
+    public static final class GameEvent {
+        private Type type;
+        private int playerIndex;
+        private int value;
+        private int x;
+        private int y;
+        private boolean special;
+        private String name;
+
+        /** Event type. */
+        public Type getType() { return type; }
+        /** Index of the player involved (0 or 1). */
+        public int getPlayerIndex() { return playerIndex; }
+        /** Points for ENEMY_KILLED, lives left for PLAYER_HIT. */
+        public int getValue() { return value; }
+        /** Position of the event in the X axis. */
+        public int getX() { return x; }
+        /** Position of the event in the Y axis. */
+        public int getY() { return y; }
+        /** True for the special (bonus) enemy ship. */
+        public boolean isSpecial() { return special; }
+        /** Item type for ITEM_PICKED, null otherwise. */
+        public String getName() { return name; }
+
+        private void set(final Type type, final int playerIndex, final int value,
+                         final int x, final int y, final boolean special, final String name) {
+            this.type = type;
+            this.playerIndex = playerIndex;
+            this.value = value;
+            this.x = x;
+            this.y = y;
+            this.special = special;
+            this.name = name;
+        }
+    }
+
+    /** Receives dispatched events. */
+    @FunctionalInterface
+    public interface Listener {
+        void onEvent(GameEvent event);
+    }
+
+    /** Pre-allocated events. */
+    private final GameEvent[] ring;
+    /** Index mask of the ring. */
+    private final int mask;
+    /** Next event to dispatch. */
+    private long head;
+    /** Next free slot. */
+    private long tail;
+    /** If dispatch() is running. */
+    private boolean dispatching;
+    /** Subscribers, indexed by event type ordinal. */
+    private final List<List<Listener>> listeners = new ArrayList<>();
+
+    /**
+     * Constructor with the default capacity.
+     */
+    public GameEventBus() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param capacity
+     *            Events that can be queued in a tick, rounded up to a power of two.
+     */
+    public GameEventBus(final int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.ring = new GameEvent[size];
+        for (int i = 0; i < size; i++)
+            this.ring[i] = new GameEvent();
+        this.mask = size - 1;
+        for (int i = 0; i < Type.values().length; i++)
+            this.listeners.add(new ArrayList<>());
+    }
+
+    /**
+     * Registers a subscriber for a type of event.
+     *
+     * @param type
+     *            Event type.
+     * @param listener
+     *            Subscriber.
+     */
+    public void subscribe(final Type type, final Listener listener) {
+        this.listeners.get(type.ordinal()).add(listener);
+    }
+
+    /**
+     * Queues an event for the next dispatch.
+     *
+     * @param type
+     *            Event type.
+     * @param playerIndex
+     *            Index of the player involved.
+     * @param value
+     *            Event value.
+     * @param x
+     *            Position in the X axis.
+     * @param y
+     *            Position in the Y axis.
+     */
+    public void publish(final Type type, final int playerIndex, final int value,
+                        final int x, final int y) {
+        publish(type, playerIndex, value, x, y, false, null);
+    }
+
+    /**
+     * Queues an event for the next dispatch. If the ring is full, the queued
+     * events are dispatched first to make room.
+     *
+     * @param type
+     *            Event type.
+     * @param playerIndex
+     *            Index of the player involved.
+     * @param value
+     *            Event value.
+     * @param x
+     *            Position in the X axis.
+     * @param y
+     *            Position in the Y axis.
+     * @param special
+     *            If the event concerns the special enemy ship.
+     * @param name
+     *            Item type, or null.
+     */
+    public void publish(final Type type, final int playerIndex, final int value,
+                        final int x, final int y, final boolean special, final String name) {
+        if (this.tail - this.head == this.ring.length) {
+            if (this.dispatching)
+                throw new IllegalStateException("Event ring overflow during dispatch");
+            dispatch();
+        }
+        this.ring[(int) this.tail & this.mask].set(type, playerIndex, value, x, y, special, name);
+        this.tail++;
+    }
+
+    /**
+     * Delivers every queued event to its subscribers, in publish order.
+     * Events published by subscribers are delivered in the same call.
+     *
+     * @return Number of events dispatched.
+     */
+    public int dispatch() {
+        int count = 0;
+        this.dispatching = true;
+        try {
+            while (this.head < this.tail) {
+                GameEvent event = this.ring[(int) this.head & this.mask];
+                List<Listener> subscribers = this.listeners.get(event.type.ordinal());
+                for (int i = 0; i < subscribers.size(); i++)
+                    subscribers.get(i).onEvent(event);
+                event.name = null;
+                this.head++;
+                count++;
+            }
+        } finally {
+            this.dispatching = false;
+        }
+        return count;
+    }
+
+    /**
+     * Drops every queued event without dispatching it.
+     */
+    public void clear() {
+        while (this.head < this.tail)
+            this.ring[(int) this.head++ & this.mask].name = null;
+    }
+
+    /**
+     * Getter for the number of queued events.
+     *
+     * @return Events waiting for dispatch.
+     */
+    public int pending() {
+        return (int) (this.tail - this.head);
+    }
+}
@@ -0,0 +1,32 @@
+package engine;
+
+/**
+ * Random numbers for game rules: enemy fire, cooldown variance and item
+ * drops. They come from the calling thread's {@link GameSession}: the game
+ * window draws from an unseeded generator, a headless session from a seeded
+ * one, so a simulated game can be repeated.
+ */
+public final class GameRandom {
+
+    /**
+     * Private constructor, static access only.
+     */
+    private GameRandom() {
+    }
+
+    /**
+     * @return Uniform value in [0, 1).
+     */
+    public static double nextDouble() {
+        return GameSession.current().nextDouble();
+    }
+
+    /**
+     * @param bound
+     *            Upper bound, exclusive, must be positive.
+     * @return Uniform value in [0, bound).
+     */
+    public static int nextInt(final int bound) {
+        return GameSession.current().nextInt(bound);
+    }
+}
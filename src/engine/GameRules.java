@@ -0,0 +1,233 @@
+package engine;
+
+import entity.Bullet;
+import entity.EnemyShip;
+import entity.EnemyShipFormation;
+import entity.EnemyShipPool;
+import entity.Entity;
+import entity.Item;
+import entity.Ship;
+
+import java.util.Set;
+import java.util.function.BiPredicate;
+
+/**
+ * Rules of play shared by the game screens and the headless
+ * {@link Simulation}: ship movement and fire, collisions, player hits, what
+ * destroying an enemy is worth and the special ship's passes.
+ *
+ * Rules only change the game state and the entities. Explosions, sounds,
+ * events and logs stay with the screens, so a simulated game applies the
+ * same rules without them. Rules that draw random numbers or items take the
+ * {@link GameSession} the game plays in.
+ */
+public final class GameRules {
+
+    /** Milliseconds between two special ships. */
+    public static final int SPECIAL_SHIP_INTERVAL = 20000;
+    /** Maximum variance in the time between special ships. */
+    public static final int SPECIAL_SHIP_VARIANCE = 10000;
+    /** Time until the special ship's explosion disappears. */
+    public static final int SPECIAL_SHIP_EXPLOSION = 500;
+    /** Pixels the special ship flies each tick. */
+    private static final int SPECIAL_SHIP_SPEED = 2;
+
+    /**
+     * Private constructor, utility class.
+     */
+    private GameRules() {
+    }
+
+    /**
+     * Moves a ship and fires its gun as the actions of its controller ask,
+     * keeping it inside the playing area.
+     *
+     * @param state
+     *            State of the game.
+     * @param playerIndex
+     *            Player flying the ship.
+     * @param ship
+     *            Ship, alive.
+     * @param actions
+     *            Actions of the controller.
+     * @param bullets
+     *            Bullets on screen, receiving the ship's.
+     * @param width
+     *            Width of the playing area.
+     * @return True if the ship fired.
+     */
+    public static boolean steer(final GameState state, final int playerIndex, final Ship ship,
+                                final long actions, final Set<Bullet> bullets, final int width) {
+        InputAction[] controls = InputAction.ofPlayer(playerIndex);
+        boolean isRightBorder = ship.getPositionX() + ship.getWidth() + ship.getSpeed() > width - 1;
+        boolean isLeftBorder = ship.getPositionX() - ship.getSpeed() < 1;
+        if (controls[1].in(actions) && !isRightBorder)
+            ship.moveRight();
+        if (controls[0].in(actions) && !isLeftBorder)
+            ship.moveLeft();
+        if (controls[2].in(actions) && ship.shoot(bullets)) {
+            state.incBulletsShot(playerIndex);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return True if the bounding boxes of two entities overlap.
+     */
+    public static boolean boxesOverlap(final Entity a, final Entity b) {
+        int distanceX = Math.abs(a.getPositionX() + a.getWidth() / 2
+                - b.getPositionX() - b.getWidth() / 2);
+        int distanceY = Math.abs(a.getPositionY() + a.getHeight() / 2
+                - b.getPositionY() - b.getHeight() / 2);
+        return distanceX < a.getWidth() / 2 + b.getWidth() / 2
+                && distanceY < a.getHeight() / 2 + b.getHeight() / 2;
+    }
+
+    /**
+     * Checks if two entities collide: bounding boxes first, then the sprite
+     * masks.
+     *
+     * @return True if they collide.
+     */
+    public static boolean collides(final Entity a, final Entity b) {
+        return boxesOverlap(a, b) && CollisionMask.collides(a, b);
+    }
+
+    /**
+     * @param entity
+     *            Bullet or item.
+     * @param top
+     *            Top of the playing area.
+     * @param height
+     *            Height of the playing area.
+     * @return True once it left the playing area.
+     */
+    public static boolean isOutside(final Entity entity, final int top, final int height) {
+        return entity.getPositionY() < top || entity.getPositionY() > height;
+    }
+
+    /**
+     * @return Index of the player who fired a bullet; player 1 when unset.
+     */
+    public static int shooterIndex(final Bullet bullet) {
+        return bullet.getOwnerPlayerId() == 2 ? 1 : 0;
+    }
+
+    /**
+     * Hits the first live player ship an enemy bullet collides with: the
+     * ship is destroyed and the team loses a life.
+     *
+     * @param state
+     *            State of the game.
+     * @param ships
+     *            Ships of both players, null when absent.
+     * @param bullet
+     *            Enemy bullet.
+     * @param collision
+     *            Collision test, {@link #collides} or one counting checks.
+     * @return Index of the player hit, or -1 if the bullet hit nobody.
+     */
+    public static int hitPlayer(final GameState state, final Ship[] ships, final Bullet bullet,
+                                final BiPredicate<Entity, Entity> collision) {
+        for (int p = 0; p < ships.length; p++) {
+            Ship ship = ships[p];
+            if (ship != null && !ship.isDestroyed() && collision.test(bullet, ship)) {
+                ship.addHit();
+                ship.destroy();
+                state.decLife(p);
+                return p;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Credits a player for an enemy ship just destroyed and drops its item.
+     *
+     * @param session
+     *            Session of the game, whose item manager rolls the drop.
+     * @param state
+     *            State of the game.
+     * @param playerIndex
+     *            Player who destroyed it.
+     * @param enemy
+     *            Enemy ship, destroyed.
+     * @param items
+     *            Items on screen, receiving the drop.
+     * @param formation
+     *            Formation of the ship, or null.
+     * @return Item dropped, or null.
+     */
+    public static Item enemyKilled(final GameSession session, final GameState state,
+                                   final int playerIndex, final EnemyShip enemy,
+                                   final Set<Item> items, final EnemyShipFormation formation) {
+        state.addCoins(playerIndex, enemy.getCoinValue());
+        state.addScore(playerIndex, enemy.getPointValue());
+        state.incShipsDestroyed(playerIndex);
+        Item drop = session.getItemManager().obtainDrop(enemy);
+        if (drop != null)
+            items.add(drop);
+        if (formation != null)
+            formation.destroy(enemy);
+        return drop;
+    }
+
+    /**
+     * Credits a player for shooting the special ship down, and destroys it.
+     *
+     * @param state
+     *            State of the game.
+     * @param playerIndex
+     *            Player who shot it.
+     * @param special
+     *            Special ship, flying.
+     * @param explosion
+     *            Time its explosion is shown, restarted.
+     */
+    public static void specialKilled(final GameState state, final int playerIndex,
+                                     final EnemyShip special, final Cooldown explosion) {
+        state.addCoins(playerIndex, special.getCoinValue());
+        state.addScore(playerIndex, special.getPointValue());
+        state.incShipsDestroyed(playerIndex);
+        special.destroy();
+        explosion.reset();
+    }
+
+    /**
+     * Moves the special ship one tick: it flies right, is returned to the
+     * pool once its explosion is over or once it left the playing area, and
+     * a new one appears when the interval is over.
+     *
+     * @param special
+     *            Special ship, or null.
+     * @param interval
+     *            Time until the next special ship.
+     * @param explosion
+     *            Time the explosion of a destroyed one is shown.
+     * @param width
+     *            Width of the playing area.
+     * @return Special ship after this tick, or null.
+     */
+    public static EnemyShip updateSpecialShip(final EnemyShip special, final Cooldown interval,
+                                              final Cooldown explosion, final int width) {
+        EnemyShip ship = special;
+        if (ship != null) {
+            if (!ship.isDestroyed()) {
+                ship.move(SPECIAL_SHIP_SPEED, 0);
+            } else if (explosion.checkFinished()) {
+                EnemyShipPool.recycle(ship);
+                ship = null;
+            }
+        }
+        if (ship == null && interval.checkFinished()) {
+            ship = EnemyShipPool.getSpecialShip();
+            interval.reset();
+        }
+        if (ship != null && ship.getPositionX() > width) {
+            EnemyShipPool.recycle(ship);
+            ship = null;
+        }
+        return ship;
+    }
+}
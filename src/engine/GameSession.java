@@ -0,0 +1,227 @@
+package engine;
+
+import engine.DrawManager.SpriteType;
+import entity.Bullet;
+import entity.EnemyShip;
+import entity.Item;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Everything one game session owns: its clock, timer wheel, random numbers,
+ * entity pools and item manager. The game window runs one session; a batch
+ * simulation runs one per game, each on its own thread, and none of them
+ * sees another's entities, timers or random draws.
+ *
+ * Screens keep the session they were created in. Code without a screen at
+ * hand (entities, pools, {@link GameClock}, {@link GameRandom}) reaches it
+ * through {@link #current()}: the session the calling thread entered, or the
+ * window's session.
+ */
+public final class GameSession {
+
+    /** Session of the game window. */
+    private static final GameSession WINDOW = new GameSession(false, System.currentTimeMillis(), null);
+    /** Session entered by each thread, if not the window's. */
+    private static final ThreadLocal<GameSession> entered = new ThreadLocal<>();
+    /** If any thread ever entered a session, so the game thread skips the lookup. */
+    private static volatile boolean anyEntered;
+
+    /** If the clock only moves through {@link #advance(long)}. */
+    private final boolean simulated;
+    /** Time sampled at the start of the current tick, or the simulated time. */
+    private long tickTime;
+    /** If a screen loop is currently driving the clock. */
+    private boolean ticking;
+    /** Number of ticks since the session started. */
+    private long tickCount;
+    /** Timers running on the session clock. */
+    private final TimerWheel timerWheel;
+    /** Seeded generator, or null for an unseeded per-thread one. */
+    private final Random random;
+
+    /** Free bullets, see {@link entity.BulletPool}. */
+    private final Set<Bullet> freeBullets = new HashSet<>();
+    /** Free items, see {@link entity.ItemPool}. */
+    private final Set<Item> freeItems = new HashSet<>();
+    /** Free enemy ships by kind, see {@link entity.EnemyShipPool}. */
+    private final Map<SpriteType, ArrayDeque<EnemyShip>> freeEnemyShips =
+            new EnumMap<>(SpriteType.class);
+    /** Item drops of the session, created on first use. */
+    private ItemManager itemManager;
+
+    private GameSession(final boolean simulated, final long start, final Random random) {
+        this.simulated = simulated;
+        this.tickTime = start;
+        this.ticking = simulated;
+        this.timerWheel = new TimerWheel(TimerWheel.DEFAULT_TICK_MS, start);
+        this.random = random;
+    }
+
+    /**
+     * @return Session of the game window.
+     */
+    public static GameSession window() {
+        return WINDOW;
+    }
+
+    /**
+     * Creates a session for a headless game, with a clock stopped at the given
+     * time and a seeded generator.
+     *
+     * @param seed
+     *            Seed of the session's random numbers.
+     * @param start
+     *            Initial time in milliseconds, must be positive.
+     * @return New session, not entered yet.
+     */
+    public static GameSession simulated(final long seed, final long start) {
+        return new GameSession(true, start, new Random(seed));
+    }
+
+    /**
+     * @return Session entered by the calling thread, or the window's.
+     */
+    public static GameSession current() {
+        if (anyEntered) {
+            GameSession session = entered.get();
+            if (session != null)
+                return session;
+        }
+        return WINDOW;
+    }
+
+    /**
+     * Makes this the calling thread's session until {@link #exit()}. A thread
+     * runs one session at a time.
+     */
+    public void enter() {
+        entered.set(this);
+        anyEntered = true;
+    }
+
+    /**
+     * Returns the calling thread to the window's session.
+     */
+    public void exit() {
+        entered.remove();
+    }
+
+    // ----------------------------------------------------------------------
+    // Clock
+    // ----------------------------------------------------------------------
+
+    /**
+     * Samples the system clock, called once at the start of every tick. A
+     * simulated clock keeps its time.
+     *
+     * @return Time of the new tick in milliseconds.
+     */
+    public long tick() {
+        if (!this.simulated)
+            this.tickTime = System.currentTimeMillis();
+        this.ticking = true;
+        this.tickCount++;
+        return this.tickTime;
+    }
+
+    /**
+     * Stops driving the clock; until the next tick it reads the system time.
+     */
+    public void stop() {
+        if (!this.simulated)
+            this.ticking = false;
+    }
+
+    /**
+     * @return Time of the current tick, or the system time outside a loop.
+     */
+    public long now() {
+        return this.ticking ? this.tickTime : System.currentTimeMillis();
+    }
+
+    /**
+     * @return Number of ticks since the session started.
+     */
+    public long getTickCount() {
+        return this.tickCount;
+    }
+
+    /**
+     * Moves a simulated clock forward by one tick and runs the timers due.
+     *
+     * @param milliseconds
+     *            Length of the tick.
+     * @return New time.
+     */
+    public long advance(final long milliseconds) {
+        if (!this.simulated)
+            throw new IllegalStateException("Only simulated clocks can be advanced");
+        this.tickTime += milliseconds;
+        this.tickCount++;
+        this.timerWheel.advance(this.tickTime);
+        return this.tickTime;
+    }
+
+    /**
+     * @return Timers running on the session clock.
+     */
+    public TimerWheel getTimerWheel() {
+        return this.timerWheel;
+    }
+
+    // ----------------------------------------------------------------------
+    // Random numbers
+    // ----------------------------------------------------------------------
+
+    double nextDouble() {
+        return this.random != null ? this.random.nextDouble()
+                : ThreadLocalRandom.current().nextDouble();
+    }
+
+    int nextInt(final int bound) {
+        return this.random != null ? this.random.nextInt(bound)
+                : ThreadLocalRandom.current().nextInt(bound);
+    }
+
+    // ----------------------------------------------------------------------
+    // Pools and managers
+    // ----------------------------------------------------------------------
+
+    /**
+     * @return Free bullets of the session, only for {@link entity.BulletPool}.
+     */
+    public Set<Bullet> getFreeBullets() {
+        return this.freeBullets;
+    }
+
+    /**
+     * @return Free items of the session, only for {@link entity.ItemPool}.
+     */
+    public Set<Item> getFreeItems() {
+        return this.freeItems;
+    }
+
+    /**
+     * @return Free enemy ships of the session, only for
+     *         {@link entity.EnemyShipPool}.
+     */
+    public Map<SpriteType, ArrayDeque<EnemyShip>> getFreeEnemyShips() {
+        return this.freeEnemyShips;
+    }
+
+    /**
+     * @return Item drops of the session.
+     */
+    public ItemManager getItemManager() {
+        if (this.itemManager == null)
+            this.itemManager = new ItemManager();
+        return this.itemManager;
+    }
+}
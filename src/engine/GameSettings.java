@@ -1,8 +1,9 @@
 package engine;
 
 import java.awt.*;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.nio.file.*;
@@ -64,61 +65,20 @@ public class GameSettings {
 	}
 
 	public static Color hexToColor(String hex) {
-		if(hex.startsWith("#")) hex = hex.substring(1);
-		if(hex.length() > 6) {
-			int alpha = Integer.parseInt(hex.substring(7), 16);
-			hex = hex.substring(0, 6);
-			int red = Integer.parseInt(hex.substring(0, 2), 16);
-			int green = Integer.parseInt(hex.substring(3, 5), 16);
-			int blue = Integer.parseInt(hex.substring(5), 16);
-			// if it is hex code with 8 digits(like #AAFFAABB)
-			return new Color(red, green, blue, alpha);
-		}
-		int rgb = Integer.parseInt(hex, 16);
-		// if it is hex code with 6 digits(like #AAFFAA)
-		return new Color(rgb);
+		return LevelCompiler.color(hex);
 	}
 
-	public static List<StageData> parseStages(Path path) throws Exception {
-		String raw = Files.readString(path);
-		raw = raw.replace("\uFEFF", "");
-		raw = raw.replaceAll("(?m)^\\s*//.*$", "");
-
-		String[] stageBlocks = raw.split("&");
+	/**
+	 * Parses every stage of a level file. The file is validated first; see
+	 * {@link LevelCompiler} for the format.
+	 */
+	public static List<StageData> parseStages(Path path) throws IOException {
 		List<StageData> result = new ArrayList<>();
-		for(String block: stageBlocks) {
-			List<String> lines = Arrays.stream(block.split("\n"))
-					.map(String::trim)
-					.filter(s -> !s.isEmpty() && !s.startsWith("//")) // Deleting comments and empty lines
-					.toList();
-			if(lines.isEmpty()) continue;
-
-			String[] ints = lines.get(0).split(",");
-			GameSettings settings = new GameSettings(
-					Integer.parseInt(ints[0].trim()),
-					Integer.parseInt(ints[1].trim()),
-					Integer.parseInt(ints[2].trim()),
-					Integer.parseInt(ints[3].trim())
-			);
-
-			List<ChangeData> changeList = new ArrayList<>();
-			for(int i = 1; i < lines.size(); i++) {
-				String[] parts = lines.get(i).split(",");
-				int x = Integer.parseInt(parts[0].trim());
-				int y = Integer.parseInt(parts[1].trim());
-				int z = Integer.parseInt(parts[2].trim());
-				int w = Integer.parseInt(parts[3].trim());
-				Color color = null;
-				if(parts.length >= 5) {
-					String hex = parts[4].trim();
-					if(hex.startsWith("#")) hex = hex.substring(1);
-					color = hexToColor(hex);
-				}
-				changeList.add(new ChangeData(x, y, z, w, color));
-			}
-			result.add(new StageData(settings, changeList));
+		for (CompiledLevel level : LevelCompiler.compile(
+				Files.readAllLines(path, StandardCharsets.UTF_8), path.getFileName().toString())) {
+			GameSettings settings = level.toGameSettings();
+			result.add(new StageData(settings, settings.getChangeDataList()));
 		}
-
 		return result;
 	}
 
@@ -127,36 +87,32 @@ public class GameSettings {
 		return changeDataList;
 	}
 
-	public static List<GameSettings> getGameSettings(){
-		List<GameSettings> result = new ArrayList<>();
-		List<StageData> stageDataList;
+	/** Compiled stage these settings come from, null if built by hand. */
+	private CompiledLevel compiledLevel;
 
-		GameSettings setting;
+	/**
+	 * @return the compiled stage, or null if these settings were built by hand
+	 */
+	public final CompiledLevel getCompiledLevel() {
+		return compiledLevel;
+	}
 
+	/**
+	 * Loads every stage of res/level.csv. The compiled stages are cached in
+	 * res/level.cache and decoded when first played; an invalid level file
+	 * is reported line by line and closes the game.
+	 */
+	public static List<GameSettings> getGameSettings(){
 		try {
-			stageDataList = parseStages(Paths.get("res", "level.csv"));
-			for(StageData s : stageDataList) {
-				setting = s.settings;
-				setting.changeDataList = new ArrayList<>();
-
-				setting.changeDataList.addAll(s.changeList);
-				result.add(setting);
-			}
-		} catch (Exception e) {
-			LOGGER.info("Failed Loading Data: There is no such file named " + e.getMessage());
-			LOGGER.info("By the error, game is closing.");
-			System.exit(1);
-			return Collections.emptyList();
-		}
-
-		if(stageDataList.isEmpty()) {
-			LOGGER.info("Failed Loading Data: There is no data in level.csv file.");
-			LOGGER.info("By the error, game is closing.");
-			System.exit(1);
-			return Collections.emptyList();
+			return LevelCache.load(Paths.get("res", "level.csv"), Paths.get("res", "level.cache"));
+		} catch (IOException e) {
+			LOGGER.severe("Failed Loading Data: Couldn't read level.csv: " + e);
+		} catch (IllegalArgumentException e) {
+			LOGGER.severe("Failed Loading Data: Invalid level data:" + System.lineSeparator() + e.getMessage());
 		}
-
-		return result;
+		LOGGER.info("By the error, game is closing.");
+		System.exit(1);
+		return Collections.emptyList();
 	}
 
 
@@ -181,6 +137,25 @@ public class GameSettings {
 		this.changeDataList = new ArrayList<>();
 	}
 
+	/**
+	 * Constructor, from a compiled stage. Its cell overrides become the
+	 * change data, in file order.
+	 *
+	 * @param level
+	 *                          Compiled stage.
+	 */
+	GameSettings(final CompiledLevel level) {
+		this(level.getWidth(), level.getHeight(), level.getBaseSpeed(), level.getShootingFrecuency());
+		this.compiledLevel = level;
+		for (int i = 0; i < level.getOverrideCount(); i++) {
+			int cell = level.getOverrideCell(i);
+			int x = cell % level.getWidth();
+			int y = cell / level.getWidth();
+			this.changeDataList.add(new ChangeData(x, y, level.getHpMultiplier(x, y),
+					level.getRewardMultiplier(x, y), level.getColor(x, y)));
+		}
+	}
+
 	/**
 	 * @return the formationWidth
 	 */
@@ -0,0 +1,272 @@
+package engine;
+
+import java.awt.Color;
+import java.util.BitSet;
+
+import engine.DrawManager.SpriteType;
+import entity.Bullet;
+import entity.EnemyShip;
+import entity.EnemyShipFormation;
+import entity.FormationTemplate;
+import entity.Item;
+import entity.Ship;
+
+/**
+ * What is on screen at one tick of a game: both ships, the bonus ship, the
+ * formation as its origin and a bit per template slot still alive, the
+ * bullets, the items and the HUD.
+ *
+ * It is captured from a running game screen and turned into bytes by a
+ * {@link SnapshotCodec}, either whole or as the changes from an earlier
+ * snapshot; networked co-op sends them to the client, which draws them into
+ * a {@link RenderSnapshot}. Arrays are allocated once and reused, like
+ * those of the render snapshot.
+ */
+public final class GameSnapshot {
+
+    /** Bullets kept at most; extra bullets are left out. */
+    static final int MAX_BULLETS = 100;
+    /** Items kept at most. */
+    static final int MAX_ITEMS = 16;
+    /** Formation slots kept at most. */
+    static final int MAX_SLOTS = 256;
+
+    /** Tick the snapshot was taken at. */
+    int tick;
+    /** Last client input tick the host applied, in networked co-op. */
+    int inputAck;
+    int score;
+    int lives;
+    int coins;
+    int level;
+
+    final boolean[] shipPresent = new boolean[GameState.NUM_PLAYERS];
+    final int[] shipX = new int[GameState.NUM_PLAYERS];
+    final int[] shipY = new int[GameState.NUM_PLAYERS];
+    final int[] shipWidth = new int[GameState.NUM_PLAYERS];
+    final int[] shipHeight = new int[GameState.NUM_PLAYERS];
+    final int[] shipSpeed = new int[GameState.NUM_PLAYERS];
+    final SpriteType[] shipSprite = new SpriteType[GameState.NUM_PLAYERS];
+
+    boolean specialPresent;
+    int specialX;
+    int specialY;
+    SpriteType specialSprite;
+
+    /** Template origin of the formation. */
+    int originX;
+    int originY;
+    /** Ships the formation spawned with, 0 without a formation. */
+    int slotCount;
+    /** Slots whose ship is still flying. */
+    final BitSet alive = new BitSet(MAX_SLOTS);
+
+    int bulletCount;
+    final int[] bulletX = new int[MAX_BULLETS];
+    final int[] bulletY = new int[MAX_BULLETS];
+    final int[] bulletWidth = new int[MAX_BULLETS];
+    final int[] bulletHeight = new int[MAX_BULLETS];
+    /** Player who fired, 1 or 2, or 0 for enemy fire. */
+    final int[] bulletPlayer = new int[MAX_BULLETS];
+    final SpriteType[] bulletSprite = new SpriteType[MAX_BULLETS];
+
+    int itemCount;
+    final int[] itemX = new int[MAX_ITEMS];
+    final int[] itemY = new int[MAX_ITEMS];
+    final int[] itemRgb = new int[MAX_ITEMS];
+    final SpriteType[] itemSprite = new SpriteType[MAX_ITEMS];
+
+    /**
+     * Captures a game screen.
+     *
+     * @param tick
+     *            Tick of the game.
+     * @param inputAck
+     *            Last client input tick applied.
+     * @param state
+     *            State of the game.
+     * @param ships
+     *            Ships of both players; missing ones are null.
+     * @param special
+     *            Bonus ship, or null.
+     * @param formation
+     *            Enemy formation, or null.
+     * @param bullets
+     *            Bullets on screen.
+     * @param items
+     *            Items on screen.
+     */
+    public void capture(final int tick, final int inputAck, final GameState state,
+                        final Ship[] ships, final EnemyShip special,
+                        final EnemyShipFormation formation,
+                        final Iterable<Bullet> bullets, final Iterable<Item> items) {
+        this.tick = tick;
+        this.inputAck = inputAck;
+        this.score = state.getScore();
+        this.lives = state.getLivesRemaining();
+        this.coins = state.getCoins();
+        this.level = state.getLevel();
+
+        for (int p = 0; p < GameState.NUM_PLAYERS; p++) {
+            Ship ship = ships[p];
+            this.shipPresent[p] = ship != null;
+            if (ship == null)
+                continue;
+            this.shipX[p] = ship.getPositionX();
+            this.shipY[p] = ship.getPositionY();
+            this.shipWidth[p] = ship.getWidth();
+            this.shipHeight[p] = ship.getHeight();
+            this.shipSpeed[p] = ship.getSpeed();
+            this.shipSprite[p] = ship.getSpriteType();
+        }
+
+        this.specialPresent = special != null;
+        if (special != null) {
+            this.specialX = special.getPositionX();
+            this.specialY = special.getPositionY();
+            this.specialSprite = special.getSpriteType();
+        }
+
+        if (formation != null && formation.getSlotCount() <= MAX_SLOTS) {
+            this.originX = formation.getOriginX();
+            this.originY = formation.getOriginY();
+            this.slotCount = formation.getSlotCount();
+            formation.fillAliveMask(this.alive);
+        } else {
+            this.slotCount = 0;
+            this.alive.clear();
+        }
+
+        this.bulletCount = 0;
+        for (Bullet bullet : bullets) {
+            if (this.bulletCount == MAX_BULLETS)
+                break;
+            int i = this.bulletCount++;
+            this.bulletX[i] = bullet.getPositionX();
+            this.bulletY[i] = bullet.getPositionY();
+            this.bulletWidth[i] = bullet.getWidth();
+            this.bulletHeight[i] = bullet.getHeight();
+            this.bulletPlayer[i] = bullet.getPlayerId();
+            this.bulletSprite[i] = bullet.getSpriteType();
+        }
+
+        this.itemCount = 0;
+        for (Item item : items) {
+            if (this.itemCount == MAX_ITEMS)
+                break;
+            int i = this.itemCount++;
+            this.itemX[i] = item.getPositionX();
+            this.itemY[i] = item.getPositionY();
+            this.itemRgb[i] = item.getColor().getRGB() & 0xFFFFFF;
+            this.itemSprite[i] = item.getSpriteType();
+        }
+    }
+
+    /**
+     * Makes this snapshot a copy of another, reusing its arrays.
+     *
+     * @param other
+     *            Snapshot to copy.
+     */
+    public void copyFrom(final GameSnapshot other) {
+        this.tick = other.tick;
+        this.inputAck = other.inputAck;
+        this.score = other.score;
+        this.lives = other.lives;
+        this.coins = other.coins;
+        this.level = other.level;
+        for (int p = 0; p < GameState.NUM_PLAYERS; p++) {
+            this.shipPresent[p] = other.shipPresent[p];
+            this.shipX[p] = other.shipX[p];
+            this.shipY[p] = other.shipY[p];
+            this.shipWidth[p] = other.shipWidth[p];
+            this.shipHeight[p] = other.shipHeight[p];
+            this.shipSpeed[p] = other.shipSpeed[p];
+            this.shipSprite[p] = other.shipSprite[p];
+        }
+        this.specialPresent = other.specialPresent;
+        this.specialX = other.specialX;
+        this.specialY = other.specialY;
+        this.specialSprite = other.specialSprite;
+        this.originX = other.originX;
+        this.originY = other.originY;
+        this.slotCount = other.slotCount;
+        this.alive.clear();
+        this.alive.or(other.alive);
+        this.bulletCount = other.bulletCount;
+        System.arraycopy(other.bulletX, 0, this.bulletX, 0, other.bulletCount);
+        System.arraycopy(other.bulletY, 0, this.bulletY, 0, other.bulletCount);
+        System.arraycopy(other.bulletWidth, 0, this.bulletWidth, 0, other.bulletCount);
+        System.arraycopy(other.bulletHeight, 0, this.bulletHeight, 0, other.bulletCount);
+        System.arraycopy(other.bulletPlayer, 0, this.bulletPlayer, 0, other.bulletCount);
+        System.arraycopy(other.bulletSprite, 0, this.bulletSprite, 0, other.bulletCount);
+        this.itemCount = other.itemCount;
+        System.arraycopy(other.itemX, 0, this.itemX, 0, other.itemCount);
+        System.arraycopy(other.itemY, 0, this.itemY, 0, other.itemCount);
+        System.arraycopy(other.itemRgb, 0, this.itemRgb, 0, other.itemCount);
+        System.arraycopy(other.itemSprite, 0, this.itemSprite, 0, other.itemCount);
+    }
+
+    /**
+     * Captures the snapshot for drawing, with the colors of the game screen.
+     *
+     * @param snapshot
+     *            Frame being captured.
+     * @param formation
+     *            Template of the level's formation, or null to leave the
+     *            enemies out.
+     * @param separationLine
+     *            Height of the line separating the HUD from the field.
+     */
+    public void draw(final RenderSnapshot snapshot, final FormationTemplate formation,
+                     final int separationLine) {
+        for (int p = 0; p < GameState.NUM_PLAYERS; p++)
+            if (this.shipPresent[p])
+                snapshot.addSprite(this.shipX[p], this.shipY[p], this.shipWidth[p],
+                        this.shipHeight[p], this.shipSprite[p], p == 0 ? Color.BLUE : Color.RED);
+
+        if (this.specialPresent)
+            snapshot.addSprite(this.specialX, this.specialY, EnemyShip.SPECIAL_WIDTH,
+                    EnemyShip.SPECIAL_HEIGHT, this.specialSprite, Color.RED);
+
+        if (formation != null && formation.getShipCount() == this.slotCount)
+            for (int i = this.alive.nextSetBit(0); i >= 0; i = this.alive.nextSetBit(i + 1))
+                snapshot.addSprite(this.originX + formation.getOffsetX(i),
+                        this.originY + formation.getOffsetY(i), EnemyShip.WIDTH, EnemyShip.HEIGHT,
+                        formation.getSpriteType(i), formation.getColor(i));
+
+        for (int i = 0; i < this.bulletCount; i++)
+            snapshot.addSprite(this.bulletX[i], this.bulletY[i], this.bulletWidth[i],
+                    this.bulletHeight[i], this.bulletSprite[i], bulletColor(this.bulletPlayer[i]));
+
+        for (int i = 0; i < this.itemCount; i++)
+            snapshot.addSprite(this.itemX[i], this.itemY[i], Item.WIDTH, Item.HEIGHT,
+                    this.itemSprite[i], new Color(this.itemRgb[i]));
+
+        snapshot.setHud(separationLine, this.lives, true, this.coins, this.level, this.lives == 1);
+        snapshot.setScore(this.score);
+        snapshot.setShipCount(this.alive.cardinality());
+    }
+
+    /**
+     * @return Tick the snapshot was taken at.
+     */
+    public int getTick() {
+        return this.tick;
+    }
+
+    /**
+     * @return Level being played.
+     */
+    public int getLevel() {
+        return this.level;
+    }
+
+    private static Color bulletColor(final int player) {
+        if (player == 1)
+            return Color.CYAN;
+        if (player == 2)
+            return Color.MAGENTA;
+        return Color.WHITE;
+    }
+}
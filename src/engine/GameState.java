@@ -1,8 +1,7 @@
 // engine/GameState.java
 package engine;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.ByteBuffer;
 import java.util.logging.Logger;
 
 import engine.ItemEffect.ItemEffectType;
@@ -38,25 +37,46 @@ public class GameState {
     private int bossClearTime = 0;
 
 	/** Current coin count. */ // ADD THIS LINE
-    private static int coins = 0; // ADD THIS LINE - edited for 2P mode
+    private int coins = 0; // ADD THIS LINE - edited for 2P mode
 
-    private static class EffectState {
-        Cooldown cooldown;
-        boolean active;
-        Integer effectValue;
+    /** Effect types, in ordinal order. */
+    private static final ItemEffectType[] EFFECT_TYPE_VALUES = ItemEffectType.values();
+    /** Number of effect types, used as the width of the effect table. */
+    private static final int EFFECT_TYPES = EFFECT_TYPE_VALUES.length;
 
-        EffectState() {
-            this.cooldown = null;
+    /** Effect slot, mutated in place so per-frame queries never box or hash. */
+    private static final class EffectState {
+        boolean active;
+        /** Absolute time in ms at which the effect ends. */
+        long expiresAt;
+        /** True if the effect carries a value. */
+        boolean hasValue;
+        int effectValue;
+        /** Pending expiry timer, null when inactive. */
+        TimerWheel.Timeout expiry;
+        /** Expiry callback, allocated once per slot. */
+        Runnable onExpire;
+
+        void clear() {
+            if (this.expiry != null) {
+                this.expiry.cancel();
+                this.expiry = null;
+            }
             this.active = false;
-            this.effectValue = null;
+            this.expiresAt = 0;
+            this.hasValue = false;
+            this.effectValue = 0;
         }
     }
 
+    /** Expiry timers of the effects, advanced by updateEffects(). */
+    private final TimerWheel effectTimers = new TimerWheel(TimerWheel.DEFAULT_TICK_MS);
+
     private int activeDuringItem = 0 ;
     public void setActiveDuringItem(int value) { this.activeDuringItem = value; }
 
-    /** Each player has all effect types always initialized (inactive at start). */
-    private final Map<Integer, Map<ItemEffectType, EffectState>> playerEffects = new HashMap<>();
+    /** Effect table indexed by [playerIndex][ItemEffectType.ordinal()], inactive at start. */
+    private final EffectState[][] playerEffects = new EffectState[NUM_PLAYERS][EFFECT_TYPES];
 
 	// 2P mode: co-op aware constructor used by the updated Core loop - livesEach
 	// applies per-player; co-op uses shared pool.
@@ -170,8 +190,8 @@ public class GameState {
 	public void addScore(final int p, final int delta) {
 		int realDelta = delta;
 		// If ScoreBoost item active, score gain is doubled.
-        Integer multiplier = getEffectValue(p, ItemEffectType.SCOREBOOST);
-        if (multiplier != null) {
+        int multiplier = getEffectValue(p, ItemEffectType.SCOREBOOST, 0);
+        if (multiplier != 0) {
             realDelta = delta * multiplier;
             logger.info("[GameState] Player " + (p + 1) + " ScoreBoost active (x" + multiplier + "). Score changed from " + delta + " to " + realDelta);
         }
@@ -274,60 +294,67 @@ public class GameState {
     /** Initialize all possible effects for every player (inactive). */
     private void initializeEffectStates() {
         for (int p = 0; p < NUM_PLAYERS; p++) {
-            Map<ItemEffectType, EffectState> effectMap = new HashMap<>();
-            for (ItemEffectType type : ItemEffectType.values()) {
-                effectMap.put(type, new EffectState());
+            for (int t = 0; t < EFFECT_TYPES; t++) {
+                EffectState state = new EffectState();
+                final int player = p;
+                final ItemEffectType type = EFFECT_TYPE_VALUES[t];
+                state.onExpire = () -> {
+                    state.clear();
+                    logger.info("[GameState] Player " + player + " effect " + type + " expired.");
+                };
+                playerEffects[p][t] = state;
             }
-            playerEffects.put(p, effectMap);
         }
     }
 
-    public void addEffect(int playerIndex, ItemEffectType type, Integer effectValue, int durationSeconds) {
-        if (playerIndex < 0 || playerIndex >= NUM_PLAYERS) return;
+    /** Returns the effect slot, or null if the player index is invalid. */
+    private EffectState effectState(int playerIndex, ItemEffectType type) {
+        if (playerIndex < 0 || playerIndex >= NUM_PLAYERS || type == null) return null;
+        return playerEffects[playerIndex][type.ordinal()];
+    }
 
-        Map<ItemEffectType, EffectState> effects = playerEffects.get(playerIndex);
-        if (effects == null) return;
+    /** True while the slot is active and its expiry time has not passed. */
+    private static boolean isRunning(EffectState state, long now) {
+        return state.active && now <= state.expiresAt;
+    }
 
-        EffectState state = effects.get(type);
+    public void addEffect(int playerIndex, ItemEffectType type, Integer effectValue, int durationSeconds) {
+        EffectState state = effectState(playerIndex, type);
         if (state == null) return;
 
         String valueStr = (effectValue != null) ? " (value: " + effectValue + ")" : "";
+        long now = GameClock.now();
+        int durationMs = durationSeconds * 1000;
 
-        if (state.active && state.cooldown != null) {
+        if (isRunning(state, now)) {
             // Extend existing effect
-            state.cooldown.addTime(durationSeconds * 1000);
-
-            state.effectValue = effectValue;
+            state.expiresAt += durationMs;
 
             logger.info("[GameState] Player " + playerIndex + " extended " + type
-                    + valueStr + ") by " + durationSeconds + "s to " + state.cooldown.getDuration() );
+                    + valueStr + ") by " + durationSeconds + "s to " + (state.expiresAt - now));
         } else {
             // Start new effect
-            state.cooldown = Core.getCooldown(durationSeconds * 1000);
-            state.cooldown.reset();
             state.active = true;
-
-            state.effectValue = effectValue;
+            state.expiresAt = now + durationMs;
 
             logger.info("[GameState] Player " + playerIndex + " started " + type
                     + valueStr + ") for " + durationSeconds + "s");
         }
+        state.hasValue = effectValue != null;
+        state.effectValue = state.hasValue ? effectValue : 0;
+
+        if (state.expiry != null) state.expiry.cancel();
+        state.expiry = effectTimers.scheduleAt(state.expiresAt + 1, state.onExpire);
     }
 
     public boolean hasEffect(int playerIndex, ItemEffectType type) {
-        if (playerIndex < 0 || playerIndex >= NUM_PLAYERS) return false;
-
-        Map<ItemEffectType, EffectState> effects = playerEffects.get(playerIndex);
-        if (effects == null) return false;
-
-        EffectState state = effects.get(type);
-//        if (state == null || !state.active) return false;
+        EffectState state = effectState(playerIndex, type);
         if (state == null) return false;
         else if (!state.active) {
             setActiveDuringItem(0);
             return false;
         }
-        return !state.cooldown.checkFinished();
+        return GameClock.now() <= state.expiresAt;
     }
 
     /**
@@ -341,58 +368,42 @@ public class GameState {
      *            Effect value if active, null otherwise
      */
     public Integer getEffectValue(int playerIndex, ItemEffectType type) {
-        if (playerIndex < 0 || playerIndex >= NUM_PLAYERS) return null;
+        EffectState state = effectState(playerIndex, type);
+        if (state == null || !state.hasValue || !isRunning(state, GameClock.now())) return null;
 
-        Map<ItemEffectType, EffectState> effects = playerEffects.get(playerIndex);
-        if (effects == null) return null;
-
-        EffectState state = effects.get(type);
-        if (state == null || !state.active) return null;
+        return state.effectValue;
+    }
 
-        // Check if effect is still valid (not expired)
-        if (state.cooldown != null && state.cooldown.checkFinished()) {
-            return null;
-        }
+    /**
+     * Gets the effect value without boxing, for per-frame queries.
+     *
+     * @param playerIndex
+     *            Index of the player (0 or 1)
+     * @param type
+     *            Type of effect to check
+     * @param defaultValue
+     *            Value returned when the effect is not active
+     * @return
+     *            Effect value if active, defaultValue otherwise
+     */
+    public int getEffectValue(int playerIndex, ItemEffectType type, int defaultValue) {
+        EffectState state = effectState(playerIndex, type);
+        if (state == null || !state.hasValue || !isRunning(state, GameClock.now())) return defaultValue;
 
         return state.effectValue;
     }
 
-    /** Call this each frame to clean up expired effects */
+    /** Call this each frame to clean up expired effects; only expired timers are visited. */
     public void updateEffects() {
-        for (int p = 0; p < NUM_PLAYERS; p++) {
-            Map<ItemEffectType, EffectState> effects = playerEffects.get(p);
-            if (effects == null) continue;
-
-            for (Map.Entry<ItemEffectType, EffectState> entry : effects.entrySet()) {
-                EffectState state = entry.getValue();
-                if (state.active && state.cooldown != null && state.cooldown.checkFinished()) {
-                    logger.info("[GameState] Player " + p + " effect " + entry.getKey() + " expired.");
-                    state.active = false;
-                    state.cooldown = null;  // Release reference
-                    state.effectValue = null;
-                }
-            }
-        }
+        effectTimers.advance(GameClock.now());
     }
 
     /** Clear all active effects for a specific player */
     public void clearEffects(int playerIndex) {
-        //
         if (playerIndex < 0 || playerIndex >= NUM_PLAYERS) return;
 
-        Map<ItemEffectType, EffectState> effects = playerEffects.get(playerIndex);
-        if (effects == null) return;
-
-        // for - all effect types for this player
-        for (Map.Entry<ItemEffectType, EffectState> entry : effects.entrySet()) {
-            // get effect state
-            EffectState state = entry.getValue();
-            // if state active then false
-            if (state.active) {
-                state.active = false;
-                state.cooldown = null;
-                state.effectValue = null;
-            }
+        for (EffectState state : playerEffects[playerIndex]) {
+            state.clear();
         }
         logger.info("[GameState] Player " + playerIndex + ": All effects cleared.");
     }
@@ -423,15 +434,112 @@ public class GameState {
      *            Remaining duration in ms, or 0 if not active
      */
     public int getEffectDuration(int playerIndex, ItemEffectType type) {
-        if (playerIndex < 0 || playerIndex >= NUM_PLAYERS) return 0;
+        EffectState state = effectState(playerIndex, type);
+        if (state == null || !state.active) return 0;
 
-        Map<ItemEffectType, EffectState> effects = playerEffects.get(playerIndex);
-        if (effects == null) return 0;
+        return (int) Math.max(0, state.expiresAt - GameClock.now());
+    }
 
-        EffectState state = effects.get(type);
-        if (state == null || !state.active || state.cooldown == null) return 0;
+    /**
+     * Moves the end of every active effect later, so time that is not
+     * played, like the countdown of a resumed level, does not use it up.
+     *
+     * @param delayMs
+     *            Delay in milliseconds.
+     */
+    public void postponeEffects(final long delayMs) {
+        for (EffectState[] effects : playerEffects) {
+            for (EffectState state : effects) {
+                if (!state.active) continue;
+                state.expiresAt += delayMs;
+                if (state.expiry != null) state.expiry.cancel();
+                state.expiry = effectTimers.scheduleAt(state.expiresAt + 1, state.onExpire);
+            }
+        }
+    }
 
-        return state.cooldown.getDuration();
+    /**
+     * Writes the state for a {@link QuickSave}, each active effect with the
+     * time it has left.
+     *
+     * @param out
+     *            Buffer to write to.
+     */
+    void writeTo(final ByteBuffer out) {
+        out.put((byte) (coop ? 1 : 0));
+        SnapshotCodec.writeVarint(out, level);
+        SnapshotCodec.writeVarint(out, teamLives);
+        SnapshotCodec.writeVarint(out, teamLivesCap);
+        SnapshotCodec.writeVarint(out, bossClearTime);
+        SnapshotCodec.writeVarint(out, coins);
+        SnapshotCodec.writeVarint(out, activeDuringItem);
+        for (int p = 0; p < NUM_PLAYERS; p++) {
+            SnapshotCodec.writeZigzag(out, score[p]);
+            SnapshotCodec.writeVarint(out, lives[p]);
+            SnapshotCodec.writeVarint(out, bulletsShot[p]);
+            SnapshotCodec.writeVarint(out, shipsDestroyed[p]);
+        }
+
+        long now = GameClock.now();
+        int running = 0;
+        for (EffectState[] effects : playerEffects)
+            for (EffectState state : effects)
+                if (isRunning(state, now)) running++;
+        SnapshotCodec.writeVarint(out, running);
+        for (int p = 0; p < NUM_PLAYERS; p++) {
+            for (int t = 0; t < EFFECT_TYPES; t++) {
+                EffectState state = playerEffects[p][t];
+                if (!isRunning(state, now)) continue;
+                // Slot and value flag together, the value only when there is one.
+                SnapshotCodec.writeVarint(out, (p * EFFECT_TYPES + t) << 1 | (state.hasValue ? 1 : 0));
+                SnapshotCodec.writeVarint(out, (int) (state.expiresAt - now));
+                if (state.hasValue)
+                    SnapshotCodec.writeZigzag(out, state.effectValue);
+            }
+        }
+    }
+
+    /**
+     * Reads a state written by {@link #writeTo}; the effects end after the
+     * time they had left, counted from now.
+     *
+     * @param in
+     *            Buffer to read from.
+     * @return Game state.
+     */
+    static GameState readFrom(final ByteBuffer in) {
+        boolean coop = in.get() != 0;
+        GameState state = new GameState(SnapshotCodec.readVarint(in), 0, coop, 0);
+        state.teamLives = SnapshotCodec.readVarint(in);
+        state.teamLivesCap = SnapshotCodec.readVarint(in);
+        state.bossClearTime = SnapshotCodec.readVarint(in);
+        state.coins = SnapshotCodec.readVarint(in);
+        state.activeDuringItem = SnapshotCodec.readVarint(in);
+        for (int p = 0; p < NUM_PLAYERS; p++) {
+            state.score[p] = SnapshotCodec.readZigzag(in);
+            state.lives[p] = SnapshotCodec.readVarint(in);
+            state.bulletsShot[p] = SnapshotCodec.readVarint(in);
+            state.shipsDestroyed[p] = SnapshotCodec.readVarint(in);
+        }
+
+        long now = GameClock.now();
+        int running = SnapshotCodec.readVarint(in);
+        for (int i = 0; i < running; i++) {
+            int slot = SnapshotCodec.readVarint(in);
+            int remaining = SnapshotCodec.readVarint(in);
+            boolean hasValue = (slot & 1) != 0;
+            int value = hasValue ? SnapshotCodec.readZigzag(in) : 0;
+            int index = slot >>> 1;
+            if (index >= NUM_PLAYERS * EFFECT_TYPES)
+                throw new IllegalArgumentException("Effect slot " + index);
+            EffectState effect = state.playerEffects[index / EFFECT_TYPES][index % EFFECT_TYPES];
+            effect.active = true;
+            effect.expiresAt = now + remaining;
+            effect.hasValue = hasValue;
+            effect.effectValue = value;
+            effect.expiry = state.effectTimers.scheduleAt(effect.expiresAt + 1, effect.onExpire);
+        }
+        return state;
     }
 
     public void setBossClearTime(long duration) {
@@ -0,0 +1,172 @@
+package engine;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+/**
+ * Development helper reloading res/level.csv and res/item_db.csv while the
+ * game runs. Enabled with -Dgame.hotreload=true.
+ *
+ * A background thread watches the res folder and re-parses a file once its
+ * changes settle. Parsed data is only staged; {@link #applyPending()} swaps
+ * it in at the next level boundary, so the running frame loop never waits on
+ * parsing. Invalid files are reported and the previous data is kept.
+ */
+public final class HotReloader {
+
+    /** System property enabling hot reload. */
+    public static final String PROPERTY = "game.hotreload";
+    /** Quiet time after the last change before a file is parsed. */
+    private static final long SETTLE_MS = 200;
+    private static final String LEVEL_FILE = "level.csv";
+    private static final String ITEM_FILE = "item_db.csv";
+
+    private static HotReloader instance;
+    private static final Logger logger = Core.getLogger();
+
+    /** Folder being watched. */
+    private final Path directory;
+    /** Watch service of the folder. */
+    private final WatchService watcher;
+    /** Parsed stages waiting for the next level boundary. */
+    private final AtomicReference<List<GameSettings>> pendingLevels = new AtomicReference<>();
+    /** Parsed item database waiting for the next level boundary. */
+    private final AtomicReference<ItemDB> pendingItems = new AtomicReference<>();
+
+    /**
+     * Constructor, starts watching the folder.
+     *
+     * @param directory
+     *            Folder holding the level and item files.
+     * @throws IOException
+     *             If the folder cannot be watched.
+     */
+    HotReloader(final Path directory) throws IOException {
+        this.directory = directory;
+        this.watcher = FileSystems.getDefault().newWatchService();
+        directory.register(this.watcher, StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_CREATE);
+        Thread thread = new Thread(this::watch, "hot-reload");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Starts watching the res folder if the system property is set.
+     */
+    public static synchronized void startIfEnabled() {
+        if (instance != null || !Boolean.getBoolean(PROPERTY))
+            return;
+        try {
+            instance = new HotReloader(Paths.get("res"));
+            logger.info("Hot reload enabled for " + LEVEL_FILE + " and " + ITEM_FILE + ".");
+        } catch (IOException e) {
+            logger.warning("Couldn't start hot reload: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Installs the data reloaded since the last call. Called between levels.
+     *
+     * @return Reloaded stages to use from now on, or null if level.csv did
+     *         not change.
+     */
+    public static List<GameSettings> applyPending() {
+        HotReloader reloader = instance;
+        return reloader == null ? null : reloader.apply();
+    }
+
+    /**
+     * Installs the staged item database and hands over the staged stages.
+     *
+     * @return Reloaded stages, or null if none are staged.
+     */
+    List<GameSettings> apply() {
+        ItemDB items = this.pendingItems.getAndSet(null);
+        if (items != null) {
+            ItemDB.install(items);
+            logger.info("Applied reloaded " + ITEM_FILE + ".");
+        }
+        List<GameSettings> levels = this.pendingLevels.getAndSet(null);
+        if (levels != null)
+            logger.info("Applied reloaded " + LEVEL_FILE + " (" + levels.size() + " stages).");
+        return levels;
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = this.watcher.take();
+                boolean levels = false;
+                boolean items = false;
+                // Editors often write a file in several steps; wait for quiet.
+                do {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        Object context = event.context();
+                        if (context == null)
+                            continue;
+                        levels |= context.toString().equals(LEVEL_FILE);
+                        items |= context.toString().equals(ITEM_FILE);
+                    }
+                    key.reset();
+                    key = this.watcher.poll(SETTLE_MS, TimeUnit.MILLISECONDS);
+                } while (key != null);
+
+                if (levels)
+                    reloadLevels();
+                if (items)
+                    reloadItems();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            logger.info("Hot reload stopped.");
+        }
+    }
+
+    /** Parses level.csv and stages the result if it is valid. */
+    void reloadLevels() {
+        try {
+            List<GameSettings> levels = LevelCache.load(this.directory.resolve(LEVEL_FILE),
+                    this.directory.resolve("level.cache"));
+            // Decode every stage here rather than on the game thread.
+            for (GameSettings settings : levels)
+                settings.getFormationWidth();
+            this.pendingLevels.set(levels);
+            logger.info("Reloaded " + LEVEL_FILE + ", applying at the next level.");
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warning("Keeping previous levels, " + LEVEL_FILE + " is invalid:"
+                    + System.lineSeparator() + e.getMessage());
+        }
+    }
+
+    /** Parses item_db.csv and stages the result if it has any item. */
+    void reloadItems() {
+        ItemDB items = new ItemDB(this.directory.resolve(ITEM_FILE).toString());
+        if (items.getAllItems().isEmpty()) {
+            logger.warning("Keeping previous items, " + ITEM_FILE + " has no valid item.");
+            return;
+        }
+        this.pendingItems.set(items);
+        logger.info("Reloaded " + ITEM_FILE + ", applying at the next level.");
+    }
+
+    /**
+     * Stops watching.
+     *
+     * @throws IOException
+     *             If the watch service cannot be closed.
+     */
+    void close() throws IOException {
+        this.watcher.close();
+    }
+}
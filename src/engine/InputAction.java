@@ -0,0 +1,93 @@
+package engine;
+
+import java.awt.event.KeyEvent;
+
+/**
+ * Named game actions. Screens ask whether an action is active instead of
+ * checking key codes, and the {@link ActionMap} decides which keys or
+ * buttons trigger it.
+ *
+ * Every tick the active actions are folded into one {@code long}, one bit per
+ * action, so a screen checks several of them with a single mask test.
+ */
+public enum InputAction {
+
+    P1_LEFT(KeyEvent.VK_A),
+    P1_RIGHT(KeyEvent.VK_D),
+    P1_SHOOT(KeyEvent.VK_SPACE),
+    P2_LEFT(KeyEvent.VK_LEFT),
+    P2_RIGHT(KeyEvent.VK_RIGHT),
+    P2_SHOOT(KeyEvent.VK_ENTER),
+    /** Previous menu entry. */
+    UP(KeyEvent.VK_UP, KeyEvent.VK_W),
+    /** Next menu entry. */
+    DOWN(KeyEvent.VK_DOWN, KeyEvent.VK_S),
+    /** Picks a menu entry. */
+    SELECT(KeyEvent.VK_SPACE),
+    /** Answers a prompt. */
+    CONFIRM(KeyEvent.VK_ENTER, KeyEvent.VK_SPACE),
+    /** Leaves a screen. */
+    BACK(KeyEvent.VK_ESCAPE),
+    PAUSE(KeyEvent.VK_ESCAPE),
+    /** Leaves a paused game for the menu. */
+    QUIT(KeyEvent.VK_BACK_SPACE),
+    /** Deletes the last character typed. */
+    ERASE(KeyEvent.VK_BACK_SPACE);
+
+    /** Movement and shooting actions of each player. */
+    private static final InputAction[][] PLAYER_ACTIONS = {
+            { P1_LEFT, P1_RIGHT, P1_SHOOT },
+            { P2_LEFT, P2_RIGHT, P2_SHOOT }
+    };
+
+    /** Keys bound to the action by default. */
+    private final int[] defaultKeys;
+
+    InputAction(final int... defaultKeys) {
+        this.defaultKeys = defaultKeys;
+    }
+
+    /**
+     * @return Bit of the action in an action mask.
+     */
+    public long bit() {
+        return 1L << ordinal();
+    }
+
+    /**
+     * @param mask
+     *            Action mask.
+     * @return True if the action is set in the mask.
+     */
+    public boolean in(final long mask) {
+        return (mask & bit()) != 0;
+    }
+
+    /**
+     * @return Keys bound to the action by default.
+     */
+    int[] getDefaultKeys() {
+        return this.defaultKeys.clone();
+    }
+
+    /**
+     * @param playerIndex
+     *            Player index (0 or 1).
+     * @return Left, right and shoot actions of the player.
+     */
+    public static InputAction[] ofPlayer(final int playerIndex) {
+        return PLAYER_ACTIONS[playerIndex].clone();
+    }
+
+    /**
+     * @param actions
+     *            Actions to combine.
+     * @return Mask with the bits of the actions set.
+     */
+    public static long maskOf(final InputAction... actions) {
+        long mask = 0;
+        for (InputAction action : actions)
+            mask |= action.bit();
+        return mask;
+    }
+}
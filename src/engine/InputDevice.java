@@ -0,0 +1,38 @@
+package engine;
+
+/**
+ * Source of button states for the {@link ActionMap}: the keyboard, or any
+ * other device such as a gamepad. Bindings name the device and one of its
+ * button codes, e.g. "key:32" for the space bar.
+ *
+ * Devices are only read by the game thread, once per tick after
+ * {@link #poll()}.
+ */
+public interface InputDevice {
+
+    /**
+     * @return Name of the device in bindings.
+     */
+    String getName();
+
+    /**
+     * Reads the device state for a new tick. Devices fed by events, like the
+     * keyboard, need not do anything.
+     */
+    default void poll() {
+    }
+
+    /**
+     * @param code
+     *            Button code.
+     * @return True if the button is held, or was tapped during the tick.
+     */
+    boolean isDown(int code);
+
+    /**
+     * @param code
+     *            Button code.
+     * @return True if the button went down during the tick.
+     */
+    boolean wasPressed(int code);
+}
@@ -1,8 +1,14 @@
 package engine;
 
+import java.awt.event.InputEvent;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 
 import java.awt.event.MouseEvent;//add this line
 import java.awt.event.MouseListener;//add this line
@@ -13,6 +19,14 @@ import java.awt.event.MouseMotionListener;//add this line
 /**
  * Manages keyboard input for the provided screen.
  *
+ * AWT listeners only queue timestamped events in a lock-free ring; the game
+ * thread drains the ring at the start of every tick into an
+ * {@link InputSnapshot}, which every query of the tick reads. The delay from
+ * each event to the tick that consumed it is recorded in the
+ * {@value MetricsRegistry#INPUT_LATENCY} histogram, measured from when the
+ * listener saw it (-Dgame.input.latency=listener, the default), from the
+ * AWT event time (=event, millisecond precision) or not at all (=off).
+ *
  * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
  *
  */
@@ -22,56 +36,116 @@ public final class InputManager implements KeyListener, MouseListener, MouseMoti
 
 	/** Number of recognised keys. */
 	private static final int NUM_KEYS = 256;
-	/** Array with the keys marked as pressed or not. */
-	private static boolean[] keys;
-
-    /** Mouse pressed state. */
-    private static  boolean mousePressed; // add this line
+	/** Number of events queued between two ticks. */
+	private static final int QUEUE_CAPACITY = 4096;
+	/** System property choosing how input latency is measured. */
+	public static final String LATENCY_PROPERTY = "game.input.latency";
+	/** Latency not measured. */
+	private static final int LATENCY_OFF = 0;
+	/** Latency measured from the listener call, in nanoseconds. */
+	private static final int LATENCY_LISTENER = 1;
+	/** Latency measured from the AWT event time, in milliseconds. */
+	private static final int LATENCY_EVENT = 2;
 
 	/** Singleton instance of the class. */
 	private static InputManager instance;
-    /** Last character typed. */
-    private static char lastCharTyped;
-    /** Flag to check if a character was typed. */
-    private static boolean charTyped;
-
 
-    // add three variable
+	/** Events queued by the AWT thread. */
+	private final InputRing events = new InputRing(QUEUE_CAPACITY);
+	/** Input state of the current tick. */
+	private final InputSnapshot snapshot = new InputSnapshot(NUM_KEYS);
+	/** How latency is measured. */
+	private final int latencyMode;
+	/** Time from an event to the tick that consumed it. */
+	private final LatencyHistogram latency;
+	/** Receives the drained events. */
+	private final InputRing.Handler consumer;
+	/** Time of the drain in progress, in the unit of the latency mode. */
+	private long drainTime;
+	/** Devices the actions are read from, the keyboard first. */
+	private final List<InputDevice> devices = new ArrayList<>();
+	/** Bindings of the actions. */
+	private ActionMap bindings = new ActionMap();
+	/** Actions held during the current tick. */
+	private long actions;
+	/** Actions that went down during the current tick. */
+	private long actionsPressed;
 
-    private static int mouseX;
-    private static int mouseY;
-    private static boolean mouseClicked;
-
-	/**
-     *  Declare variables to save and return input keys
-     */
-    private int lastPressedKey = -1;
     private static final String KEY_CONFIG_FILE = "keyconfig.txt";
 
-    protected static int[] player1Keys;
-    protected static int[] player2Keys;
-
     public void setPlayer1Keys(int[] newKeys) {
-        player1Keys = newKeys.clone();
+        setPlayerKeys(0, newKeys);
     }
     public int[] getPlayer1Keys() {
-        return player1Keys.clone();
+        return getPlayerKeys(0);
     }
 
     public void setPlayer2Keys(int[] newKeys) {
-        player2Keys = newKeys.clone();
+        setPlayerKeys(1, newKeys);
     }
     public int[] getPlayer2Keys() {
-        return player2Keys.clone();
+        return getPlayerKeys(1);
+    }
+
+    // Primary keys of a player's left, right and shoot actions
+    private int[] getPlayerKeys(final int playerIndex) {
+        InputAction[] playerActions = InputAction.ofPlayer(playerIndex);
+        int[] keys = new int[playerActions.length];
+        for (int i = 0; i < keys.length; i++)
+            keys[i] = bindings.getPrimaryKey(playerActions[i]);
+        return keys;
+    }
+
+    private void setPlayerKeys(final int playerIndex, final int[] newKeys) {
+        InputAction[] playerActions = InputAction.ofPlayer(playerIndex);
+        for (int i = 0; i < playerActions.length && i < newKeys.length; i++)
+            bindings.setPrimaryKey(playerActions[i], newKeys[i]);
     }
 
     /**
 	 * Private constructor.
 	 */
 	private InputManager() {
-		keys = new boolean[NUM_KEYS];
-        lastCharTyped = '\0';
-        charTyped = false;
+		this(latencyMode(System.getProperty(LATENCY_PROPERTY, "listener")),
+				MetricsRegistry.getInstance());
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param latencyMode
+	 *            How latency is measured.
+	 * @param metrics
+	 *            Registry holding the latency histogram.
+	 */
+	InputManager(final int latencyMode, final MetricsRegistry metrics) {
+		this.latencyMode = latencyMode;
+		this.devices.add(this.snapshot);
+		this.latency = metrics.histogram(MetricsRegistry.INPUT_LATENCY);
+		metrics.gauge(MetricsRegistry.INPUT_DROPPED, this.events::getDropped);
+		this.consumer = (kind, code, x, y, time) -> {
+			this.snapshot.apply(kind, code, x, y);
+			if (this.latencyMode == LATENCY_LISTENER)
+				this.latency.record(this.drainTime - time);
+			else if (this.latencyMode == LATENCY_EVENT)
+				this.latency.record((this.drainTime - time) * 1_000_000L);
+		};
+	}
+
+	/**
+	 * @param name
+	 *            Value of the latency property.
+	 * @return Latency mode it names.
+	 */
+	static int latencyMode(final String name) {
+		switch (name.toLowerCase(Locale.ROOT)) {
+			case "off":
+				return LATENCY_OFF;
+			case "event":
+				return LATENCY_EVENT;
+			default:
+				return LATENCY_LISTENER;
+		}
 	}
 
 	/**
@@ -90,108 +164,137 @@ public final class InputManager implements KeyListener, MouseListener, MouseMoti
      * @return Last character typed, or '\0' if none.
      */
     public char getLastCharTyped() {
-        if (charTyped) {
-            charTyped = false;
-            return lastCharTyped;
-        }
-        return '\0';
+        return snapshot.takeLastCharTyped();
     }
 
-
     /**
-	 * Returns true if the provided key is currently pressed.
-	 *
-	 * @param keyCode
-	 *            Key number to check.
-	 * @return Key state.
-	 */
-	public boolean isKeyDown(final int keyCode) {
-		return keys[keyCode];
-	}
+     * Applies the events queued since the previous tick. Called by the game
+     * loop at the start of every tick.
+     *
+     * @return Number of events applied.
+     */
+    public int drainEvents() {
+        snapshot.beginTick();
+        drainTime = latencyMode == LATENCY_EVENT ? System.currentTimeMillis() : System.nanoTime();
+        int drained = events.drain(consumer);
+        for (int i = 1; i < devices.size(); i++)
+            devices.get(i).poll();
+        updateActions();
+        return drained;
+    }
 
-    // === PLAYER 1 CONTROLS (Existing functionality) ===
-    // Player 1 uses WASD + Spacebar configuration
+    /** Folds the device states into this tick's action masks. */
+    private void updateActions() {
+        actions = bindings.down(devices);
+        actionsPressed = bindings.pressed(devices);
+    }
 
     /**
-     * Checks if Player 1's move left key (player1keys[0]) is pressed.
+     * Returns the actions held during this tick, one bit per action.
      *
-     * @return True if Player 1 is moving left
+     * @return Action mask; test it with {@link InputAction#in(long)}.
      */
-
-    public boolean isP1LeftPressed() {
-        return isKeyDown(player1Keys[0]);
+    public long getActions() {
+        return actions;
     }
 
     /**
-     * Checks if Player 1's move right key (player1keys[1]) is pressed.
+     * Returns the actions that went down during this tick.
      *
-     * @return True if Player 1 is moving right
+     * @return Action mask; test it with {@link InputAction#in(long)}.
      */
-
-    public boolean isP1RightPressed() {
-        return isKeyDown(player1Keys[1]);
+    public long getActionsPressed() {
+        return actionsPressed;
     }
 
     /**
-     * Checks if Player 1's shoot key (player1keys[2]) is pressed.
+     * Returns true if the action is held during this tick.
      *
-     * @return True if Player 1 is shooting
+     * @param action
+     *            Action to check.
+     * @return Action state.
      */
-
-    public boolean isP1ShootPressed() {
-        return isKeyDown(player1Keys[2]);
+    public boolean isActionDown(final InputAction action) {
+        return action.in(actions);
     }
 
-
-    // ==================== PLAYER 2 CONTROLS ====================
-    // Player 2 uses Arrow Keys + Enter configuration
-    // Added for two-player mode implementation
-
     /**
-     * Checks if Player 2's move left key (player2keys[0] is pressed.
+     * Adds a device, e.g. a gamepad, whose bindings then trigger actions.
+     * Devices are polled by the game thread at the start of every tick.
      *
-     * @return True if Player 2 is moving left
+     * @param device
+     *            Device to add.
      */
-
-    public boolean isP2LeftPressed() {
-        return isKeyDown(player2Keys[0]);
+    public void addDevice(final InputDevice device) {
+        devices.add(device);
     }
 
     /**
-     * Checks if Player 2's move right key (player2keys[1]) is pressed.
+     * Returns the action bindings, for rebinding.
      *
-     * @return True if Player 2 is moving right
+     * @return Bindings in use.
      */
-
-    public boolean isP2RightPressed() {
-        return isKeyDown(player2Keys[1]);
+    public ActionMap getBindings() {
+        return bindings;
     }
 
     /**
-     * Checks if Player 2's shoot key (player2keys[2]) is pressed.
+     * Returns the input state of the current tick.
      *
-     * @return True if Player 2 is shooting
+     * @return Snapshot filled by the last {@link #drainEvents()}.
      */
-    public boolean isP2ShootPressed() {
-        return isKeyDown(player2Keys[2]);
+    public InputSnapshot getSnapshot() {
+        return snapshot;
     }
 
+
+    /**
+	 * Returns true if the provided key is currently pressed.
+	 *
+	 * @param keyCode
+	 *            Key number to check.
+	 * @return Key state.
+	 */
+	public boolean isKeyDown(final int keyCode) {
+		return snapshot.isDown(keyCode);
+	}
+
+	/**
+	 * Returns true if the provided key went down during this tick.
+	 *
+	 * @param keyCode
+	 *            Key number to check.
+	 * @return If the key was pressed.
+	 */
+	public boolean wasKeyPressed(final int keyCode) {
+		return snapshot.wasPressed(keyCode);
+	}
+
+	/**
+	 * Returns true if the provided key went up during this tick.
+	 *
+	 * @param keyCode
+	 *            Key number to check.
+	 * @return If the key was released.
+	 */
+	public boolean wasKeyReleased(final int keyCode) {
+		return snapshot.wasReleased(keyCode);
+	}
+
 	/**
-	 * Changes the state of the key to pressed.
+	 * Queues a key press.
 	 *
 	 * @param key
 	 *            Key pressed.
 	 */
 	@Override
 	public void keyPressed(final KeyEvent key) {
-		if (key.getKeyCode() >= 0 && key.getKeyCode() < NUM_KEYS) {
-            keys[key.getKeyCode()] = true;
-            lastPressedKey = key.getKeyCode();
-        }
+		if (key.getKeyCode() >= 0 && key.getKeyCode() < NUM_KEYS)
+			queue(InputRing.KEY_PRESSED, key.getKeyCode(), 0, 0, key);
 	}
 
 	/**
-	 * Changes the state of the key to not pressed.
+	 * Queues a key release.
 	 *
 	 * @param key
 	 *            Key released.
@@ -199,25 +302,30 @@ public final class InputManager implements KeyListener, MouseListener, MouseMoti
 	@Override
 	public void keyReleased(final KeyEvent key) {
 		if (key.getKeyCode() >= 0 && key.getKeyCode() < NUM_KEYS)
-			keys[key.getKeyCode()] = false;
+			queue(InputRing.KEY_RELEASED, key.getKeyCode(), 0, 0, key);
 	}
 
 	/**
-	 * Does nothing.
+	 * Queues a typed character.
 	 *
 	 * @param key
 	 *            Key typed.
 	 */
 	@Override
 	public void keyTyped(final KeyEvent key) {
-        lastCharTyped = key.getKeyChar();
-        charTyped = true;
+		queue(InputRing.KEY_TYPED, key.getKeyChar(), 0, 0, key);
+	}
+
+	/** Queues an event, stamped for the latency measurement. */
+	private void queue(final int kind, final int code, final int x, final int y,
+					   final InputEvent event) {
+		long time = latencyMode == LATENCY_EVENT ? event.getWhen() : System.nanoTime();
+		events.offer(kind, code, x, y, time);
 	}
+
     // Save and return the last pressed key
     public int getLastPressedKey() {
-        int temp = lastPressedKey;
-        lastPressedKey = -1;
-        return temp;
+        return snapshot.takeLastPressedKey();
     }
 
     /**
@@ -225,31 +333,19 @@ public final class InputManager implements KeyListener, MouseListener, MouseMoti
      * (Prevents unintended key carry-over between screens)
      */
     public void clearLastKey() {
-        lastCharTyped = '\0' ;
-        charTyped = false ;
+        snapshot.takeLastCharTyped();
     }
     // Create and return a project path/res/keyconfig.txt file object
     private File getKeyConfigFile() {
         String projectPath = System.getProperty("user.dir");
         return new File(projectPath + File.separator + "res" + File.separator + KEY_CONFIG_FILE);
     }
-    // write a key code in a keyconfig.txt file
+    // write the bindings in a keyconfig.txt file, in the background
     public void saveKeyConfig() {
-        try {
-            File file = getKeyConfigFile();
-            File folder = file.getParentFile();
-            if (!folder.exists()) folder.mkdirs();
-
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-                writer.write(player1Keys[0] + "," + player1Keys[1] + "," + player1Keys[2]);
-                writer.newLine();
-                writer.write(player2Keys[0] + "," + player2Keys[1] + "," + player2Keys[2]);
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        PersistenceService.getInstance().writeFile(getKeyConfigFile().toPath(),
+                bindings.format().getBytes(StandardCharsets.UTF_8));
     }
-    // Import a file and change the saved input key code
+    // Import a file and change the saved bindings; older files are converted
     public void loadKeyConfig() {
         File file = getKeyConfigFile();
 
@@ -257,18 +353,8 @@ public final class InputManager implements KeyListener, MouseListener, MouseMoti
             return;
         }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line1 = reader.readLine();
-            String line2 = reader.readLine();
-            if (line1 != null) {
-                String[] parts = line1.split(",");
-                for (int i = 0; i < 3; i++) player1Keys[i] = Integer.parseInt(parts[i]);
-            }
-            if (line2 != null) {
-                String[] parts = line2.split(",");
-                for (int i = 0; i < 3; i++) player2Keys[i] = Integer.parseInt(parts[i]);
-            }
-
+        try {
+            bindings = ActionMap.parse(Files.readAllLines(file.toPath(), StandardCharsets.UTF_8));
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -278,9 +364,6 @@ public final class InputManager implements KeyListener, MouseListener, MouseMoti
      */
     static {
         instance = new InputManager();
-        player1Keys = new int[] {KeyEvent.VK_A, KeyEvent.VK_D, KeyEvent.VK_SPACE};
-        player2Keys = new int[] {KeyEvent.VK_LEFT, KeyEvent.VK_RIGHT, KeyEvent.VK_ENTER};
-
         instance.loadKeyConfig();
     }
 
@@ -288,22 +371,17 @@ public final class InputManager implements KeyListener, MouseListener, MouseMoti
      * Resets all key states to not pressed.
      */
     public static void resetKeys() {
-        for (int i = 0; i < NUM_KEYS; i++) {
-            keys[i] = false;
-        }
+        instance.snapshot.releaseAll();
+        instance.updateActions();
     }
 
 
-    public int getMouseX() { return mouseX; } // add this function
+    public int getMouseX() { return snapshot.getMouseX(); } // add this function
 
-    public int getMouseY() { return mouseY; } // add this function
+    public int getMouseY() { return snapshot.getMouseY(); } // add this function
 
     public boolean isMouseClicked() { // add this function
-        if (mouseClicked) {
-            mouseClicked = false;
-            return true;
-        }
-        return false;
+        return snapshot.takeMouseClicked();
     }
 
     @Override
@@ -313,17 +391,12 @@ public final class InputManager implements KeyListener, MouseListener, MouseMoti
 
     @Override
     public void mousePressed(final MouseEvent e) { // add this function
-        mousePressed = true;
-        mouseX = e.getX();
-        mouseY = e.getY();
+        queue(InputRing.MOUSE_PRESSED, e.getButton(), e.getX(), e.getY(), e);
     }
 
     @Override
     public void mouseReleased(final MouseEvent e) { // add this function
-        mousePressed = false;
-        mouseX = e.getX();
-        mouseY = e.getY();
-        mouseClicked = true;
+        queue(InputRing.MOUSE_RELEASED, e.getButton(), e.getX(), e.getY(), e);
     }
 
     @Override
@@ -339,17 +412,15 @@ public final class InputManager implements KeyListener, MouseListener, MouseMoti
 	/** Added mouse move/drag event to update mouse position right now */
 	@Override
 	public void mouseMoved(final MouseEvent e){
-		mouseX = e.getX();
-		mouseY = e.getY();
+		queue(InputRing.MOUSE_MOVED, 0, e.getX(), e.getY(), e);
 	}
 	@Override
 	public void mouseDragged(final MouseEvent e){
-		mouseX = e.getX();
-		mouseY = e.getY();
+		queue(InputRing.MOUSE_MOVED, 0, e.getX(), e.getY(), e);
 	}
 
 	public boolean isMousePressed(){
-		return mousePressed;
+		return snapshot.isMouseDown();
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,119 @@
+package engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed-size, lock-free queue of input events from the AWT event thread to
+ * the game thread.
+ *
+ * Exactly one thread offers events and exactly one thread drains them. Events
+ * are stored field by field in preallocated arrays, so queueing an event
+ * allocates nothing. When the queue is full new events are dropped and
+ * counted; the game drains it every tick, so that only happens if the game
+ * thread stalls for thousands of events.
+ */
+final class InputRing {
+
+    /** Key pressed; code is the key code. */
+    static final int KEY_PRESSED = 0;
+    /** Key released; code is the key code. */
+    static final int KEY_RELEASED = 1;
+    /** Character typed; code is the character. */
+    static final int KEY_TYPED = 2;
+    /** Mouse button pressed at x, y. */
+    static final int MOUSE_PRESSED = 3;
+    /** Mouse button released at x, y. */
+    static final int MOUSE_RELEASED = 4;
+    /** Mouse moved or dragged to x, y. */
+    static final int MOUSE_MOVED = 5;
+
+    /**
+     * Receives the drained events, in the order they were offered.
+     */
+    interface Handler {
+        void event(int kind, int code, int x, int y, long time);
+    }
+
+    private final int mask;
+    private final int[] kinds;
+    private final int[] codes;
+    private final int[] xs;
+    private final int[] ys;
+    private final long[] times;
+
+    /** Next slot to drain; written by the consumer only. */
+    private final AtomicLong head = new AtomicLong();
+    /** Next slot to fill; written by the producer only. */
+    private final AtomicLong tail = new AtomicLong();
+    /** Events dropped because the queue was full. */
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param capacity
+     *            Number of events held, rounded up to a power of two.
+     */
+    InputRing(final int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.kinds = new int[size];
+        this.codes = new int[size];
+        this.xs = new int[size];
+        this.ys = new int[size];
+        this.times = new long[size];
+    }
+
+    /**
+     * Producer side. Queues an event.
+     *
+     * @return False if the queue was full and the event was dropped.
+     */
+    boolean offer(final int kind, final int code, final int x, final int y, final long time) {
+        long t = this.tail.get();
+        if (t - this.head.get() > this.mask) {
+            this.dropped.incrementAndGet();
+            return false;
+        }
+        int slot = (int) t & this.mask;
+        this.kinds[slot] = kind;
+        this.codes[slot] = code;
+        this.xs[slot] = x;
+        this.ys[slot] = y;
+        this.times[slot] = time;
+        // Ordered store: the slot is visible before the new tail.
+        this.tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Consumer side. Hands every queued event to the handler.
+     *
+     * @return Number of events drained.
+     */
+    int drain(final Handler handler) {
+        long h = this.head.get();
+        long t = this.tail.get();
+        for (long i = h; i < t; i++) {
+            int slot = (int) i & this.mask;
+            handler.event(this.kinds[slot], this.codes[slot], this.xs[slot], this.ys[slot],
+                    this.times[slot]);
+        }
+        this.head.lazySet(t);
+        return (int) (t - h);
+    }
+
+    /**
+     * @return Number of events held.
+     */
+    int capacity() {
+        return this.mask + 1;
+    }
+
+    /**
+     * @return Events dropped because the queue was full.
+     */
+    long getDropped() {
+        return this.dropped.get();
+    }
+}
@@ -0,0 +1,172 @@
+package engine;
+
+import java.util.Arrays;
+
+/**
+ * Keyboard and mouse state for one game tick, built by draining the input
+ * events queued since the previous tick.
+ *
+ * Besides which keys are held, it records which were pressed or released
+ * during the tick, so a tap shorter than a frame still counts as a press.
+ * It is only read and written by the game thread, and is the keyboard
+ * {@link InputDevice} of the {@link ActionMap}.
+ */
+public final class InputSnapshot implements InputDevice {
+
+    /** Keys held at the end of the tick. */
+    private final boolean[] down;
+    /** Keys pressed during the tick. */
+    private final boolean[] pressed;
+    /** Keys released during the tick. */
+    private final boolean[] released;
+
+    private int mouseX;
+    private int mouseY;
+    private boolean mouseDown;
+    /** If the mouse button was released and nobody asked yet. */
+    private boolean mouseClicked;
+    /** Last key pressed and not yet asked for, or -1. */
+    private int lastPressedKey = -1;
+    /** Last character typed and not yet asked for, or '\0'. */
+    private char lastCharTyped = '\0';
+
+    /**
+     * Constructor.
+     *
+     * @param keys
+     *            Number of recognised key codes.
+     */
+    InputSnapshot(final int keys) {
+        this.down = new boolean[keys];
+        this.pressed = new boolean[keys];
+        this.released = new boolean[keys];
+    }
+
+    /** Starts a new tick, forgetting the previous tick's edges. */
+    void beginTick() {
+        Arrays.fill(this.pressed, false);
+        Arrays.fill(this.released, false);
+    }
+
+    /** Applies one queued event. */
+    void apply(final int kind, final int code, final int x, final int y) {
+        switch (kind) {
+            case InputRing.KEY_PRESSED:
+                if (!this.down[code])
+                    this.pressed[code] = true;
+                this.down[code] = true;
+                this.lastPressedKey = code;
+                break;
+            case InputRing.KEY_RELEASED:
+                if (this.down[code])
+                    this.released[code] = true;
+                this.down[code] = false;
+                break;
+            case InputRing.KEY_TYPED:
+                this.lastCharTyped = (char) code;
+                break;
+            case InputRing.MOUSE_PRESSED:
+                this.mouseDown = true;
+                moveMouse(x, y);
+                break;
+            case InputRing.MOUSE_RELEASED:
+                this.mouseDown = false;
+                this.mouseClicked = true;
+                moveMouse(x, y);
+                break;
+            case InputRing.MOUSE_MOVED:
+                moveMouse(x, y);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void moveMouse(final int x, final int y) {
+        this.mouseX = x;
+        this.mouseY = y;
+    }
+
+    /** Releases every key without reporting release edges. */
+    void releaseAll() {
+        Arrays.fill(this.down, false);
+        Arrays.fill(this.pressed, false);
+    }
+
+    @Override
+    public String getName() {
+        return ActionMap.KEYBOARD;
+    }
+
+    /**
+     * @param keyCode
+     *            Key to check.
+     * @return True if the key is held, or was tapped during the tick.
+     */
+    @Override
+    public boolean isDown(final int keyCode) {
+        return isKey(keyCode) && (this.down[keyCode] || this.pressed[keyCode]);
+    }
+
+    /**
+     * @param keyCode
+     *            Key to check.
+     * @return True if the key went down during the tick.
+     */
+    @Override
+    public boolean wasPressed(final int keyCode) {
+        return isKey(keyCode) && this.pressed[keyCode];
+    }
+
+    /**
+     * @param keyCode
+     *            Key to check.
+     * @return True if the key went up during the tick.
+     */
+    public boolean wasReleased(final int keyCode) {
+        return isKey(keyCode) && this.released[keyCode];
+    }
+
+    private boolean isKey(final int keyCode) {
+        return keyCode >= 0 && keyCode < this.down.length;
+    }
+
+    public int getMouseX() {
+        return this.mouseX;
+    }
+
+    public int getMouseY() {
+        return this.mouseY;
+    }
+
+    public boolean isMouseDown() {
+        return this.mouseDown;
+    }
+
+    /**
+     * @return True once after each release of the mouse button.
+     */
+    boolean takeMouseClicked() {
+        boolean clicked = this.mouseClicked;
+        this.mouseClicked = false;
+        return clicked;
+    }
+
+    /**
+     * @return Last key pressed since the previous call, or -1.
+     */
+    int takeLastPressedKey() {
+        int key = this.lastPressedKey;
+        this.lastPressedKey = -1;
+        return key;
+    }
+
+    /**
+     * @return Last character typed since the previous call, or '\0'.
+     */
+    char takeLastCharTyped() {
+        char typed = this.lastCharTyped;
+        this.lastCharTyped = '\0';
+        return typed;
+    }
+}
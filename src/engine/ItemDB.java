@@ -14,6 +14,10 @@ import java.util.logging.Logger;
 public class ItemDB {
     /** Path to the item database CSV file. */
     private static final String FILE_PATH = "res/item_db.csv";
+    /** Registry shared by the item classes, swapped as a whole on reload. */
+    private static volatile ItemDB shared;
+    /** Path of the CSV file this database was loaded from. */
+    private final String filePath;
     /** Map of item type name to its corresponding ItemData. */
     private final Map<String, ItemData> itemMap = new HashMap<>();
 
@@ -22,9 +26,47 @@ public class ItemDB {
      * Automatically loads the CSV file into memory.
      */
     public ItemDB() {
+        this(FILE_PATH);
+    }
+
+    /**
+     * Constructor, loads the given CSV file into memory.
+     *
+     * @param filePath
+     *            Path of the item database CSV file.
+     */
+    ItemDB(final String filePath) {
+        this.filePath = filePath;
         loadItemDB();
     }
 
+    /**
+     * Returns the shared item database, loading it on first use.
+     *
+     * @return Shared item database.
+     */
+    public static ItemDB getShared() {
+        ItemDB db = shared;
+        if (db == null) {
+            synchronized (ItemDB.class) {
+                if (shared == null)
+                    shared = new ItemDB();
+                db = shared;
+            }
+        }
+        return db;
+    }
+
+    /**
+     * Replaces the shared item database.
+     *
+     * @param db
+     *            New item database.
+     */
+    static void install(final ItemDB db) {
+        shared = db;
+    }
+
     /**
      * Loads all item data from the CSV file into the itemMap.
      * The CSV format is expected as:
@@ -34,7 +76,7 @@ public class ItemDB {
     private void loadItemDB() {
         Logger logger = Core.getLogger();
 
-        try (BufferedReader br = new BufferedReader(new FileReader(FILE_PATH))) {
+        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
             String line;
             boolean header = true;
 
@@ -90,10 +132,10 @@ public class ItemDB {
             }
         } catch (FileNotFoundException e) {
             Logger l = Core.getLogger();
-            l.severe("Item DB file not found: " + FILE_PATH + " (" + e.getMessage() + ")");
+            l.severe("Item DB file not found: " + filePath + " (" + e.getMessage() + ")");
         } catch (IOException e) {
             Logger l = Core.getLogger();
-            l.severe("Failed to load item database from " + FILE_PATH + ": " + e.getMessage());
+            l.severe("Failed to load item database from " + filePath + ": " + e.getMessage());
         }
     }
 
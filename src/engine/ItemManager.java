@@ -1,6 +1,5 @@
 package engine;
 
-import java.util.Random;
 import java.util.logging.Logger;
 
 import entity.EnemyShip;
@@ -9,29 +8,29 @@ import entity.ItemPool;
 
 /**
  * Responsible for item drop decisions and applying item effects.
- * Implemented as a singleton for easy access.
+ * Each {@link GameSession} has its own, so parallel sessions keep their own
+ * pity counter and drop weights.
  */
 public final class ItemManager {
 
-    private static ItemManager instance;
-
     /** Debug logger init */
     private Logger logger;
-    private ItemManager() { logger = Core.getLogger(); }
+    ItemManager() {
+        logger = Core.getLogger();
+        for (DropTier tier : DropTier.values())
+            setTierWeight(tier, tier.tierWeight);
+    }
 
     public static ItemManager getInstance() {
-        if (instance == null)
-            instance = new ItemManager();
-        return instance;
+        return GameSession.current().getItemManager();
     }
 
-    /** Random Roll for item */
-    private final Random itemRoll = new Random();
     /** Counter for pity system, increases when no item is dropped. */
     private int pityCounter = 0;
-
-    /** Item database loaded from CSV. */
-    private final ItemDB itemDB = new ItemDB();
+    /** Weight of each tier, by ordinal; starts at the DropTier weights. */
+    private final double[] tierWeights = new double[DropTier.values().length];
+    /** Total weight of all item tiers except NONE. */
+    private double itemWeight;
 
     /** -------------------------- ITEM DATA -------------------------- **/
 
@@ -49,15 +48,30 @@ public final class ItemManager {
 
     /** -------------------------- INIT -------------------------- **/
 
-    /** Total weight of all item tiers except NONE. */
-    private static final double ITEM_WEIGHT;
-
-    static {
+    /**
+     * Overrides the weight of a tier in this session, for balance runs.
+     *
+     * @param tier
+     *            Drop tier.
+     * @param weight
+     *            New weight, negative values count as 0.
+     */
+    public void setTierWeight(final DropTier tier, final double weight) {
+        this.tierWeights[tier.ordinal()] = Math.max(0.0, weight);
         double sum = 0.0;
         for (DropTier t : DropTier.values()) {
-            if (t != DropTier.NONE) sum += t.tierWeight;
+            if (t != DropTier.NONE) sum += this.tierWeights[t.ordinal()];
         }
-        ITEM_WEIGHT = sum;
+        this.itemWeight = sum;
+    }
+
+    /**
+     * @param tier
+     *            Drop tier.
+     * @return Current weight of the tier in this session.
+     */
+    public double getTierWeight(final DropTier tier) {
+        return this.tierWeights[tier.ordinal()];
     }
 
     /** -------------------------- MAIN -------------------------- **/
@@ -74,17 +88,17 @@ public final class ItemManager {
 
         // Pity Boost
         double pityBoost = Math.min(pityCounter * 0.05, 0.5);
-        double boostedNoneWeight = DropTier.NONE.tierWeight * (1.0 - pityBoost);
+        double boostedNoneWeight = getTierWeight(DropTier.NONE) * (1.0 - pityBoost);
 
         // Roll Item
-        double dropRoll = itemRoll.nextDouble() * (ITEM_WEIGHT + boostedNoneWeight);
+        double dropRoll = GameRandom.nextDouble() * (this.itemWeight + boostedNoneWeight);
         this.logger.info(String.format("[ItemManager]: DropRoll %.1f", dropRoll));
 
         DropTier chosenTier = DropTier.NONE;
         double acc = 0.0;
 
         for (DropTier tier : DropTier.values()) {
-            double weight = tier.tierWeight;
+            double weight = getTierWeight(tier);
 
             if (tier == DropTier.NONE) {
                 weight = boostedNoneWeight;
@@ -109,7 +123,7 @@ public final class ItemManager {
 
         // Load item list from CSV by DropTier
         java.util.List<ItemData> candidates = new java.util.ArrayList<>();
-        for (ItemData data : itemDB.getAllItems()) {
+        for (ItemData data : ItemDB.getShared().getAllItems()) {
             if (data.getDropTier().equalsIgnoreCase(chosenTier.name()))
                 candidates.add(data);
         }
@@ -119,7 +133,7 @@ public final class ItemManager {
             return null;
         }
 
-        ItemData chosenData = candidates.get(itemRoll.nextInt(candidates.size()));
+        ItemData chosenData = candidates.get(GameRandom.nextInt(candidates.size()));
 
         // get spawn position / enemy death position
         int centerX = enemy.getPositionX() + enemy.getWidth() / 2;
@@ -0,0 +1,25 @@
+package engine;
+
+import entity.Ship;
+
+/**
+ * Ship controller reading the player's keys, through their action bindings.
+ */
+public final class KeyboardController implements ShipController {
+
+    /** Keyboard input of the game. */
+    private final InputManager input;
+
+    /**
+     * @param input
+     *            Keyboard input of the game.
+     */
+    public KeyboardController(final InputManager input) {
+        this.input = input;
+    }
+
+    @Override
+    public long control(final int playerIndex, final Ship ship, final Battlefield field) {
+        return this.input.getActions();
+    }
+}
@@ -0,0 +1,166 @@
+package engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency histogram with log-linear buckets, in the manner of HdrHistogram.
+ * Every power of two is split in 16 buckets, so any recorded value is
+ * reported within about 6% of its true value, with a fixed memory footprint
+ * and no allocation when recording.
+ *
+ * Values are nanoseconds; anything above about 18 minutes is clamped.
+ */
+public final class LatencyHistogram {
+
+    /** Bits of a value kept exactly below the first power of two split. */
+    private static final int SUB_BUCKET_BITS = 5;
+    /** Values below this go to their own bucket. */
+    private static final int LINEAR_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /** Buckets per power of two above the linear range. */
+    private static final int HALF_BUCKETS = LINEAR_BUCKETS / 2;
+    /** Largest value recorded as is. */
+    private static final long MAX_VALUE = (1L << 40) - 1;
+    /** Number of buckets. */
+    private static final int BUCKETS = index(MAX_VALUE) + 1;
+
+    /** Count of values per bucket. */
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    /** Number of recorded values. */
+    private final AtomicLong count = new AtomicLong();
+    /** Largest recorded value. */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos
+     *            Duration in nanoseconds.
+     */
+    public void record(final long nanos) {
+        long value = Math.max(0, Math.min(nanos, MAX_VALUE));
+        this.counts.incrementAndGet(index(value));
+        this.count.incrementAndGet();
+        this.max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Records the time elapsed since a {@link System#nanoTime()} reading.
+     *
+     * @param startNanos
+     *            Start of the measured scope.
+     */
+    public void recordSince(final long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * @return Number of recorded values.
+     */
+    public long getCount() {
+        return this.count.get();
+    }
+
+    /**
+     * @return Copy of the current counts.
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = this.counts.get(i);
+            total += copy[i];
+        }
+        return new Snapshot(copy, total, this.max.get());
+    }
+
+    /** Bucket of a value. */
+    private static int index(final long value) {
+        if (value < LINEAR_BUCKETS)
+            return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        int top = (int) (value >>> shift);
+        return LINEAR_BUCKETS + (shift - 1) * HALF_BUCKETS + (top - HALF_BUCKETS);
+    }
+
+    /** Largest value falling in a bucket. */
+    private static long highestValue(final int index) {
+        if (index < LINEAR_BUCKETS)
+            return index;
+        int shift = (index - LINEAR_BUCKETS) / HALF_BUCKETS + 1;
+        long top = (index - LINEAR_BUCKETS) % HALF_BUCKETS + HALF_BUCKETS;
+        return ((top + 1) << shift) - 1;
+    }
+
+    /**
+     * Immutable copy of a histogram, for reading percentiles or the values
+     * recorded between two snapshots.
+     */
+    public static final class Snapshot {
+
+        /** Count of values per bucket. */
+        private final long[] counts;
+        /** Number of values. */
+        private final long count;
+        /** Largest value ever recorded by the histogram. */
+        private final long max;
+
+        private Snapshot(final long[] counts, final long count, final long max) {
+            this.counts = counts;
+            this.count = count;
+            this.max = max;
+        }
+
+        /**
+         * @return Number of values.
+         */
+        public long getCount() {
+            return this.count;
+        }
+
+        /**
+         * @param percentile
+         *            Percentile, between 0 and 100.
+         * @return Value at that percentile, in nanoseconds, or 0 if empty.
+         */
+        public long percentile(final double percentile) {
+            if (this.count == 0)
+                return 0;
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * this.count));
+            long seen = 0;
+            for (int i = 0; i < this.counts.length; i++) {
+                seen += this.counts[i];
+                if (seen >= rank)
+                    return Math.min(highestValue(i), this.max);
+            }
+            return this.max;
+        }
+
+        /**
+         * @param earlier
+         *            Snapshot taken before this one, of the same histogram.
+         * @return Values recorded between the two snapshots.
+         */
+        public Snapshot since(final Snapshot earlier) {
+            long[] diff = new long[this.counts.length];
+            long total = 0;
+            for (int i = 0; i < diff.length; i++) {
+                diff[i] = Math.max(0, this.counts[i] - earlier.counts[i]);
+                total += diff[i];
+            }
+            return new Snapshot(diff, total, this.max);
+        }
+
+        /**
+         * @param other
+         *            Snapshot of another histogram.
+         * @return Values of both snapshots, as if recorded by one histogram.
+         */
+        public Snapshot plus(final Snapshot other) {
+            long[] sum = new long[this.counts.length];
+            for (int i = 0; i < sum.length; i++)
+                sum[i] = this.counts[i] + other.counts[i];
+            return new Snapshot(sum, this.count + other.count, Math.max(this.max, other.max));
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package engine;
+
+import java.awt.Color;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.logging.Logger;
+
+/**
+ * Binary cache of the compiled level file.
+ * The cache records the size and modification time of the level file it was
+ * compiled from and is rebuilt when either changes. Its header holds the
+ * offset of every stage, so stages are only decoded the first time they are
+ * played. The cache is read whole when opened, so a hot reload rewriting it
+ * never changes the bytes under a stage list already handed out.
+ *
+ * Layout: magic, version, source size, source mtime, stage count, stage
+ * offsets, then per stage the four settings, the override count and per
+ * override cell, HP multiplier, reward multiplier, color flag and ARGB.
+ */
+public final class LevelCache {
+
+    /** "LVLC". */
+    private static final int MAGIC = 0x4C564C43;
+    /** Format version, bumped when the layout changes. */
+    private static final int VERSION = 1;
+    /** Bytes before the offset table. */
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4;
+
+    private static final Logger logger = Core.getLogger();
+
+    /**
+     * Private constructor, utility class.
+     */
+    private LevelCache() {
+    }
+
+    /**
+     * Loads the stages of a level file, from its cache when it is up to date,
+     * otherwise by compiling the file and rewriting the cache.
+     *
+     * @param source
+     *            Level file.
+     * @param cache
+     *            Cache file.
+     * @return Game settings of every stage, decoded on first access.
+     * @throws IOException
+     *             If the level file cannot be read.
+     * @throws IllegalArgumentException
+     *             If the level file is invalid, listing every error.
+     */
+    public static List<GameSettings> load(final Path source, final Path cache) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+        long size = attributes.size();
+        long mtime = attributes.lastModifiedTime().toMillis();
+
+        try {
+            LevelList cached = open(source, cache, size, mtime);
+            if (cached != null) {
+                logger.info("Loaded " + cached.size() + " stages from " + cache.getFileName());
+                return cached;
+            }
+        } catch (IOException e) {
+            logger.warning("Ignoring unreadable level cache: " + e.getMessage());
+        }
+
+        List<CompiledLevel> levels = compile(source);
+        try {
+            PersistenceService.writeAtomically(cache, encode(levels, size, mtime));
+        } catch (IOException e) {
+            logger.warning("Couldn't write level cache: " + e.getMessage());
+        }
+        logger.info("Compiled " + levels.size() + " stages from " + source.getFileName());
+        return new LevelList(source, levels.toArray(new CompiledLevel[0]));
+    }
+
+    private static List<CompiledLevel> compile(final Path source) throws IOException {
+        return LevelCompiler.compile(Files.readAllLines(source, StandardCharsets.UTF_8),
+                source.getFileName().toString());
+    }
+
+    /**
+     * Opens the cache if it matches the source.
+     *
+     * @return Lazy stage list, or null if the cache is missing or stale.
+     */
+    private static LevelList open(final Path source, final Path cache, final long size, final long mtime)
+            throws IOException {
+        if (!Files.exists(cache))
+            return null;
+        byte[] data = Files.readAllBytes(cache);
+        if (data.length < HEADER_SIZE)
+            throw new IOException("truncated level cache");
+        ByteBuffer header = ByteBuffer.wrap(data);
+        if (header.getInt() != MAGIC || header.getInt() != VERSION
+                || header.getLong() != size || header.getLong() != mtime)
+            return null;
+        int count = header.getInt();
+        if (count <= 0)
+            return null;
+        if (data.length < HEADER_SIZE + 8L * count)
+            throw new IOException("truncated level cache");
+        int[] offsets = new int[count + 1];
+        for (int i = 0; i < count; i++) {
+            long offset = header.getLong();
+            if (offset < HEADER_SIZE || offset > data.length)
+                throw new IOException("corrupt level cache");
+            offsets[i] = (int) offset;
+        }
+        offsets[count] = data.length;
+        return new LevelList(source, data, offsets);
+    }
+
+    /**
+     * Encodes compiled stages into the cache format.
+     *
+     * @param levels
+     *            Stages to encode.
+     * @param size
+     *            Size of the source file.
+     * @param mtime
+     *            Modification time of the source file, in milliseconds.
+     * @return Cache contents.
+     */
+    static byte[] encode(final List<CompiledLevel> levels, final long size, final long mtime) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        long[] offsets = new long[levels.size()];
+        long start = HEADER_SIZE + 8L * levels.size();
+        try (DataOutputStream out = new DataOutputStream(body)) {
+            for (int i = 0; i < levels.size(); i++) {
+                offsets[i] = start + out.size();
+                CompiledLevel level = levels.get(i);
+                out.writeInt(level.getWidth());
+                out.writeInt(level.getHeight());
+                out.writeInt(level.getBaseSpeed());
+                out.writeInt(level.getShootingFrecuency());
+                out.writeInt(level.getOverrideCount());
+                for (int o = 0; o < level.getOverrideCount(); o++) {
+                    int cell = level.getOverrideCell(o);
+                    int x = cell % level.getWidth();
+                    int y = cell / level.getWidth();
+                    Color color = level.getColor(x, y);
+                    out.writeInt(cell);
+                    out.writeInt(level.getHpMultiplier(x, y));
+                    out.writeInt(level.getRewardMultiplier(x, y));
+                    out.writeBoolean(color != null);
+                    out.writeInt(color == null ? 0 : color.getRGB());
+                }
+            }
+
+            ByteArrayOutputStream file = new ByteArrayOutputStream();
+            DataOutputStream header = new DataOutputStream(file);
+            header.writeInt(MAGIC);
+            header.writeInt(VERSION);
+            header.writeLong(size);
+            header.writeLong(mtime);
+            header.writeInt(levels.size());
+            for (long offset : offsets)
+                header.writeLong(offset);
+            body.writeTo(file);
+            return file.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // in-memory streams do not fail
+        }
+    }
+
+    /**
+     * Decodes one stage of the cache.
+     *
+     * @param bytes
+     *            Bytes of the stage.
+     * @return Compiled stage.
+     * @throws IOException
+     *             If the bytes are truncated.
+     */
+    static CompiledLevel decode(final byte[] bytes) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            int width = in.readInt();
+            int height = in.readInt();
+            int baseSpeed = in.readInt();
+            int shootingFrecuency = in.readInt();
+            if (width <= 0 || height <= 0)
+                throw new IOException("corrupt level cache");
+            int cells = width * height;
+            int[] hp = new int[cells];
+            int[] reward = new int[cells];
+            Color[] colors = new Color[cells];
+            Arrays.fill(hp, 1);
+            Arrays.fill(reward, 1);
+
+            int[] overrides = new int[in.readInt()];
+            for (int o = 0; o < overrides.length; o++) {
+                int cell = in.readInt();
+                if (cell < 0 || cell >= cells)
+                    throw new IOException("corrupt level cache");
+                overrides[o] = cell;
+                hp[cell] = in.readInt();
+                reward[cell] = in.readInt();
+                boolean hasColor = in.readBoolean();
+                int argb = in.readInt();
+                colors[cell] = hasColor ? new Color(argb, true) : null;
+            }
+            return new CompiledLevel(width, height, baseSpeed, shootingFrecuency, hp, reward, colors, overrides);
+        }
+    }
+
+    /**
+     * Stage list decoding each stage from the cache on first access.
+     */
+    private static final class LevelList extends AbstractList<GameSettings> implements RandomAccess {
+        /** Level file, recompiled if the cache disappears. */
+        private final Path source;
+        /** Cache contents read when the list was opened, null if the stages were compiled in memory. */
+        private final byte[] data;
+        /** Stage offsets in the cache, plus the cache size. */
+        private final int[] offsets;
+        /** Compiled stages, filled on first access. */
+        private CompiledLevel[] levels;
+        /** Game settings, created on first access. */
+        private final GameSettings[] settings;
+
+        private LevelList(final Path source, final byte[] data, final int[] offsets) {
+            this.source = source;
+            this.data = data;
+            this.offsets = offsets;
+            this.levels = new CompiledLevel[offsets.length - 1];
+            this.settings = new GameSettings[offsets.length - 1];
+        }
+
+        private LevelList(final Path source, final CompiledLevel[] levels) {
+            this.source = source;
+            this.data = null;
+            this.offsets = null;
+            this.levels = levels;
+            this.settings = new GameSettings[levels.length];
+        }
+
+        @Override
+        public synchronized GameSettings get(final int index) {
+            if (this.settings[index] == null)
+                this.settings[index] = level(index).toGameSettings();
+            return this.settings[index];
+        }
+
+        private CompiledLevel level(final int index) {
+            if (this.levels[index] == null) {
+                try {
+                    this.levels[index] = decode(Arrays.copyOfRange(this.data,
+                            this.offsets[index], Math.max(this.offsets[index], this.offsets[index + 1])));
+                } catch (IOException e) {
+                    logger.warning("Level cache unreadable, recompiling " + this.source.getFileName()
+                            + ": " + e.getMessage());
+                    CompiledLevel[] compiled;
+                    try {
+                        compiled = compile(this.source).toArray(new CompiledLevel[0]);
+                    } catch (IOException reload) {
+                        throw new IllegalStateException("Couldn't load stage " + (index + 1), reload);
+                    }
+                    if (compiled.length != this.levels.length)
+                        throw new IllegalStateException(this.source.getFileName()
+                                + " changed its stage count while running");
+                    this.levels = compiled;
+                }
+            }
+            return this.levels[index];
+        }
+
+        @Override
+        public int size() {
+            return this.settings.length;
+        }
+    }
+}
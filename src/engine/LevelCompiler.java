@@ -0,0 +1,175 @@
+package engine;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Validates level.csv and compiles it into {@link CompiledLevel}s.
+ * Stages are separated by lines holding only "&amp;"; lines starting with //
+ * and blank lines are ignored. The first line of a stage is
+ * "formationWidth,formationHeight,baseSpeed,shootingFrecuency", the others are
+ * "x,y,hpMultiplier,rewardMultiplier[,#color]", where an HP multiplier of 0
+ * removes the ship. Every problem is reported with its line number.
+ */
+public final class LevelCompiler {
+
+    /**
+     * Private constructor, utility class.
+     */
+    private LevelCompiler() {
+    }
+
+    /**
+     * Compiles the lines of a level file.
+     *
+     * @param lines
+     *            Lines of the file.
+     * @param source
+     *            File name used in error messages.
+     * @return Compiled stages, in file order.
+     * @throws IllegalArgumentException
+     *             Listing every invalid line, one "source:line: message" per
+     *             line of the message.
+     */
+    public static List<CompiledLevel> compile(final List<String> lines, final String source) {
+        List<CompiledLevel> levels = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        StageBuilder stage = null;
+
+        for (int i = 0; i < lines.size(); i++) {
+            int lineNumber = i + 1;
+            String line = lines.get(i).trim();
+            if (i == 0 && line.startsWith("\uFEFF"))
+                line = line.substring(1).trim();
+            if (line.isEmpty() || line.startsWith("//"))
+                continue;
+
+            if (line.equals("&")) {
+                if (stage != null && stage != StageBuilder.INVALID)
+                    levels.add(stage.build());
+                stage = null;
+                continue;
+            }
+            try {
+                if (line.indexOf('&') >= 0)
+                    throw new IllegalArgumentException("stage separator '&' must be on its own line");
+                String[] parts = line.split(",");
+                if (stage == null) {
+                    if (parts.length != 4)
+                        throw new IllegalArgumentException("stage settings need 4 values but found "
+                                + parts.length);
+                    stage = new StageBuilder(ints(parts, 4));
+                } else {
+                    stage.override(parts);
+                }
+            } catch (IllegalArgumentException e) {
+                errors.add(source + ":" + lineNumber + ": " + e.getMessage());
+                if (stage == null)
+                    stage = StageBuilder.INVALID;
+            }
+        }
+        if (stage != null && stage != StageBuilder.INVALID)
+            levels.add(stage.build());
+
+        if (!errors.isEmpty())
+            throw new IllegalArgumentException(String.join(System.lineSeparator(), errors));
+        if (levels.isEmpty())
+            throw new IllegalArgumentException(source + ": no stages defined");
+        return levels;
+    }
+
+    /** Parses the first count comma separated integers. */
+    private static int[] ints(final String[] parts, final int count) {
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            try {
+                values[i] = Integer.parseInt(parts[i].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("value " + (i + 1) + " '" + parts[i].trim()
+                        + "' is not an integer");
+            }
+        }
+        return values;
+    }
+
+    /** Parses a #RRGGBB or #RRGGBBAA color. */
+    static Color color(final String text) {
+        String hex = text.startsWith("#") ? text.substring(1) : text;
+        if ((hex.length() != 6 && hex.length() != 8) || !hex.matches("[0-9a-fA-F]+"))
+            throw new IllegalArgumentException("color '" + text + "' is not #RRGGBB or #RRGGBBAA");
+        int rgb = Integer.parseInt(hex.substring(0, 6), 16);
+        if (hex.length() == 6)
+            return new Color(rgb);
+        int alpha = Integer.parseInt(hex.substring(6), 16);
+        return new Color(rgb >> 16 & 0xFF, rgb >> 8 & 0xFF, rgb & 0xFF, alpha);
+    }
+
+    /** Collects the cells of a stage being compiled. */
+    private static final class StageBuilder {
+        /** Placeholder for a stage whose settings line is invalid. */
+        private static final StageBuilder INVALID = new StageBuilder(null);
+
+        private final int[] settings;
+        private int[] hp;
+        private int[] reward;
+        private Color[] colors;
+        private boolean[] overridden;
+        private final List<Integer> overrides = new ArrayList<>();
+
+        private StageBuilder(final int[] settings) {
+            this.settings = settings;
+            if (settings == null)
+                return;
+            if (settings[0] <= 0 || settings[1] <= 0)
+                throw new IllegalArgumentException("formation size " + settings[0] + "x" + settings[1]
+                        + " must be positive");
+            if (settings[2] < 0 || settings[3] <= 0)
+                throw new IllegalArgumentException("speed must not be negative and shooting frequency"
+                        + " must be positive");
+            int cells = settings[0] * settings[1];
+            this.hp = new int[cells];
+            this.reward = new int[cells];
+            this.colors = new Color[cells];
+            this.overridden = new boolean[cells];
+            Arrays.fill(this.hp, 1);
+            Arrays.fill(this.reward, 1);
+        }
+
+        private void override(final String[] parts) {
+            if (parts.length != 4 && parts.length != 5)
+                throw new IllegalArgumentException("cell overrides need 4 or 5 values but found "
+                        + parts.length);
+            int[] values = ints(parts, 4);
+            if (this.settings == null)
+                return;
+
+            int x = values[0];
+            int y = values[1];
+            if (x < 0 || x >= this.settings[0] || y < 0 || y >= this.settings[1])
+                throw new IllegalArgumentException("cell (" + x + "," + y + ") is outside the "
+                        + this.settings[0] + "x" + this.settings[1] + " formation");
+            if (values[2] < 0 || values[3] < 0)
+                throw new IllegalArgumentException("multipliers must not be negative");
+            int cell = y * this.settings[0] + x;
+            if (this.overridden[cell])
+                throw new IllegalArgumentException("cell (" + x + "," + y + ") is overridden twice");
+
+            Color color = parts.length == 5 ? color(parts[4].trim()) : null;
+            this.hp[cell] = values[2];
+            this.reward[cell] = values[3];
+            this.colors[cell] = color;
+            this.overridden[cell] = true;
+            this.overrides.add(cell);
+        }
+
+        private CompiledLevel build() {
+            int[] cells = new int[this.overrides.size()];
+            for (int i = 0; i < cells.length; i++)
+                cells[i] = this.overrides.get(i);
+            return new CompiledLevel(this.settings[0], this.settings[1], this.settings[2], this.settings[3],
+                    this.hp, this.reward, this.colors, cells);
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package engine;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Periodically exports the metrics registry for unattended soak sessions.
+ *
+ * Each export covers the time since the previous one: histogram counts and
+ * percentiles for that window, plus the current gauges and counters. Exports
+ * are appended to a rotating file, as JSON lines if its name ends in .json
+ * and as CSV rows (time,metric,value) otherwise, and the latest one is
+ * served as JSON on http://127.0.0.1:port/metrics.
+ *
+ * Enabled with -Dgame.metrics.file=path and/or -Dgame.metrics.port=port;
+ * -Dgame.metrics.interval sets the seconds between exports (default 10).
+ */
+public final class MetricsExporter {
+
+    /** System property naming the export file. */
+    public static final String FILE_PROPERTY = "game.metrics.file";
+    /** System property with the port of the HTTP endpoint. */
+    public static final String PORT_PROPERTY = "game.metrics.port";
+    /** System property with the seconds between exports. */
+    public static final String INTERVAL_PROPERTY = "game.metrics.interval";
+    /** Default seconds between exports. */
+    private static final int DEFAULT_INTERVAL = 10;
+    /** Size after which the export file is rotated. */
+    static final long MAX_FILE_BYTES = 4L << 20;
+    /** Number of rotated files kept besides the current one. */
+    static final int KEPT_FILES = 4;
+    /** Percentiles exported for every histogram. */
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+    private static final String[] PERCENTILE_NAMES = { "p50", "p90", "p99", "p999" };
+
+    private static MetricsExporter instance;
+    private static final Logger logger = Core.getLogger();
+
+    /** Registry being exported. */
+    private final MetricsRegistry metrics;
+    /** Export file, or null. */
+    private final Path file;
+    /** Whether the file holds JSON lines rather than CSV. */
+    private final boolean json;
+    /** Size after which the file is rotated. */
+    private final long maxFileBytes;
+    /** Histograms at the previous export. */
+    private final Map<String, LatencyHistogram.Snapshot> previous = new HashMap<>();
+    /** Time of the previous export. */
+    private long previousTime;
+    /** Latest export, as JSON. */
+    private volatile String latest = "{}";
+    /** HTTP endpoint, or null. */
+    private HttpServer server;
+    /** Thread running the periodic exports, or null. */
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Constructor, prepares an exporter. Nothing is exported until
+     * {@link #export()} is called or {@link #start(long)} schedules it.
+     *
+     * @param metrics
+     *            Registry to export.
+     * @param file
+     *            File to append exports to, or null.
+     * @param maxFileBytes
+     *            Size after which the file is rotated.
+     */
+    MetricsExporter(final MetricsRegistry metrics, final Path file, final long maxFileBytes) {
+        this.metrics = metrics;
+        this.file = file;
+        this.json = file != null && file.getFileName().toString().endsWith(".json");
+        this.maxFileBytes = maxFileBytes;
+        this.previousTime = System.currentTimeMillis();
+        for (Map.Entry<String, LatencyHistogram> entry : metrics.getHistograms().entrySet())
+            this.previous.put(entry.getKey(), entry.getValue().snapshot());
+    }
+
+    /**
+     * Starts exporting if any of the system properties is set.
+     */
+    public static synchronized void startIfEnabled() {
+        String fileName = System.getProperty(FILE_PROPERTY);
+        int port = Integer.getInteger(PORT_PROPERTY, -1);
+        if (instance != null || (fileName == null && port < 0))
+            return;
+
+        Path file = fileName == null ? null : Paths.get(fileName);
+        instance = new MetricsExporter(MetricsRegistry.getInstance(), file, MAX_FILE_BYTES);
+        if (port >= 0) {
+            try {
+                port = instance.serve(port);
+                logger.info("Serving metrics on http://127.0.0.1:" + port + "/metrics");
+            } catch (IOException e) {
+                logger.warning("Couldn't serve metrics on port " + port + ": " + e.getMessage());
+            }
+        }
+        int interval = Math.max(1, Integer.getInteger(INTERVAL_PROPERTY, DEFAULT_INTERVAL));
+        instance.start(TimeUnit.SECONDS.toMillis(interval));
+        logger.info("Exporting metrics every " + interval + " s"
+                + (file == null ? "." : " to " + file + "."));
+    }
+
+    /**
+     * Writes a last export and stops the running exporter, if any.
+     */
+    public static synchronized void stopIfRunning() {
+        if (instance == null)
+            return;
+        instance.close();
+        instance = null;
+    }
+
+    /**
+     * Serves the latest export on the loopback interface.
+     *
+     * @param port
+     *            Port to listen on, 0 for any free port.
+     * @return Port listened on.
+     * @throws IOException
+     *             If the port cannot be bound.
+     */
+    int serve(final int port) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.server.createContext("/metrics", exchange -> {
+            byte[] body = this.latest.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        this.server.start();
+        return this.server.getAddress().getPort();
+    }
+
+    /**
+     * Exports periodically on a background thread.
+     *
+     * @param intervalMs
+     *            Milliseconds between exports.
+     */
+    void start(final long intervalMs) {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "metrics-exporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleAtFixedRate(() -> {
+            try {
+                export();
+            } catch (RuntimeException e) {
+                logger.warning("Metrics export failed: " + e);
+            }
+        }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Exports the metrics recorded since the previous export.
+     */
+    synchronized void export() {
+        long now = System.currentTimeMillis();
+        StringBuilder jsonLine = new StringBuilder(1024);
+        StringBuilder csvRows = new StringBuilder(2048);
+
+        jsonLine.append("{\"time\":").append(now)
+                .append(",\"intervalMs\":").append(now - this.previousTime)
+                .append(",\"histograms\":{");
+        boolean first = true;
+        for (Map.Entry<String, LatencyHistogram> entry : this.metrics.getHistograms().entrySet()) {
+            LatencyHistogram.Snapshot current = entry.getValue().snapshot();
+            LatencyHistogram.Snapshot start = this.previous.put(entry.getKey(), current);
+            LatencyHistogram.Snapshot window = start == null ? current : current.since(start);
+
+            jsonLine.append(first ? "" : ",").append('"').append(entry.getKey())
+                    .append("\":{\"count\":").append(window.getCount());
+            csv(csvRows, now, entry.getKey() + ".count", Long.toString(window.getCount()));
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                String millis = millis(window.percentile(PERCENTILES[i]));
+                jsonLine.append(",\"").append(PERCENTILE_NAMES[i]).append("Ms\":").append(millis);
+                csv(csvRows, now, entry.getKey() + "." + PERCENTILE_NAMES[i] + "_ms", millis);
+            }
+            jsonLine.append('}');
+            first = false;
+        }
+
+        jsonLine.append("},\"gauges\":{");
+        first = true;
+        for (Map.Entry<String, LongSupplier> entry : this.metrics.getGauges().entrySet()) {
+            long value = entry.getValue().getAsLong();
+            jsonLine.append(first ? "" : ",").append('"').append(entry.getKey()).append("\":").append(value);
+            csv(csvRows, now, entry.getKey(), Long.toString(value));
+            first = false;
+        }
+
+        jsonLine.append("},\"counters\":{");
+        first = true;
+        for (Map.Entry<String, MetricsRegistry.Counter> entry : this.metrics.getCounters().entrySet()) {
+            long value = entry.getValue().get();
+            jsonLine.append(first ? "" : ",").append('"').append(entry.getKey()).append("\":").append(value);
+            csv(csvRows, now, entry.getKey(), Long.toString(value));
+            first = false;
+        }
+        jsonLine.append("}}");
+
+        this.previousTime = now;
+        this.latest = jsonLine.toString();
+        if (this.file != null)
+            append(this.json ? this.latest + System.lineSeparator() : csvRows.toString());
+    }
+
+    /**
+     * @return Latest export, as JSON.
+     */
+    String getLatest() {
+        return this.latest;
+    }
+
+    /** Appends to the export file, rotating it when it is full. */
+    private void append(final String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        try {
+            Path parent = this.file.toAbsolutePath().getParent();
+            if (parent != null)
+                Files.createDirectories(parent);
+            if (Files.exists(this.file) && Files.size(this.file) + bytes.length > this.maxFileBytes)
+                rotate();
+            if (!this.json && !Files.exists(this.file))
+                Files.write(this.file, ("time,metric,value" + System.lineSeparator())
+                        .getBytes(StandardCharsets.UTF_8));
+            Files.write(this.file, bytes, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            logger.warning("Couldn't write metrics to " + this.file + ": " + e.getMessage());
+        }
+    }
+
+    /** Shifts file to file.1, file.1 to file.2 and so on, dropping the oldest. */
+    private void rotate() throws IOException {
+        Files.deleteIfExists(rotated(KEPT_FILES));
+        for (int i = KEPT_FILES - 1; i >= 1; i--)
+            if (Files.exists(rotated(i)))
+                Files.move(rotated(i), rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+        Files.move(this.file, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Path rotated(final int index) {
+        return this.file.resolveSibling(this.file.getFileName() + "." + index);
+    }
+
+    private static void csv(final StringBuilder rows, final long time, final String metric, final String value) {
+        rows.append(time).append(',').append(metric).append(',').append(value)
+                .append(System.lineSeparator());
+    }
+
+    private static String millis(final long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+
+    /**
+     * Stops the periodic exports and the endpoint, after a last export.
+     */
+    void close() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdown();
+            try {
+                this.scheduler.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        export();
+        if (this.server != null)
+            this.server.stop(0);
+    }
+}
@@ -0,0 +1,118 @@
+package engine;
+
+/**
+ * In-game profiler overlay, toggled with F3. Shows frame rate, frame time
+ * percentiles, the cost of the main frame scopes, garbage collections and
+ * live entity and pool counts.
+ *
+ * Figures cover the last second and are refreshed once per second, so the
+ * overlay itself builds no strings on most frames.
+ */
+public final class MetricsOverlay {
+
+    /** Time between refreshes of the figures. */
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+    private static final double NANOS_PER_MS = 1_000_000.0;
+    /** Shown until the first window is complete. */
+    private static final String[] COLLECTING = { "Collecting metrics..." };
+
+    /** Whether the overlay is drawn. */
+    private static volatile boolean visible;
+    /** Lines currently shown. */
+    private static String[] lines = COLLECTING;
+    /** Start of the current window. */
+    private static long windowStart;
+    /** Histograms at the start of the current window. */
+    private static LatencyHistogram.Snapshot lastFrame;
+    private static LatencyHistogram.Snapshot lastUpdate;
+    private static LatencyHistogram.Snapshot lastDraw;
+    private static LatencyHistogram.Snapshot lastCollisions;
+    private static LatencyHistogram.Snapshot lastSound;
+
+    /**
+     * Constructor, not called.
+     */
+    private MetricsOverlay() {
+
+    }
+
+    /**
+     * Shows the overlay if hidden, hides it otherwise.
+     */
+    public static synchronized void toggle() {
+        visible = !visible;
+        lines = COLLECTING;
+        windowStart = 0;
+    }
+
+    /**
+     * @return True if the overlay is drawn.
+     */
+    public static boolean isVisible() {
+        return visible;
+    }
+
+    /**
+     * Returns the lines to draw, refreshing them when a window has passed.
+     *
+     * @return Lines of the overlay.
+     */
+    public static synchronized String[] getLines() {
+        long now = System.nanoTime();
+        if (windowStart == 0) {
+            startWindow(now);
+        } else if (now - windowStart >= WINDOW_NANOS) {
+            lines = buildLines(now);
+            startWindow(now);
+        }
+        return lines;
+    }
+
+    private static void startWindow(final long now) {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        windowStart = now;
+        lastFrame = metrics.histogram(MetricsRegistry.FRAME).snapshot();
+        lastUpdate = metrics.histogram(MetricsRegistry.UPDATE).snapshot();
+        lastDraw = metrics.histogram(MetricsRegistry.DRAW).snapshot();
+        lastCollisions = metrics.histogram(MetricsRegistry.COLLISIONS).snapshot();
+        lastSound = metrics.histogram(MetricsRegistry.SOUND).snapshot();
+    }
+
+    private static String[] buildLines(final long now) {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        LatencyHistogram.Snapshot frame = since(metrics, MetricsRegistry.FRAME, lastFrame);
+        LatencyHistogram.Snapshot update = since(metrics, MetricsRegistry.UPDATE, lastUpdate);
+        LatencyHistogram.Snapshot draw = since(metrics, MetricsRegistry.DRAW, lastDraw);
+        LatencyHistogram.Snapshot collisions = since(metrics, MetricsRegistry.COLLISIONS, lastCollisions);
+        LatencyHistogram.Snapshot sound = since(metrics, MetricsRegistry.SOUND, lastSound);
+
+        double seconds = (now - windowStart) / (double) WINDOW_NANOS;
+        return new String[] {
+                String.format("FPS %.0f  frame p50 %.1f p99 %.1f ms",
+                        frame.getCount() / seconds, ms(frame.percentile(50)), ms(frame.percentile(99))),
+                String.format("p99 update %.1f draw %.1f coll %.2f snd %.2f",
+                        ms(update.percentile(99)), ms(draw.percentile(99)),
+                        ms(collisions.percentile(99)), ms(sound.percentile(99))),
+                String.format("GC %d  heap %d MB",
+                        metrics.readGauge(MetricsRegistry.GC_COUNT),
+                        metrics.readGauge(MetricsRegistry.HEAP_USED) >> 20),
+                String.format("live bullets %d items %d expl %d",
+                        metrics.readGauge(MetricsRegistry.LIVE_BULLETS),
+                        metrics.readGauge(MetricsRegistry.LIVE_ITEMS),
+                        metrics.readGauge(MetricsRegistry.LIVE_EXPLOSIONS)),
+                String.format("pool bullets %d items %d enemies %d",
+                        metrics.readGauge(MetricsRegistry.POOL_BULLETS),
+                        metrics.readGauge(MetricsRegistry.POOL_ITEMS),
+                        metrics.readGauge(MetricsRegistry.POOL_ENEMIES))
+        };
+    }
+
+    private static LatencyHistogram.Snapshot since(final MetricsRegistry metrics, final String name,
+                                                   final LatencyHistogram.Snapshot start) {
+        return metrics.histogram(name).snapshot().since(start);
+    }
+
+    private static double ms(final long nanos) {
+        return nanos / NANOS_PER_MS;
+    }
+}
@@ -0,0 +1,248 @@
+package engine;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import entity.BulletPool;
+import entity.EnemyShipPool;
+import entity.ItemPool;
+
+/**
+ * Named counters, gauges and latency histograms of the running game.
+ *
+ * Metrics are created on first use and live as long as the registry, so
+ * callers keep a reference to them and record without any lookup. Scopes
+ * are timed with {@link System#nanoTime()} into a histogram:
+ *
+ * <pre>
+ * long start = System.nanoTime();
+ * draw();
+ * DRAW_TIME.recordSince(start);
+ * </pre>
+ */
+public final class MetricsRegistry {
+
+    /** Frame time, from the start of a frame to the start of the next. */
+    public static final String FRAME = "frame.total";
+    /** Time spent in a screen's update, drawing included. */
+    public static final String UPDATE = "frame.update";
+    /** Time spent sleeping until the next frame. */
+    public static final String SLEEP = "frame.sleep";
+    /** Time from initDrawing to completeDrawing. */
+    public static final String DRAW = "draw.frame";
+    /** Time drawing explosions. */
+    public static final String DRAW_EXPLOSIONS = "draw.explosions";
+    /** Time spent on collisions by game screens. */
+    public static final String COLLISIONS = "screen.collisions";
+    /** Time spent starting a sound on the game thread. */
+    public static final String SOUND = "sound.play";
+    /** Update passes split across the update pool. */
+    public static final String PARALLEL_UPDATES = "update.parallel";
+    /** Time from an input event to the tick that consumed it. */
+    public static final String INPUT_LATENCY = "input.latency";
+    /** Duration of each garbage collection. */
+    public static final String GC_PAUSE = "jvm.gc.pause";
+
+    /** Number of garbage collections since start-up. */
+    public static final String GC_COUNT = "jvm.gc.count";
+    /** Total time spent in garbage collections, in milliseconds. */
+    public static final String GC_TIME = "jvm.gc.time";
+    /** Used heap, in bytes. */
+    public static final String HEAP_USED = "jvm.heap.used";
+    /** Maximum heap, in bytes. */
+    public static final String HEAP_MAX = "jvm.heap.max";
+    /** Input events dropped because the input queue was full. */
+    public static final String INPUT_DROPPED = "input.dropped";
+    /** Audio lines in use. */
+    public static final String SOUND_VOICES = "sound.voices";
+    /** Bullets on screen. */
+    public static final String LIVE_BULLETS = "live.bullets";
+    /** Items on screen. */
+    public static final String LIVE_ITEMS = "live.items";
+    /** Explosions being drawn. */
+    public static final String LIVE_EXPLOSIONS = "live.explosions";
+    /** Bullets waiting in the bullet pool. */
+    public static final String POOL_BULLETS = "pool.bullets";
+    /** Items waiting in the item pool. */
+    public static final String POOL_ITEMS = "pool.items";
+    /** Enemy ships waiting in the enemy pool. */
+    public static final String POOL_ENEMIES = "pool.enemies";
+    /** Bytes sent to the co-op relay. */
+    public static final String NET_SENT = "net.sent.bytes";
+    /** Bytes received from the co-op relay. */
+    public static final String NET_RECEIVED = "net.received.bytes";
+
+    private static MetricsRegistry instance;
+
+    /** Counters, by name. */
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    /** Gauges, by name. */
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    /** Histograms, by name. */
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Monotonic count of events.
+     */
+    public static final class Counter {
+
+        private final LongAdder value = new LongAdder();
+
+        /** Counts one event. */
+        public void increment() {
+            this.value.increment();
+        }
+
+        /**
+         * @param events
+         *            Number of events to count.
+         */
+        public void add(final long events) {
+            this.value.add(events);
+        }
+
+        /**
+         * @return Number of events counted.
+         */
+        public long get() {
+            return this.value.sum();
+        }
+    }
+
+    /**
+     * Constructor, creates an empty registry.
+     */
+    MetricsRegistry() {
+    }
+
+    /**
+     * Returns the shared registry, with the JVM and pool gauges registered.
+     *
+     * @return Shared instance of MetricsRegistry.
+     */
+    public static synchronized MetricsRegistry getInstance() {
+        if (instance == null) {
+            instance = new MetricsRegistry();
+            instance.registerDefaultGauges();
+        }
+        return instance;
+    }
+
+    private void registerDefaultGauges() {
+        gauge(GC_COUNT, () -> {
+            long collections = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+                collections += Math.max(0, gc.getCollectionCount());
+            return collections;
+        });
+        gauge(GC_TIME, () -> {
+            long millis = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+                millis += Math.max(0, gc.getCollectionTime());
+            return millis;
+        });
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        gauge(HEAP_USED, () -> memory.getHeapMemoryUsage().getUsed());
+        gauge(HEAP_MAX, () -> memory.getHeapMemoryUsage().getMax());
+        gauge(POOL_BULLETS, BulletPool::size);
+        gauge(POOL_ITEMS, ItemPool::size);
+        gauge(POOL_ENEMIES, EnemyShipPool::size);
+        gauge(SOUND_VOICES, SoundManager::getActiveVoices);
+
+        // Each collection reports its duration; record them as pauses.
+        LatencyHistogram pauses = histogram(GC_PAUSE);
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (!(gc instanceof NotificationEmitter))
+                continue;
+            ((NotificationEmitter) gc).addNotificationListener((notification, handback) -> {
+                if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION
+                        .equals(notification.getType()))
+                    return;
+                GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo
+                        .from((CompositeData) notification.getUserData());
+                pauses.record(info.getGcInfo().getDuration() * 1_000_000L);
+            }, null, null);
+        }
+    }
+
+    /**
+     * @param name
+     *            Name of the counter.
+     * @return Counter with that name, created if needed.
+     */
+    public Counter counter(final String name) {
+        return this.counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    /**
+     * @param name
+     *            Name of the histogram.
+     * @return Histogram with that name, created if needed.
+     */
+    public LatencyHistogram histogram(final String name) {
+        return this.histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Registers a gauge, replacing any gauge with the same name.
+     *
+     * @param name
+     *            Name of the gauge.
+     * @param value
+     *            Reads the current value; called when the gauge is read.
+     */
+    public void gauge(final String name, final LongSupplier value) {
+        this.gauges.put(name, value);
+    }
+
+    /**
+     * Unregisters a gauge.
+     *
+     * @param name
+     *            Name of the gauge.
+     */
+    public void removeGauge(final String name) {
+        this.gauges.remove(name);
+    }
+
+    /**
+     * @param name
+     *            Name of the gauge.
+     * @return Current value of the gauge, or 0 if it is not registered.
+     */
+    public long readGauge(final String name) {
+        LongSupplier gauge = this.gauges.get(name);
+        return gauge == null ? 0 : gauge.getAsLong();
+    }
+
+    /**
+     * @return Counters by name, sorted.
+     */
+    public Map<String, Counter> getCounters() {
+        return Collections.unmodifiableMap(new TreeMap<>(this.counters));
+    }
+
+    /**
+     * @return Gauges by name, sorted.
+     */
+    public Map<String, LongSupplier> getGauges() {
+        return Collections.unmodifiableMap(new TreeMap<>(this.gauges));
+    }
+
+    /**
+     * @return Histograms by name, sorted.
+     */
+    public Map<String, LatencyHistogram> getHistograms() {
+        return Collections.unmodifiableMap(new TreeMap<>(this.histograms));
+    }
+}
@@ -0,0 +1,209 @@
+package engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+/**
+ * Client side of networked co-op: the remote player sends the controls of
+ * each tick to the {@link NetHost} and shows the snapshots it sends back.
+ *
+ * The own ship is predicted: it moves as soon as a key is held, and when a
+ * snapshot arrives it is put back where the host had it after the last
+ * input the host applied, then moved again by the inputs the host has not
+ * seen yet. Everything else is shown as the host last sent it.
+ *
+ * Enabled with -Dgame.net=join:address, the address of the host's relay
+ * ("join" alone joins a relay on this machine).
+ */
+public final class NetClient implements Closeable {
+
+    /** Player flown by the client. */
+    static final int PLAYER = 1;
+    /** Ticks between two hellos until the relay answers. */
+    private static final int HELLO_INTERVAL = 30;
+
+    private static final Logger logger = Core.getLogger();
+
+    private final NetPeer peer;
+    /** Width of the playing area, which stops the ship like on the host. */
+    private final int width;
+
+    /** Client ticks since the client started. */
+    private int tick;
+    /** Controls sent, by client tick. */
+    private final byte[] controls = new byte[NetHost.HISTORY];
+
+    /** Snapshots received, by host tick, as baselines. */
+    private final GameSnapshot[] received = new GameSnapshot[NetHost.HISTORY];
+    private final int[] receivedTick = new int[NetHost.HISTORY];
+    /** Last host tick received. */
+    private int latestTick = NetProtocol.NO_BASE;
+    /** Last snapshot received, with the own ship where it is predicted. */
+    private final GameSnapshot latest = new GameSnapshot();
+    /** Position of the own ship in the x-axis, predicted. */
+    private int predictedX;
+
+    /**
+     * Constructor.
+     *
+     * @param peer
+     *            Connection to the relay, as {@link NetProtocol#ROLE_CLIENT}.
+     * @param width
+     *            Width of the playing area.
+     */
+    public NetClient(final NetPeer peer, final int width) {
+        this.peer = peer;
+        this.width = width;
+        for (int i = 0; i < NetHost.HISTORY; i++)
+            this.received[i] = new GameSnapshot();
+        Arrays.fill(this.receivedTick, NetProtocol.NO_BASE);
+    }
+
+    /**
+     * Joins a game if the system property asks for it.
+     *
+     * @param width
+     *            Width of the playing area.
+     * @return Client, or null if not joining or the relay cannot be reached.
+     */
+    public static NetClient connectIfEnabled(final int width) {
+        String mode = System.getProperty(NetHost.PROPERTY, "");
+        if (!mode.equals("join") && !mode.startsWith("join:"))
+            return null;
+        try {
+            String address = mode.startsWith("join:") ? mode.substring("join:".length()) : "";
+            NetPeer peer = new NetPeer(NetHost.parseAddress(address), NetHost.ROOM,
+                    NetProtocol.ROLE_CLIENT);
+            logger.info("Joining co-op through " + address);
+            return new NetClient(peer, width);
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warning("Couldn't join: " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Sends this tick's controls and reads the snapshots received. Called
+     * once per client tick.
+     *
+     * @param bits
+     *            Controls of the player, see {@link NetProtocol#LEFT}.
+     */
+    public void update(final int bits) {
+        this.tick++;
+        if (!this.peer.isJoined() && this.tick % HELLO_INTERVAL == 1)
+            this.peer.hello();
+
+        this.controls[this.tick % NetHost.HISTORY] = (byte) bits;
+        sendInput();
+        if (this.latestTick != NetProtocol.NO_BASE)
+            this.predictedX = step(this.predictedX, bits);
+
+        for (byte type = this.peer.receive(); type != 0; type = this.peer.receive())
+            if (type == NetProtocol.SNAPSHOT)
+                readSnapshot(this.peer.payload());
+
+        this.latest.shipX[PLAYER] = this.predictedX;
+    }
+
+    private void sendInput() {
+        int count = Math.min(this.tick, NetProtocol.INPUT_REDUNDANCY);
+        ByteBuffer frame = this.peer.begin(NetProtocol.INPUT);
+        frame.putInt(this.tick);
+        frame.putInt(this.latestTick);
+        frame.put((byte) count);
+        for (int t = this.tick - count + 1; t <= this.tick; t++)
+            frame.put(this.controls[t % NetHost.HISTORY]);
+        this.peer.send();
+    }
+
+    private void readSnapshot(final ByteBuffer packet) {
+        int hostTick = packet.getInt();
+        int baseTick = packet.getInt();
+        if (hostTick <= this.latestTick)
+            return;
+
+        GameSnapshot base = null;
+        if (baseTick != NetProtocol.NO_BASE) {
+            int baseSlot = baseTick % NetHost.HISTORY;
+            if (this.receivedTick[baseSlot] != baseTick || baseTick == hostTick)
+                return; // Baseline already overwritten; the next snapshot will do.
+            base = this.received[baseSlot];
+        }
+
+        int slot = hostTick % NetHost.HISTORY;
+        try {
+            SnapshotCodec.NETWORK.decode(base, packet, this.received[slot]);
+        } catch (RuntimeException e) {
+            logger.fine("Dropped malformed snapshot: " + e);
+            this.receivedTick[slot] = NetProtocol.NO_BASE;
+            return;
+        }
+        this.receivedTick[slot] = hostTick;
+        this.latestTick = hostTick;
+        this.latest.copyFrom(this.received[slot]);
+        reconcile();
+    }
+
+    /**
+     * Starts again from the host's position of the own ship and replays the
+     * inputs sent after the last one the host applied.
+     */
+    private void reconcile() {
+        int x = this.latest.shipX[PLAYER];
+        int first = Math.max(this.latest.inputAck + 1, this.tick - NetHost.HISTORY + 1);
+        for (int t = first; t <= this.tick; t++)
+            x = step(x, this.controls[t % NetHost.HISTORY]);
+        this.predictedX = x;
+    }
+
+    /** Moves the own ship as ReviveScreen does on the host. */
+    private int step(final int x, final int bits) {
+        if (!this.latest.shipPresent[PLAYER])
+            return x;
+        int speed = this.latest.shipSpeed[PLAYER];
+        int moved = x;
+        if ((bits & NetProtocol.RIGHT) != 0
+                && moved + this.latest.shipWidth[PLAYER] + speed <= this.width - 1)
+            moved += speed;
+        if ((bits & NetProtocol.LEFT) != 0 && moved - speed >= 1)
+            moved -= speed;
+        return moved;
+    }
+
+    /**
+     * @return Last snapshot received, with the own ship predicted, or null
+     *         before the first one.
+     */
+    public GameSnapshot getSnapshot() {
+        return this.latestTick == NetProtocol.NO_BASE ? null : this.latest;
+    }
+
+    /**
+     * @return Predicted position of the own ship in the x-axis.
+     */
+    public int getPredictedX() {
+        return this.predictedX;
+    }
+
+    /**
+     * @return Connection to the relay, for its bandwidth.
+     */
+    public NetPeer getPeer() {
+        return this.peer;
+    }
+
+    /**
+     * Leaves the room, logging the bandwidth used.
+     */
+    @Override
+    public void close() {
+        logger.info(String.format("Co-op client sent %d B (%.0f B/s), received %d B (%.0f B/s)",
+                this.peer.getBytesSent(), this.peer.getSentPerSecond(),
+                this.peer.getBytesReceived(), this.peer.getReceivedPerSecond()));
+        this.peer.close();
+    }
+}
@@ -0,0 +1,295 @@
+package engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+import entity.Bullet;
+import entity.EnemyShip;
+import entity.EnemyShipFormation;
+import entity.Item;
+import entity.Ship;
+
+/**
+ * Host side of networked co-op: the host runs the only simulation, the
+ * remote player flies the second ship.
+ *
+ * Once per tick {@link #poll()} reads the client's input frames and takes
+ * the controls of the next client tick, which {@link #remoteController()}
+ * hands to the game screen like a local keyboard would. Every
+ * {@link #SNAPSHOT_INTERVAL} ticks {@link #publish} sends a
+ * {@link GameSnapshot}, encoded against the last one the client acknowledged.
+ *
+ * Enabled with -Dgame.net=host, which also starts a bundled
+ * {@link NetRelay}; -Dgame.net=host:address uses a relay already running
+ * there instead. The remote player joins with -Dgame.net=join:address.
+ */
+public final class NetHost implements Closeable {
+
+    /** System property selecting the network role. */
+    public static final String PROPERTY = "game.net";
+    /** Room used by both players. */
+    public static final int ROOM = 1;
+    /** Host ticks between two snapshots. */
+    static final int SNAPSHOT_INTERVAL = 2;
+    /** Snapshots kept as baselines, and client ticks of input kept. */
+    static final int HISTORY = 64;
+    /** Client ticks the host may fall behind before skipping input. */
+    static final int MAX_INPUT_LAG = 6;
+    /** Client ticks an input frame may jump ahead of the last one received. */
+    static final int MAX_TICK_JUMP = MAX_INPUT_LAG + HISTORY / 2;
+    /** Frames in a row outside the tick window after which the host follows them. */
+    static final int RESYNC_FRAMES = NetProtocol.INPUT_REDUNDANCY;
+    /** Bytes of an input frame before its controls: tick, ack, count. */
+    private static final int INPUT_HEADER = 9;
+    /** Ticks between two hellos until the relay answers. */
+    private static final int HELLO_INTERVAL = 30;
+
+    private static final Logger logger = Core.getLogger();
+
+    private final NetPeer peer;
+    /** Relay started by this host, or null. */
+    private final NetRelay relay;
+
+    /** Controls of the client, by client tick. */
+    private final byte[] inputs = new byte[HISTORY];
+    /** Last client tick received. */
+    private int lastReceived = -1;
+    /** Last client tick applied. */
+    private int lastApplied = -1;
+    /** Controls applied this tick. */
+    private int controls;
+    /** Input frames in a row outside the tick window. */
+    private int outOfWindow;
+    /** Partner joins seen, to start over when a new player takes the seat. */
+    private int partnerJoins;
+    /** Last snapshot the client acknowledged. */
+    private int snapshotAck = NetProtocol.NO_BASE;
+
+    /** Snapshots sent, by tick, as baselines. */
+    private final GameSnapshot[] sent = new GameSnapshot[HISTORY];
+    private final int[] sentTick = new int[HISTORY];
+    /** Snapshots sent over their size budget. */
+    private int overBudget;
+    /** Host ticks since the host started. */
+    private int tick;
+
+    /**
+     * Constructor.
+     *
+     * @param peer
+     *            Connection to the relay, as {@link NetProtocol#ROLE_HOST}.
+     * @param relay
+     *            Relay started for this game, closed with the host, or null.
+     */
+    public NetHost(final NetPeer peer, final NetRelay relay) {
+        this.peer = peer;
+        this.relay = relay;
+        for (int i = 0; i < HISTORY; i++)
+            this.sent[i] = new GameSnapshot();
+        Arrays.fill(this.sentTick, NetProtocol.NO_BASE);
+    }
+
+    /**
+     * Starts hosting if the system property asks for it.
+     *
+     * @return Host, or null if not hosting or the relay cannot be reached.
+     */
+    public static NetHost startIfEnabled() {
+        String mode = System.getProperty(PROPERTY, "");
+        if (!mode.equals("host") && !mode.startsWith("host:"))
+            return null;
+        NetRelay relay = null;
+        try {
+            InetSocketAddress address;
+            if (mode.startsWith("host:")) {
+                address = parseAddress(mode.substring("host:".length()));
+            } else {
+                relay = new NetRelay(NetProtocol.DEFAULT_PORT);
+                address = new InetSocketAddress("127.0.0.1", relay.getPort());
+            }
+            logger.info("Hosting co-op through " + address);
+            return new NetHost(new NetPeer(address, ROOM, NetProtocol.ROLE_HOST), relay);
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warning("Couldn't start hosting: " + e);
+            if (relay != null)
+                relay.close();
+            return null;
+        }
+    }
+
+    /**
+     * @param text
+     *            "host" or "host:port".
+     * @return Address, on {@link NetProtocol#DEFAULT_PORT} if none is given.
+     */
+    static InetSocketAddress parseAddress(final String text) {
+        int colon = text.lastIndexOf(':');
+        if (colon < 0)
+            return new InetSocketAddress(text.isEmpty() ? "127.0.0.1" : text, NetProtocol.DEFAULT_PORT);
+        return new InetSocketAddress(text.substring(0, colon),
+                Integer.parseInt(text.substring(colon + 1)));
+    }
+
+    /**
+     * Reads the client's input and takes the controls of the next client
+     * tick. Called once per host tick.
+     */
+    public void poll() {
+        this.tick++;
+        if (!this.peer.isJoined() && this.tick % HELLO_INTERVAL == 1)
+            this.peer.hello();
+
+        for (byte type = this.peer.receive(); type != 0; type = this.peer.receive()) {
+            if (this.peer.getPartnerJoins() != this.partnerJoins) {
+                this.partnerJoins = this.peer.getPartnerJoins();
+                resetInput();
+            }
+            if (type == NetProtocol.INPUT)
+                readInput(this.peer.payload());
+        }
+
+        if (this.lastApplied < this.lastReceived) {
+            // A client running ahead is caught up, so its input lag stays bounded.
+            this.lastApplied = Math.max(this.lastApplied + 1, this.lastReceived - MAX_INPUT_LAG);
+            this.controls = this.inputs[this.lastApplied % HISTORY];
+        }
+    }
+
+    /** Forgets the client's ticks, for a client starting over from its first tick. */
+    private void resetInput() {
+        Arrays.fill(this.inputs, (byte) 0);
+        this.lastReceived = -1;
+        this.lastApplied = -1;
+        this.controls = 0;
+        this.outOfWindow = 0;
+        this.snapshotAck = NetProtocol.NO_BASE;
+    }
+
+    private void readInput(final ByteBuffer frame) {
+        if (frame.remaining() < INPUT_HEADER) {
+            logger.fine("Dropped truncated input frame");
+            return;
+        }
+        int clientTick = frame.getInt();
+        int ack = frame.getInt();
+        int count = frame.get() & 0xFF;
+        if (frame.remaining() < count || clientTick < 0 || count > clientTick) {
+            logger.fine("Dropped malformed input frame, tick " + clientTick + ", count " + count);
+            return;
+        }
+        if (this.lastReceived >= 0 && (clientTick > this.lastReceived + MAX_TICK_JUMP
+                || clientTick < this.lastReceived - HISTORY)) {
+            // One stray frame is dropped; a client that keeps sending there restarted.
+            if (++this.outOfWindow < RESYNC_FRAMES)
+                return;
+            logger.info("Client input resynchronized at tick " + clientTick);
+            resetInput();
+        }
+        this.outOfWindow = 0;
+        if (ack > this.snapshotAck && ack <= this.tick)
+            this.snapshotAck = ack;
+        // Oldest first: controls i belong to client tick clientTick - count + 1 + i.
+        for (int i = 0; i < count; i++) {
+            int t = clientTick - count + 1 + i;
+            byte bits = frame.get();
+            if (t > this.lastReceived) {
+                this.inputs[t % HISTORY] = bits;
+                this.lastReceived = t;
+            }
+        }
+    }
+
+    /**
+     * @return Controller flying the remote player's ship.
+     */
+    public ShipController remoteController() {
+        return (playerIndex, ship, field) -> NetProtocol.actionsOf(this.controls, playerIndex);
+    }
+
+    /**
+     * Sends the state of the game screen, every {@link #SNAPSHOT_INTERVAL}
+     * ticks. Called once per host tick, after the update.
+     *
+     * @param state
+     *            State of the game.
+     * @param ships
+     *            Ships of both players.
+     * @param special
+     *            Bonus ship, or null.
+     * @param formation
+     *            Enemy formation, or null.
+     * @param bullets
+     *            Bullets on screen.
+     * @param items
+     *            Items on screen.
+     */
+    public void publish(final GameState state, final Ship[] ships, final EnemyShip special,
+                        final EnemyShipFormation formation,
+                        final Iterable<Bullet> bullets, final Iterable<Item> items) {
+        if (!this.peer.hasPartner() && this.lastReceived < 0)
+            return;
+        if (this.tick % SNAPSHOT_INTERVAL != 0)
+            return;
+        int slot = this.tick % HISTORY;
+        this.sent[slot].capture(this.tick, this.lastApplied, state, ships, special, formation,
+                bullets, items);
+        this.sentTick[slot] = this.tick;
+        send(this.sent[slot]);
+    }
+
+    /** Encodes a snapshot against the acknowledged one and sends it. */
+    private void send(final GameSnapshot snapshot) {
+        int baseSlot = this.snapshotAck == NetProtocol.NO_BASE ? -1 : this.snapshotAck % HISTORY;
+        boolean hasBase = baseSlot >= 0 && this.sentTick[baseSlot] == this.snapshotAck
+                && this.snapshotAck != this.tick;
+        ByteBuffer packet = this.peer.begin(NetProtocol.SNAPSHOT);
+        packet.putInt(this.tick);
+        packet.putInt(hasBase ? this.snapshotAck : NetProtocol.NO_BASE);
+        int start = packet.position();
+        try {
+            SnapshotCodec.NETWORK.encode(snapshot, hasBase ? this.sent[baseSlot] : null, packet);
+        } catch (BufferOverflowException e) {
+            this.overBudget++;
+            return; // Larger than a datagram; the next one will do.
+        }
+        if (packet.position() - start > (hasBase ? SnapshotCodec.DELTA_BUDGET
+                : SnapshotCodec.KEYFRAME_BUDGET))
+            this.overBudget++;
+        this.peer.send();
+    }
+
+    /**
+     * @return Snapshots sent over their size budget, see
+     *         {@link SnapshotCodec#DELTA_BUDGET}.
+     */
+    public int getOverBudget() {
+        return this.overBudget;
+    }
+
+    /**
+     * @return Connection to the relay, for its bandwidth.
+     */
+    public NetPeer getPeer() {
+        return this.peer;
+    }
+
+    /**
+     * Leaves the room, logging the bandwidth used, and stops the bundled
+     * relay.
+     */
+    @Override
+    public void close() {
+        logger.info(String.format("Co-op host sent %d B (%.0f B/s), received %d B (%.0f B/s),"
+                        + " %d snapshots over budget",
+                this.peer.getBytesSent(), this.peer.getSentPerSecond(),
+                this.peer.getBytesReceived(), this.peer.getReceivedPerSecond(), this.overBudget));
+        this.peer.close();
+        if (this.relay != null)
+            this.relay.close();
+    }
+}
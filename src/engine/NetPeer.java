@@ -0,0 +1,220 @@
+package engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.logging.Logger;
+
+/**
+ * One end of a networked co-op game: a non-blocking UDP channel to the
+ * {@link NetRelay}, polled by the game thread once per tick so the frame
+ * loop never waits on the network.
+ *
+ * It counts the bytes and datagrams it sends and receives, for the bandwidth
+ * of each player and for the {@link MetricsRegistry#NET_SENT} and
+ * {@link MetricsRegistry#NET_RECEIVED} counters.
+ */
+public final class NetPeer implements Closeable {
+
+    private static final Logger logger = Core.getLogger();
+    private static final MetricsRegistry.Counter SENT =
+            MetricsRegistry.getInstance().counter(MetricsRegistry.NET_SENT);
+    private static final MetricsRegistry.Counter RECEIVED =
+            MetricsRegistry.getInstance().counter(MetricsRegistry.NET_RECEIVED);
+
+    /** Channel connected to the relay. */
+    private final DatagramChannel channel;
+    /** Room of the game on the relay. */
+    private final int room;
+    /** Role of this peer, {@link NetProtocol#ROLE_HOST} or ROLE_CLIENT. */
+    private final byte role;
+    private final ByteBuffer out = ByteBuffer.allocate(NetProtocol.MAX_DATAGRAM);
+    private final ByteBuffer in = ByteBuffer.allocate(NetProtocol.MAX_DATAGRAM);
+
+    /** If the relay welcomed this peer. */
+    private boolean joined;
+    /** If the other player is in the room. */
+    private boolean partner;
+    /** Players who took the other seat since this peer joined. */
+    private int partnerJoins;
+    private long bytesSent;
+    private long bytesReceived;
+    private long packetsSent;
+    private long packetsReceived;
+    /** Time the peer was opened, for the rates. */
+    private final long openedAt = System.nanoTime();
+
+    /**
+     * Constructor, opens the channel and says hello to the relay.
+     *
+     * @param relay
+     *            Address of the relay.
+     * @param room
+     *            Room of the game.
+     * @param role
+     *            {@link NetProtocol#ROLE_HOST} or {@link NetProtocol#ROLE_CLIENT}.
+     * @throws IOException
+     *             If the channel cannot be opened.
+     */
+    public NetPeer(final InetSocketAddress relay, final int room, final byte role) throws IOException {
+        this.channel = DatagramChannel.open(StandardProtocolFamily.INET);
+        this.channel.configureBlocking(false);
+        this.channel.connect(relay);
+        this.room = room;
+        this.role = role;
+        hello();
+    }
+
+    /**
+     * Introduces this peer to the relay; repeated until it is welcomed.
+     */
+    public void hello() {
+        ByteBuffer packet = begin(NetProtocol.HELLO);
+        packet.putInt(this.room);
+        packet.put(this.role);
+        send();
+    }
+
+    /**
+     * Starts a datagram.
+     *
+     * @param type
+     *            Type of the datagram.
+     * @return Buffer to write the payload to, until {@link #send()}.
+     */
+    ByteBuffer begin(final byte type) {
+        this.out.clear();
+        this.out.put(type);
+        return this.out;
+    }
+
+    /**
+     * Sends the datagram started by {@link #begin(byte)}. A datagram that
+     * cannot be sent is dropped, as the network would.
+     */
+    void send() {
+        this.out.flip();
+        int length = this.out.remaining();
+        try {
+            if (this.channel.write(this.out) > 0) {
+                this.bytesSent += length;
+                this.packetsSent++;
+                SENT.add(length);
+            }
+        } catch (IOException e) {
+            logger.fine("Couldn't send datagram: " + e);
+        }
+    }
+
+    /**
+     * Takes the next datagram received, handling the relay's own.
+     *
+     * @return Type of the datagram, its payload then read from
+     *         {@link #payload()}, or 0 if nothing is waiting.
+     */
+    byte receive() {
+        while (true) {
+            this.in.clear();
+            int length;
+            try {
+                length = this.channel.read(this.in);
+            } catch (IOException e) {
+                // Typically the relay is not up yet; hello() retries.
+                logger.fine("Couldn't receive datagram: " + e);
+                return 0;
+            }
+            if (length <= 0)
+                return 0;
+            this.in.flip();
+            this.bytesReceived += length;
+            this.packetsReceived++;
+            RECEIVED.add(length);
+
+            byte type = this.in.get();
+            if (type != NetProtocol.WELCOME)
+                return type;
+            this.in.get();
+            this.joined = true;
+            byte partner = this.in.get();
+            this.partner = partner != 0;
+            if (partner == NetProtocol.PARTNER_JOINED)
+                this.partnerJoins++;
+        }
+    }
+
+    /**
+     * @return Payload of the datagram returned by {@link #receive()}.
+     */
+    ByteBuffer payload() {
+        return this.in;
+    }
+
+    /**
+     * @return True once the relay welcomed this peer.
+     */
+    public boolean isJoined() {
+        return this.joined;
+    }
+
+    /**
+     * @return True if the relay reported the other player in the room.
+     */
+    public boolean hasPartner() {
+        return this.partner;
+    }
+
+    /**
+     * @return Players the relay reported taking the other seat; changes
+     *         when a new player takes it.
+     */
+    int getPartnerJoins() {
+        return this.partnerJoins;
+    }
+
+    public long getBytesSent() {
+        return this.bytesSent;
+    }
+
+    public long getBytesReceived() {
+        return this.bytesReceived;
+    }
+
+    public long getPacketsSent() {
+        return this.packetsSent;
+    }
+
+    public long getPacketsReceived() {
+        return this.packetsReceived;
+    }
+
+    /**
+     * @return Average upload since the peer was opened, in bytes per second.
+     */
+    public double getSentPerSecond() {
+        return this.bytesSent * 1e9 / Math.max(1, System.nanoTime() - this.openedAt);
+    }
+
+    /**
+     * @return Average download since the peer was opened, in bytes per second.
+     */
+    public double getReceivedPerSecond() {
+        return this.bytesReceived * 1e9 / Math.max(1, System.nanoTime() - this.openedAt);
+    }
+
+    /**
+     * Leaves the room and closes the channel.
+     */
+    @Override
+    public void close() {
+        begin(NetProtocol.BYE);
+        send();
+        try {
+            this.channel.close();
+        } catch (IOException e) {
+            logger.fine("Couldn't close channel: " + e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package engine;
+
+/**
+ * Wire format of networked co-op.
+ *
+ * Every datagram starts with one type byte. Peers introduce themselves to
+ * the {@link NetRelay} with {@link #HELLO}; after that the relay forwards
+ * everything a host sends to its client and the other way round.
+ *
+ * <pre>
+ * HELLO    room:int role:byte
+ * WELCOME  role:byte partner:byte            (relay to peer)
+ * INPUT    tick:int snapshotAck:int n:byte controls:byte[n]
+ * SNAPSHOT tick:int baseTick:int snapshot...
+ * BYE
+ * </pre>
+ *
+ * The partner byte of a welcome is 0 while the other seat is empty, 1 once
+ * it is taken, and {@link #PARTNER_JOINED} when it tells a peer that a new
+ * player just took the other seat.
+ *
+ * An input frame repeats the controls of the last ticks, oldest first, so a
+ * lost datagram costs nothing as long as a later one arrives. A snapshot is
+ * encoded by {@link SnapshotCodec#NETWORK} against the last snapshot the
+ * client acknowledged, or whole with a base tick of {@link #NO_BASE}.
+ */
+public final class NetProtocol {
+
+    public static final byte HELLO = 1;
+    public static final byte WELCOME = 2;
+    public static final byte INPUT = 3;
+    public static final byte SNAPSHOT = 4;
+    public static final byte BYE = 5;
+
+    /** Role of the peer running the game. */
+    public static final byte ROLE_HOST = 0;
+    /** Role of the remote player. */
+    public static final byte ROLE_CLIENT = 1;
+
+    /** Partner byte of a welcome announcing a new player in the other seat. */
+    public static final byte PARTNER_JOINED = 2;
+
+    /** Default port of the relay. */
+    public static final int DEFAULT_PORT = 7777;
+    /** Largest datagram sent, below the usual path MTU. */
+    public static final int MAX_DATAGRAM = 1400;
+    /** Ticks of controls repeated in each input frame. */
+    public static final int INPUT_REDUNDANCY = 8;
+    /** Base tick of a snapshot encoded against nothing. */
+    public static final int NO_BASE = -1;
+
+    /** Control bits of an input frame, relative to the player. */
+    public static final int LEFT = 1;
+    public static final int RIGHT = 2;
+    public static final int SHOOT = 4;
+
+    /**
+     * Private constructor, static access only.
+     */
+    private NetProtocol() {
+    }
+
+    /**
+     * @param actions
+     *            Action mask of the game.
+     * @param playerIndex
+     *            Player index (0 or 1).
+     * @return Left, right and shoot of that player as control bits.
+     */
+    public static int controlsOf(final long actions, final int playerIndex) {
+        InputAction[] controls = InputAction.ofPlayer(playerIndex);
+        return (controls[0].in(actions) ? LEFT : 0)
+                | (controls[1].in(actions) ? RIGHT : 0)
+                | (controls[2].in(actions) ? SHOOT : 0);
+    }
+
+    /**
+     * @param controls
+     *            Control bits of an input frame.
+     * @param playerIndex
+     *            Player index (0 or 1).
+     * @return Action mask moving that player.
+     */
+    public static long actionsOf(final int controls, final int playerIndex) {
+        InputAction[] actions = InputAction.ofPlayer(playerIndex);
+        long mask = 0;
+        if ((controls & LEFT) != 0)
+            mask |= actions[0].bit();
+        if ((controls & RIGHT) != 0)
+            mask |= actions[1].bit();
+        if ((controls & SHOOT) != 0)
+            mask |= actions[2].bit();
+        return mask;
+    }
+}
@@ -0,0 +1,287 @@
+package engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * UDP relay of networked co-op games, so neither player needs a reachable
+ * address: both send to the relay, which forwards each datagram of a room to
+ * the other player of that room.
+ *
+ * The host bundles one on {@link NetProtocol#DEFAULT_PORT} unless told to
+ * use another; it also runs standalone:
+ *
+ * <pre>
+ * java -cp build/classes/java/main engine.NetRelay --port 7777
+ * </pre>
+ *
+ * Bytes forwarded to each player are counted, for the bandwidth per client.
+ *
+ * A seat held by a player heard from in the last {@link #PEER_TIMEOUT_MS}
+ * cannot be taken by another address. Rooms are dropped once both players
+ * said BYE, or after {@link #ROOM_TIMEOUT_MS} without traffic.
+ */
+public final class NetRelay implements Closeable {
+
+    private static final Logger logger = Core.getLogger();
+    /** Seconds between bandwidth reports of the standalone relay. */
+    private static final int REPORT_SECONDS = 10;
+    /** Milliseconds of silence after which a player's seat can be taken over. */
+    static final long PEER_TIMEOUT_MS = 5_000;
+    /** Milliseconds of silence after which a room is dropped. */
+    static final long ROOM_TIMEOUT_MS = 60_000;
+    /** Milliseconds between sweeps for idle rooms. */
+    private static final long SWEEP_INTERVAL_MS = 5_000;
+
+    /** Both players of a game. */
+    private static final class Room {
+        final int id;
+        volatile SocketAddress host;
+        volatile SocketAddress client;
+        /** Last datagram from each player, in milliseconds. */
+        volatile long hostSeen;
+        volatile long clientSeen;
+        final AtomicLong toHost = new AtomicLong();
+        final AtomicLong toClient = new AtomicLong();
+
+        Room(final int id) {
+            this.id = id;
+        }
+
+        /** Records traffic from a player of the room. */
+        void seen(final SocketAddress from, final long now) {
+            if (from.equals(this.host))
+                this.hostSeen = now;
+            else if (from.equals(this.client))
+                this.clientSeen = now;
+        }
+
+        long lastSeen() {
+            return Math.max(this.hostSeen, this.clientSeen);
+        }
+    }
+
+    private final DatagramChannel channel;
+    private final Thread thread;
+    /** Rooms, by id. */
+    private final Map<Integer, Room> rooms = new ConcurrentHashMap<>();
+    /** Room of each known address. */
+    private final Map<SocketAddress, Room> peers = new ConcurrentHashMap<>();
+    /** Time of the last sweep for idle rooms, in milliseconds. */
+    private long lastSweep = System.currentTimeMillis();
+
+    /**
+     * Constructor, binds the relay and starts forwarding.
+     *
+     * @param port
+     *            UDP port, or 0 for any free port.
+     * @throws IOException
+     *             If the port cannot be bound.
+     */
+    public NetRelay(final int port) throws IOException {
+        this.channel = DatagramChannel.open(StandardProtocolFamily.INET);
+        this.channel.bind(new InetSocketAddress(port));
+        this.thread = new Thread(this::relay, "net-relay");
+        this.thread.setDaemon(true);
+        this.thread.start();
+        logger.info("Relay listening on UDP port " + getPort());
+    }
+
+    /**
+     * @return Port the relay is bound to.
+     */
+    public int getPort() {
+        try {
+            return ((InetSocketAddress) this.channel.getLocalAddress()).getPort();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * @param room
+     *            Room of the game.
+     * @param role
+     *            {@link NetProtocol#ROLE_HOST} or {@link NetProtocol#ROLE_CLIENT}.
+     * @return Bytes forwarded to that player so far.
+     */
+    public long getBytesForwarded(final int room, final byte role) {
+        Room found = this.rooms.get(room);
+        if (found == null)
+            return 0;
+        return (role == NetProtocol.ROLE_HOST ? found.toHost : found.toClient).get();
+    }
+
+    /**
+     * @return Number of open rooms.
+     */
+    int getRoomCount() {
+        return this.rooms.size();
+    }
+
+    private void relay() {
+        ByteBuffer buffer = ByteBuffer.allocate(NetProtocol.MAX_DATAGRAM);
+        while (this.channel.isOpen()) {
+            try {
+                buffer.clear();
+                SocketAddress from = this.channel.receive(buffer);
+                buffer.flip();
+                long now = System.currentTimeMillis();
+                if (from != null && buffer.hasRemaining())
+                    handle(from, buffer, now);
+                if (now - this.lastSweep >= SWEEP_INTERVAL_MS) {
+                    this.lastSweep = now;
+                    expire(now);
+                }
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                logger.warning("Relay dropped a datagram: " + e);
+            }
+        }
+    }
+
+    private void handle(final SocketAddress from, final ByteBuffer datagram, final long now)
+            throws IOException {
+        byte type = datagram.get(0);
+        if (type == NetProtocol.HELLO) {
+            if (datagram.remaining() < 6)
+                return;
+            join(from, datagram.getInt(1), datagram.get(5), now);
+            return;
+        }
+
+        Room room = this.peers.get(from);
+        if (room == null)
+            return;
+        room.seen(from, now);
+        if (type == NetProtocol.BYE) {
+            leave(from, room);
+            return;
+        }
+        boolean fromHost = from.equals(room.host);
+        SocketAddress to = fromHost ? room.client : room.host;
+        if (to == null)
+            return;
+        int length = datagram.remaining();
+        this.channel.send(datagram, to);
+        (fromHost ? room.toClient : room.toHost).addAndGet(length);
+    }
+
+    private void join(final SocketAddress from, final int id, final byte role, final long now)
+            throws IOException {
+        boolean host = role == NetProtocol.ROLE_HOST;
+        Room existing = this.rooms.get(id);
+        if (existing != null) {
+            SocketAddress holder = host ? existing.host : existing.client;
+            long holderSeen = host ? existing.hostSeen : existing.clientSeen;
+            if (holder != null && !holder.equals(from) && now - holderSeen < PEER_TIMEOUT_MS) {
+                logger.fine("Refused " + from + ": " + (host ? "host" : "client")
+                        + " of room " + id + " is " + holder);
+                return;
+            }
+        }
+        Room previous = this.peers.get(from);
+        if (previous != null && previous.id != id)
+            leave(from, previous);
+        Room room = this.rooms.computeIfAbsent(id, Room::new);
+        SocketAddress before = host ? room.host : room.client;
+        if (host)
+            room.host = from;
+        else
+            room.client = from;
+        room.seen(from, now);
+        this.peers.put(from, room);
+        if (before != null && !before.equals(from))
+            this.peers.remove(before);
+
+        SocketAddress partner = host ? room.client : room.host;
+        welcome(from, role, (byte) (partner != null ? 1 : 0));
+        if (partner != null && !from.equals(before))
+            welcome(partner, host ? NetProtocol.ROLE_CLIENT : NetProtocol.ROLE_HOST,
+                    NetProtocol.PARTNER_JOINED);
+        if (!from.equals(before))
+            logger.info((host ? "Host " : "Client ") + from + " joined room " + id);
+    }
+
+    private void welcome(final SocketAddress to, final byte role, final byte partner) throws IOException {
+        ByteBuffer packet = ByteBuffer.allocate(3);
+        packet.put(NetProtocol.WELCOME).put(role).put(partner).flip();
+        this.channel.send(packet, to);
+    }
+
+    private void leave(final SocketAddress from, final Room room) {
+        this.peers.remove(from);
+        if (from.equals(room.host))
+            room.host = null;
+        if (from.equals(room.client))
+            room.client = null;
+        logger.info(from + " left room " + room.id);
+        if (room.host == null && room.client == null)
+            this.rooms.remove(room.id, room);
+    }
+
+    /**
+     * Drops the rooms nobody has sent to for {@link #ROOM_TIMEOUT_MS}.
+     *
+     * @param now
+     *            Current time, in milliseconds.
+     */
+    void expire(final long now) {
+        for (Room room : this.rooms.values()) {
+            if (now - room.lastSeen() < ROOM_TIMEOUT_MS)
+                continue;
+            this.rooms.remove(room.id, room);
+            SocketAddress host = room.host;
+            SocketAddress client = room.client;
+            if (host != null)
+                this.peers.remove(host, room);
+            if (client != null)
+                this.peers.remove(client, room);
+            logger.info("Room " + room.id + " expired");
+        }
+    }
+
+    /**
+     * Stops the relay.
+     */
+    @Override
+    public void close() {
+        try {
+            this.channel.close();
+        } catch (IOException e) {
+            logger.fine("Couldn't close relay: " + e);
+        }
+    }
+
+    /**
+     * Runs a standalone relay until the process is stopped.
+     *
+     * @param args
+     *            Optional "--port N".
+     */
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        System.setProperty("java.awt.headless", "true");
+        Map<String, String> options = BatchRunner.parseOptions(args);
+        int port = Integer.parseInt(options.getOrDefault("port",
+                Integer.toString(NetProtocol.DEFAULT_PORT)));
+        try (NetRelay relay = new NetRelay(port)) {
+            while (true) {
+                Thread.sleep(REPORT_SECONDS * 1000L);
+                for (Room room : relay.rooms.values())
+                    logger.info(String.format("Room %d: %d B to host, %d B to client",
+                            room.id, room.toHost.get(), room.toClient.get()));
+            }
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package engine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs file writes on a single background thread so screens never block on
+ * disk I/O. Writes are keyed; a write submitted while another with the same
+ * key is still pending replaces it, and pending writes run once the debounce
+ * window of the first one has elapsed. Everything pending is flushed on
+ * shutdown.
+ */
+public final class PersistenceService {
+
+    /** A write to run on the persistence thread. */
+    @FunctionalInterface
+    public interface Task {
+        /**
+         * Performs the write.
+         *
+         * @throws IOException
+         *             In case of writing problems.
+         */
+        void run() throws IOException;
+    }
+
+    /** Default delay between the first submit of a key and its write. */
+    public static final long DEFAULT_DEBOUNCE_MS = 250;
+
+    private static PersistenceService instance;
+    private static final Logger logger = Core.getLogger();
+
+    /** Delay between the first submit of a key and its write. */
+    private final long debounceMs;
+    /** Pending writes by key, oldest first. */
+    private final Map<String, Pending> pending = new LinkedHashMap<>();
+    /** Worker thread. */
+    private final Thread worker;
+    /** Whether shutdown was requested. */
+    private boolean stopping;
+    /** Number of batches currently being written. */
+    private int inFlight;
+
+    /** Duration of the last batch of writes, in nanoseconds. */
+    private volatile long lastFlushNanos;
+    /** Total number of writes performed. */
+    private final AtomicLong completedWrites = new AtomicLong();
+    /** Total number of writes that failed. */
+    private final AtomicLong failedWrites = new AtomicLong();
+    /** Total number of submits merged into an already pending write. */
+    private final AtomicLong coalescedWrites = new AtomicLong();
+
+    /** A pending write and the time it becomes due. */
+    private static final class Pending {
+        private Task task;
+        private final long dueNanos;
+
+        private Pending(final Task task, final long dueNanos) {
+            this.task = task;
+            this.dueNanos = dueNanos;
+        }
+    }
+
+    /**
+     * Constructor, starts the worker thread.
+     *
+     * @param debounceMs
+     *            Delay between the first submit of a key and its write.
+     */
+    PersistenceService(final long debounceMs) {
+        this.debounceMs = debounceMs;
+        this.worker = new Thread(this::work, "persistence");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Returns the shared instance. A shutdown hook flushes it when the
+     * window is closed.
+     *
+     * @return Shared persistence service.
+     */
+    public static synchronized PersistenceService getInstance() {
+        if (instance == null) {
+            instance = new PersistenceService(DEFAULT_DEBOUNCE_MS);
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::shutdown, "persistence-shutdown"));
+        }
+        return instance;
+    }
+
+    /**
+     * Schedules a write. If a write with the same key is pending it is
+     * replaced and keeps its due time.
+     *
+     * @param key
+     *            Key identifying the written resource.
+     * @param task
+     *            Write to perform.
+     */
+    public void submit(final String key, final Task task) {
+        synchronized (this.pending) {
+            if (this.stopping) {
+                runNow(key, task);
+                return;
+            }
+            Pending existing = this.pending.get(key);
+            if (existing != null) {
+                existing.task = task;
+                this.coalescedWrites.incrementAndGet();
+            } else {
+                this.pending.put(key, new Pending(task, System.nanoTime() + this.debounceMs * 1_000_000L));
+                this.pending.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Schedules an atomic replacement of a file's contents.
+     *
+     * @param target
+     *            File to replace.
+     * @param content
+     *            New contents.
+     */
+    public void writeFile(final Path target, final byte[] content) {
+        submit(target.toAbsolutePath().toString(), () -> writeAtomically(target, content));
+    }
+
+    /**
+     * Replaces a file's contents by writing a synced temp file next to it
+     * and renaming it over the target.
+     *
+     * @param target
+     *            File to replace.
+     * @param content
+     *            New contents.
+     * @throws IOException
+     *             In case of writing problems.
+     */
+    public static void writeAtomically(final Path target, final byte[] content) throws IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null)
+            Files.createDirectories(parent);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void work() {
+        while (true) {
+            List<Map.Entry<String, Task>> batch;
+            synchronized (this.pending) {
+                // Batches never overlap, so writes to one key stay in order.
+                while (this.inFlight > 0 || !(this.stopping || hasDueWrite())) {
+                    try {
+                        if (this.inFlight > 0 || this.pending.isEmpty()) {
+                            this.pending.wait();
+                        } else {
+                            long wait = this.pending.values().iterator().next().dueNanos - System.nanoTime();
+                            this.pending.wait(Math.max(1, wait / 1_000_000L));
+                        }
+                    } catch (InterruptedException e) {
+                        this.stopping = true;
+                    }
+                }
+                if (this.pending.isEmpty())
+                    return;
+                batch = takeDue(this.stopping);
+                this.inFlight++;
+            }
+            runBatch(batch);
+            synchronized (this.pending) {
+                this.inFlight--;
+                this.pending.notifyAll();
+            }
+        }
+    }
+
+    /** Whether the oldest pending write is due. Caller holds the lock. */
+    private boolean hasDueWrite() {
+        return !this.pending.isEmpty()
+                && this.pending.values().iterator().next().dueNanos - System.nanoTime() <= 0;
+    }
+
+    /** Removes the due writes, or all of them. Caller holds the lock. */
+    private List<Map.Entry<String, Task>> takeDue(final boolean all) {
+        List<Map.Entry<String, Task>> batch = new ArrayList<>();
+        long now = System.nanoTime();
+        Iterator<Map.Entry<String, Pending>> iterator = this.pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Pending> entry = iterator.next();
+            if (!all && entry.getValue().dueNanos - now > 0)
+                break;
+            batch.add(Map.entry(entry.getKey(), entry.getValue().task));
+            iterator.remove();
+        }
+        return batch;
+    }
+
+    private void runBatch(final List<Map.Entry<String, Task>> batch) {
+        long start = System.nanoTime();
+        for (Map.Entry<String, Task> write : batch)
+            runNow(write.getKey(), write.getValue());
+        this.lastFlushNanos = System.nanoTime() - start;
+    }
+
+    private void runNow(final String key, final Task task) {
+        PersistenceWriteEvent event = new PersistenceWriteEvent();
+        event.begin();
+        try {
+            task.run();
+            this.completedWrites.incrementAndGet();
+            event.succeeded = true;
+        } catch (IOException | RuntimeException e) {
+            this.failedWrites.incrementAndGet();
+            logger.log(Level.WARNING, "Couldn't write " + key, e);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.key = key;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Writes everything pending now and waits until it is done.
+     */
+    public void flush() {
+        List<Map.Entry<String, Task>> batch;
+        synchronized (this.pending) {
+            while (this.inFlight > 0) {
+                try {
+                    this.pending.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            batch = takeDue(true);
+            this.inFlight++;
+        }
+        try {
+            runBatch(batch);
+        } finally {
+            synchronized (this.pending) {
+                this.inFlight--;
+                this.pending.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Flushes pending writes and stops the worker thread. Later submits are
+     * written immediately on the calling thread.
+     */
+    public void shutdown() {
+        synchronized (this.pending) {
+            if (this.stopping && !this.worker.isAlive())
+                return;
+            this.stopping = true;
+            this.pending.notifyAll();
+        }
+        try {
+            this.worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Persistence stopped after " + getCompletedWrites() + " writes ("
+                + getCoalescedWrites() + " coalesced, " + getFailedWrites() + " failed).");
+    }
+
+    /**
+     * @return Number of writes waiting for their debounce window.
+     */
+    public int getPendingWrites() {
+        synchronized (this.pending) {
+            return this.pending.size();
+        }
+    }
+
+    /**
+     * @return Duration of the last batch of writes, in milliseconds.
+     */
+    public double getLastFlushLatencyMs() {
+        return this.lastFlushNanos / 1_000_000.0;
+    }
+
+    /**
+     * @return Total number of writes performed.
+     */
+    public long getCompletedWrites() {
+        return this.completedWrites.get();
+    }
+
+    /**
+     * @return Total number of writes that failed.
+     */
+    public long getFailedWrites() {
+        return this.failedWrites.get();
+    }
+
+    /**
+     * @return Total number of submits merged into a pending write.
+     */
+    public long getCoalescedWrites() {
+        return this.coalescedWrites.get();
+    }
+}
@@ -0,0 +1,20 @@
+package engine;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event covering one write of the persistence service.
+ */
+@Name("game.PersistenceWrite")
+@Label("Persistence Write")
+@Category({ "Game", "Persistence" })
+public final class PersistenceWriteEvent extends jdk.jfr.Event {
+
+    @Label("Key")
+    public String key;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
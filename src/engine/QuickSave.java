@@ -0,0 +1,629 @@
+package engine;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import engine.ItemEffect.ItemEffectType;
+import entity.Boss;
+import entity.BossPhase;
+import entity.Bullet;
+import entity.BulletPool;
+import entity.EnemyShip;
+import entity.EnemyShipFormation;
+import entity.EnemyShipPool;
+import entity.Entity;
+import entity.Item;
+import entity.ItemPool;
+import entity.Ship;
+
+/**
+ * Save of a level in progress, so a game closed mid-level, boss fights
+ * included, goes on where it was at the next start.
+ *
+ * The game and boss screens write one every {@link #INTERVAL} ticks; the
+ * file is replaced on the {@link PersistenceService} thread, and a level
+ * that ends or is left for the menu discards it. At start-up
+ * {@link #load()} reads the {@link GameState} and the revive flags at once;
+ * the screen reads its entities back when it initializes, in the order it
+ * wrote them. It first reads them through a {@link #checker()}, which
+ * restores nothing, so a damaged save is refused before the screen changes.
+ *
+ * The file is packed like the network snapshots, with the varints of
+ * {@link SnapshotCodec}: a few hundred bytes for a full formation.
+ */
+public final class QuickSave {
+
+    /** Screen kind of a regular level. */
+    public static final int LEVEL = 0;
+    /** Screen kind of the boss level. */
+    public static final int BOSS = 1;
+    /** Ticks between two saves of a screen. */
+    public static final int INTERVAL = 60;
+
+    /** First bytes of a save, "QSAV". */
+    static final int MAGIC = 0x51534156;
+    /** Version of the format, bumped when it changes. */
+    static final byte VERSION = 1;
+    /** Largest save, bullets included. */
+    static final int MAX_SIZE = 16 * 1024;
+    /** Default save file. */
+    private static final Path FILE = Paths.get(System.getProperty("user.dir"), "res", "quicksave.bin");
+
+    private static final Ship.ShipType[] SHIP_TYPES = Ship.ShipType.values();
+    private static final Entity.Team[] TEAMS = Entity.Team.values();
+    private static final EnemyShipFormation.Direction[] DIRECTIONS =
+            EnemyShipFormation.Direction.values();
+    private static final ItemEffectType[] EFFECT_TYPES = ItemEffectType.values();
+
+    private static final Logger logger = Core.getLogger();
+
+    /** Save being written, or read back. */
+    private final ByteBuffer buffer;
+    /** If the entities are only read through, see {@link #checker()}. */
+    private final boolean checking;
+    /** Template slots, reused between formations. */
+    private final BitSet alive = new BitSet();
+    private int[] health = new int[0];
+
+    /** Phase of the boss read last. */
+    private BossPhase bossPhase;
+
+    /** Header of a save read back. */
+    private int kind;
+    private Ship.ShipType shipTypeP1;
+    private Ship.ShipType shipTypeP2;
+    private GameState state;
+    private boolean[] revived;
+
+    /**
+     * Constructor, for writing saves.
+     */
+    public QuickSave() {
+        this(ByteBuffer.allocate(MAX_SIZE));
+    }
+
+    private QuickSave(final ByteBuffer buffer) {
+        this(buffer, false);
+    }
+
+    private QuickSave(final ByteBuffer buffer, final boolean checking) {
+        this.buffer = buffer;
+        this.checking = checking;
+    }
+
+    /**
+     * Returns a copy of this save, at the same position, whose readers go
+     * through the entities, with every count and index checked, without
+     * moving, restoring or taking anything from the pools. The formation
+     * slot count is still checked against the formation given.
+     *
+     * @return Save to read through.
+     */
+    public QuickSave checker() {
+        return new QuickSave(this.buffer.duplicate(), true);
+    }
+
+    /**
+     * @return Bytes left to read.
+     */
+    public int remaining() {
+        return this.buffer.remaining();
+    }
+
+    /**
+     * Starts a new save, dropping what was written before.
+     *
+     * @param screenKind
+     *            {@link #LEVEL} or {@link #BOSS}.
+     * @param p1
+     *            Ship type of player 1.
+     * @param p2
+     *            Ship type of player 2.
+     * @param gameState
+     *            State of the game.
+     * @param reviveManager
+     *            Revives already used.
+     */
+    public void begin(final int screenKind, final Ship.ShipType p1, final Ship.ShipType p2,
+                      final GameState gameState, final ReviveManager reviveManager) {
+        this.buffer.clear();
+        this.buffer.putInt(MAGIC);
+        this.buffer.put(VERSION);
+        SnapshotCodec.writeVarint(this.buffer, screenKind);
+        SnapshotCodec.writeVarint(this.buffer, p1.ordinal());
+        SnapshotCodec.writeVarint(this.buffer, p2.ordinal());
+        gameState.writeTo(this.buffer);
+        boolean[] flags = reviveManager.getRevived();
+        BitSet bits = new BitSet(flags.length);
+        for (int i = 0; i < flags.length; i++)
+            bits.set(i, flags[i]);
+        SnapshotCodec.writeVarint(this.buffer, flags.length);
+        SnapshotCodec.writeBits(this.buffer, bits, flags.length);
+    }
+
+    /**
+     * Replaces the default save file with what was written since
+     * {@link #begin}, off the game thread.
+     */
+    public void save() {
+        save(FILE);
+    }
+
+    /**
+     * Replaces a save file with what was written since {@link #begin}, off
+     * the game thread.
+     *
+     * @param file
+     *            Save file.
+     */
+    void save(final Path file) {
+        PersistenceService.getInstance().writeFile(file,
+                Arrays.copyOf(this.buffer.array(), this.buffer.position()));
+    }
+
+    /**
+     * @return Bytes written since {@link #begin}.
+     */
+    public int size() {
+        return this.buffer.position();
+    }
+
+    /**
+     * Deletes the default save file once the writes already queued are done.
+     */
+    public static void discard() {
+        discard(FILE);
+    }
+
+    /**
+     * Deletes a save file, replacing a write of it still pending.
+     *
+     * @param file
+     *            Save file.
+     */
+    static void discard(final Path file) {
+        PersistenceService.getInstance().submit(file.toAbsolutePath().toString(),
+                () -> Files.deleteIfExists(file));
+    }
+
+    /**
+     * Reads the default save file.
+     *
+     * @return Save, positioned on the entities, or null if there is none or
+     *         it cannot be read.
+     */
+    public static QuickSave load() {
+        return load(FILE);
+    }
+
+    /**
+     * Reads a save file.
+     *
+     * @param file
+     *            Save file.
+     * @return Save, positioned on the entities, or null if there is none or
+     *         it cannot be read.
+     */
+    static QuickSave load(final Path file) {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            logger.warning("Couldn't read the quick save: " + e);
+            return null;
+        }
+        try {
+            return read(ByteBuffer.wrap(bytes));
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            logger.warning("Discarding unreadable quick save: " + e);
+            discard(file);
+            return null;
+        }
+    }
+
+    /**
+     * Reads the header of a save.
+     *
+     * @param in
+     *            Save, from its start.
+     * @return Save, positioned on the entities.
+     */
+    static QuickSave read(final ByteBuffer in) {
+        if (in.getInt() != MAGIC)
+            throw new IllegalArgumentException("Not a quick save");
+        byte version = in.get();
+        if (version != VERSION)
+            throw new IllegalArgumentException("Quick save version " + version);
+        QuickSave save = new QuickSave(in);
+        save.kind = SnapshotCodec.readVarint(in);
+        if (save.kind != LEVEL && save.kind != BOSS)
+            throw new IllegalArgumentException("Screen kind " + save.kind);
+        save.shipTypeP1 = SHIP_TYPES[readIndex(in, SHIP_TYPES.length)];
+        save.shipTypeP2 = SHIP_TYPES[readIndex(in, SHIP_TYPES.length)];
+        save.state = GameState.readFrom(in);
+        int levels = readIndex(in, 256);
+        BitSet bits = new BitSet(levels);
+        SnapshotCodec.readBits(in, bits, levels);
+        save.revived = new boolean[levels];
+        for (int i = 0; i < levels; i++)
+            save.revived[i] = bits.get(i);
+        return save;
+    }
+
+    /**
+     * @return {@link #LEVEL} or {@link #BOSS}.
+     */
+    public int getKind() {
+        return this.kind;
+    }
+
+    /**
+     * @return Ship type of player 1.
+     */
+    public Ship.ShipType getShipTypeP1() {
+        return this.shipTypeP1;
+    }
+
+    /**
+     * @return Ship type of player 2.
+     */
+    public Ship.ShipType getShipTypeP2() {
+        return this.shipTypeP2;
+    }
+
+    /**
+     * @return State of the game, with its effects running again.
+     */
+    public GameState getState() {
+        return this.state;
+    }
+
+    /**
+     * @return Revives used, by level.
+     */
+    public boolean[] getRevived() {
+        return this.revived.clone();
+    }
+
+    /**
+     * @param flag
+     *            Flag of the screen.
+     */
+    public void writeFlag(final boolean flag) {
+        this.buffer.put((byte) (flag ? 1 : 0));
+    }
+
+    /**
+     * @return Flag written by {@link #writeFlag}.
+     */
+    public boolean readFlag() {
+        return this.buffer.get() != 0;
+    }
+
+    /**
+     * @param ships
+     *            Ships of both players, null when absent.
+     */
+    public void writeShips(final Ship[] ships) {
+        for (Ship ship : ships) {
+            writeFlag(ship != null);
+            if (ship != null) {
+                SnapshotCodec.writeZigzag(this.buffer, ship.getPositionX());
+                SnapshotCodec.writeZigzag(this.buffer, ship.getPositionY());
+            }
+        }
+    }
+
+    /**
+     * Moves the ships where they were saved.
+     *
+     * @param ships
+     *            Ships of both players, null when absent.
+     */
+    public void readShips(final Ship[] ships) {
+        for (Ship ship : ships) {
+            if (!readFlag())
+                continue;
+            int x = SnapshotCodec.readZigzag(this.buffer);
+            int y = SnapshotCodec.readZigzag(this.buffer);
+            if (ship != null && !this.checking) {
+                ship.setPositionX(x);
+                ship.setPositionY(y);
+            }
+        }
+    }
+
+    /**
+     * @param inventory
+     *            Item slots of the HUD.
+     */
+    public void writeInventory(final ItemInventory inventory) {
+        SnapshotCodec.writeVarint(this.buffer, inventory.getMaxSlots());
+        for (int i = 0; i < inventory.getMaxSlots(); i++) {
+            ItemEffectType type = inventory.getSlot(i);
+            SnapshotCodec.writeVarint(this.buffer, type == null ? 0 : type.ordinal() + 1);
+        }
+    }
+
+    /**
+     * Fills the item slots as they were saved.
+     *
+     * @param inventory
+     *            Empty item slots of the HUD.
+     */
+    public void readInventory(final ItemInventory inventory) {
+        int slots = readIndex(this.buffer, 16);
+        for (int i = 0; i < slots; i++) {
+            int type = readIndex(this.buffer, EFFECT_TYPES.length + 1);
+            if (type > 0 && !this.checking)
+                inventory.addItem(EFFECT_TYPES[type - 1]);
+        }
+    }
+
+    /**
+     * @param formation
+     *            Enemy formation, or null.
+     */
+    public void writeFormation(final EnemyShipFormation formation) {
+        writeFlag(formation != null);
+        if (formation == null)
+            return;
+        int slots = formation.getSlotCount();
+        formation.fillAliveMask(this.alive);
+        formation.fillHealth(health(slots));
+        SnapshotCodec.writeZigzag(this.buffer, formation.getOriginX());
+        SnapshotCodec.writeZigzag(this.buffer, formation.getOriginY());
+        EnemyShipFormation.Direction previous = formation.getPreviousDirection();
+        // Current direction, and the previous one with null as the last value.
+        SnapshotCodec.writeVarint(this.buffer, formation.getDirection().ordinal()
+                * (DIRECTIONS.length + 1) + (previous == null ? DIRECTIONS.length : previous.ordinal()));
+        SnapshotCodec.writeVarint(this.buffer, formation.getMovementInterval());
+        SnapshotCodec.writeVarint(this.buffer, slots);
+        SnapshotCodec.writeBits(this.buffer, this.alive, slots);
+        for (int i = this.alive.nextSetBit(0); i >= 0 && i < slots; i = this.alive.nextSetBit(i + 1))
+            SnapshotCodec.writeVarint(this.buffer, Math.max(0, this.health[i]));
+    }
+
+    /**
+     * Puts a formation just spawned from the saved one's template back as
+     * it was saved.
+     *
+     * @param formation
+     *            Formation spawned from the same template, or null to skip
+     *            the saved one.
+     */
+    public void readFormation(final EnemyShipFormation formation) {
+        readFormation(formation, formation == null ? -1 : formation.getSlotCount());
+    }
+
+    /**
+     * Reads a formation through, checking it spawned with as many ships as
+     * one not spawned yet will. Only for a {@link #checker()}.
+     *
+     * @param slots
+     *            Ships the formation will spawn with.
+     */
+    public void readFormation(final int slots) {
+        if (!this.checking)
+            throw new IllegalStateException("Formation slots are only checked through a checker");
+        readFormation(null, slots);
+    }
+
+    private void readFormation(final EnemyShipFormation formation, final int expected) {
+        if (!readFlag())
+            return;
+        int originX = SnapshotCodec.readZigzag(this.buffer);
+        int originY = SnapshotCodec.readZigzag(this.buffer);
+        int directions = readIndex(this.buffer, DIRECTIONS.length * (DIRECTIONS.length + 1));
+        int previous = directions % (DIRECTIONS.length + 1);
+        int interval = SnapshotCodec.readVarint(this.buffer);
+        int slots = readIndex(this.buffer, GameSnapshot.MAX_SLOTS + 1);
+        this.alive.clear();
+        SnapshotCodec.readBits(this.buffer, this.alive, slots);
+        int[] saved = health(slots);
+        for (int i = this.alive.nextSetBit(0); i >= 0; i = this.alive.nextSetBit(i + 1))
+            saved[i] = SnapshotCodec.readVarint(this.buffer);
+        if (expected >= 0 && expected != slots)
+            throw new IllegalArgumentException("Formation of " + slots + " ships, not " + expected);
+        if (formation == null || this.checking)
+            return;
+        formation.restore(originX, originY, DIRECTIONS[directions / (DIRECTIONS.length + 1)],
+                previous == DIRECTIONS.length ? null : DIRECTIONS[previous],
+                interval, this.alive, saved);
+    }
+
+    /**
+     * @param special
+     *            Bonus ship, or null.
+     */
+    public void writeSpecial(final EnemyShip special) {
+        boolean flying = special != null && !special.isDestroyed();
+        writeFlag(flying);
+        if (flying) {
+            SnapshotCodec.writeZigzag(this.buffer, special.getPositionX());
+            SnapshotCodec.writeZigzag(this.buffer, special.getPositionY());
+        }
+    }
+
+    /**
+     * @return Bonus ship from the pool, where it was saved, or null (always
+     *         null through a {@link #checker()}).
+     */
+    public EnemyShip readSpecial() {
+        if (!readFlag())
+            return null;
+        int x = SnapshotCodec.readZigzag(this.buffer);
+        int y = SnapshotCodec.readZigzag(this.buffer);
+        if (this.checking)
+            return null;
+        EnemyShip special = EnemyShipPool.getSpecialShip();
+        special.setPositionX(x);
+        special.setPositionY(y);
+        return special;
+    }
+
+    /**
+     * @param bullets
+     *            Bullets on screen.
+     */
+    public void writeBullets(final Collection<Bullet> bullets) {
+        SnapshotCodec.writeVarint(this.buffer, bullets.size());
+        for (Bullet bullet : bullets) {
+            SnapshotCodec.writeZigzag(this.buffer, bullet.getPositionX());
+            SnapshotCodec.writeZigzag(this.buffer, bullet.getPositionY());
+            SnapshotCodec.writeZigzag(this.buffer, bullet.getSpeed());
+            SnapshotCodec.writeZigzag(this.buffer, bullet.getSpeedX());
+            SnapshotCodec.writeVarint(this.buffer, bullet.getWidth());
+            SnapshotCodec.writeVarint(this.buffer, bullet.getHeight());
+            SnapshotCodec.writeVarint(this.buffer, bullet.getTeam().ordinal());
+            SnapshotCodec.writeZigzag(this.buffer, bullet.getOwnerPlayerId());
+            SnapshotCodec.writeZigzag(this.buffer, bullet.getPlayerId());
+        }
+    }
+
+    /**
+     * Takes the saved bullets from the pool.
+     *
+     * @param bullets
+     *            Bullets on screen, receiving the saved ones.
+     */
+    public void readBullets(final Set<Bullet> bullets) {
+        int count = readIndex(this.buffer, MAX_SIZE);
+        for (int i = 0; i < count; i++) {
+            int x = SnapshotCodec.readZigzag(this.buffer);
+            int y = SnapshotCodec.readZigzag(this.buffer);
+            int speed = SnapshotCodec.readZigzag(this.buffer);
+            int speedX = SnapshotCodec.readZigzag(this.buffer);
+            int width = SnapshotCodec.readVarint(this.buffer);
+            int height = SnapshotCodec.readVarint(this.buffer);
+            Entity.Team team = TEAMS[readIndex(this.buffer, TEAMS.length)];
+            int owner = SnapshotCodec.readZigzag(this.buffer);
+            int player = SnapshotCodec.readZigzag(this.buffer);
+            if (this.checking)
+                continue;
+            Bullet bullet = BulletPool.getBullet(x, y, speed, width, height, team);
+            bullet.setPositionX(x);
+            bullet.setSpeedX(speedX);
+            bullet.setOwnerPlayerId(owner);
+            bullet.setPlayerId(player);
+            bullets.add(bullet);
+        }
+    }
+
+    /**
+     * @param items
+     *            Items on screen.
+     */
+    public void writeItems(final Collection<Item> items) {
+        SnapshotCodec.writeVarint(this.buffer, items.size());
+        for (Item item : items) {
+            byte[] type = item.getType().getBytes(StandardCharsets.UTF_8);
+            SnapshotCodec.writeVarint(this.buffer, type.length);
+            this.buffer.put(type);
+            SnapshotCodec.writeZigzag(this.buffer, item.getPositionX());
+            SnapshotCodec.writeZigzag(this.buffer, item.getPositionY());
+            SnapshotCodec.writeZigzag(this.buffer, item.getItemSpeed());
+        }
+    }
+
+    /**
+     * Takes the saved items from the pool; types no longer in the item
+     * database are dropped.
+     *
+     * @param items
+     *            Items on screen, receiving the saved ones.
+     */
+    public void readItems(final Set<Item> items) {
+        int count = readIndex(this.buffer, MAX_SIZE);
+        for (int i = 0; i < count; i++) {
+            byte[] type = new byte[readIndex(this.buffer, this.buffer.remaining() + 1)];
+            this.buffer.get(type);
+            int x = SnapshotCodec.readZigzag(this.buffer);
+            int y = SnapshotCodec.readZigzag(this.buffer);
+            int speed = SnapshotCodec.readZigzag(this.buffer);
+            ItemData data = ItemDB.getShared().getItemData(new String(type, StandardCharsets.UTF_8));
+            if (data == null || this.checking)
+                continue;
+            Item item = ItemPool.getItem(data, x, y, speed);
+            item.setPositionX(x);
+            items.add(item);
+        }
+    }
+
+    /**
+     * @param boss
+     *            Boss.
+     * @param elapsed
+     *            Time of the boss fight so far in milliseconds, or -1 if its
+     *            timer has not started.
+     */
+    public void writeBoss(final Boss boss, final long elapsed) {
+        SnapshotCodec.writeVarint(this.buffer, boss.getHp());
+        SnapshotCodec.writeVarint(this.buffer, boss.getPhase().ordinal());
+        SnapshotCodec.writeZigzag(this.buffer, boss.getPositionX());
+        SnapshotCodec.writeZigzag(this.buffer, boss.getPositionY());
+        writeFlag(boss.isMovingLeft());
+        SnapshotCodec.writeVarint(this.buffer, boss.getFrameCounter());
+        SnapshotCodec.writeVarint(this.buffer, boss.getMovementInterval());
+        SnapshotCodec.writeVarint(this.buffer, (int) Math.min(Integer.MAX_VALUE - 1, elapsed + 1));
+    }
+
+    /**
+     * Puts the boss back as it was saved, without its phase callbacks.
+     *
+     * @param boss
+     *            Boss just created.
+     * @return Time of the boss fight so far in milliseconds, or -1 if its
+     *         timer had not started.
+     */
+    public long readBoss(final Boss boss) {
+        int hp = SnapshotCodec.readVarint(this.buffer);
+        BossPhase phase = BossPhase.values()[readIndex(this.buffer, BossPhase.values().length)];
+        int x = SnapshotCodec.readZigzag(this.buffer);
+        int y = SnapshotCodec.readZigzag(this.buffer);
+        boolean movingLeft = readFlag();
+        int frameCounter = SnapshotCodec.readVarint(this.buffer);
+        int movementInterval = SnapshotCodec.readVarint(this.buffer);
+        this.bossPhase = phase;
+        if (!this.checking) {
+            boss.restore(hp, phase, movingLeft, frameCounter, movementInterval);
+            boss.setPosition(x, y);
+        }
+        return SnapshotCodec.readVarint(this.buffer) - 1L;
+    }
+
+    /**
+     * @return Phase of the boss read by {@link #readBoss}, or null.
+     */
+    public BossPhase getBossPhase() {
+        return this.bossPhase;
+    }
+
+    /** Health by template slot, grown when needed and zeroed. */
+    private int[] health(final int slots) {
+        if (this.health.length < slots)
+            this.health = new int[slots];
+        Arrays.fill(this.health, 0);
+        return this.health;
+    }
+
+    private static int readIndex(final ByteBuffer in, final int bound) {
+        int index = SnapshotCodec.readVarint(in);
+        if (index < 0 || index >= bound)
+            throw new IllegalArgumentException("Index " + index + " over " + bound);
+        return index;
+    }
+}
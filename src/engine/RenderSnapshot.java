@@ -0,0 +1,324 @@
+package engine;
+
+import java.awt.Color;
+import java.util.Arrays;
+
+import engine.DrawManager.SpriteType;
+import engine.ItemEffect.ItemEffectType;
+import entity.Entity;
+
+/**
+ * Everything a game screen shows in one frame, captured by the simulation
+ * thread for the render thread: the sprites to draw, with their position,
+ * size and color, and the HUD values.
+ *
+ * Snapshots are recycled through a {@link TripleBuffer}: the screen clears
+ * one, fills it and publishes it, after which it is only read until the
+ * buffer hands it back. Entity arrays grow to the largest scene seen and are
+ * then reused, so capturing a frame allocates nothing.
+ */
+public final class RenderSnapshot {
+
+    /** Initial capacity of the entity arrays. */
+    private static final int INITIAL_ENTITIES = 128;
+
+    /** Number of sprites captured. */
+    int entityCount;
+    int[] entityX = new int[INITIAL_ENTITIES];
+    int[] entityY = new int[INITIAL_ENTITIES];
+    int[] entityWidth = new int[INITIAL_ENTITIES];
+    int[] entityHeight = new int[INITIAL_ENTITIES];
+    SpriteType[] entitySprite = new SpriteType[INITIAL_ENTITIES];
+    Color[] entityColor = new Color[INITIAL_ENTITIES];
+
+    /** Height of the line separating the HUD from the field. */
+    int separationLine;
+    /** If the background stars run at last-life speed. */
+    boolean lastLife;
+    /** If the last hit took the final life, so explosions are drawn large. */
+    boolean death;
+    /** Team score, or -1 if not shown. */
+    int score;
+    int lives;
+    boolean coop;
+    int coins;
+    int level;
+    /** Enemies left, or -1 if not shown. */
+    int shipCount;
+    /** Boss health, shown if maxHp is positive. */
+    int bossHp;
+    int bossMaxHp;
+    /** Time on the boss timer, or -1 if not shown. */
+    long bossTimer;
+    /** Item slots, or 0 slots if the inventory is not shown. */
+    int inventorySlots;
+    final ItemEffectType[] inventoryItems = new ItemEffectType[4];
+    final int[] inventoryRemaining = new int[4];
+    /** Seconds left on the start countdown, or -1 if not shown. */
+    int countdown;
+    boolean bonusLife;
+    boolean highScoreNotice;
+    /** Achievement toast, or null. */
+    Achievement toast;
+    boolean paused;
+    /** Revive prompt selection, or -1 if not shown. */
+    int reviveSelection;
+    /** Revive failure message, or null. */
+    String reviveFailMessage;
+    /** Message on the bottom left, or null. */
+    String message;
+    Color messageColor;
+
+    /**
+     * Constructor, creates an empty snapshot.
+     */
+    public RenderSnapshot() {
+        clear();
+    }
+
+    /**
+     * Empties the snapshot before it is filled again.
+     */
+    public void clear() {
+        Arrays.fill(this.entityColor, 0, this.entityCount, null);
+        this.entityCount = 0;
+        this.separationLine = 0;
+        this.lastLife = false;
+        this.death = false;
+        this.score = -1;
+        this.lives = 0;
+        this.coop = false;
+        this.coins = 0;
+        this.level = 0;
+        this.shipCount = -1;
+        this.bossHp = 0;
+        this.bossMaxHp = 0;
+        this.bossTimer = -1;
+        this.inventorySlots = 0;
+        this.countdown = -1;
+        this.bonusLife = false;
+        this.highScoreNotice = false;
+        this.toast = null;
+        this.paused = false;
+        this.reviveSelection = -1;
+        this.reviveFailMessage = null;
+        this.message = null;
+        this.messageColor = null;
+    }
+
+    /**
+     * Captures an entity at its current position.
+     *
+     * @param entity
+     *            Entity to draw.
+     */
+    public void addEntity(final Entity entity) {
+        addSprite(entity.getPositionX(), entity.getPositionY(), entity.getWidth(),
+                entity.getHeight(), entity.getSpriteType(), DrawManager.colorOf(entity));
+    }
+
+    /**
+     * Captures a sprite that has no entity, such as one received from a
+     * networked host.
+     *
+     * @param x
+     *            Position in the x-axis.
+     * @param y
+     *            Position in the y-axis.
+     * @param width
+     *            Width of the sprite.
+     * @param height
+     *            Height of the sprite.
+     * @param sprite
+     *            Sprite to draw.
+     * @param color
+     *            Color of the sprite.
+     */
+    public void addSprite(final int x, final int y, final int width, final int height,
+                          final SpriteType sprite, final Color color) {
+        if (this.entityCount == this.entityX.length)
+            grow();
+        int i = this.entityCount++;
+        this.entityX[i] = x;
+        this.entityY[i] = y;
+        this.entityWidth[i] = width;
+        this.entityHeight[i] = height;
+        this.entitySprite[i] = sprite;
+        this.entityColor[i] = color;
+    }
+
+    /**
+     * Captures several entities.
+     *
+     * @param entities
+     *            Entities to draw.
+     */
+    public void addEntities(final Iterable<? extends Entity> entities) {
+        for (Entity entity : entities)
+            addEntity(entity);
+    }
+
+    private void grow() {
+        int capacity = this.entityX.length * 2;
+        this.entityX = Arrays.copyOf(this.entityX, capacity);
+        this.entityY = Arrays.copyOf(this.entityY, capacity);
+        this.entityWidth = Arrays.copyOf(this.entityWidth, capacity);
+        this.entityHeight = Arrays.copyOf(this.entityHeight, capacity);
+        this.entitySprite = Arrays.copyOf(this.entitySprite, capacity);
+        this.entityColor = Arrays.copyOf(this.entityColor, capacity);
+    }
+
+    /**
+     * @return Number of sprites captured.
+     */
+    public int getEntityCount() {
+        return this.entityCount;
+    }
+
+    /**
+     * Sets the values shown by every game screen.
+     *
+     * @param separationLine
+     *            Height of the line separating the HUD from the field.
+     * @param lives
+     *            Lives remaining.
+     * @param coop
+     *            If lives are shared by two players.
+     * @param coins
+     *            Coins owned.
+     * @param level
+     *            Current level.
+     * @param lastLife
+     *            If only one life is left.
+     */
+    public void setHud(final int separationLine, final int lives, final boolean coop,
+                       final int coins, final int level, final boolean lastLife) {
+        this.separationLine = separationLine;
+        this.lives = lives;
+        this.coop = coop;
+        this.coins = coins;
+        this.level = level;
+        this.lastLife = lastLife;
+    }
+
+    /**
+     * @param score
+     *            Team score to show.
+     */
+    public void setScore(final int score) {
+        this.score = score;
+    }
+
+    /**
+     * @param shipCount
+     *            Enemies left to show.
+     */
+    public void setShipCount(final int shipCount) {
+        this.shipCount = shipCount;
+    }
+
+    /**
+     * @param hp
+     *            Boss health.
+     * @param maxHp
+     *            Boss maximum health.
+     */
+    public void setBossHp(final int hp, final int maxHp) {
+        this.bossHp = hp;
+        this.bossMaxHp = maxHp;
+    }
+
+    /**
+     * @param duration
+     *            Time on the boss timer, in milliseconds.
+     */
+    public void setBossTimer(final long duration) {
+        this.bossTimer = duration;
+    }
+
+    /**
+     * Captures the items in an inventory and their remaining time.
+     *
+     * @param inventory
+     *            Inventory to show, or null.
+     */
+    public void setInventory(final ItemInventory inventory) {
+        if (inventory == null) {
+            this.inventorySlots = 0;
+            return;
+        }
+        this.inventorySlots = Math.min(inventory.getMaxSlots(), this.inventoryItems.length);
+        for (int i = 0; i < this.inventorySlots; i++) {
+            this.inventoryItems[i] = inventory.getSlot(i);
+            this.inventoryRemaining[i] = inventory.getRemainingDuration(i);
+        }
+    }
+
+    /**
+     * @param seconds
+     *            Seconds left on the start countdown.
+     * @param bonusLife
+     *            If the level grants a bonus life.
+     */
+    public void setCountdown(final int seconds, final boolean bonusLife) {
+        this.countdown = seconds;
+        this.bonusLife = bonusLife;
+    }
+
+    /**
+     * Shows the new high score notice.
+     */
+    public void setHighScoreNotice() {
+        this.highScoreNotice = true;
+    }
+
+    /**
+     * @param toast
+     *            Achievement toast to show, or null.
+     */
+    public void setToast(final Achievement toast) {
+        this.toast = toast;
+    }
+
+    /**
+     * Shows the pause overlay.
+     */
+    public void setPaused() {
+        this.paused = true;
+    }
+
+    /**
+     * @param death
+     *            If the last hit took the final life.
+     */
+    public void setDeath(final boolean death) {
+        this.death = death;
+    }
+
+    /**
+     * @param selection
+     *            Selected option of the revive prompt.
+     */
+    public void setRevivePrompt(final int selection) {
+        this.reviveSelection = selection;
+    }
+
+    /**
+     * @param reason
+     *            Why the revive failed.
+     */
+    public void setReviveFail(final String reason) {
+        this.reviveFailMessage = reason;
+    }
+
+    /**
+     * @param text
+     *            Message for the bottom left corner.
+     * @param color
+     *            Color of the message.
+     */
+    public void setMessage(final String text, final Color color) {
+        this.message = text;
+        this.messageColor = color;
+    }
+}
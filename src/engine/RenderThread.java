@@ -0,0 +1,130 @@
+package engine;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Draws a game screen on its own thread, so a slow frame delays the next
+ * picture instead of the next simulation tick.
+ *
+ * The simulation fills {@link #back()} and calls {@link #publish()}; the
+ * render thread wakes up, takes the latest snapshot through a
+ * {@link TripleBuffer} and draws it. Snapshots published faster than they
+ * can be drawn are skipped, never queued.
+ *
+ * On by default; with -Dgame.render.thread=false snapshots are drawn on the
+ * simulation thread as soon as they are published.
+ */
+public final class RenderThread {
+
+    /** System property turning the render thread off. */
+    public static final String PROPERTY = "game.render.thread";
+
+    private static final Logger logger = Core.getLogger();
+
+    /** Snapshots shared with the render thread. */
+    private final TripleBuffer<RenderSnapshot> buffer = new TripleBuffer<>(RenderSnapshot::new);
+    /** Draws a snapshot. */
+    private final Consumer<RenderSnapshot> renderer;
+    /** If snapshots are drawn on a thread of their own. */
+    private final boolean threaded;
+    /** Render thread, while started. */
+    private volatile Thread thread;
+
+    /**
+     * Constructor, configured from the system property.
+     *
+     * @param renderer
+     *            Draws a snapshot.
+     */
+    public RenderThread(final Consumer<RenderSnapshot> renderer) {
+        this(renderer, !"false".equalsIgnoreCase(System.getProperty(PROPERTY)));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param renderer
+     *            Draws a snapshot.
+     * @param threaded
+     *            If snapshots are drawn on a thread of their own.
+     */
+    RenderThread(final Consumer<RenderSnapshot> renderer, final boolean threaded) {
+        this.renderer = renderer;
+        this.threaded = threaded;
+    }
+
+    /**
+     * Starts the render thread, if enabled.
+     */
+    public void start() {
+        if (!this.threaded || this.thread != null)
+            return;
+        Thread started = new Thread(this::loop, "render");
+        started.setDaemon(true);
+        this.thread = started;
+        started.start();
+    }
+
+    /**
+     * Stops the render thread and waits for the frame being drawn, so the
+     * next screen can draw from the simulation thread.
+     */
+    public void stop() {
+        Thread running = this.thread;
+        if (running == null)
+            return;
+        this.thread = null;
+        LockSupport.unpark(running);
+        try {
+            running.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Simulation side.
+     *
+     * @return Empty snapshot to fill with the next frame.
+     */
+    public RenderSnapshot back() {
+        RenderSnapshot snapshot = this.buffer.back();
+        snapshot.clear();
+        return snapshot;
+    }
+
+    /**
+     * Simulation side. Hands the filled snapshot over to be drawn.
+     */
+    public void publish() {
+        this.buffer.publish();
+        Thread running = this.thread;
+        if (running != null)
+            LockSupport.unpark(running);
+        else
+            render();
+    }
+
+    private void loop() {
+        Thread self = Thread.currentThread();
+        while (this.thread == self) {
+            if (!render())
+                LockSupport.park(this);
+        }
+    }
+
+    /** Draws the latest snapshot, if there is a new one. */
+    private boolean render() {
+        RenderSnapshot snapshot = this.buffer.takeLatest();
+        if (snapshot == null)
+            return false;
+        try {
+            this.renderer.accept(snapshot);
+        } catch (RuntimeException e) {
+            logger.warning("Couldn't draw frame: " + e);
+        }
+        return true;
+    }
+}
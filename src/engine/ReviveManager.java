@@ -38,4 +38,16 @@ public final class ReviveManager {
 
         return false;
     }
+
+    /**
+     * @return 레벨별 부활 여부 (이어하기 저장용 복사본) */
+    public boolean[] getRevived() {
+        return revived.clone();
+    }
+
+    /**
+     * 저장해 둔 레벨별 부활 여부를 되살린다 (이어하기). */
+    public void restoreRevived(boolean[] saved) {
+        System.arraycopy(saved, 0, revived, 0, Math.min(saved.length, revived.length));
+    }
 }
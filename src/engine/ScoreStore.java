@@ -0,0 +1,388 @@
+package engine;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.logging.Logger;
+
+/**
+ * Local high score store backed by an append-only log.
+ * Each line of res/scores.log is "mode,player,clearTime" and records a new
+ * personal best. Lines superseded by a better time are dropped by a periodic
+ * compaction, which writes a new log, syncs it and atomically renames it over
+ * the old one. A torn last line from a crash is ignored on load.
+ * Submits update the indexes at once; the log is written behind by the
+ * {@link PersistenceService}.
+ *
+ * Scores are clear times, so lower is better.
+ */
+public final class ScoreStore {
+
+    /** Number of scores kept in the per-mode leaderboard. */
+    public static final int TOP_K = 7;
+    /** Minimum number of superseded lines before compacting. */
+    private static final int MIN_GARBAGE_FOR_COMPACTION = 32;
+    /** Log file name in the resource folder. */
+    private static final String LOG_NAME = "scores.log";
+    /** Game modes imported from the legacy CSV files. */
+    private static final String[] LEGACY_MODES = { "1P", "2P" };
+
+    /** Orders scores by clear time, then by player name. */
+    private static final Comparator<Score> BY_TIME =
+            Comparator.comparingInt(Score::getScore).thenComparing(Score::getName);
+
+    private static ScoreStore instance;
+    private static final Logger logger = Core.getLogger();
+
+    /** Folder holding the log and the legacy files. */
+    private final Path directory;
+    /** Log file. */
+    private final Path logFile;
+    /** Best score per player, per mode. */
+    private final Map<String, Map<String, Score>> bestByMode = new HashMap<>();
+    /** Best scores per mode, ordered by clear time. */
+    private final Map<String, NavigableSet<Score>> rankedByMode = new HashMap<>();
+    /** Leaderboard per mode, at most TOP_K entries. */
+    private final Map<String, NavigableSet<Score>> topByMode = new HashMap<>();
+    /** Lines in the log that are no longer a personal best. */
+    private int garbage;
+    /** Append channel, opened lazily. */
+    private FileChannel appendChannel;
+    /** Log lines not yet written. */
+    private final StringBuilder unsynced = new StringBuilder();
+
+    /**
+     * Constructor, loads the log from the given folder.
+     *
+     * @param directory
+     *            Folder holding the log.
+     * @throws IOException
+     *             In case of loading problems.
+     */
+    ScoreStore(final Path directory) throws IOException {
+        this.directory = directory;
+        this.logFile = directory.resolve(LOG_NAME);
+        load();
+    }
+
+    /**
+     * Returns the shared instance, backed by the res folder.
+     *
+     * @return Shared score store.
+     * @throws IOException
+     *             In case of loading problems.
+     */
+    public static synchronized ScoreStore getInstance() throws IOException {
+        if (instance == null)
+            instance = new ScoreStore(Paths.get(System.getProperty("user.dir"), "res"));
+        return instance;
+    }
+
+    /**
+     * Loads the log, or imports the legacy CSV tables if there is no log.
+     */
+    private void load() throws IOException {
+        if (Files.exists(this.logFile)) {
+            String content = new String(Files.readAllBytes(this.logFile), StandardCharsets.UTF_8);
+            String[] lines = content.split("\n", -1);
+            // The last element is empty unless the final write was torn.
+            boolean torn = !lines[lines.length - 1].isEmpty();
+            int records = 0;
+            for (int i = 0; i < lines.length - 1; i++) {
+                Score score = parse(lines[i]);
+                if (score == null) {
+                    this.garbage++;
+                    continue;
+                }
+                records++;
+                if (!index(score))
+                    this.garbage++;
+            }
+            logger.info("Loaded " + records + " score records.");
+            if (torn)
+                logger.warning("Ignoring incomplete last line of " + LOG_NAME);
+            if (torn || this.garbage >= MIN_GARBAGE_FOR_COMPACTION)
+                compact();
+        } else {
+            importLegacy();
+        }
+    }
+
+    /**
+     * Imports res/1Pscores.csv and res/2Pscores.csv into a new log.
+     */
+    private void importLegacy() throws IOException {
+        int imported = 0;
+        for (String mode : LEGACY_MODES) {
+            Path legacy = this.directory.resolve(mode + "scores.csv");
+            if (!Files.exists(legacy))
+                continue;
+            try (BufferedReader reader = Files.newBufferedReader(legacy, StandardCharsets.UTF_8)) {
+                reader.readLine(); // header
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] pair = line.split(",");
+                    if (pair.length < 2)
+                        continue;
+                    try {
+                        index(new Score(pair[0], Integer.parseInt(pair[1].trim()), mode));
+                        imported++;
+                    } catch (NumberFormatException e) {
+                        logger.warning("Skipping malformed score line in " + legacy.getFileName() + ": " + line);
+                    }
+                }
+            }
+        }
+        logger.info("Imported " + imported + " legacy high scores.");
+        compact();
+    }
+
+    /**
+     * Parses a log line.
+     *
+     * @return Score, or null if the line is malformed or torn.
+     */
+    private static Score parse(final String line) {
+        String[] fields = line.split(",");
+        if (fields.length != 3 || fields[0].isEmpty() || fields[1].isEmpty())
+            return null;
+        try {
+            return new Score(fields[1], Integer.parseInt(fields[2]), fields[0]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String format(final Score score) {
+        return score.getMode() + "," + score.getName() + "," + score.getScore();
+    }
+
+    /**
+     * Adds a score to the in-memory indexes if it is a personal best.
+     *
+     * @return True if it became the player's best for its mode.
+     */
+    private boolean index(final Score score) {
+        String mode = score.getMode();
+        Map<String, Score> best = this.bestByMode.computeIfAbsent(mode, m -> new HashMap<>());
+        NavigableSet<Score> ranked = this.rankedByMode.computeIfAbsent(mode, m -> new TreeSet<>(BY_TIME));
+        NavigableSet<Score> top = this.topByMode.computeIfAbsent(mode, m -> new TreeSet<>(BY_TIME));
+
+        Score previous = best.get(score.getName());
+        if (previous != null && previous.getScore() <= score.getScore())
+            return false;
+
+        best.put(score.getName(), score);
+        if (previous != null) {
+            ranked.remove(previous);
+            top.remove(previous);
+        }
+        ranked.add(score);
+        top.add(score);
+        if (top.size() > TOP_K)
+            top.pollLast();
+        return true;
+    }
+
+    /**
+     * Records a score. Only personal bests are appended to the log; the
+     * append is written in the background.
+     *
+     * @param score
+     *            Score to record.
+     * @return True if the score was a personal best.
+     */
+    public synchronized boolean submit(final Score score) {
+        Score previous = getBest(score.getMode(), score.getName());
+        if (!index(score))
+            return false;
+        if (previous != null)
+            this.garbage++;
+
+        this.unsynced.append(format(score)).append('\n');
+        PersistenceService.getInstance().submit(this.logFile.toString(), this::sync);
+        return true;
+    }
+
+    /**
+     * Appends the unwritten lines to the log and syncs it to disk, compacting
+     * it if superseded lines outnumber live ones.
+     *
+     * @throws IOException
+     *             In case of writing problems.
+     */
+    public synchronized void sync() throws IOException {
+        if (this.garbage >= MIN_GARBAGE_FOR_COMPACTION && this.garbage > liveCount()) {
+            compact();
+            return;
+        }
+        if (this.unsynced.length() == 0)
+            return;
+        if (this.appendChannel == null || !this.appendChannel.isOpen())
+            this.appendChannel = FileChannel.open(this.logFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        ByteBuffer buffer = ByteBuffer.wrap(this.unsynced.toString().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining())
+            this.appendChannel.write(buffer);
+        this.appendChannel.force(false);
+        this.unsynced.setLength(0);
+    }
+
+    /**
+     * Rewrites the log with only the current personal bests.
+     *
+     * @throws IOException
+     *             In case of writing problems.
+     */
+    public synchronized void compact() throws IOException {
+        if (this.appendChannel != null) {
+            this.appendChannel.close();
+            this.appendChannel = null;
+        }
+
+        Path temp = this.directory.resolve(LOG_NAME + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             BufferedWriter writer = new BufferedWriter(
+                     new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8))) {
+            for (NavigableSet<Score> ranked : this.rankedByMode.values()) {
+                for (Score score : ranked) {
+                    writer.write(format(score));
+                    writer.write('\n');
+                }
+            }
+            writer.flush();
+            channel.force(true);
+        }
+
+        try {
+            Files.move(temp, this.logFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, this.logFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        this.garbage = 0;
+        this.unsynced.setLength(0);
+        logger.info("Compacted score log to " + liveCount() + " records.");
+    }
+
+    /**
+     * Returns the leaderboard of a mode, fastest first.
+     *
+     * @param mode
+     *            Game mode, 1P or 2P.
+     * @return At most TOP_K scores.
+     */
+    public synchronized List<Score> getTopScores(final String mode) {
+        NavigableSet<Score> top = this.topByMode.get(mode);
+        return top == null ? new ArrayList<>() : new ArrayList<>(top);
+    }
+
+    /**
+     * Returns the best score of a player in a mode.
+     *
+     * @param mode
+     *            Game mode.
+     * @param player
+     *            Player name.
+     * @return Best score, or null if the player has none.
+     */
+    public synchronized Score getBest(final String mode, final String player) {
+        Map<String, Score> best = this.bestByMode.get(mode);
+        return best == null ? null : best.get(player);
+    }
+
+    /**
+     * Returns the best score of a player in every mode.
+     *
+     * @param player
+     *            Player name.
+     * @return Scores of the player, one per mode.
+     */
+    public synchronized List<Score> getScoresByPlayer(final String player) {
+        List<Score> scores = new ArrayList<>();
+        for (Map<String, Score> best : this.bestByMode.values()) {
+            Score score = best.get(player);
+            if (score != null)
+                scores.add(score);
+        }
+        scores.sort(BY_TIME);
+        return scores;
+    }
+
+    /**
+     * Returns every personal best of a mode, fastest first.
+     *
+     * @param mode
+     *            Game mode.
+     * @return Scores of the mode.
+     */
+    public synchronized List<Score> getScoresByMode(final String mode) {
+        NavigableSet<Score> ranked = this.rankedByMode.get(mode);
+        return ranked == null ? new ArrayList<>() : new ArrayList<>(ranked);
+    }
+
+    /**
+     * Returns the personal bests of a mode with a clear time at or under a
+     * limit, fastest first.
+     *
+     * @param mode
+     *            Game mode.
+     * @param maxClearTime
+     *            Largest clear time to include, in milliseconds.
+     * @return Matching scores.
+     */
+    public synchronized List<Score> getScoresByClearTime(final String mode, final int maxClearTime) {
+        NavigableSet<Score> ranked = this.rankedByMode.get(mode);
+        if (ranked == null)
+            return new ArrayList<>();
+        List<Score> scores = new ArrayList<>();
+        for (Score score : ranked) {
+            if (score.getScore() > maxClearTime)
+                break;
+            scores.add(score);
+        }
+        return scores;
+    }
+
+    /**
+     * Number of personal bests across all modes.
+     */
+    private int liveCount() {
+        int count = 0;
+        for (Map<String, Score> best : this.bestByMode.values())
+            count += best.size();
+        return count;
+    }
+
+    /**
+     * Writes pending lines and closes the append channel.
+     *
+     * @throws IOException
+     *             In case of writing problems.
+     */
+    public synchronized void close() throws IOException {
+        sync();
+        if (this.appendChannel != null) {
+            this.appendChannel.close();
+            this.appendChannel = null;
+        }
+    }
+}
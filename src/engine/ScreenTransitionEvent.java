@@ -0,0 +1,28 @@
+package engine;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event covering a screen shown by the main loop, from the
+ * state that opened it to the return code it finished with.
+ */
+@Name("game.ScreenTransition")
+@Label("Screen Transition")
+@Category({ "Game", "Screens" })
+@StackTrace(false)
+public final class ScreenTransitionEvent extends jdk.jfr.Event {
+
+    @Label("Screen")
+    public String screen;
+
+    @Label("From State")
+    @Description("Return code of the main loop when the screen was opened")
+    public int fromState;
+
+    @Label("Return Code")
+    public int returnCode;
+}
@@ -0,0 +1,62 @@
+package engine;
+
+import entity.Ship;
+
+/**
+ * Drives one player's ship. Each tick the screen asks the controller of
+ * every player slot for an {@link InputAction} mask and moves the ship
+ * accordingly, so a player can be a person on the keyboard or a bot.
+ *
+ * Slots are driven by the keyboard unless {@code -Dgame.bots} names them,
+ * e.g. {@code -Dgame.bots=2} lets a bot fly the second ship and
+ * {@code -Dgame.bots=all} hands both over.
+ */
+public interface ShipController {
+
+    /** System property listing the player slots (1-based) driven by bots. */
+    String BOTS_PROPERTY = "game.bots";
+
+    /**
+     * Decides the ship's move for this tick. Only the player's left, right
+     * and shoot actions ({@link InputAction#ofPlayer(int)}) are read.
+     *
+     * @param playerIndex
+     *            Player index (0 or 1).
+     * @param ship
+     *            Ship to drive, never destroyed.
+     * @param field
+     *            Bullets and enemies of this tick.
+     * @return Mask of the actions to perform.
+     */
+    long control(int playerIndex, Ship ship, Battlefield field);
+
+    /**
+     * @param playerIndex
+     *            Player index (0 or 1).
+     * @param input
+     *            Keyboard input of the game.
+     * @return Controller of the slot, as configured by {@link #BOTS_PROPERTY}.
+     */
+    static ShipController forSlot(final int playerIndex, final InputManager input) {
+        return isBot(System.getProperty(BOTS_PROPERTY, ""), playerIndex)
+                ? new BotController() : new KeyboardController(input);
+    }
+
+    /**
+     * @param bots
+     *            Value of {@link #BOTS_PROPERTY}: "all", or slot numbers
+     *            separated by commas.
+     * @param playerIndex
+     *            Player index (0 or 1).
+     * @return True if the slot is driven by a bot.
+     */
+    static boolean isBot(final String bots, final int playerIndex) {
+        for (String slot : bots.split(",")) {
+            String trimmed = slot.trim();
+            if (trimmed.equalsIgnoreCase("all")
+                    || trimmed.equals(Integer.toString(playerIndex + 1)))
+                return true;
+        }
+        return false;
+    }
+}
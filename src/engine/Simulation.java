@@ -0,0 +1,323 @@
+package engine;
+
+import entity.Bullet;
+import entity.BulletPool;
+import entity.EnemyShip;
+import entity.EnemyShipFormation;
+import entity.EnemyShipPool;
+import entity.Entity;
+import entity.FormationTemplate;
+import entity.Item;
+import entity.ItemPool;
+import entity.Ship;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * One headless game played by a {@link BotController}, for balance runs.
+ *
+ * It plays the levels in order with the rules of the game screen, taken
+ * from {@link GameRules} (ship movement and fire, formation movement and
+ * fire, bullet and item collisions, score, coins and item drops, the special
+ * ship, item effects, the team lives pool) but draws nothing, plays no sound
+ * and never sleeps. Each game runs in its own seeded {@link GameSession},
+ * with its own clock, timer wheel, random generator, entity pools and item
+ * manager, so games run in parallel and as fast as the CPU allows.
+ *
+ * The parts of the game listed in {@link #NOT_SIMULATED} are left out; the
+ * report of {@link BatchRunner} repeats the list.
+ *
+ * Sprites must be loaded once ({@link DrawManager#getInstance()}) before the
+ * first game, so collisions use the same masks as the game.
+ */
+public final class Simulation {
+
+    /** Playing area, as in the game window. */
+    static final int WIDTH = 448;
+    static final int HEIGHT = 520;
+    /** Game ticks per simulated second. */
+    static final int FPS = 60;
+    /** Simulated milliseconds per tick. */
+    static final int TICK_MS = 1000 / FPS;
+    /** Lives of the player. */
+    static final int LIVES = 3;
+    /** Top of the playing area, below the HUD. */
+    private static final int SEPARATION_LINE_HEIGHT = 68;
+    /** Simulated clock at the start of a game; cooldowns treat 0 as unset. */
+    private static final long START_TIME = 1_000_000L;
+    /** Parts of the game the simulation leaves out. */
+    static final String NOT_SIMULATED = "second player, revive prompt, boss levels, "
+            + "level start countdown, pause";
+
+    /** Levels to play, in order. */
+    private final List<GameSettings> levels;
+    /** Seed of the game. */
+    private final long seed;
+    /** Longest game, in ticks. */
+    private final int maxTicks;
+    /** Drop tier weights, by ordinal, or null for the defaults. */
+    private final double[] tierWeights;
+
+    private final ShipController bot = new BotController();
+    private final Battlefield battlefield = new Battlefield();
+    private final Set<Bullet> recyclable = new HashSet<>();
+    private final Set<Item> collected = new HashSet<>();
+    /** Receives the screen after each tick, or null. */
+    private Consumer<GameSnapshot> recorder;
+    private final GameSnapshot snapshot = new GameSnapshot();
+    private final Ship[] ships = new Ship[GameState.NUM_PLAYERS];
+    /** Special ship of the level, or null. */
+    private EnemyShip special;
+    private Cooldown specialInterval;
+    private Cooldown specialExplosion;
+
+    /**
+     * Outcome of one game.
+     */
+    public static final class Result {
+
+        final long seed;
+        /** Ticks played until the game ended. */
+        final int ticks;
+        final int levelsCleared;
+        final int score;
+        final int bulletsShot;
+        final int shipsDestroyed;
+        final int livesLost;
+        final int itemsDropped;
+        final int itemsPicked;
+        /** Time spent computing each tick. */
+        final LatencyHistogram.Snapshot tickTime;
+
+        Result(final long seed, final int ticks, final int levelsCleared, final GameState state,
+               final int livesLost, final int itemsDropped, final int itemsPicked,
+               final LatencyHistogram.Snapshot tickTime) {
+            this.seed = seed;
+            this.ticks = ticks;
+            this.levelsCleared = levelsCleared;
+            this.score = state.getScore();
+            this.bulletsShot = state.getBulletsShot();
+            this.shipsDestroyed = state.getShipsDestroyed();
+            this.livesLost = livesLost;
+            this.itemsDropped = itemsDropped;
+            this.itemsPicked = itemsPicked;
+            this.tickTime = tickTime;
+        }
+
+        /**
+         * @return Simulated seconds survived.
+         */
+        public double getSurvivalSeconds() {
+            return (double) this.ticks / FPS;
+        }
+
+        public int getScore() {
+            return this.score;
+        }
+
+        public int getLevelsCleared() {
+            return this.levelsCleared;
+        }
+
+        /**
+         * @return Share of shots that destroyed a ship, or 0 without shots.
+         */
+        public double getAccuracy() {
+            return this.bulletsShot == 0 ? 0 : (double) this.shipsDestroyed / this.bulletsShot;
+        }
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param levels
+     *            Levels to play, in order.
+     * @param seed
+     *            Seed of the game's random numbers.
+     * @param maxTicks
+     *            Longest game, in ticks.
+     * @param tierWeights
+     *            Drop tier weights by ordinal, or null for the defaults.
+     */
+    public Simulation(final List<GameSettings> levels, final long seed, final int maxTicks,
+                      final double[] tierWeights) {
+        this.levels = levels;
+        this.seed = seed;
+        this.maxTicks = maxTicks;
+        this.tierWeights = tierWeights;
+    }
+
+    /**
+     * Hands the screen to a recorder after each tick, for snapshot size
+     * and codec measurements. The snapshot is reused from tick to tick.
+     *
+     * @param recorder
+     *            Receiver of the snapshots, or null for none.
+     */
+    public void setRecorder(final Consumer<GameSnapshot> recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Plays the game on the calling thread.
+     *
+     * @return Outcome of the game.
+     */
+    public Result run() {
+        GameSession session = GameSession.simulated(this.seed, START_TIME);
+        session.enter();
+        try {
+            if (this.tierWeights != null)
+                for (ItemManager.DropTier tier : ItemManager.DropTier.values())
+                    session.getItemManager().setTierWeight(tier, this.tierWeights[tier.ordinal()]);
+            return play(session);
+        } finally {
+            session.exit();
+        }
+    }
+
+    private Result play(final GameSession session) {
+        GameState state = new GameState(1, LIVES, false, 0);
+        LatencyHistogram tickTime = new LatencyHistogram();
+        Counters counters = new Counters();
+        int ticks = 0;
+        int cleared = 0;
+
+        for (int i = 0; i < this.levels.size() && state.teamAlive() && ticks < this.maxTicks; i++) {
+            GameSettings settings = this.levels.get(i);
+            EnemyShipPool.prewarm(FormationTemplate.of(settings));
+            EnemyShipFormation formation = new EnemyShipFormation(settings);
+            formation.attach(WIDTH, HEIGHT);
+            Ship ship = new Ship(WIDTH / 2 - 60, HEIGHT - 30, Entity.Team.PLAYER1,
+                    Ship.ShipType.NORMAL, state);
+            ship.setPlayerId(1);
+            // Insertion order, so collisions and random draws repeat with the seed.
+            Set<Bullet> bullets = new LinkedHashSet<>();
+            Set<Item> drops = new LinkedHashSet<>();
+            this.ships[0] = ship;
+            this.special = null;
+            this.specialInterval = Core.getVariableCooldown(GameRules.SPECIAL_SHIP_INTERVAL,
+                    GameRules.SPECIAL_SHIP_VARIANCE);
+            this.specialInterval.reset();
+            this.specialExplosion = Core.getCooldown(GameRules.SPECIAL_SHIP_EXPLOSION);
+
+            while (ticks < this.maxTicks && state.teamAlive() && !formation.isEmpty()) {
+                session.advance(TICK_MS);
+                long start = System.nanoTime();
+                tick(session, state, formation, ship, bullets, drops, counters);
+                tickTime.recordSince(start);
+                ticks++;
+                if (this.recorder != null) {
+                    this.snapshot.capture(ticks, 0, state, this.ships, this.special, formation,
+                            bullets, drops);
+                    this.recorder.accept(this.snapshot);
+                }
+            }
+            if (formation.isEmpty())
+                cleared++;
+
+            BulletPool.recycle(bullets);
+            ItemPool.recycle(drops);
+            formation.recycle();
+            EnemyShipPool.recycle(this.special);
+            this.special = null;
+            state.nextLevel();
+        }
+        return new Result(this.seed, ticks, cleared, state, counters.livesLost,
+                counters.itemsDropped, counters.itemsPicked, tickTime.snapshot());
+    }
+
+    /** Tallies not kept by the game state. */
+    private static final class Counters {
+        int livesLost;
+        int itemsDropped;
+        int itemsPicked;
+    }
+
+    /** One game tick, in the order of the game screen. */
+    private void tick(final GameSession session, final GameState state,
+                      final EnemyShipFormation formation, final Ship ship,
+                      final Set<Bullet> bullets, final Set<Item> drops, final Counters counters) {
+        if (!ship.isDestroyed()) {
+            this.battlefield.reset(WIDTH, bullets);
+            for (EnemyShip shooter : formation.getShooters())
+                if (!shooter.isDestroyed())
+                    this.battlefield.addTarget(shooter);
+            if (this.special != null && !this.special.isDestroyed())
+                this.battlefield.addTarget(this.special);
+            long actions = this.bot.control(0, ship, this.battlefield);
+            GameRules.steer(state, 0, ship, actions, bullets, WIDTH);
+        }
+
+        this.special = GameRules.updateSpecialShip(this.special, this.specialInterval,
+                this.specialExplosion, WIDTH);
+
+        ship.update();
+        formation.update();
+        formation.shoot(bullets);
+
+        manageCollisions(session, state, formation, bullets, drops, counters);
+
+        for (Bullet bullet : bullets) {
+            bullet.update();
+            if (GameRules.isOutside(bullet, SEPARATION_LINE_HEIGHT, HEIGHT))
+                this.recyclable.add(bullet);
+        }
+        bullets.removeAll(this.recyclable);
+        BulletPool.recycle(this.recyclable);
+        this.recyclable.clear();
+
+        for (Item item : drops) {
+            item.update();
+            if (item.getPositionY() > HEIGHT) {
+                this.collected.add(item);
+            } else if (GameRules.collides(item, ship)) {
+                this.collected.add(item);
+                item.applyEffect(state, ship.getPlayerId());
+                counters.itemsPicked++;
+            }
+        }
+        drops.removeAll(this.collected);
+        ItemPool.recycle(this.collected);
+        this.collected.clear();
+
+        state.updateEffects();
+    }
+
+    private void manageCollisions(final GameSession session, final GameState state,
+                                  final EnemyShipFormation formation, final Set<Bullet> bullets,
+                                  final Set<Item> drops, final Counters counters) {
+        for (Bullet bullet : bullets) {
+            if (bullet.getSpeed() > 0) {
+                if (GameRules.hitPlayer(state, this.ships, bullet, GameRules::collides) >= 0) {
+                    this.recyclable.add(bullet);
+                    counters.livesLost++;
+                }
+                continue;
+            }
+            int p = GameRules.shooterIndex(bullet);
+            for (EnemyShip enemy : formation) {
+                if (!enemy.isDestroyed() && GameRules.collides(bullet, enemy)) {
+                    this.recyclable.add(bullet);
+                    enemy.hit();
+                    if (enemy.isDestroyed()
+                            && GameRules.enemyKilled(session, state, p, enemy, drops, formation) != null)
+                        counters.itemsDropped++;
+                    break;
+                }
+            }
+            if (this.special != null && !this.special.isDestroyed()
+                    && GameRules.collides(bullet, this.special)) {
+                GameRules.specialKilled(state, p, this.special, this.specialExplosion);
+                this.recyclable.add(bullet);
+            }
+        }
+        bullets.removeAll(this.recyclable);
+        BulletPool.recycle(this.recyclable);
+        this.recyclable.clear();
+    }
+}
@@ -0,0 +1,184 @@
+package engine;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * Command line benchmark of the {@link SnapshotCodec}: records the screens
+ * of headless {@link Simulation}s, then reports the size of each snapshot,
+ * whole and against the one sent {@link NetHost#SNAPSHOT_INTERVAL} ticks
+ * before, against the size budgets, and the encode and decode throughput.
+ *
+ * <pre>
+ * java -cp build/classes/java/main engine.SnapshotBenchmark --games 5 --rounds 20
+ * </pre>
+ *
+ * Options, all optional:
+ * <ul>
+ * <li>--games N: games recorded (5).</li>
+ * <li>--seed S: seed of the first game (1).</li>
+ * <li>--minutes M: longest game in simulated minutes (3).</li>
+ * <li>--rounds R: timed passes over the recorded snapshots (20).</li>
+ * </ul>
+ */
+public final class SnapshotBenchmark {
+
+    /** Snapshots recorded per game at most, to bound the memory used. */
+    private static final int MAX_PER_GAME = 2000;
+
+    /** Sizes of recorded snapshots. */
+    static final class Sizes {
+        int count;
+        long keyframeTotal;
+        int keyframeMax;
+        int deltaCount;
+        long deltaTotal;
+        int deltaMax;
+        int overBudget;
+
+        double keyframeAverage() {
+            return this.count == 0 ? 0 : (double) this.keyframeTotal / this.count;
+        }
+
+        double deltaAverage() {
+            return this.deltaCount == 0 ? 0 : (double) this.deltaTotal / this.deltaCount;
+        }
+    }
+
+    /**
+     * Private constructor, static access only.
+     */
+    private SnapshotBenchmark() {
+    }
+
+    /**
+     * Plays a game and keeps every snapshot networked co-op would send.
+     *
+     * @param levels
+     *            Levels to play.
+     * @param seed
+     *            Seed of the game.
+     * @param maxTicks
+     *            Longest game, in ticks.
+     * @return Snapshots, oldest first.
+     */
+    static List<GameSnapshot> record(final List<GameSettings> levels, final long seed,
+                                     final int maxTicks) {
+        List<GameSnapshot> recorded = new ArrayList<>();
+        Simulation simulation = new Simulation(levels, seed, maxTicks, null);
+        simulation.setRecorder(snapshot -> {
+            if (snapshot.getTick() % NetHost.SNAPSHOT_INTERVAL == 0
+                    && recorded.size() < MAX_PER_GAME) {
+                GameSnapshot copy = new GameSnapshot();
+                copy.copyFrom(snapshot);
+                recorded.add(copy);
+            }
+        });
+        simulation.run();
+        return recorded;
+    }
+
+    /**
+     * Measures the snapshots of one game, each against the one before.
+     *
+     * @param codec
+     *            Codec measured.
+     * @param recorded
+     *            Snapshots of the game, oldest first.
+     * @param sizes
+     *            Sizes to add to.
+     */
+    static void measure(final SnapshotCodec codec, final List<GameSnapshot> recorded,
+                        final Sizes sizes) {
+        ByteBuffer buffer = ByteBuffer.allocate(NetProtocol.MAX_DATAGRAM * 4);
+        for (int i = 0; i < recorded.size(); i++) {
+            buffer.clear();
+            codec.encode(recorded.get(i), null, buffer);
+            int keyframe = buffer.position();
+            sizes.count++;
+            sizes.keyframeTotal += keyframe;
+            sizes.keyframeMax = Math.max(sizes.keyframeMax, keyframe);
+            if (keyframe > SnapshotCodec.KEYFRAME_BUDGET)
+                sizes.overBudget++;
+            if (i == 0)
+                continue;
+
+            buffer.clear();
+            codec.encode(recorded.get(i), recorded.get(i - 1), buffer);
+            int delta = buffer.position();
+            sizes.deltaCount++;
+            sizes.deltaTotal += delta;
+            sizes.deltaMax = Math.max(sizes.deltaMax, delta);
+            if (delta > SnapshotCodec.DELTA_BUDGET)
+                sizes.overBudget++;
+        }
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args
+     *            Options, see the class comment.
+     */
+    public static void main(final String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        Map<String, String> options = BatchRunner.parseOptions(args);
+        int games = Integer.parseInt(options.getOrDefault("games", "5"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "1"));
+        int maxTicks = Integer.parseInt(options.getOrDefault("minutes", "3")) * 60 * Simulation.FPS;
+        int rounds = Integer.parseInt(options.getOrDefault("rounds", "20"));
+
+        Core.getLogger().setLevel(Level.WARNING);
+        DrawManager.getInstance();
+        List<GameSettings> levels = GameSettings.getGameSettings();
+
+        List<List<GameSnapshot>> recorded = new ArrayList<>();
+        Sizes sizes = new Sizes();
+        for (int g = 0; g < games; g++) {
+            List<GameSnapshot> game = record(levels, seed + g, maxTicks);
+            measure(SnapshotCodec.NETWORK, game, sizes);
+            recorded.add(game);
+        }
+        System.out.printf(Locale.ROOT, "%d snapshots from %d games%n", sizes.count, games);
+        System.out.printf(Locale.ROOT, "whole:      avg %6.1f B, max %4d B, budget %4d B%n",
+                sizes.keyframeAverage(), sizes.keyframeMax, SnapshotCodec.KEYFRAME_BUDGET);
+        System.out.printf(Locale.ROOT, "delta:      avg %6.1f B, max %4d B, budget %4d B%n",
+                sizes.deltaAverage(), sizes.deltaMax, SnapshotCodec.DELTA_BUDGET);
+        System.out.printf(Locale.ROOT, "over budget: %d%n", sizes.overBudget);
+
+        ByteBuffer buffer = ByteBuffer.allocate(NetProtocol.MAX_DATAGRAM * 4);
+        GameSnapshot decoded = new GameSnapshot();
+        long encodeNanos = 0;
+        long decodeNanos = 0;
+        long bytes = 0;
+        long snapshots = 0;
+        // The first passes warm up the JIT and are not counted.
+        for (int round = -rounds / 4; round < rounds; round++) {
+            for (List<GameSnapshot> game : recorded) {
+                for (int i = 1; i < game.size(); i++) {
+                    long start = System.nanoTime();
+                    buffer.clear();
+                    SnapshotCodec.NETWORK.encode(game.get(i), game.get(i - 1), buffer);
+                    long encoded = System.nanoTime();
+                    buffer.flip();
+                    SnapshotCodec.NETWORK.decode(game.get(i - 1), buffer, decoded);
+                    long end = System.nanoTime();
+                    if (round >= 0) {
+                        encodeNanos += encoded - start;
+                        decodeNanos += end - encoded;
+                        bytes += buffer.limit();
+                        snapshots++;
+                    }
+                }
+            }
+        }
+        System.out.printf(Locale.ROOT, "encode: %8.0f snapshots/s, %6.1f MB/s%n",
+                snapshots * 1e9 / Math.max(1, encodeNanos), bytes * 1e3 / Math.max(1, encodeNanos));
+        System.out.printf(Locale.ROOT, "decode: %8.0f snapshots/s, %6.1f MB/s%n",
+                snapshots * 1e9 / Math.max(1, decodeNanos), bytes * 1e3 / Math.max(1, decodeNanos));
+    }
+}
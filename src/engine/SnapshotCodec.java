@@ -0,0 +1,421 @@
+package engine;
+
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+
+import engine.DrawManager.SpriteType;
+
+/**
+ * Binary format of a {@link GameSnapshot}, written as the changes from a
+ * baseline snapshot; without a baseline the changes from an empty snapshot,
+ * which is the whole of it.
+ *
+ * Numbers are varints, small ones taking a byte, and fields that move are
+ * written as zigzag varints of their change, so anything standing still or
+ * moving a few pixels costs one byte. Flags and the formation's alive slots
+ * are packed eight to a byte; the alive slots only when they changed. A
+ * bullet or item at the same index as in the baseline is taken to be the
+ * same one: its position is a change and its size, owner and sprite are
+ * only written when they differ.
+ *
+ * <pre>
+ * tick inputAck score lives coins level    zigzag changes
+ * flags                                    byte, see FLAG_*
+ * ship x y [width height speed sprite]     per present ship
+ * special x y [sprite]                     if present
+ * slotCount originX originY [alive bits]
+ * n kindChanged:bits[n] (x y [kind])*n     bullets, then items
+ * </pre>
+ *
+ * Bullet positions are divided by the codec's quantum, which the
+ * {@link #NETWORK} codec sets to 2 pixels: sprites are drawn at twice their
+ * size, so nothing shows, and the moves of a bullet stay within a byte.
+ */
+public final class SnapshotCodec {
+
+    /** Codec of networked co-op, bullets to 2 pixels. */
+    public static final SnapshotCodec NETWORK = new SnapshotCodec(2);
+    /** Codec keeping every position exact. */
+    public static final SnapshotCodec EXACT = new SnapshotCodec(1);
+
+    /** Size budget of a snapshot without a baseline, a datagram with room to spare. */
+    public static final int KEYFRAME_BUDGET = 1200;
+    /** Size budget of a snapshot against one a few ticks older. */
+    public static final int DELTA_BUDGET = 320;
+
+    private static final int FLAG_SHIP = 1;
+    private static final int FLAG_SHIP_KIND = 1 << GameState.NUM_PLAYERS;
+    private static final int FLAG_SPECIAL = 1 << 2 * GameState.NUM_PLAYERS;
+    private static final int FLAG_SPECIAL_KIND = FLAG_SPECIAL << 1;
+    private static final int FLAG_ALIVE = FLAG_SPECIAL << 2;
+
+    private static final SpriteType[] SPRITES = SpriteType.values();
+    /** Baseline of snapshots encoded whole. */
+    private static final GameSnapshot EMPTY = new GameSnapshot();
+
+    /** Pixels per step of a bullet position. */
+    private final int bulletQuantum;
+
+    /**
+     * Constructor.
+     *
+     * @param bulletQuantum
+     *            Pixels per step of a bullet position.
+     */
+    SnapshotCodec(final int bulletQuantum) {
+        this.bulletQuantum = bulletQuantum;
+    }
+
+    /**
+     * Writes a snapshot as its changes from a baseline.
+     *
+     * @param current
+     *            Snapshot to write.
+     * @param base
+     *            Baseline the reader has, or null to write it whole.
+     * @param out
+     *            Buffer to write to.
+     */
+    public void encode(final GameSnapshot current, final GameSnapshot base, final ByteBuffer out) {
+        GameSnapshot b = base == null ? EMPTY : base;
+        writeZigzag(out, current.tick - b.tick);
+        writeZigzag(out, current.inputAck - b.inputAck);
+        writeZigzag(out, current.score - b.score);
+        writeZigzag(out, current.lives - b.lives);
+        writeZigzag(out, current.coins - b.coins);
+        writeZigzag(out, current.level - b.level);
+
+        int flags = 0;
+        for (int p = 0; p < GameState.NUM_PLAYERS; p++) {
+            if (!current.shipPresent[p])
+                continue;
+            flags |= FLAG_SHIP << p;
+            if (!b.shipPresent[p] || current.shipWidth[p] != b.shipWidth[p]
+                    || current.shipHeight[p] != b.shipHeight[p]
+                    || current.shipSpeed[p] != b.shipSpeed[p]
+                    || current.shipSprite[p] != b.shipSprite[p])
+                flags |= FLAG_SHIP_KIND << p;
+        }
+        if (current.specialPresent) {
+            flags |= FLAG_SPECIAL;
+            if (!b.specialPresent || current.specialSprite != b.specialSprite)
+                flags |= FLAG_SPECIAL_KIND;
+        }
+        if (current.slotCount != b.slotCount || !current.alive.equals(b.alive))
+            flags |= FLAG_ALIVE;
+        out.put((byte) flags);
+
+        for (int p = 0; p < GameState.NUM_PLAYERS; p++) {
+            if ((flags & FLAG_SHIP << p) == 0)
+                continue;
+            writeZigzag(out, current.shipX[p] - (b.shipPresent[p] ? b.shipX[p] : 0));
+            writeZigzag(out, current.shipY[p] - (b.shipPresent[p] ? b.shipY[p] : 0));
+            if ((flags & FLAG_SHIP_KIND << p) != 0) {
+                writeVarint(out, current.shipWidth[p]);
+                writeVarint(out, current.shipHeight[p]);
+                writeZigzag(out, current.shipSpeed[p]);
+                writeSprite(out, current.shipSprite[p]);
+            }
+        }
+
+        if ((flags & FLAG_SPECIAL) != 0) {
+            writeZigzag(out, current.specialX - (b.specialPresent ? b.specialX : 0));
+            writeZigzag(out, current.specialY - (b.specialPresent ? b.specialY : 0));
+            if ((flags & FLAG_SPECIAL_KIND) != 0)
+                writeSprite(out, current.specialSprite);
+        }
+
+        writeVarint(out, current.slotCount);
+        writeZigzag(out, current.originX - b.originX);
+        writeZigzag(out, current.originY - b.originY);
+        if ((flags & FLAG_ALIVE) != 0)
+            writeBits(out, current.alive, current.slotCount);
+
+        encodeBullets(current, b, out);
+        encodeItems(current, b, out);
+    }
+
+    private void encodeBullets(final GameSnapshot current, final GameSnapshot b,
+                               final ByteBuffer out) {
+        int count = current.bulletCount;
+        writeVarint(out, count);
+        int bits = 0;
+        for (int i = 0; i < count; i++) {
+            if (i >= b.bulletCount || current.bulletWidth[i] != b.bulletWidth[i]
+                    || current.bulletHeight[i] != b.bulletHeight[i]
+                    || current.bulletPlayer[i] != b.bulletPlayer[i]
+                    || current.bulletSprite[i] != b.bulletSprite[i])
+                bits |= 1 << (i & 7);
+            if ((i & 7) == 7 || i == count - 1) {
+                out.put((byte) bits);
+                bits = 0;
+            }
+        }
+        int mask = out.position() - (count + 7) / 8;
+        for (int i = 0; i < count; i++) {
+            boolean known = i < b.bulletCount;
+            writeZigzag(out, quantize(current.bulletX[i]) - (known ? quantize(b.bulletX[i]) : 0));
+            writeZigzag(out, quantize(current.bulletY[i]) - (known ? quantize(b.bulletY[i]) : 0));
+            if ((out.get(mask + i / 8) & 1 << (i & 7)) != 0) {
+                writeVarint(out, current.bulletWidth[i]);
+                writeVarint(out, current.bulletHeight[i]);
+                writeVarint(out, current.bulletPlayer[i]);
+                writeSprite(out, current.bulletSprite[i]);
+            }
+        }
+    }
+
+    private static void encodeItems(final GameSnapshot current, final GameSnapshot b,
+                                    final ByteBuffer out) {
+        int count = current.itemCount;
+        writeVarint(out, count);
+        int bits = 0;
+        for (int i = 0; i < count; i++) {
+            if (i >= b.itemCount || current.itemRgb[i] != b.itemRgb[i]
+                    || current.itemSprite[i] != b.itemSprite[i])
+                bits |= 1 << (i & 7);
+            if ((i & 7) == 7 || i == count - 1) {
+                out.put((byte) bits);
+                bits = 0;
+            }
+        }
+        int mask = out.position() - (count + 7) / 8;
+        for (int i = 0; i < count; i++) {
+            boolean known = i < b.itemCount;
+            writeZigzag(out, current.itemX[i] - (known ? b.itemX[i] : 0));
+            writeZigzag(out, current.itemY[i] - (known ? b.itemY[i] : 0));
+            if ((out.get(mask + i / 8) & 1 << (i & 7)) != 0) {
+                out.put((byte) (current.itemRgb[i] >> 16));
+                out.putShort((short) current.itemRgb[i]);
+                writeSprite(out, current.itemSprite[i]);
+            }
+        }
+    }
+
+    /**
+     * Reads a snapshot written by {@link #encode}.
+     *
+     * @param base
+     *            Baseline it was written against, or null if written whole.
+     * @param in
+     *            Buffer to read from.
+     * @param into
+     *            Snapshot receiving it, other than the baseline.
+     * @throws IllegalArgumentException
+     *             If the bytes are not a snapshot.
+     */
+    public void decode(final GameSnapshot base, final ByteBuffer in, final GameSnapshot into) {
+        if (into == base)
+            throw new IllegalArgumentException("Snapshot decoded over its baseline");
+        GameSnapshot b = base == null ? EMPTY : base;
+        into.tick = b.tick + readZigzag(in);
+        into.inputAck = b.inputAck + readZigzag(in);
+        into.score = b.score + readZigzag(in);
+        into.lives = b.lives + readZigzag(in);
+        into.coins = b.coins + readZigzag(in);
+        into.level = b.level + readZigzag(in);
+
+        int flags = in.get() & 0xFF;
+        for (int p = 0; p < GameState.NUM_PLAYERS; p++) {
+            into.shipPresent[p] = (flags & FLAG_SHIP << p) != 0;
+            if (!into.shipPresent[p])
+                continue;
+            into.shipX[p] = (b.shipPresent[p] ? b.shipX[p] : 0) + readZigzag(in);
+            into.shipY[p] = (b.shipPresent[p] ? b.shipY[p] : 0) + readZigzag(in);
+            if ((flags & FLAG_SHIP_KIND << p) != 0) {
+                into.shipWidth[p] = readVarint(in);
+                into.shipHeight[p] = readVarint(in);
+                into.shipSpeed[p] = readZigzag(in);
+                into.shipSprite[p] = readSprite(in);
+            } else {
+                into.shipWidth[p] = b.shipWidth[p];
+                into.shipHeight[p] = b.shipHeight[p];
+                into.shipSpeed[p] = b.shipSpeed[p];
+                into.shipSprite[p] = b.shipSprite[p];
+            }
+        }
+
+        into.specialPresent = (flags & FLAG_SPECIAL) != 0;
+        if (into.specialPresent) {
+            into.specialX = (b.specialPresent ? b.specialX : 0) + readZigzag(in);
+            into.specialY = (b.specialPresent ? b.specialY : 0) + readZigzag(in);
+            into.specialSprite = (flags & FLAG_SPECIAL_KIND) != 0 ? readSprite(in) : b.specialSprite;
+        }
+
+        into.slotCount = readCount(in, GameSnapshot.MAX_SLOTS);
+        into.originX = b.originX + readZigzag(in);
+        into.originY = b.originY + readZigzag(in);
+        into.alive.clear();
+        if ((flags & FLAG_ALIVE) != 0)
+            readBits(in, into.alive, into.slotCount);
+        else
+            into.alive.or(b.alive);
+
+        decodeBullets(b, in, into);
+        decodeItems(b, in, into);
+    }
+
+    private void decodeBullets(final GameSnapshot b, final ByteBuffer in, final GameSnapshot into) {
+        int count = readCount(in, GameSnapshot.MAX_BULLETS);
+        into.bulletCount = count;
+        int mask = in.position();
+        in.position(mask + (count + 7) / 8);
+        for (int i = 0; i < count; i++) {
+            boolean known = i < b.bulletCount;
+            into.bulletX[i] = ((known ? quantize(b.bulletX[i]) : 0) + readZigzag(in)) * this.bulletQuantum;
+            into.bulletY[i] = ((known ? quantize(b.bulletY[i]) : 0) + readZigzag(in)) * this.bulletQuantum;
+            if ((in.get(mask + i / 8) & 1 << (i & 7)) != 0) {
+                into.bulletWidth[i] = readVarint(in);
+                into.bulletHeight[i] = readVarint(in);
+                into.bulletPlayer[i] = readVarint(in);
+                into.bulletSprite[i] = readSprite(in);
+            } else if (known) {
+                into.bulletWidth[i] = b.bulletWidth[i];
+                into.bulletHeight[i] = b.bulletHeight[i];
+                into.bulletPlayer[i] = b.bulletPlayer[i];
+                into.bulletSprite[i] = b.bulletSprite[i];
+            } else {
+                throw new IllegalArgumentException("Bullet " + i + " without a kind");
+            }
+        }
+    }
+
+    private static void decodeItems(final GameSnapshot b, final ByteBuffer in, final GameSnapshot into) {
+        int count = readCount(in, GameSnapshot.MAX_ITEMS);
+        into.itemCount = count;
+        int mask = in.position();
+        in.position(mask + (count + 7) / 8);
+        for (int i = 0; i < count; i++) {
+            boolean known = i < b.itemCount;
+            into.itemX[i] = (known ? b.itemX[i] : 0) + readZigzag(in);
+            into.itemY[i] = (known ? b.itemY[i] : 0) + readZigzag(in);
+            if ((in.get(mask + i / 8) & 1 << (i & 7)) != 0) {
+                into.itemRgb[i] = (in.get() & 0xFF) << 16 | in.getShort() & 0xFFFF;
+                into.itemSprite[i] = readSprite(in);
+            } else if (known) {
+                into.itemRgb[i] = b.itemRgb[i];
+                into.itemSprite[i] = b.itemSprite[i];
+            } else {
+                throw new IllegalArgumentException("Item " + i + " without a kind");
+            }
+        }
+    }
+
+    /** Rounds a bullet position down to the quantum. */
+    private int quantize(final int position) {
+        return Math.floorDiv(position, this.bulletQuantum);
+    }
+
+    /**
+     * Writes an unsigned value in 7-bit groups, low group first.
+     *
+     * @param out
+     *            Buffer to write to.
+     * @param value
+     *            Value, not negative.
+     */
+    static void writeVarint(final ByteBuffer out, final int value) {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            out.put((byte) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        out.put((byte) remaining);
+    }
+
+    /**
+     * @param in
+     *            Buffer to read from.
+     * @return Value written by {@link #writeVarint}.
+     */
+    static int readVarint(final ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    /**
+     * Writes a signed value as a varint, small magnitudes in few bytes
+     * (0, -1, 1, -2... become 0, 1, 2, 3...).
+     *
+     * @param out
+     *            Buffer to write to.
+     * @param value
+     *            Value.
+     */
+    static void writeZigzag(final ByteBuffer out, final int value) {
+        writeVarint(out, (value << 1) ^ (value >> 31));
+    }
+
+    /**
+     * @param in
+     *            Buffer to read from.
+     * @return Value written by {@link #writeZigzag}.
+     */
+    static int readZigzag(final ByteBuffer in) {
+        int encoded = readVarint(in);
+        return (encoded >>> 1) ^ -(encoded & 1);
+    }
+
+    /**
+     * Writes the first bits of a set, eight to a byte, low bit first.
+     *
+     * @param out
+     *            Buffer to write to.
+     * @param bits
+     *            Bits to write.
+     * @param count
+     *            Number of bits.
+     */
+    static void writeBits(final ByteBuffer out, final BitSet bits, final int count) {
+        for (int start = 0; start < count; start += 8) {
+            int packed = 0;
+            for (int i = bits.nextSetBit(start); i >= 0 && i < start + 8 && i < count;
+                 i = bits.nextSetBit(i + 1))
+                packed |= 1 << (i - start);
+            out.put((byte) packed);
+        }
+    }
+
+    /**
+     * Reads bits written by {@link #writeBits} into a cleared set.
+     *
+     * @param in
+     *            Buffer to read from.
+     * @param bits
+     *            Set receiving the bits.
+     * @param count
+     *            Number of bits.
+     */
+    static void readBits(final ByteBuffer in, final BitSet bits, final int count) {
+        for (int start = 0; start < count; start += 8) {
+            int packed = in.get() & 0xFF;
+            for (; packed != 0; packed &= packed - 1) {
+                int i = start + Integer.numberOfTrailingZeros(packed);
+                if (i < count)
+                    bits.set(i);
+            }
+        }
+    }
+
+    private static int readCount(final ByteBuffer in, final int max) {
+        int count = readVarint(in);
+        if (count < 0 || count > max)
+            throw new IllegalArgumentException("Count " + count + " over " + max);
+        return count;
+    }
+
+    private static void writeSprite(final ByteBuffer out, final SpriteType sprite) {
+        writeVarint(out, sprite == null ? 0 : sprite.ordinal() + 1);
+    }
+
+    private static SpriteType readSprite(final ByteBuffer in) {
+        int ordinal = readVarint(in) - 1;
+        return ordinal < 0 || ordinal >= SPRITES.length ? null : SPRITES[ordinal];
+    }
+}
@@ -13,6 +13,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 
 /**
@@ -21,6 +23,11 @@ import java.util.logging.Logger;
 public final class  SoundManager {
 
     private static final Logger logger = Core.getLogger();
+    /** Time taken to start a sound, on the caller's thread. */
+    private static final LatencyHistogram PLAY_TIME =
+            MetricsRegistry.getInstance().histogram(MetricsRegistry.SOUND);
+    /** One-shot clips holding an audio line. */
+    private static final AtomicInteger oneShotVoices = new AtomicInteger();
     private static Clip loopClip;
 
     private SoundManager() {
@@ -31,8 +38,15 @@ public final class  SoundManager {
      * Uses a new Clip per invocation for simplicity; suitable for very short SFX.
      */
     public static void playOnce(String resourcePath) {
+        AudioPlayEvent playEvent = new AudioPlayEvent();
+        playEvent.begin();
+        long start = System.nanoTime();
+        long openNanos = 0;
+        boolean played = false;
         AudioInputStream audioStream = null;
         Clip clip = null;
+        boolean opened = false;
+        final AtomicBoolean released = new AtomicBoolean();
         try {
             audioStream = openAudioStream(resourcePath);
             if (audioStream == null) return;
@@ -40,6 +54,18 @@ public final class  SoundManager {
             DataLine.Info info = new DataLine.Info(Clip.class, audioStream.getFormat());
             clip = (Clip) AudioSystem.getLine(info);
             clip.open(audioStream);
+            openNanos = System.nanoTime() - start;
+            oneShotVoices.incrementAndGet();
+            opened = true;
+
+            // We can't close 'in' immediately because AudioSystem may stream; rely on clip close.
+            // Registered before start so a very short clip can't stop unheard.
+            final Clip c = clip;
+            c.addLineListener(event -> {
+                LineEvent.Type type = event.getType();
+                if (type == LineEvent.Type.STOP || type == LineEvent.Type.CLOSE)
+                    releaseOneShot(c, released);
+            });
 
             // Set volume based on user settings
             if (clip.isControlSupported(FloatControl.Type.MASTER_GAIN)) {
@@ -49,29 +75,40 @@ public final class  SoundManager {
             }
 
             clip.start();
+            played = true;
             logger.info("Started one-shot sound: " + resourcePath);
         } catch (UnsupportedAudioFileException | IOException | LineUnavailableException e) {
             logger.info("Unable to play sound '" + resourcePath + "': " + e.getMessage());
         } finally {
-            // We can't close 'in' immediately because AudioSystem may stream; rely on clip close
-            if (clip != null) {
-                final Clip c = clip;
-                c.addLineListener(event -> {
-                    LineEvent.Type type = event.getType();
-                    if (type == LineEvent.Type.STOP || type == LineEvent.Type.CLOSE) {
-                        try {
-                            c.close();
-                        } catch (Exception ignored) {}
-                    }
-                });
-            }
+            // Opened but never started: nothing will stop it, so give the line back now
+            if (opened && !played)
+                releaseOneShot(clip, released);
+            recordPlay(playEvent, start, resourcePath, false, openNanos, played);
         }
     }
 
+    /**
+     * Closes a one-shot clip and frees its voice, once, however many stop
+     * and close events arrive.
+     */
+    private static void releaseOneShot(final Clip clip, final AtomicBoolean released) {
+        if (!released.compareAndSet(false, true))
+            return;
+        try {
+            clip.close();
+        } catch (Exception ignored) {}
+        oneShotVoices.decrementAndGet();
+    }
+
     /**
      * Plays a WAV in a loop until {@link #stop()} is called.
      */
     public static void playLoop(String resourcePath) {
+        AudioPlayEvent playEvent = new AudioPlayEvent();
+        playEvent.begin();
+        long start = System.nanoTime();
+        long openNanos = 0;
+        boolean played = false;
         stop();
         stopBackgroundMusic();
 
@@ -84,6 +121,7 @@ public final class  SoundManager {
             DataLine.Info info = new DataLine.Info(Clip.class, audioStream.getFormat());
             loopClip = (Clip) AudioSystem.getLine(info);
             loopClip.open(audioStream);
+            openNanos = System.nanoTime() - start;
 
             // Set volume based on user settings for loops
             if (loopClip.isControlSupported(FloatControl.Type.MASTER_GAIN)) {
@@ -94,6 +132,7 @@ public final class  SoundManager {
 
             loopClip.loop(Clip.LOOP_CONTINUOUSLY);
             loopClip.start();
+            played = true;
             logger.fine("Started looped sound: " + resourcePath);
         } catch (UnsupportedAudioFileException | IOException | LineUnavailableException e) {
             logger.fine("Unable to loop sound '" + resourcePath + "': " + e.getMessage());
@@ -101,9 +140,36 @@ public final class  SoundManager {
                 try { loopClip.close(); } catch (Exception ignored) {}
                 loopClip = null;
             }
+        } finally {
+            recordPlay(playEvent, start, resourcePath, true, openNanos, played);
         }
     }
 
+    /** Records the cost of starting a sound, for the profiler and JFR. */
+    private static void recordPlay(final AudioPlayEvent playEvent, final long start, final String resourcePath,
+                                   final boolean looped, final long openNanos, final boolean played) {
+        PLAY_TIME.recordSince(start);
+        playEvent.end();
+        if (playEvent.shouldCommit()) {
+            playEvent.resource = resourcePath;
+            playEvent.looped = looped;
+            playEvent.openNanos = openNanos;
+            playEvent.played = played;
+            playEvent.commit();
+        }
+    }
+
+    /**
+     * Returns the number of audio lines in use: one-shot effects still
+     * playing, plus the looped sound and the background music if any.
+     *
+     * @return Number of voices in use.
+     */
+    public static int getActiveVoices() {
+        return oneShotVoices.get() + (loopClip != null ? 1 : 0)
+                + (backgroundMusicClip != null ? 1 : 0);
+    }
+
     /**
      * Stops and releases the current looped clip, if any.
      */
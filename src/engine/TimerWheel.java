@@ -0,0 +1,278 @@
+package engine;
+
+/**
+ * Hierarchical timer wheel running on the game clock.
+ * Timers are hashed into slots by deadline, so advancing the wheel only
+ * visits the slots that elapsed and the timers that expire, instead of
+ * polling every timer each tick. Later levels cover longer delays with
+ * coarser slots and are cascaded down as the wheel turns.
+ */
+public final class TimerWheel {
+
+    /** Bits of slot index per level. */
+    private static final int SLOT_BITS = 6;
+    /** Slots per level. */
+    private static final int SLOTS = 1 << SLOT_BITS;
+    /** Slot index mask. */
+    private static final int SLOT_MASK = SLOTS - 1;
+    /** Number of levels. */
+    private static final int LEVELS = 4;
+    /** Longest delay, in ticks, that fits in the wheel. */
+    private static final long MAX_TICKS = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    /** Default tick resolution in milliseconds. */
+    public static final int DEFAULT_TICK_MS = 10;
+
+    /**
+     * Handle of a scheduled timer.
+     */
+    public static final class Timeout {
+        /** Callback run on expiry. */
+        private final Runnable task;
+        /** Absolute deadline in ticks. */
+        private long deadlineTick;
+        /** Absolute deadline in milliseconds. */
+        private final long deadline;
+        /** Slot list links. */
+        private Timeout prev, next;
+        /** Slot holding the timeout, null once expired or cancelled. */
+        private Slot slot;
+        /** Wheel owning the timeout. */
+        private final TimerWheel wheel;
+
+        private Timeout(final TimerWheel wheel, final Runnable task, final long deadline) {
+            this.wheel = wheel;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the timer if it has not fired yet.
+         *
+         * @return True if the timer was pending.
+         */
+        public boolean cancel() {
+            if (this.slot == null)
+                return false;
+            this.slot.remove(this);
+            this.wheel.size--;
+            return true;
+        }
+
+        /**
+         * Checks if the timer is still waiting to fire.
+         *
+         * @return True if pending.
+         */
+        public boolean isPending() {
+            return this.slot != null;
+        }
+
+        /**
+         * Getter for the deadline.
+         *
+         * @return Deadline in milliseconds.
+         */
+        public long getDeadline() {
+            return this.deadline;
+        }
+    }
+
+    /**
+     * Doubly linked list of timeouts sharing a slot.
+     */
+    private static final class Slot {
+        private Timeout head;
+
+        void add(final Timeout timeout) {
+            timeout.slot = this;
+            timeout.prev = null;
+            timeout.next = this.head;
+            if (this.head != null)
+                this.head.prev = timeout;
+            this.head = timeout;
+        }
+
+        void remove(final Timeout timeout) {
+            if (timeout.prev != null)
+                timeout.prev.next = timeout.next;
+            else
+                this.head = timeout.next;
+            if (timeout.next != null)
+                timeout.next.prev = timeout.prev;
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.slot = null;
+        }
+
+        /** Detaches and returns the first timeout, or null if empty. */
+        Timeout poll() {
+            Timeout first = this.head;
+            if (first != null)
+                remove(first);
+            return first;
+        }
+    }
+
+    /** Slots per level. */
+    private final Slot[][] wheel = new Slot[LEVELS][SLOTS];
+    /** Tick resolution in milliseconds. */
+    private final long tickMs;
+    /** Time of tick zero. */
+    private final long origin;
+    /** Next tick to be processed. */
+    private long nextTick;
+    /** Number of pending timeouts. */
+    private int size;
+
+    /**
+     * Constructor, starts the wheel at the current game time.
+     *
+     * @param tickMs
+     *            Tick resolution in milliseconds.
+     */
+    public TimerWheel(final int tickMs) {
+        this(tickMs, GameClock.now());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param tickMs
+     *            Tick resolution in milliseconds.
+     * @param origin
+     *            Time of tick zero.
+     */
+    public TimerWheel(final int tickMs, final long origin) {
+        if (tickMs <= 0)
+            throw new IllegalArgumentException("tickMs must be positive: " + tickMs);
+        this.tickMs = tickMs;
+        this.origin = origin;
+        this.nextTick = 0;
+        for (int level = 0; level < LEVELS; level++)
+            for (int i = 0; i < SLOTS; i++)
+                this.wheel[level][i] = new Slot();
+    }
+
+    /**
+     * Schedules a task after a delay from the current game time. A null task
+     * only marks a period, checked through {@link Timeout#isPending()}.
+     *
+     * @param delayMs
+     *            Delay in milliseconds.
+     * @param task
+     *            Task to run on expiry, may be null.
+     * @return Handle of the timer.
+     */
+    public Timeout schedule(final long delayMs, final Runnable task) {
+        return scheduleAt(GameClock.now() + Math.max(0, delayMs), task);
+    }
+
+    /**
+     * Schedules a task at an absolute game time. The task runs on the first
+     * advance whose time is at or after the deadline.
+     *
+     * @param deadline
+     *            Deadline in milliseconds.
+     * @param task
+     *            Task to run on expiry, may be null.
+     * @return Handle of the timer.
+     */
+    public Timeout scheduleAt(final long deadline, final Runnable task) {
+        Timeout timeout = new Timeout(this, task, deadline);
+        long elapsed = Math.max(0, deadline - this.origin);
+        timeout.deadlineTick = (elapsed + this.tickMs - 1) / this.tickMs;
+        insert(timeout);
+        this.size++;
+        return timeout;
+    }
+
+    /**
+     * Places a timeout in the slot matching its distance from the next tick.
+     */
+    private void insert(final Timeout timeout) {
+        long expires = timeout.deadlineTick;
+        long delta = expires - this.nextTick;
+        if (delta < 0) {
+            expires = this.nextTick;
+            delta = 0;
+        } else if (delta > MAX_TICKS) {
+            // Parked at the far end of the wheel and re-inserted on expiry.
+            expires = this.nextTick + MAX_TICKS;
+            delta = MAX_TICKS;
+        }
+
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1)))
+            level++;
+        int index = (int) (expires >>> (SLOT_BITS * level)) & SLOT_MASK;
+        this.wheel[level][index].add(timeout);
+    }
+
+    /**
+     * Advances the wheel to the given time, running every expired task.
+     *
+     * @param now
+     *            Current game time in milliseconds.
+     * @return Number of tasks run.
+     */
+    public int advance(final long now) {
+        long targetTick = Math.floorDiv(now - this.origin, this.tickMs);
+        if (this.size == 0) {
+            if (targetTick >= this.nextTick)
+                this.nextTick = targetTick + 1;
+            return 0;
+        }
+
+        int fired = 0;
+        while (this.nextTick <= targetTick) {
+            long tick = this.nextTick;
+            int index = (int) tick & SLOT_MASK;
+            if (index == 0)
+                cascade(tick, 1);
+
+            Slot slot = this.wheel[0][index];
+            this.nextTick++;
+            Timeout timeout;
+            // Polled one at a time so tasks may cancel or schedule timers.
+            while ((timeout = slot.poll()) != null) {
+                if (timeout.deadlineTick > tick) {
+                    insert(timeout);
+                } else {
+                    this.size--;
+                    fired++;
+                    if (timeout.task != null)
+                        timeout.task.run();
+                }
+            }
+            if (this.size == 0 && this.nextTick <= targetTick)
+                this.nextTick = targetTick + 1;
+        }
+        return fired;
+    }
+
+    /**
+     * Moves the timeouts of a coarser level down into finer slots.
+     */
+    private void cascade(final long tick, final int level) {
+        if (level >= LEVELS)
+            return;
+        int index = (int) (tick >>> (SLOT_BITS * level)) & SLOT_MASK;
+        if (index == 0)
+            cascade(tick, level + 1);
+
+        Slot slot = this.wheel[level][index];
+        Timeout timeout;
+        while ((timeout = slot.poll()) != null)
+            insert(timeout);
+    }
+
+    /**
+     * Getter for the number of pending timers.
+     *
+     * @return Pending timers.
+     */
+    public int size() {
+        return this.size;
+    }
+}
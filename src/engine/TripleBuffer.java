@@ -0,0 +1,75 @@
+package engine;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hands the latest value from one producer thread to one consumer thread
+ * without locks and without either of them waiting for the other.
+ *
+ * Three values are allocated up front and reused: the producer fills its back
+ * value and publishes it, which swaps it with the middle one; the consumer
+ * takes the latest published value by swapping its front value with the
+ * middle one. A value published twice before the consumer looks is simply
+ * replaced, so the consumer always sees the newest one and the producer never
+ * blocks. A value is only touched by the thread currently holding it.
+ *
+ * @param <T>
+ *            Type of the buffered values.
+ */
+public final class TripleBuffer<T> {
+
+    /** Set in {@link #middle} when it holds a value not yet taken. */
+    private static final int FRESH = 4;
+    private static final int INDEX = 3;
+
+    /** The three values. */
+    private final T[] values;
+    /** Index of the value being filled by the producer. */
+    private int back = 0;
+    /** Index of the shared value, with {@link #FRESH} if it was published. */
+    private final AtomicInteger middle = new AtomicInteger(1);
+    /** Index of the value being read by the consumer. */
+    private int front = 2;
+
+    /**
+     * Constructor, allocates the three values.
+     *
+     * @param factory
+     *            Creates an empty value.
+     */
+    @SuppressWarnings("unchecked")
+    public TripleBuffer(final Supplier<T> factory) {
+        this.values = (T[]) new Object[] { factory.get(), factory.get(), factory.get() };
+    }
+
+    /**
+     * Producer side.
+     *
+     * @return Value to fill before the next {@link #publish()}.
+     */
+    public T back() {
+        return this.values[this.back];
+    }
+
+    /**
+     * Producer side. Publishes the back value and hands the producer another
+     * one to fill.
+     */
+    public void publish() {
+        this.back = this.middle.getAndSet(this.back | FRESH) & INDEX;
+    }
+
+    /**
+     * Consumer side.
+     *
+     * @return Latest published value, or null if nothing was published
+     *         since the previous call.
+     */
+    public T takeLatest() {
+        if ((this.middle.get() & FRESH) == 0)
+            return null;
+        this.front = this.middle.getAndSet(this.front) & INDEX;
+        return this.values[this.front];
+    }
+}
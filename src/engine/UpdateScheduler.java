@@ -0,0 +1,197 @@
+package engine;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs the independent part of a frame's update, bullet integration, item
+ * fall, explosion particles and the star field, across a work-stealing
+ * {@link ForkJoinPool} when the scene is large enough to be worth it.
+ *
+ * Each element is updated exactly once and must only touch its own state;
+ * anything that involves two entities (collisions, scoring in
+ * {@link GameState}) stays in the single-threaded commit phase that follows.
+ * Below the threshold, which is the usual case, updates run in order on the
+ * calling thread and the pool is never started.
+ *
+ * -Dgame.parallel.threshold sets the number of entities from which a pass is
+ * split (default 2048, 0 to never split); -Dgame.parallel.threads the number
+ * of worker threads (default one less than the number of processors).
+ */
+public final class UpdateScheduler {
+
+    /** System property with the entity count from which passes are split. */
+    public static final String THRESHOLD_PROPERTY = "game.parallel.threshold";
+    /** System property with the number of worker threads. */
+    public static final String THREADS_PROPERTY = "game.parallel.threads";
+    /** Default entity count from which passes are split. */
+    private static final int DEFAULT_THRESHOLD = 2048;
+    /** Smallest slice handed to a worker. */
+    private static final int MIN_SLICE = 64;
+
+    private static UpdateScheduler instance;
+
+    /** Entity count from which passes are split, 0 for never. */
+    private final int threshold;
+    /** Number of worker threads. */
+    private final int parallelism;
+    /** Worker pool, started on the first split pass. */
+    private ForkJoinPool pool;
+    /** Passes that were split across the pool. */
+    private final MetricsRegistry.Counter parallelPasses;
+
+    /**
+     * Constructor, prepares a scheduler. The pool is started lazily.
+     *
+     * @param threshold
+     *            Entity count from which passes are split, 0 for never.
+     * @param parallelism
+     *            Number of worker threads.
+     * @param metrics
+     *            Registry counting the split passes.
+     */
+    UpdateScheduler(final int threshold, final int parallelism, final MetricsRegistry metrics) {
+        this.threshold = Math.max(0, threshold);
+        this.parallelism = Math.max(1, parallelism);
+        this.parallelPasses = metrics.counter(MetricsRegistry.PARALLEL_UPDATES);
+    }
+
+    /**
+     * Returns the shared scheduler, configured from the system properties.
+     *
+     * @return Shared instance of UpdateScheduler.
+     */
+    public static synchronized UpdateScheduler getInstance() {
+        if (instance == null) {
+            int processors = Runtime.getRuntime().availableProcessors();
+            instance = new UpdateScheduler(
+                    Integer.getInteger(THRESHOLD_PROPERTY, DEFAULT_THRESHOLD),
+                    Integer.getInteger(THREADS_PROPERTY, Math.max(1, processors - 1)),
+                    MetricsRegistry.getInstance());
+        }
+        return instance;
+    }
+
+    /**
+     * Updates every element of a list.
+     *
+     * @param items
+     *            Elements to update; not modified during the pass.
+     * @param update
+     *            Update of a single element.
+     */
+    public <T> void forEach(final List<T> items, final Consumer<? super T> update) {
+        forEach(items, 1, update);
+    }
+
+    /**
+     * Updates every element of a list, each one counting as several
+     * entities towards the threshold.
+     *
+     * @param items
+     *            Elements to update; not modified during the pass.
+     * @param entitiesPerItem
+     *            Number of entities updated per element, e.g. particles per
+     *            explosion.
+     * @param update
+     *            Update of a single element.
+     */
+    public <T> void forEach(final List<T> items, final int entitiesPerItem,
+                            final Consumer<? super T> update) {
+        forRange(items.size(), entitiesPerItem, index -> update.accept(items.get(index)));
+    }
+
+    /**
+     * Updates the indices 0 to count - 1.
+     *
+     * @param count
+     *            Number of indices.
+     * @param update
+     *            Update of a single index.
+     */
+    public void forRange(final int count, final IntConsumer update) {
+        forRange(count, 1, update);
+    }
+
+    private void forRange(final int count, final int entitiesPerItem, final IntConsumer update) {
+        if (!shouldSplit(count, entitiesPerItem)) {
+            for (int i = 0; i < count; i++)
+                update.accept(i);
+            return;
+        }
+        int slice = Math.max(MIN_SLICE / Math.max(1, entitiesPerItem),
+                count / (this.parallelism * 4));
+        this.parallelPasses.increment();
+        pool().invoke(new Slice(update, 0, count, Math.max(1, slice)));
+    }
+
+    /**
+     * @param count
+     *            Number of elements in the pass.
+     * @param entitiesPerItem
+     *            Number of entities updated per element.
+     * @return If the pass is split across the pool.
+     */
+    boolean shouldSplit(final int count, final int entitiesPerItem) {
+        return this.threshold > 0 && this.parallelism > 1 && count > 1
+                && (long) count * Math.max(1, entitiesPerItem) >= this.threshold;
+    }
+
+    private synchronized ForkJoinPool pool() {
+        if (this.pool == null) {
+            this.pool = new ForkJoinPool(this.parallelism, forkJoinPool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory
+                        .newThread(forkJoinPool);
+                thread.setName("update-" + thread.getPoolIndex());
+                thread.setDaemon(true);
+                return thread;
+            }, null, false);
+        }
+        return this.pool;
+    }
+
+    /**
+     * Stops the worker pool, if it was started.
+     */
+    synchronized void shutdown() {
+        if (this.pool != null) {
+            this.pool.shutdown();
+            this.pool = null;
+        }
+    }
+
+    /** Range of indices, split in halves until it is small enough. */
+    private static final class Slice extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        /** Never serialized; tasks only live inside the pool. */
+        private final transient IntConsumer update;
+        private final int from;
+        private final int to;
+        private final int slice;
+
+        Slice(final IntConsumer update, final int from, final int to, final int slice) {
+            this.update = update;
+            this.from = from;
+            this.to = to;
+            this.slice = slice;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= this.slice) {
+                for (int i = this.from; i < this.to; i++)
+                    this.update.accept(i);
+                return;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new Slice(this.update, this.from, middle, this.slice),
+                    new Slice(this.update, middle, this.to, this.slice));
+        }
+    }
+}
@@ -246,6 +246,34 @@ public class Boss extends Entity {
         return this.invulnerable;
     }
 
+    /** 왼쪽으로 이동 중이면 true. */
+    public boolean isMovingLeft() {
+        return this.currentDirection == Direction.LEFT;
+    }
+
+    /** 발사용 프레임 카운터. */
+    public int getFrameCounter() {
+        return this.frameCounter;
+    }
+
+    /** 이동 타이밍용 카운터. */
+    public int getMovementInterval() {
+        return this.movementInterval;
+    }
+
+    /**
+     * 이어하기: 저장된 체력/페이즈/이동 상태로 되돌린다.
+     * 페이즈 전환 콜백은 부르지 않으므로 쫄몹은 화면이 직접 맞춰야 한다.
+     */
+    public void restore(final int savedHp, final BossPhase savedPhase, final boolean movingLeft,
+                        final int savedFrameCounter, final int savedMovementInterval) {
+        this.hp = Math.max(0, Math.min(MAX_HP, savedHp));
+        this.phase = savedPhase;
+        this.currentDirection = movingLeft ? Direction.LEFT : Direction.RIGHT;
+        this.frameCounter = savedFrameCounter;
+        this.movementInterval = savedMovementInterval;
+    }
+
     // 테스트 편의를 위한 즉시 튜닝용 세터
     public void setFireEveryFramesP1(final int n) {
         this.fireEveryFramesP1 = Math.max(1, n);
@@ -1,20 +1,20 @@
 package entity;
 
-import java.util.HashSet;
 import java.util.Set;
+import engine.GameSession;
 import entity.Entity.Team;
 
 /**
  * Implements a pool of recyclable bullets.
  *
+ * Each {@link GameSession} has its own pool, so headless simulations running
+ * in parallel never share bullets with each other or with the game.
+ *
  * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
  *
  */
 public final class BulletPool {
 
-    /** Set of already created bullets. */
-    private static Set<Bullet> pool = new HashSet<Bullet>();
-
     /**
      * Constructor, not called.
      */
@@ -43,10 +43,11 @@ public final class BulletPool {
      */
     public static Bullet getBullet(final int positionX,
                                    final int positionY, final int speed, final int width, final int height, final Team team) {
+        Set<Bullet> free = GameSession.current().getFreeBullets();
         Bullet bullet;
-        if (!pool.isEmpty()) {
-            bullet = pool.iterator().next();
-            pool.remove(bullet);
+        if (!free.isEmpty()) {
+            bullet = free.iterator().next();
+            free.remove(bullet);
             bullet.setPositionX(positionX - width / 2);
             bullet.setPositionY(positionY);
             bullet.setSpeed(speed);
@@ -70,6 +71,13 @@ public final class BulletPool {
      *            Bullets to recycle.
      */
     public static void recycle(final Set<Bullet> bullet) {
-        pool.addAll(bullet);
+        GameSession.current().getFreeBullets().addAll(bullet);
+    }
+
+    /**
+     * @return Number of bullets available for reuse.
+     */
+    public static int size() {
+        return GameSession.current().getFreeBullets().size();
     }
-}
\ No newline at end of file
+}
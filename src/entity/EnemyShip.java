@@ -30,6 +30,15 @@ public class EnemyShip extends Entity {
     private static final int C_TYPE_COINS = 5;
     private static final int BONUS_TYPE_COINS = 10;
 
+    /** Width of a formation ship. */
+    public static final int WIDTH = 12 * 2;
+    /** Height of a formation ship. */
+    public static final int HEIGHT = 8 * 2;
+    /** Width of the special ship. */
+    public static final int SPECIAL_WIDTH = 16 * 2;
+    /** Height of the special ship. */
+    public static final int SPECIAL_HEIGHT = 7 * 2;
+
     /** Cooldown between sprite changes. */
     private Cooldown animationCooldown;
     /** Checks if the ship has been hit by a bullet. */
@@ -42,6 +51,12 @@ public class EnemyShip extends Entity {
     /** Current health of the enemy ship */
     private int health;
     private int initialHealth;
+    /** Kind of the ship, kept while it explodes; used by the enemy pool. */
+    SpriteType kind;
+    /** Checks if the ship is waiting in the enemy pool. */
+    boolean pooled;
+    /** Index of the ship in its formation template, or -1. */
+    int slot = -1;
 
     /**
      * Constructor, establishes the ship's properties.
@@ -55,39 +70,100 @@ public class EnemyShip extends Entity {
      */
     public EnemyShip(final int positionX, final int positionY,
                      final SpriteType spriteType) {
-        super(positionX, positionY, 12 * 2, 8 * 2, Color.WHITE);
+        this(positionX, positionY, spriteType, baseHealth(spriteType),
+                basePoints(spriteType), baseCoins(spriteType), Color.WHITE);
+    }
+
+    /**
+     * Constructor, with the ship's properties already resolved by a
+     * formation template.
+     *
+     * @param positionX
+     *            Initial position of the ship in the X axis.
+     * @param positionY
+     *            Initial position of the ship in the Y axis.
+     * @param spriteType
+     *            Sprite type, image corresponding to the ship.
+     * @param health
+     *            Initial health.
+     * @param pointValue
+     *            Points given when destroyed.
+     * @param coinValue
+     *            Coins given when destroyed.
+     * @param color
+     *            Color of the ship.
+     */
+    EnemyShip(final int positionX, final int positionY, final SpriteType spriteType,
+              final int health, final int pointValue, final int coinValue, final Color color) {
+        super(positionX, positionY, WIDTH, HEIGHT, color);
 
         this.spriteType = spriteType;
+        this.kind = kindOf(spriteType);
         this.animationCooldown = Core.getCooldown(500);
         this.isDestroyed = false;
+        this.health = health;
+        this.pointValue = pointValue;
+        this.coinValue = coinValue;
+        this.initialHealth = this.health;
+    }
+
+    /** Kind of ship shown by a sprite, regardless of its animation frame. */
+    static SpriteType kindOf(final SpriteType spriteType) {
+        switch (spriteType) {
+            case EnemyShipA2:
+                return SpriteType.EnemyShipA1;
+            case EnemyShipB2:
+                return SpriteType.EnemyShipB1;
+            case EnemyShipC2:
+                return SpriteType.EnemyShipC1;
+            default:
+                return spriteType;
+        }
+    }
+
+    /** Initial health of a formation ship of the given type. */
+    static int baseHealth(final SpriteType spriteType) {
+        switch (spriteType) {
+            case EnemyShipA1:
+            case EnemyShipA2:
+                return 2;
+            default:
+                return 1;
+        }
+    }
 
-        switch (this.spriteType) {
+    /** Point value of a formation ship of the given type. */
+    static int basePoints(final SpriteType spriteType) {
+        switch (spriteType) {
             case EnemyShipA1:
             case EnemyShipA2:
-                this.pointValue = A_TYPE_POINTS;
-                this.coinValue = A_TYPE_COINS;
-                this.health = 2;
-                break;
+                return A_TYPE_POINTS;
             case EnemyShipB1:
             case EnemyShipB2:
-                this.pointValue = B_TYPE_POINTS;
-                this.coinValue = B_TYPE_COINS;
-                this.health = 1;
-                break;
+                return B_TYPE_POINTS;
             case EnemyShipC1:
             case EnemyShipC2:
-                this.pointValue = C_TYPE_POINTS;
-                this.coinValue = C_TYPE_COINS;
-                this.health = 1;
-                break;
+                return C_TYPE_POINTS;
             default:
-                this.pointValue = 0;
-                this.coinValue = 0;
-                this.health = 1;
-                break;
+                return 0;
         }
+    }
 
-        this.initialHealth = this.health;
+    /** Coin value of a formation ship of the given type. */
+    static int baseCoins(final SpriteType spriteType) {
+        switch (spriteType) {
+            case EnemyShipA1:
+            case EnemyShipA2:
+                return A_TYPE_COINS;
+            case EnemyShipB1:
+            case EnemyShipB2:
+                return B_TYPE_COINS;
+            case EnemyShipC1:
+            case EnemyShipC2:
+                return C_TYPE_COINS;
+            default:
+                return 0;
+        }
     }
 
     public void changeShip(GameSettings.ChangeData changeData) {
@@ -105,15 +181,61 @@ public class EnemyShip extends Entity {
      * known starting properties.
      */
     public EnemyShip() {
-        super(-32, 80, 16 * 2, 7 * 2, Color.RED);
+        super(-32, 80, SPECIAL_WIDTH, SPECIAL_HEIGHT, Color.RED);
 
         this.spriteType = SpriteType.EnemyShipSpecial;
+        this.kind = SpriteType.EnemyShipSpecial;
         this.isDestroyed = false;
         this.pointValue = BONUS_TYPE_POINTS;
         this.coinValue = BONUS_TYPE_COINS;
         this.health = 1;
     }
 
+    /**
+     * Brings a recycled ship back to a freshly constructed state.
+     *
+     * @param spriteType
+     *            Sprite type, image corresponding to the ship.
+     * @param positionX
+     *            Position of the ship in the X axis.
+     * @param positionY
+     *            Position of the ship in the Y axis.
+     * @param health
+     *            Initial health.
+     * @param pointValue
+     *            Points given when destroyed.
+     * @param coinValue
+     *            Coins given when destroyed.
+     * @param color
+     *            Color of the ship.
+     */
+    final void reset(final SpriteType spriteType, final int positionX, final int positionY,
+                     final int health, final int pointValue, final int coinValue, final Color color) {
+        boolean special = spriteType == SpriteType.EnemyShipSpecial;
+        this.positionX = positionX;
+        this.positionY = positionY;
+        this.width = special ? SPECIAL_WIDTH : WIDTH;
+        this.height = special ? SPECIAL_HEIGHT : HEIGHT;
+        this.spriteType = spriteType;
+        this.kind = kindOf(spriteType);
+        this.isDestroyed = false;
+        this.health = health;
+        this.initialHealth = health;
+        this.pointValue = pointValue;
+        this.coinValue = coinValue;
+        changeColor(color);
+        if (!special && this.animationCooldown == null)
+            this.animationCooldown = Core.getCooldown(500);
+    }
+
+    /**
+     * Brings a recycled ship back as the special ship.
+     */
+    final void resetSpecial() {
+        reset(SpriteType.EnemyShipSpecial, -32, 80, 1,
+                BONUS_TYPE_POINTS, BONUS_TYPE_COINS, Color.RED);
+    }
+
     /**
      * Getter for the score bonus if this ship is destroyed.
      *
@@ -1,6 +1,8 @@
 package entity;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -24,11 +26,11 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
     /** Initial position in the y-axis. */
     private static final int INIT_POS_Y = 100;
     /** Distance between ships. */
-    private static final int SEPARATION_DISTANCE = 40;
+    static final int SEPARATION_DISTANCE = 40;
     /** Proportion of C-type ships. */
-    private static final double PROPORTION_C = 0.2;
+    static final double PROPORTION_C = 0.2;
     /** Proportion of B-type ships. */
-    private static final double PROPORTION_B = 0.4;
+    static final double PROPORTION_B = 0.4;
     /** Lateral speed of the formation. */
     private static final int X_SPEED = 8;
     /** Downwards speed of the formation. */
@@ -46,12 +48,12 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
     /** Minimum speed allowed. */
     private static final int MINIMUM_SPEED = 10;
 
-    /** DrawManager instance. */
-    private DrawManager drawManager;
     /** Application logger. */
     private Logger logger;
-    /** Screen to draw ships on. */
-    private Screen screen;
+    /** Width of the playing area. */
+    private int screenWidth;
+    /** Height of the playing area. */
+    private int screenHeight;
 
     /** List of enemy ships forming the formation. */
     private List<List<EnemyShip>> enemyShips;
@@ -83,6 +85,12 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
     private int positionX;
     /** Position in the y-axis of the upper left corner of the formation. */
     private int positionY;
+    /** Position in the x-axis of the template origin, moved with the ships. */
+    private int originX;
+    /** Position in the y-axis of the template origin, moved with the ships. */
+    private int originY;
+    /** Number of ships the formation spawned with. */
+    private int slotCount;
     /** Width of one ship. */
     private int shipWidth;
     /** Height of one ship. */
@@ -93,7 +101,7 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
     private int shipCount;
 
     /** Directions the formation can move. */
-    private enum Direction {
+    public enum Direction {
         /** Movement to the right side of the screen. */
         RIGHT,
         /** Movement to the left side of the screen. */
@@ -109,83 +117,52 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
      *            Current game settings.
      */
     public EnemyShipFormation(final GameSettings gameSettings) {
-        this.drawManager = Core.getDrawManager();
+        this(FormationTemplate.of(gameSettings), 0);
+    }
+
+    /**
+     * Constructor, spawns the ships of a compiled formation.
+     *
+     * @param template
+     *            Compiled formation.
+     * @param offsetY
+     *            Vertical offset of the ships from the default starting
+     *            position. Only the ships move; the formation keeps the
+     *            default altitude until its first clean up, as it did when
+     *            the ships were moved after spawning.
+     */
+    public EnemyShipFormation(final FormationTemplate template, final int offsetY) {
         this.logger = Core.getLogger();
-        this.enemyShips = new ArrayList<List<EnemyShip>>();
+        this.enemyShips = new ArrayList<List<EnemyShip>>(template.getColumns());
         this.currentDirection = Direction.RIGHT;
         this.movementInterval = 0;
-        this.nShipsWide = gameSettings.getFormationWidth();
-        this.nShipsHigh = gameSettings.getFormationHeight();
-        this.shootingInterval = gameSettings.getShootingFrecuency();
-        this.shootingVariance = (int) (gameSettings.getShootingFrecuency()
+        this.nShipsWide = template.getColumns();
+        this.nShipsHigh = template.getRows();
+        this.shootingInterval = template.getShootingFrecuency();
+        this.shootingVariance = (int) (template.getShootingFrecuency()
                 * SHOOTING_VARIANCE);
-        this.baseSpeed = gameSettings.getBaseSpeed();
+        this.baseSpeed = template.getBaseSpeed();
         this.movementSpeed = this.baseSpeed;
         this.positionX = INIT_POS_X;
         this.positionY = INIT_POS_Y;
-        this.shooters = new ArrayList<EnemyShip>();
-        SpriteType spriteType;
+        this.shooters = new ArrayList<EnemyShip>(template.getColumns());
 
         this.logger.info("Initializing " + nShipsWide + "x" + nShipsHigh
                 + " ship formation in (" + positionX + "," + positionY + ")");
 
-        // Each sub-list is a column on the formation.
-        for (int i = 0; i < this.nShipsWide; i++)
-            this.enemyShips.add(new ArrayList<EnemyShip>());
+        template.spawn(this.positionX, this.positionY + offsetY, this.enemyShips, this.shooters);
+        this.shipCount = template.getShipCount();
+        this.slotCount = this.shipCount;
+        this.originX = this.positionX;
+        this.originY = this.positionY + offsetY;
 
-        for (List<EnemyShip> column : this.enemyShips) {
-            for (int i = 0; i < this.nShipsHigh; i++) {
-                if (i / (float) this.nShipsHigh < PROPORTION_C)
-                    spriteType = SpriteType.EnemyShipC1;
-                else if (i / (float) this.nShipsHigh < PROPORTION_B
-                        + PROPORTION_C)
-                    spriteType = SpriteType.EnemyShipB1;
-                else
-                    spriteType = SpriteType.EnemyShipA1;
-
-                column.add(new EnemyShip((SEPARATION_DISTANCE
-                        * this.enemyShips.indexOf(column))
-                        + positionX, (SEPARATION_DISTANCE * i)
-                        + positionY, spriteType));
-                this.shipCount++;
-            }
-        }
-
-        this.shipWidth = this.enemyShips.get(0).get(0).getWidth();
-        this.shipHeight = this.enemyShips.get(0).get(0).getHeight();
+        this.shipWidth = EnemyShip.WIDTH;
+        this.shipHeight = EnemyShip.HEIGHT;
 
         this.width = (this.nShipsWide - 1) * SEPARATION_DISTANCE
                 + this.shipWidth;
         this.height = (this.nShipsHigh - 1) * SEPARATION_DISTANCE
                 + this.shipHeight;
-
-        for (List<EnemyShip> column : this.enemyShips)
-            this.shooters.add(column.get(column.size() - 1));
-
-        for (GameSettings.ChangeData changeData : gameSettings.getChangeDataList()){
-            EnemyShip ship = this.enemyShips.get(changeData.x).get(changeData.y);
-
-            if(changeData.hp == 0){
-                destroy(ship);
-            }
-            else {
-                ship.changeShip(changeData);
-            }
-        }
-
-        List<EnemyShip> destroyed;
-        for (List<EnemyShip> column : this.enemyShips) {
-            destroyed = new ArrayList<EnemyShip>();
-            for (EnemyShip ship : column) {
-                if (ship != null && ship.isDestroyed()) {
-                    destroyed.add(ship);
-                    this.logger.info("Removed enemy "
-                            + column.indexOf(ship) + " from column "
-                            + this.enemyShips.indexOf(column));
-                }
-            }
-            column.removeAll(destroyed);
-        }
     }
 
     /**
@@ -195,17 +172,32 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
      *            Screen to attach.
      */
     public final void attach(final Screen newScreen) {
-        screen = newScreen;
+        attach(newScreen.getWidth(), newScreen.getHeight());
     }
 
     /**
-     * Draws every individual component of the formation.
+     * Sets the playing area the formation moves in, without a screen, for
+     * headless simulations.
+     *
+     * @param width
+     *            Width of the playing area.
+     * @param height
+     *            Height of the playing area.
      */
-    public final void draw() {
+    public final void attach(final int width, final int height) {
+        this.screenWidth = width;
+        this.screenHeight = height;
+    }
+
+    /**
+     * Captures every individual component of the formation for drawing.
+     *
+     * @param snapshot
+     *            Frame being captured.
+     */
+    public final void draw(final RenderSnapshot snapshot) {
         for (List<EnemyShip> column : this.enemyShips)
-            for (EnemyShip enemyShip : column)
-                drawManager.drawEntity(enemyShip, enemyShip.getPositionX(),
-                        enemyShip.getPositionY());
+            snapshot.addEntities(column);
     }
 
     /**
@@ -233,9 +225,9 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
             movementInterval = 0;
 
             boolean isAtBottom = positionY
-                    + this.height > screen.getHeight() - BOTTOM_MARGIN;
+                    + this.height > this.screenHeight - BOTTOM_MARGIN;
             boolean isAtRightSide = positionX
-                    + this.width >= screen.getWidth() - SIDE_MARGIN;
+                    + this.width >= this.screenWidth - SIDE_MARGIN;
             boolean isAtLeftSide = positionX <= SIDE_MARGIN;
             boolean isAtHorizontalAltitude = positionY % DESCENT_DISTANCE == 0;
 
@@ -279,20 +271,22 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 
             positionX += movementX;
             positionY += movementY;
-
-            // Cleans explosions.
-            List<EnemyShip> destroyed;
-            for (List<EnemyShip> column : this.enemyShips) {
-                destroyed = new ArrayList<EnemyShip>();
-                for (EnemyShip ship : column) {
+            originX += movementX;
+            originY += movementY;
+
+            // Cleans explosions, returning the ships to the pool.
+            for (int c = 0; c < this.enemyShips.size(); c++) {
+                List<EnemyShip> column = this.enemyShips.get(c);
+                for (int i = column.size() - 1; i >= 0; i--) {
+                    EnemyShip ship = column.get(i);
                     if (ship != null && ship.isDestroyed()) {
-                        destroyed.add(ship);
-                        this.logger.info("Removed enemy "
-                                + column.indexOf(ship) + " from column "
-                                + this.enemyShips.indexOf(column));
+                        this.logger.info("Removed enemy " + i + " from column " + c);
+                        column.remove(i);
+                        // Ships destroyed from outside may still be shooters.
+                        this.shooters.remove(ship);
+                        EnemyShipPool.recycle(ship);
                     }
                 }
-                column.removeAll(destroyed);
             }
 
             for (List<EnemyShip> column : this.enemyShips)
@@ -357,7 +351,7 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
     public final void shoot(final Set<Bullet> bullets) {
         if (this.shooters.isEmpty()) return;
 
-        int index = (int) (Math.random() * this.shooters.size());
+        int index = GameRandom.nextInt(this.shooters.size());
         EnemyShip shooter = this.shooters.get(index);
 
         if (this.shootingCooldown.checkFinished()) {
@@ -473,6 +467,17 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
         return enemyShipsList.iterator();
     }
 
+    /**
+     * Returns every remaining ship to the enemy pool. The formation is empty
+     * afterwards.
+     */
+    public final void recycle() {
+        for (List<EnemyShip> column : this.enemyShips)
+            EnemyShipPool.recycle(column);
+        this.enemyShips.clear();
+        this.shooters.clear();
+        this.shipCount = 0;
+    }
 
     public boolean lastShip(){
         return this.shipCount == 1;
@@ -489,6 +494,142 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
     public int getShipCount() {
         return this.shipCount;
     }
+
+    /**
+     * @return Number of ships the formation spawned with; slots of
+     *         {@link #fillAliveMask(BitSet)}.
+     */
+    public int getSlotCount() {
+        return this.slotCount;
+    }
+
+    /**
+     * @return Position in the x-axis of the template origin: every ship is
+     *         at its template offset from it.
+     */
+    public int getOriginX() {
+        return this.originX;
+    }
+
+    /**
+     * @return Position in the y-axis of the template origin.
+     */
+    public int getOriginY() {
+        return this.originY;
+    }
+
+    /**
+     * Marks the ships still flying, by their index in the formation template.
+     *
+     * @param alive
+     *            Cleared, then receives one set bit per ship not destroyed.
+     */
+    public final void fillAliveMask(final BitSet alive) {
+        alive.clear();
+        for (List<EnemyShip> column : this.enemyShips)
+            for (EnemyShip ship : column)
+                if (!ship.isDestroyed() && ship.slot >= 0)
+                    alive.set(ship.slot);
+    }
+
+    /**
+     * Copies the health of the ships still flying, by their index in the
+     * formation template.
+     *
+     * @param health
+     *            Receives the health of each ship, at least
+     *            {@link #getSlotCount()} long.
+     */
+    public final void fillHealth(final int[] health) {
+        for (List<EnemyShip> column : this.enemyShips)
+            for (EnemyShip ship : column)
+                if (ship.slot >= 0)
+                    health[ship.slot] = ship.getHealth();
+    }
+
+    /**
+     * @return Direction the formation is moving on.
+     */
+    public Direction getDirection() {
+        return this.currentDirection;
+    }
+
+    /**
+     * @return Direction the formation was moving on before going down, or
+     *         null if it has not gone down yet.
+     */
+    public Direction getPreviousDirection() {
+        return this.previousDirection;
+    }
+
+    /**
+     * @return Frames since the last movement.
+     */
+    public int getMovementInterval() {
+        return this.movementInterval;
+    }
+
+    /**
+     * Puts a formation just spawned from a template back as a saved one of
+     * the same template was: the ships not in the alive mask go back to the
+     * pool, the others move with the origin and get their saved health.
+     *
+     * @param savedOriginX
+     *            Position in the x-axis of the template origin.
+     * @param savedOriginY
+     *            Position in the y-axis of the template origin.
+     * @param direction
+     *            Direction the formation was moving on.
+     * @param previous
+     *            Direction it was moving on before going down, or null.
+     * @param interval
+     *            Frames since the last movement.
+     * @param alive
+     *            Ships still flying, by template index.
+     * @param health
+     *            Health of the ships still flying, by template index.
+     */
+    public final void restore(final int savedOriginX, final int savedOriginY,
+                              final Direction direction, final Direction previous,
+                              final int interval, final BitSet alive, final int[] health) {
+        int movementX = savedOriginX - this.originX;
+        int movementY = savedOriginY - this.originY;
+        this.shooters.clear();
+        this.shipCount = 0;
+        for (List<EnemyShip> column : this.enemyShips) {
+            for (int i = column.size() - 1; i >= 0; i--) {
+                EnemyShip ship = column.get(i);
+                if (ship.slot < 0 || !alive.get(ship.slot)) {
+                    column.remove(i);
+                    EnemyShipPool.recycle(ship);
+                } else {
+                    ship.move(movementX, movementY);
+                    while (ship.getHealth() > Math.max(1, health[ship.slot]))
+                        ship.hit();
+                    this.shipCount++;
+                }
+            }
+            EnemyShip shooter = getNextShooter(column);
+            if (shooter != null)
+                this.shooters.add(shooter);
+        }
+        this.positionX += movementX;
+        this.positionY += movementY;
+        this.originX = savedOriginX;
+        this.originY = savedOriginY;
+        this.currentDirection = direction;
+        this.previousDirection = previous;
+        this.movementInterval = interval;
+        this.enemyShips.removeIf(List::isEmpty);
+        cleanUp();
+    }
+
+    /**
+     * @return Ships at the bottom of each column, the only ones that shoot.
+     */
+    public final List<EnemyShip> getShooters() {
+        return Collections.unmodifiableList(this.shooters);
+    }
 }
 
 
@@ -0,0 +1,152 @@
+package entity;
+
+import java.awt.Color;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+
+import engine.DrawManager.SpriteType;
+import engine.GameSession;
+
+/**
+ * Implements a pool of recyclable enemy ships.
+ *
+ * Ships are kept in one free-list per kind of ship, so a recycled ship is
+ * only handed back for the same kind and keeps its animation cooldown.
+ * Each {@link GameSession} has its own free-lists, like {@link BulletPool}.
+ */
+public final class EnemyShipPool {
+
+    /**
+     * Constructor, not called.
+     */
+    private EnemyShipPool() {
+
+    }
+
+    /**
+     * Returns a formation ship from the pool if one of its type is available,
+     * a new one if there isn't.
+     *
+     * @param spriteType
+     *            Sprite type, image corresponding to the ship.
+     * @param positionX
+     *            Requested position of the ship in the X axis.
+     * @param positionY
+     *            Requested position of the ship in the Y axis.
+     * @param health
+     *            Initial health.
+     * @param pointValue
+     *            Points given when destroyed.
+     * @param coinValue
+     *            Coins given when destroyed.
+     * @param color
+     *            Color of the ship.
+     * @return Requested ship.
+     */
+    public static EnemyShip getEnemyShip(final SpriteType spriteType,
+                                         final int positionX, final int positionY, final int health,
+                                         final int pointValue, final int coinValue, final Color color) {
+        EnemyShip ship = take(spriteType);
+        if (ship == null)
+            return new EnemyShip(positionX, positionY, spriteType,
+                    health, pointValue, coinValue, color);
+        ship.reset(spriteType, positionX, positionY, health, pointValue, coinValue, color);
+        return ship;
+    }
+
+    /**
+     * Returns the special bonus ship, reusing a recycled one if available.
+     *
+     * @return Special ship at its starting position.
+     */
+    public static EnemyShip getSpecialShip() {
+        EnemyShip ship = take(SpriteType.EnemyShipSpecial);
+        if (ship == null)
+            return new EnemyShip();
+        ship.resetSpecial();
+        return ship;
+    }
+
+    /**
+     * Fills the free-lists so the given formation can be spawned without
+     * creating ships.
+     *
+     * @param template
+     *            Formation about to be spawned.
+     */
+    public static void prewarm(final FormationTemplate template) {
+        Map<SpriteType, Integer> needed = new EnumMap<SpriteType, Integer>(SpriteType.class);
+        for (int i = 0; i < template.count; i++)
+            needed.merge(EnemyShip.kindOf(template.spriteTypes[i]), 1, Integer::sum);
+
+        for (Map.Entry<SpriteType, Integer> entry : needed.entrySet()) {
+            ArrayDeque<EnemyShip> free = freeList(entry.getKey());
+            while (free.size() < entry.getValue()) {
+                EnemyShip ship = new EnemyShip(0, 0, entry.getKey());
+                ship.pooled = true;
+                free.push(ship);
+            }
+        }
+    }
+
+    /**
+     * Adds a ship to the list of available ones. Ships already in the pool
+     * are ignored.
+     *
+     * @param ship
+     *            Ship to recycle.
+     */
+    public static void recycle(final EnemyShip ship) {
+        if (ship == null)
+            return;
+        if (ship.pooled)
+            return;
+        ship.pooled = true;
+        freeList(ship.kind).push(ship);
+    }
+
+    /**
+     * Adds one or more ships to the list of available ones.
+     *
+     * @param ships
+     *            Ships to recycle.
+     */
+    public static void recycle(final Iterable<EnemyShip> ships) {
+        for (EnemyShip ship : ships)
+            recycle(ship);
+    }
+
+    /**
+     * @return Number of ships available for reuse.
+     */
+    public static int size() {
+        int free = 0;
+        for (ArrayDeque<EnemyShip> ships : GameSession.current().getFreeEnemyShips().values())
+            free += ships.size();
+        return free;
+    }
+
+    /**
+     * @param spriteType
+     *            Sprite type of the ships.
+     * @return Number of free ships of that type.
+     */
+    static int available(final SpriteType spriteType) {
+        ArrayDeque<EnemyShip> free = GameSession.current().getFreeEnemyShips().get(EnemyShip.kindOf(spriteType));
+        return free == null ? 0 : free.size();
+    }
+
+    /** Takes a free ship of the given type, or null if there is none. */
+    private static EnemyShip take(final SpriteType spriteType) {
+        ArrayDeque<EnemyShip> free = GameSession.current().getFreeEnemyShips().get(EnemyShip.kindOf(spriteType));
+        EnemyShip ship = free == null ? null : free.poll();
+        if (ship != null)
+            ship.pooled = false;
+        return ship;
+    }
+
+    private static ArrayDeque<EnemyShip> freeList(final SpriteType baseType) {
+        return GameSession.current().getFreeEnemyShips().computeIfAbsent(baseType, type -> new ArrayDeque<EnemyShip>());
+    }
+}
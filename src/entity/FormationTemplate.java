@@ -0,0 +1,245 @@
+package entity;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import engine.DrawManager.SpriteType;
+import engine.GameSettings;
+
+/**
+ * Enemy formation compiled once from its game settings.
+ * Sprite types, HP, rewards and colors of every ship are resolved up front,
+ * with the cell overrides already applied and removed cells left out, so
+ * spawning a formation is a straight copy of flat arrays.
+ */
+public final class FormationTemplate {
+
+    /** Templates already compiled, by settings instance. */
+    private static final Map<GameSettings, FormationTemplate> TEMPLATES = new WeakHashMap<>();
+
+    /** Number of columns of the formation. */
+    private final int columns;
+    /** Number of rows of the formation. */
+    private final int rows;
+    /** Speed of the enemies. */
+    private final int baseSpeed;
+    /** Frequency of enemy shootings. */
+    private final int shootingFrecuency;
+    /** Number of ships in the formation. */
+    final int count;
+    /** Index after the last ship of each non-empty column. */
+    final int[] columnEnds;
+    /** Per ship, in column order: x offset from the formation origin. */
+    final int[] offsetX;
+    /** Per ship: y offset from the formation origin. */
+    final int[] offsetY;
+    /** Per ship: sprite type. */
+    final SpriteType[] spriteTypes;
+    /** Per ship: initial health. */
+    final int[] health;
+    /** Per ship: points given when destroyed. */
+    final int[] points;
+    /** Per ship: coins given when destroyed. */
+    final int[] coins;
+    /** Per ship: color. */
+    final Color[] colors;
+
+    /**
+     * Returns the template of the given settings, compiling it on first use.
+     *
+     * @param settings
+     *            Game settings of the formation.
+     * @return Formation template.
+     */
+    public static FormationTemplate of(final GameSettings settings) {
+        synchronized (TEMPLATES) {
+            FormationTemplate template = TEMPLATES.get(settings);
+            if (template == null) {
+                template = new FormationTemplate(settings);
+                TEMPLATES.put(settings, template);
+            }
+            return template;
+        }
+    }
+
+    /**
+     * Constructor, compiles the formation.
+     *
+     * @param settings
+     *            Game settings of the formation.
+     */
+    private FormationTemplate(final GameSettings settings) {
+        this.columns = settings.getFormationWidth();
+        this.rows = settings.getFormationHeight();
+        this.baseSpeed = settings.getBaseSpeed();
+        this.shootingFrecuency = settings.getShootingFrecuency();
+        int cells = this.columns * this.rows;
+
+        // Per cell overrides, applied like EnemyShip.changeShip would.
+        int[] hpMultiplier = new int[cells];
+        int[] rewardMultiplier = new int[cells];
+        Color[] overrideColors = new Color[cells];
+        Arrays.fill(hpMultiplier, 1);
+        Arrays.fill(rewardMultiplier, 1);
+        for (GameSettings.ChangeData change : settings.getChangeDataList()) {
+            if (change.x < 0 || change.x >= this.columns || change.y < 0 || change.y >= this.rows)
+                continue;
+            int cell = change.y * this.columns + change.x;
+            hpMultiplier[cell] *= change.hp;
+            rewardMultiplier[cell] *= change.multiplier;
+            if (change.color != null)
+                overrideColors[cell] = change.color;
+        }
+
+        int ships = 0;
+        for (int multiplier : hpMultiplier)
+            if (multiplier != 0)
+                ships++;
+        this.count = ships;
+        this.offsetX = new int[ships];
+        this.offsetY = new int[ships];
+        this.spriteTypes = new SpriteType[ships];
+        this.health = new int[ships];
+        this.points = new int[ships];
+        this.coins = new int[ships];
+        this.colors = new Color[ships];
+
+        int[] ends = new int[this.columns];
+        int nonEmpty = 0;
+        int ship = 0;
+        for (int x = 0; x < this.columns; x++) {
+            int columnStart = ship;
+            for (int y = 0; y < this.rows; y++) {
+                int cell = y * this.columns + x;
+                if (hpMultiplier[cell] == 0)
+                    continue;
+                SpriteType type = spriteType(y, this.rows);
+                this.offsetX[ship] = EnemyShipFormation.SEPARATION_DISTANCE * x;
+                this.offsetY[ship] = EnemyShipFormation.SEPARATION_DISTANCE * y;
+                this.spriteTypes[ship] = type;
+                this.health[ship] = EnemyShip.baseHealth(type) * hpMultiplier[cell];
+                this.points[ship] = EnemyShip.basePoints(type) * rewardMultiplier[cell];
+                this.coins[ship] = EnemyShip.baseCoins(type) * rewardMultiplier[cell];
+                this.colors[ship] = overrideColors[cell] != null ? overrideColors[cell] : Color.WHITE;
+                ship++;
+            }
+            if (ship > columnStart)
+                ends[nonEmpty++] = ship;
+        }
+        this.columnEnds = Arrays.copyOf(ends, nonEmpty);
+    }
+
+    /** Sprite type of a row, by its proportion of the formation height. */
+    private static SpriteType spriteType(final int row, final int rows) {
+        if (row / (float) rows < EnemyShipFormation.PROPORTION_C)
+            return SpriteType.EnemyShipC1;
+        if (row / (float) rows < EnemyShipFormation.PROPORTION_B + EnemyShipFormation.PROPORTION_C)
+            return SpriteType.EnemyShipB1;
+        return SpriteType.EnemyShipA1;
+    }
+
+    /**
+     * Creates the ships of the formation, reusing pooled ships.
+     *
+     * @param originX
+     *            Position of the formation in the x-axis.
+     * @param originY
+     *            Position of the formation in the y-axis.
+     * @param enemyShips
+     *            Receives one list of ships per non-empty column.
+     * @param shooters
+     *            Receives the bottom ship of each column.
+     */
+    void spawn(final int originX, final int originY,
+               final List<List<EnemyShip>> enemyShips, final List<EnemyShip> shooters) {
+        int start = 0;
+        for (int end : this.columnEnds) {
+            List<EnemyShip> column = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++) {
+                EnemyShip ship = EnemyShipPool.getEnemyShip(this.spriteTypes[i],
+                        originX + this.offsetX[i], originY + this.offsetY[i],
+                        this.health[i], this.points[i], this.coins[i], this.colors[i]);
+                ship.slot = i;
+                column.add(ship);
+            }
+            enemyShips.add(column);
+            shooters.add(column.get(column.size() - 1));
+            start = end;
+        }
+    }
+
+    /**
+     * @return Number of columns of the formation, including empty ones.
+     */
+    public int getColumns() {
+        return this.columns;
+    }
+
+    /**
+     * @return Number of rows of the formation.
+     */
+    public int getRows() {
+        return this.rows;
+    }
+
+    /**
+     * @return Speed of the enemies.
+     */
+    public int getBaseSpeed() {
+        return this.baseSpeed;
+    }
+
+    /**
+     * @return Frequency of enemy shootings.
+     */
+    public int getShootingFrecuency() {
+        return this.shootingFrecuency;
+    }
+
+    /**
+     * @return Number of ships in the formation.
+     */
+    public int getShipCount() {
+        return this.count;
+    }
+
+    /**
+     * @param slot
+     *            Index of a ship, in column order.
+     * @return X offset of the ship from the formation origin.
+     */
+    public int getOffsetX(final int slot) {
+        return this.offsetX[slot];
+    }
+
+    /**
+     * @param slot
+     *            Index of a ship, in column order.
+     * @return Y offset of the ship from the formation origin.
+     */
+    public int getOffsetY(final int slot) {
+        return this.offsetY[slot];
+    }
+
+    /**
+     * @param slot
+     *            Index of a ship, in column order.
+     * @return Sprite type the ship spawns with.
+     */
+    public SpriteType getSpriteType(final int slot) {
+        return this.spriteTypes[slot];
+    }
+
+    /**
+     * @param slot
+     *            Index of a ship, in column order.
+     * @return Color of the ship.
+     */
+    public Color getColor(final int slot) {
+        return this.colors[slot];
+    }
+}
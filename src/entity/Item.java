@@ -16,6 +16,11 @@ import engine.ItemEffect;
  */
 public class Item extends Entity {
 
+    /** Width of an item. */
+    public static final int WIDTH = 3 * 2;
+    /** Height of an item. */
+    public static final int HEIGHT = 5 * 2;
+
     /** Logger instance for logging purposes. */
     private Logger logger;
 
@@ -42,7 +47,7 @@ public class Item extends Entity {
 
     public Item(String itemType, final int positionX, final int positionY, final int speed) {
 
-        super(positionX, positionY, 3 * 2, 5 * 2, Color.WHITE);
+        super(positionX, positionY, WIDTH, HEIGHT, Color.WHITE);
 
         logger = Core.getLogger();
 
@@ -57,8 +62,7 @@ public class Item extends Entity {
      * Setter for the sprite of the Item using data from ItemDB.
      */
     public final void setSprite() {
-        ItemDB itemDB = new ItemDB();
-        ItemData data = itemDB.getItemData(this.type);
+        ItemData data = ItemDB.getShared().getItemData(this.type);
 
         if (data != null) {
             try {
@@ -88,8 +92,7 @@ public class Item extends Entity {
      *            ID of the player to apply the effect to.
      */
     public boolean applyEffect(final GameState gameState, final int playerId) {
-        ItemDB itemDB = new ItemDB();
-        ItemData data = itemDB.getItemData(this.type);
+        ItemData data = ItemDB.getShared().getItemData(this.type);
 
         if (data == null) return false;
 
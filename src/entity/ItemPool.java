@@ -1,17 +1,16 @@
 package entity;
 
+import engine.GameSession;
 import engine.ItemData;
-import java.util.HashSet;
 import java.util.Set;
 
 /**
  * Implements a pool of recyclable items.
+ *
+ * Each {@link GameSession} has its own pool, like {@link BulletPool}.
  */
 public final class ItemPool {
 
-    /** Set of items. */
-    private static Set<Item> pool = new HashSet<Item>();
-
     /**
      * Constructor, not called.
      */
@@ -38,10 +37,11 @@ public final class ItemPool {
     public static Item getItem(ItemData data, int positionX, int positionY, int speed) {
         String type = data.getType();
         // create new item
+        Set<Item> free = GameSession.current().getFreeItems();
         Item item;
-        if (!pool.isEmpty()) {
-            item = pool.iterator().next();
-            pool.remove(item);
+        if (!free.isEmpty()) {
+            item = free.iterator().next();
+            free.remove(item);
 
             item.reset(type);
             item.setPositionX(positionX - item.getWidth() / 2);
@@ -62,6 +62,13 @@ public final class ItemPool {
      */
     public static void recycle(final Set<Item> items) {
         if (items == null) return;
-        pool.addAll(items);
+        GameSession.current().getFreeItems().addAll(items);
+    }
+
+    /**
+     * @return Number of items available for reuse.
+     */
+    public static int size() {
+        return GameSession.current().getFreeItems().size();
     }
-}
\ No newline at end of file
+}
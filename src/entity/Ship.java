@@ -6,6 +6,7 @@ import java.util.Set;
 import engine.Cooldown;
 import engine.Core;
 import engine.GameState;
+import engine.TimerWheel;
 import engine.DrawManager.SpriteType;
 
 import static engine.ItemEffect.ItemEffectType.*;
@@ -54,7 +55,8 @@ public class Ship extends Entity {
 
     /** Cooldowns */
     private Cooldown shootingCooldown;
-    private Cooldown destructionCooldown;
+    /** Destruction period, pending while the ship is destroyed. */
+    private TimerWheel.Timeout destructionTimer;
 
     // Identify player in index: 0 = P1, 1 = P2
     private int playerIndex = 0;
@@ -87,7 +89,6 @@ public class Ship extends Entity {
         initializeShipProperties(this.type);
 
         this.shootingCooldown = Core.getCooldown(this.shootingInterval);
-        this.destructionCooldown = Core.getCooldown(DESTRUCTION_COOLDOWN);
 
         // apply entity
         Team playerID = (team != null) ? team : Team.PLAYER1;
@@ -172,7 +173,7 @@ public class Ship extends Entity {
      * Updates status of the ship.
      */
     public final void update() {
-        if (!this.destructionCooldown.checkFinished())
+        if (isDestroyed())
             switch (this.spriteType) {
                 case Ship1 -> this.spriteType = SpriteType.ShipDestroyed1;
                 case Ship2 -> this.spriteType = SpriteType.ShipDestroyed2;
@@ -192,7 +193,9 @@ public class Ship extends Entity {
      * Switches the ship to its destroyed state.
      */
     public final void destroy() {
-        this.destructionCooldown.reset();
+        if (this.destructionTimer != null)
+            this.destructionTimer.cancel();
+        this.destructionTimer = Core.getTimerWheel().schedule(DESTRUCTION_COOLDOWN, null);
     }
 
     /**
@@ -201,7 +204,7 @@ public class Ship extends Entity {
      * @return True if the ship is currently destroyed.
      */
     public final boolean isDestroyed() {
-        return !this.destructionCooldown.checkFinished();
+        return this.destructionTimer != null && this.destructionTimer.isPending();
     }
 
     /**
@@ -263,8 +266,8 @@ public class Ship extends Entity {
     private int getBulletSpeedMultiplier() {
         if (gameState == null) return 1;
 
-        Integer effectValue = gameState.getEffectValue(playerIndex, BULLETSPEEDUP);
-        if (effectValue != null) {
+        int effectValue = gameState.getEffectValue(playerIndex, BULLETSPEEDUP, 0);
+        if (effectValue != 0) {
             Core.getLogger().info("[Ship] Item effect: Faster Bullets");
             return effectValue;
         }
@@ -280,7 +283,7 @@ public class Ship extends Entity {
      */
     private void shootTripleShot(final Set<Bullet> bullets, final int centerX, final int bulletY) {
         Core.getLogger().info("[Ship] Item effect: TRIPLESHOT");
-        Integer TRIPLE_SHOT_OFFSET = gameState.getEffectValue(playerIndex, TRIPLESHOT);
+        int TRIPLE_SHOT_OFFSET = gameState.getEffectValue(playerIndex, TRIPLESHOT, 0);
 
         addBullet(bullets, centerX, bulletY);
         addBullet(bullets, centerX - TRIPLE_SHOT_OFFSET, bulletY);
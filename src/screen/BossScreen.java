@@ -1,9 +1,8 @@
 package screen;
 
-import java.awt.event.KeyEvent;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.Collections;
+import java.util.List;
 import java.util.logging.Logger;
 import java.util.function.IntSupplier;
 
@@ -46,6 +45,12 @@ public class BossScreen extends ReviveScreen {
     private Boss boss;
     /** Formation of boss's minions. */
     private EnemyShipFormation minionFormation;
+    /** Phase 1 minions (5x2), compiled once so spawning mid-fight is a copy. */
+    private static final FormationTemplate PHASE_1_MINIONS =
+            FormationTemplate.of(new GameSettings(5, 2, 100, 2000));
+    /** Phase 2 minions (5x3). */
+    private static final FormationTemplate PHASE_2_MINIONS =
+            FormationTemplate.of(new GameSettings(5, 3, 90, 1500));
 
     /** Formation of player ships. */
     private final Ship[] ships = new Ship[GameState.NUM_PLAYERS];
@@ -80,15 +85,15 @@ public class BossScreen extends ReviveScreen {
 
     /** (Trigger 1) Message for attacking invulnerable boss. */
     private static final String MSG_MINIONS_FIRST = "Let's defeat the minions first!";
-    /** Cooldown for the invulnerable message. */
-    private Cooldown invulnerableMsgCooldown;
+    /** Timer hiding the invulnerable message, null if not shown. */
+    private TimerWheel.Timeout invulnerableMsgTimer;
     /** Duration for the invulnerable message. */
     private static final int INVULNERABLE_MSG_DURATION = 1000; // 1 second
 
     /** (Trigger 2) Message for phase 2 start. */
     private static final String MSG_PHASE_2 = "Phase 2 Started!";
-    /** Cooldown for the phase 2 message. */
-    private Cooldown phase2MsgCooldown;
+    /** Timer hiding the phase 2 message, null if not shown. */
+    private TimerWheel.Timeout phase2MsgTimer;
     /** Duration for the phase 2 message. */
     private static final int PHASE_2_MSG_DURATION = 2000; // 2 seconds
     /** Counter for the invulnerable message. */
@@ -99,6 +104,10 @@ public class BossScreen extends ReviveScreen {
     /** Boss Timer */
     private BossTimer bossTimer;
     private boolean isTimerStarted;
+    /** 이어하기: 저장 시점까지 흐른 보스전 시간 (ms), 없으면 -1 */
+    private long resumedBossTime = -1;
+    /** 쫄몹 편대의 세로 위치 보정값 */
+    private int minionOffsetY;
 
     /**
      * Constructor, establishes the properties of the screen.
@@ -135,13 +144,21 @@ public class BossScreen extends ReviveScreen {
     @Override
     public final void initialize() {
         super.initialize();
+
+        subscribeAchievements(this.achievementManager);
+
+        // Minions spawn mid-fight; have their ships ready beforehand.
+        EnemyShipPool.prewarm(PHASE_1_MINIONS);
+        EnemyShipPool.prewarm(PHASE_2_MINIONS);
         if (this.inventory != null) {
             this.inventory.clear();
         } else {
             this.inventory = new ItemInventory(this.state, 0);
         }
 
-        state.clearAllEffects();
+        // 이어하기면 저장된 아이템 효과를 유지
+        if (!isResuming())
+            state.clearAllEffects();
 
         // Start background music
         SoundManager.startBackgroundMusic(SOUND_BGM);
@@ -163,29 +180,17 @@ public class BossScreen extends ReviveScreen {
         int bossHeight = 30 * 2; // From Boss.java
         int minionStartY = bossY + bossHeight + 20; // 20px padding below boss
         int initMinionY = 100; // Default INIT_POS_Y in EnemyShipFormation
-        final int yOffset = minionStartY - initMinionY;
+        this.minionOffsetY = minionStartY - initMinionY;
 
         // 2. Define Boss Callbacks
         Runnable spawnHP1Group = () -> {
             bossScreenLogger.info("Boss spawning Phase 1 minions (5x2).");
-            GameSettings minionSettings = new GameSettings(5, 2, 100, 2000); // 5x2
-            this.minionFormation = new EnemyShipFormation(minionSettings);
-            this.minionFormation.attach(this);
-            // Move minions below boss
-            for (EnemyShip minion : this.minionFormation) {
-                minion.move(0, yOffset);
-            }
+            spawnMinions(PHASE_1_MINIONS);
         };
 
         Runnable spawnHP2Group = () -> {
             bossScreenLogger.info("Boss spawning Phase 2 minions (5x3).");
-            GameSettings minionSettings = new GameSettings(5, 3, 90, 1500); // 5x3
-            this.minionFormation = new EnemyShipFormation(minionSettings);
-            this.minionFormation.attach(this);
-            // Move minions below boss
-            for (EnemyShip minion : this.minionFormation) {
-                minion.move(0, yOffset);
-            }
+            spawnMinions(PHASE_2_MINIONS);
         };
 
         Runnable clearShield = () -> {
@@ -199,7 +204,7 @@ public class BossScreen extends ReviveScreen {
 
         Runnable onPhase2StartCallback = () -> {
             bossScreenLogger.info("Boss entering Phase 2! Triggering message.");
-            this.phase2MsgCooldown.reset();
+            this.phase2MsgTimer = showMessage(this.phase2MsgTimer, PHASE_2_MSG_DURATION);
         };
 
         IntSupplier minionAlive = () ->
@@ -229,9 +234,7 @@ public class BossScreen extends ReviveScreen {
                 Core.getCooldown(SCREEN_CHANGE_INTERVAL);
         this.bullets = new HashSet<>();
         this.items = new HashSet<>();
-        this.invulnerableMsgCooldown =
-                Core.getCooldown(INVULNERABLE_MSG_DURATION);
-        this.phase2MsgCooldown = Core.getCooldown(PHASE_2_MSG_DURATION);
+        registerLiveGauges(() -> this.bullets.size(), () -> this.items.size());
 
         this.invulnerableMsgCount = 0;
 
@@ -239,7 +242,7 @@ public class BossScreen extends ReviveScreen {
         this.gameStartTime = System.currentTimeMillis();
         this.inputDelay = Core.getCooldown(INPUT_DELAY);
         this.inputDelay.reset();
-        drawManager.setDeath(false);
+        this.death = false;
 
         this.isPaused = false;
         this.pauseCooldown = Core.getCooldown(PAUSE_COOLDOWN_MS);
@@ -248,6 +251,8 @@ public class BossScreen extends ReviveScreen {
 
         // Revive 상태 초기화
         initReviveState();
+
+        applyResume(QuickSave.BOSS, INPUT_DELAY);
     }
 
     /**
@@ -265,6 +270,9 @@ public class BossScreen extends ReviveScreen {
         // Stop all music on exiting this screen
         SoundManager.stopAllMusic();
 
+        recycleMinions();
+        removeLiveGauges();
+
         bossScreenLogger.info("Boss Screen cleared with a score of "
                 + state.getScore());
         return this.returnCode;
@@ -311,8 +319,6 @@ public class BossScreen extends ReviveScreen {
             return;
         }
 
-        checkInGameAchievements();
-
         // 2. 게임 오버(패배) 조건 체크 및 처리
         checkAndHandleGameOver();
 
@@ -326,7 +332,11 @@ public class BossScreen extends ReviveScreen {
     private void updateGameState() {
         if (this.inputDelay.checkFinished() && !this.levelFinished) {
             if (!isTimerStarted) {
-                this.bossTimer.start(this.state.getLevel());
+                if (this.resumedBossTime >= 0) {
+                    this.bossTimer.resume(this.state.getLevel(), this.resumedBossTime);
+                } else {
+                    this.bossTimer.start(this.state.getLevel());
+                }
                 isTimerStarted = true;
             }
             handlePlayerInputAndShooting();
@@ -380,6 +390,76 @@ public class BossScreen extends ReviveScreen {
         }
     }
 
+    /** 보스 아래에 쫄몹 편대를 새로 소환 (기존 쫄몹은 풀로 반환) */
+    private void spawnMinions(final FormationTemplate template) {
+        recycleMinions();
+        this.minionFormation = new EnemyShipFormation(template, this.minionOffsetY);
+        this.minionFormation.attach(this);
+    }
+
+    /**
+     * 진행 중인 보스전을 저장한다 (보스 체력/페이즈, 쫄몹, 보스전 시간 포함).
+     */
+    @Override
+    protected boolean writeQuickSave(final QuickSave save) {
+        if (this.levelFinished || this.boss == null)
+            return false;
+        save.begin(QuickSave.BOSS, this.shipTypeP1, this.shipTypeP2,
+                this.state, this.reviveManager);
+        save.writeFlag(this.tookDamageThisLevel);
+        save.writeShips(this.ships);
+        save.writeBoss(this.boss, this.isTimerStarted ? this.bossTimer.getDuration() : -1);
+        save.writeFormation(this.minionFormation);
+        save.writeBullets(this.bullets);
+        save.writeItems(this.items);
+        save.writeInventory(this.inventory);
+        return true;
+    }
+
+    /**
+     * 저장된 보스전을 복원 순서대로 읽기만 한다.
+     * 2페이즈 편대는 복원할 때 같은 템플릿으로 새로 소환하므로 크기는 PHASE_2_MINIONS 와 비교한다.
+     */
+    @Override
+    protected void checkQuickSave(final QuickSave checker) {
+        checker.readFlag();
+        checker.readShips(this.ships);
+        checker.readBoss(this.boss);
+        if (checker.getBossPhase() == BossPhase.P2) {
+            checker.readFormation(PHASE_2_MINIONS.getShipCount());
+        } else {
+            checker.readFormation(this.minionFormation);
+        }
+        checker.readBullets(this.bullets);
+        checker.readItems(this.items);
+        checker.readInventory(this.inventory);
+    }
+
+    /**
+     * 저장된 보스전을 되살린다. 2페이즈였다면 2페이즈 쫄몹 편대로 바꾼 뒤 복원한다.
+     */
+    @Override
+    protected void readQuickSave(final QuickSave save) {
+        this.tookDamageThisLevel = save.readFlag();
+        save.readShips(this.ships);
+        this.resumedBossTime = save.readBoss(this.boss);
+        if (this.boss.getPhase() == BossPhase.P2) {
+            spawnMinions(PHASE_2_MINIONS);
+        }
+        save.readFormation(this.minionFormation);
+        save.readBullets(this.bullets);
+        save.readItems(this.items);
+        save.readInventory(this.inventory);
+    }
+
+    /** 남아 있는 쫄몹을 적 풀로 반환 */
+    private void recycleMinions() {
+        if (this.minionFormation != null) {
+            this.minionFormation.recycle();
+            this.minionFormation = null;
+        }
+    }
+
     /** 카운트다운 사운드 처리 */
     private void handleCountdownSound() {
         if (!this.inputDelay.checkFinished() && !countdownSoundPlayed) {
@@ -395,7 +475,7 @@ public class BossScreen extends ReviveScreen {
     private void handlePauseAndMenuInput() {
         // Pause toggle
         if (this.inputDelay.checkFinished()
-                && inputManager.isKeyDown(KeyEvent.VK_ESCAPE)
+                && inputManager.isActionDown(InputAction.PAUSE)
                 && this.pauseCooldown.checkFinished()) {
 
             this.isPaused = !this.isPaused;
@@ -410,7 +490,7 @@ public class BossScreen extends ReviveScreen {
 
         // Return to menu while paused
         if (this.isPaused
-                && inputManager.isKeyDown(KeyEvent.VK_BACK_SPACE)
+                && inputManager.isActionDown(InputAction.QUIT)
                 && this.returnMenuCooldown.checkFinished()) {
 
             SoundManager.playOnce(SOUND_SELECT);
@@ -424,9 +504,21 @@ public class BossScreen extends ReviveScreen {
      * 플레이어 입력 및 발사 처리
      */
     private void handlePlayerInputAndShooting() {
-        for (int p = 0; p < GameState.NUM_PLAYERS; p++) {
-            handleSingleShipInput(p, this.ships, this.bullets, this.state);
+        handlePlayersInput(this.ships, this.bullets, this.state);
+    }
+
+    /**
+     * 봇에게 하수인 사수와 보스를 목표로 넘긴다.
+     */
+    @Override
+    protected void collectTargets(final Battlefield field) {
+        if (this.minionFormation != null) {
+            for (EnemyShip minion : this.minionFormation.getShooters())
+                if (!minion.isDestroyed())
+                    field.addTarget(minion);
         }
+        if (this.boss != null && this.boss.getHp() > 0)
+            field.addTarget(this.boss);
     }
 
 
@@ -458,7 +550,7 @@ public class BossScreen extends ReviveScreen {
 
     /** 충돌, 총알/아이템 정리, 이펙트 업데이트 */
     private void handleCollisionsAndCleanup() {
-        manageCollisions();
+        runCollisionPass(this.bullets.size(), this::manageCollisions);
         cleanBullets();
         cleanItems();
         if (this.inventory != null) {
@@ -467,7 +559,6 @@ public class BossScreen extends ReviveScreen {
         manageItemPickups();
 
         state.updateEffects();
-        drawManager.setLastLife(state.getLivesRemaining() == 1);
     }
 
     /** 보스 사망 및 레벨 종료 처리 */
@@ -542,95 +633,66 @@ public class BossScreen extends ReviveScreen {
      * Draws the elements associated with the screen.
      */
     private void draw() {
-        drawManager.initDrawing(this);
-
-        drawManager.drawExplosions();
-        drawManager.updateGameSpace(); // Background stars
+        RenderSnapshot snapshot = beginSnapshot();
 
         for (Ship s : this.ships) {
             if (s != null) {
-                drawManager.drawEntity(s,
-                        s.getPositionX(), s.getPositionY());
+                snapshot.addEntity(s);
             }
         }
 
         if (this.boss != null && this.boss.getHp() > 0) {
-            drawManager.drawEntity(this.boss,
-                    this.boss.getPositionX(),
-                    this.boss.getPositionY());
+            snapshot.addEntity(this.boss);
         }
 
         if (this.minionFormation != null) {
-            this.minionFormation.draw();
+            this.minionFormation.draw(snapshot);
         }
 
-        for (Bullet bullet : this.bullets) {
-            drawManager.drawEntity(bullet,
-                    bullet.getPositionX(),
-                    bullet.getPositionY());
-        }
-
-        for (Item item : this.items) {
-            drawManager.drawEntity(item,
-                    item.getPositionX(),
-                    item.getPositionY());
-        }
+        snapshot.addEntities(this.bullets);
+        snapshot.addEntities(this.items);
 
-        drawManager.drawBossTimer(this, this.bossTimer.getDuration());
-        drawManager.drawLives(this, state.getLivesRemaining(),
-                state.isCoop());
-        drawManager.drawCoins(this, state.getCoins());
-        drawManager.drawLevel(this, this.state.getLevel());
-        drawManager.drawHorizontalLine(this,
-                SEPARATION_LINE_HEIGHT - 1);
-        if (this.inventory != null && this.inputDelay.checkFinished()) {
-            drawManager.drawItemInventory(
-                    this.inventory,
-                    40, SEPARATION_LINE_HEIGHT - 40);
+        snapshot.setHud(SEPARATION_LINE_HEIGHT, state.getLivesRemaining(),
+                state.isCoop(), state.getCoins(), this.state.getLevel(),
+                state.getLivesRemaining() == 1);
+        snapshot.setDeath(this.death);
+        snapshot.setBossTimer(this.bossTimer.getDuration());
+        if (this.inputDelay.checkFinished()) {
+            snapshot.setInventory(this.inventory);
         }
 
         if (this.boss != null) {
-            drawManager.drawBossHPBar(this,
-                    this.boss.getHp(), this.boss.getMaxHp());
+            snapshot.setBossHp(this.boss.getHp(), this.boss.getMaxHp());
         }
 
-        drawManager.drawBossTimer(this, this.bossTimer.getDuration());
-
         if (this.minionFormation != null) {
-            drawManager.drawShipCount(this,
-                    this.minionFormation.getShipCount());
+            snapshot.setShipCount(this.minionFormation.getShipCount());
         }
 
         if (!this.inputDelay.checkFinished()) {
             int countdown = (int) ((INPUT_DELAY
                     - (System.currentTimeMillis() - this.gameStartTime))
                     / 1000);
-            drawManager.drawCountDown(this,
-                    this.state.getLevel(),
-                    countdown, false);
-            drawManager.drawHorizontalLine(this,
-                    this.height / 2 - this.height / 12);
-            drawManager.drawHorizontalLine(this,
-                    this.height / 2 + this.height / 12);
-        }
-
-        drawManager.drawAchievementToasts(
-                this,
-                (this.achievementManager != null)
-                        ? this.achievementManager.getActiveToasts()
-                        : Collections.emptyList()
-        );
+            snapshot.setCountdown(countdown, false);
+        }
+
+        if (this.achievementManager != null) {
+            List<Achievement> toasts = this.achievementManager.getActiveToasts();
+            if (!toasts.isEmpty()) {
+                snapshot.setToast(toasts.get(toasts.size() - 1));
+            }
+        }
 
         if (this.isPaused) {
-            drawManager.drawPauseOverlay(this);
+            snapshot.setPaused();
         }
 
         // Revive UI 공통 헬퍼
-        drawReviveUiIfNeeded(drawManager);
+        captureReviveUi(snapshot);
 
-        drawMessages();
+        drawMessages(snapshot);
 
-        drawManager.completeDrawing(this);
+        publishSnapshot();
     }
 
     /**
@@ -676,42 +738,40 @@ public class BossScreen extends ReviveScreen {
      * 적 총알이 플레이어에게 맞았는지 확인하고 처리합니다.
      */
     private boolean handleEnemyBulletCollision(Bullet bullet) {
-        for (int p = 0; p < GameState.NUM_PLAYERS; p++) {
-            Ship ship = this.ships[p];
-            if (ship != null && !ship.isDestroyed()
-                    && checkCollision(bullet, ship)
-                    && !this.levelFinished) {
+        if (this.levelFinished) {
+            return false;
+        }
+        // 피격 규칙은 시뮬레이션과 공유
+        int p = GameRules.hitPlayer(this.state, this.ships, bullet, collision());
+        if (p < 0) {
+            return false;
+        }
 
-                drawManager.triggerExplosion(
-                        ship.getPositionX(), ship.getPositionY(),
-                        false, state.getLivesRemaining() == 1);
-                ship.addHit();
-                ship.destroy();
-                SoundManager.playOnce(SOUND_EXPLOSION);
-                state.decLife(p);
-                this.tookDamageThisLevel = true;
-                drawManager.setLastLife(state.getLivesRemaining() == 1);
-                drawManager.setDeath(state.getLivesRemaining() == 0);
-                bossScreenLogger.info("Hit on player " + (p + 1));
-
-                // --- Revive Trigger ---
-                if (state.getLivesRemaining() == 0) {
-                    this.revivePhase = RevivePhase.REVIVE_PROMPT;
-                }
-                // ------------------------------
+        Ship ship = this.ships[p];
+        drawManager.triggerExplosion(
+                ship.getPositionX(), ship.getPositionY(),
+                false, state.getLivesRemaining() == 0);
+        eventBus.publish(GameEventBus.Type.PLAYER_HIT, p,
+                state.getLivesRemaining(),
+                ship.getPositionX(), ship.getPositionY());
+        this.tookDamageThisLevel = true;
+        this.death = state.getLivesRemaining() == 0;
+        bossScreenLogger.info("Hit on player " + (p + 1));
 
-                return true;
-            }
+        // --- Revive Trigger ---
+        if (state.getLivesRemaining() == 0) {
+            this.revivePhase = RevivePhase.REVIVE_PROMPT;
         }
-        return false;
+        // ------------------------------
+
+        return true;
     }
 
     /**
      * 플레이어 총알이 쫄몹이나 보스에게 맞았는지 확인하고 처리합니다.
      */
     private boolean handlePlayerBulletCollision(Bullet bullet) {
-        final int ownerId = bullet.getOwnerPlayerId();
-        final int pIdx = (ownerId == 2) ? 1 : 0;
+        final int pIdx = GameRules.shooterIndex(bullet);
 
         if (handleMinionCollision(bullet, pIdx)) {
             return true;
@@ -759,7 +819,8 @@ public class BossScreen extends ReviveScreen {
             if (this.boss.isInvulnerable()) {
                 if (this.invulnerableMsgCount
                         < MAX_INVULNERABLE_MSG_SHOWS) {
-                    this.invulnerableMsgCooldown.reset();
+                    this.invulnerableMsgTimer = showMessage(
+                            this.invulnerableMsgTimer, INVULNERABLE_MSG_DURATION);
                     this.invulnerableMsgCount++;
                 }
             } else {
@@ -791,18 +852,27 @@ public class BossScreen extends ReviveScreen {
         return this.state;
     }
 
-    private void drawMessages() {
-        int x = 10;
-        int y = this.height - 20;
+    /**
+     * 메시지를 표시하고, 표시 시간이 끝나면 공유 타이머 휠에서 만료됩니다.
+     *
+     * @param timer 이전에 표시 중이던 메시지의 타이머, 없으면 null.
+     * @param durationMs 표시 시간 (ms).
+     * @return 새 메시지 타이머.
+     */
+    private TimerWheel.Timeout showMessage(final TimerWheel.Timeout timer,
+                                           final int durationMs) {
+        if (timer != null)
+            timer.cancel();
+        return session.getTimerWheel().schedule(durationMs, null);
+    }
 
-        if (this.phase2MsgCooldown != null
-                && !this.phase2MsgCooldown.checkFinished()) {
-            drawManager.drawString(MSG_PHASE_2,
-                    x, y, java.awt.Color.YELLOW);
-        } else if (this.invulnerableMsgCooldown != null
-                && !this.invulnerableMsgCooldown.checkFinished()) {
-            drawManager.drawString(MSG_MINIONS_FIRST,
-                    x, y, java.awt.Color.WHITE);
+    private void drawMessages(final RenderSnapshot snapshot) {
+        if (this.phase2MsgTimer != null
+                && this.phase2MsgTimer.isPending()) {
+            snapshot.setMessage(MSG_PHASE_2, java.awt.Color.YELLOW);
+        } else if (this.invulnerableMsgTimer != null
+                && this.invulnerableMsgTimer.isPending()) {
+            snapshot.setMessage(MSG_MINIONS_FIRST, java.awt.Color.WHITE);
         }
     }
 
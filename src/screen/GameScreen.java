@@ -1,7 +1,7 @@
 package screen;
 
-import java.awt.event.KeyEvent;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import engine.*;
@@ -22,12 +22,6 @@ public class GameScreen extends ReviveScreen {
     private static final int INPUT_DELAY = 6000;
     /** Bonus score for each life remaining at the end of the level. */
     private static final int LIFE_SCORE = 100;
-    /** Minimum time between bonus ship's appearances. */
-    private static final int BONUS_SHIP_INTERVAL = 20000;
-    /** Maximum variance in the time between bonus ship's appearances. */
-    private static final int BONUS_SHIP_VARIANCE = 10000;
-    /** Time until bonus ship explosion disappears. */
-    private static final int BONUS_SHIP_EXPLOSION = 500;
     /** Time from finishing the level to screen change. */
     private static final int SCREEN_CHANGE_INTERVAL = 1500;
     /** Height of the interface separation line. */
@@ -46,6 +40,8 @@ public class GameScreen extends ReviveScreen {
     private EnemyShip enemyShipSpecial;
     /** Formation of player ships. */
     private Ship[] ships = new Ship[GameState.NUM_PLAYERS];
+    /** Networked co-op host sending this game to the second player, or null. */
+    private NetHost netHost;
     /** Minimum time between bonus ship appearances. */
     private Cooldown enemyShipSpecialCooldown;
     /** Time until bonus ship explosion disappears. */
@@ -130,10 +126,22 @@ public class GameScreen extends ReviveScreen {
             }
         }
         if (this.achievementManager == null) {
-            this.achievementManager = new AchievementManager();
+            this.achievementManager = AchievementManager.create();
         }
     }
 
+    /**
+     * Lets the remote player of a networked co-op game fly the second ship
+     * and see the game.
+     *
+     * @param netHost
+     *            Host connected to the remote player.
+     */
+    public final void setNetHost(final NetHost netHost) {
+        this.netHost = netHost;
+        setController(1, netHost.remoteController());
+    }
+
     /**
      * Resets the session high score notification flag.
      * Should be called when a new game starts from the main menu.
@@ -148,11 +156,16 @@ public class GameScreen extends ReviveScreen {
     public final void initialize() {
         super.initialize();
 
-        state.clearAllEffects();
+        subscribeAchievements(this.achievementManager);
+
+        // 이어하기면 저장된 아이템 효과를 유지
+        if (!isResuming())
+            state.clearAllEffects();
 
         // Start background music for gameplay
         SoundManager.startBackgroundMusic("sound/SpaceInvader-GameTheme.wav");
 
+        EnemyShipPool.prewarm(FormationTemplate.of(this.gameSettings));
         enemyShipFormation = new EnemyShipFormation(this.gameSettings);
         enemyShipFormation.attach(this);
 
@@ -171,20 +184,22 @@ public class GameScreen extends ReviveScreen {
         }
 
         this.enemyShipSpecialCooldown =
-                Core.getVariableCooldown(BONUS_SHIP_INTERVAL, BONUS_SHIP_VARIANCE);
+                Core.getVariableCooldown(GameRules.SPECIAL_SHIP_INTERVAL,
+                        GameRules.SPECIAL_SHIP_VARIANCE);
         this.enemyShipSpecialCooldown.reset();
-        this.enemyShipSpecialExplosionCooldown = Core.getCooldown(BONUS_SHIP_EXPLOSION);
+        this.enemyShipSpecialExplosionCooldown = Core.getCooldown(GameRules.SPECIAL_SHIP_EXPLOSION);
         this.screenFinishedCooldown = Core.getCooldown(SCREEN_CHANGE_INTERVAL);
         this.bullets = new HashSet<>();
 
         // New Item Code
         this.items = new HashSet<>();
+        registerLiveGauges(() -> this.bullets.size(), () -> this.items.size());
 
         // Special input delay / countdown.
         this.gameStartTime = System.currentTimeMillis();
         this.inputDelay = Core.getCooldown(INPUT_DELAY);
         this.inputDelay.reset();
-        drawManager.setDeath(false);
+        this.death = false;
 
         this.isPaused = false;
         this.pauseCooldown = Core.getCooldown(300);
@@ -194,6 +209,8 @@ public class GameScreen extends ReviveScreen {
         initReviveState();
 
         initializeInventory(state, 0);
+
+        applyResume(QuickSave.LEVEL, INPUT_DELAY);
     }
 
     /**
@@ -210,6 +227,13 @@ public class GameScreen extends ReviveScreen {
         // Stop all music on exiting this screen
         SoundManager.stopAllMusic();
 
+        removeLiveGauges();
+
+        // Enemies left on screen go back to the pool for the next level.
+        this.enemyShipFormation.recycle();
+        EnemyShipPool.recycle(this.enemyShipSpecial);
+        this.enemyShipSpecial = null;
+
         this.logger.info("Screen cleared with a score of " + state.getScore());
         return this.returnCode;
     }
@@ -220,6 +244,9 @@ public class GameScreen extends ReviveScreen {
     protected final void update() {
         super.update();
 
+        if (this.netHost != null)
+            this.netHost.poll();
+
         /// ----------------------------------------
         // Revive Phase Handler (공통 헬퍼 사용)
         // ----------------------------------------
@@ -238,11 +265,9 @@ public class GameScreen extends ReviveScreen {
             }
         }
 
-        checkAchievement();
-
         // pause 토글
         if (this.inputDelay.checkFinished()
-                && inputManager.isKeyDown(KeyEvent.VK_ESCAPE)
+                && inputManager.isActionDown(InputAction.PAUSE)
                 && this.pauseCooldown.checkFinished()) {
             this.isPaused = !this.isPaused;
             this.pauseCooldown.reset();
@@ -258,7 +283,7 @@ public class GameScreen extends ReviveScreen {
 
         // pause 중 메뉴로 복귀
         if (this.isPaused
-                && inputManager.isKeyDown(KeyEvent.VK_BACK_SPACE)
+                && inputManager.isActionDown(InputAction.QUIT)
                 && this.returnMenuCooldown.checkFinished()) {
             SoundManager.playOnce("sound/select.wav");
             SoundManager.stopAllMusic(); // Stop all music before returning to menu
@@ -270,31 +295,22 @@ public class GameScreen extends ReviveScreen {
             if (this.inputDelay.checkFinished() && !this.levelFinished) {
 
                 // Per-player input/move/shoot
-                // Per-player input/move/shoot
-                for (int p = 0; p < GameState.NUM_PLAYERS; p++) {
-                    handleSingleShipInput(p, this.ships, this.bullets, this.state);
-                }
+                handlePlayersInput(this.ships, this.bullets, this.state);
 
 
                 // Special ship lifecycle
-                if (this.enemyShipSpecial != null) {
-                    if (!this.enemyShipSpecial.isDestroyed())
-                        this.enemyShipSpecial.move(2, 0);
-                    else if (this.enemyShipSpecialExplosionCooldown.checkFinished())
-                        this.enemyShipSpecial = null;
-                }
-                if (this.enemyShipSpecial == null
-                        && this.enemyShipSpecialCooldown.checkFinished()) {
-                    this.enemyShipSpecial = new EnemyShip();
-                    this.enemyShipSpecialCooldown.reset();
-                    SoundManager.playLoop("sound/special_ship_sound.wav");
-                    this.logger.info("A special ship appears");
-                }
-                if (this.enemyShipSpecial != null
-                        && this.enemyShipSpecial.getPositionX() > this.width) {
-                    this.enemyShipSpecial = null;
+                boolean specialFlying = this.enemyShipSpecial != null
+                        && !this.enemyShipSpecial.isDestroyed();
+                this.enemyShipSpecial = GameRules.updateSpecialShip(this.enemyShipSpecial,
+                        this.enemyShipSpecialCooldown, this.enemyShipSpecialExplosionCooldown,
+                        this.width);
+                if (specialFlying && this.enemyShipSpecial == null) {
                     SoundManager.stop();
                     this.logger.info("The special ship has escaped");
+                } else if (!specialFlying && this.enemyShipSpecial != null
+                        && !this.enemyShipSpecial.isDestroyed()) {
+                    SoundManager.playLoop("sound/special_ship_sound.wav");
+                    this.logger.info("A special ship appears");
                 }
 
                 // Update ships & enemies
@@ -311,7 +327,7 @@ public class GameScreen extends ReviveScreen {
                 }
             }
 
-            manageCollisions();
+            runCollisionPass(this.bullets.size(), this::manageCollisions);
 
             // collision 에서 revivePhase 가 PROMPT 로 바뀌었으면 여기서 멈춤
             if (this.revivePhase != RevivePhase.PLAYING) {
@@ -328,7 +344,6 @@ public class GameScreen extends ReviveScreen {
 
             // check active item affects
             state.updateEffects();
-            drawManager.setLastLife(state.getLivesRemaining() == 1);
             draw();
 
             if (!sessionHighScoreNotified
@@ -385,79 +400,122 @@ public class GameScreen extends ReviveScreen {
         }
     }
 
+    /**
+     * Sends the state of the tick to the remote player, after the events.
+     */
+    @Override
+    protected void onTickEnd() {
+        super.onTickEnd();
+        if (this.netHost != null)
+            this.netHost.publish(this.state, this.ships, this.enemyShipSpecial,
+                    this.enemyShipFormation, this.bullets, this.items);
+    }
+
+    /**
+     * Saves the level in progress, until it is finished.
+     */
+    @Override
+    protected boolean writeQuickSave(final QuickSave save) {
+        if (this.levelFinished)
+            return false;
+        save.begin(QuickSave.LEVEL, this.shipTypeP1, this.shipTypeP2,
+                this.state, this.reviveManager);
+        save.writeFlag(this.tookDamageThisLevel);
+        save.writeShips(this.ships);
+        save.writeFormation(this.enemyShipFormation);
+        save.writeSpecial(this.enemyShipSpecial);
+        save.writeBullets(this.bullets);
+        save.writeItems(this.items);
+        save.writeInventory(this.inventory);
+        return true;
+    }
+
+    /**
+     * Reads the saved entities through, in the order they are restored.
+     */
+    @Override
+    protected void checkQuickSave(final QuickSave checker) {
+        checker.readFlag();
+        checker.readShips(this.ships);
+        checker.readFormation(this.enemyShipFormation);
+        checker.readSpecial();
+        checker.readBullets(this.bullets);
+        checker.readItems(this.items);
+        checker.readInventory(this.inventory);
+    }
+
+    /**
+     * Puts the entities back as they were saved. The cooldowns start over.
+     */
+    @Override
+    protected void readQuickSave(final QuickSave save) {
+        this.tookDamageThisLevel = save.readFlag();
+        save.readShips(this.ships);
+        save.readFormation(this.enemyShipFormation);
+        this.enemyShipSpecial = save.readSpecial();
+        if (this.enemyShipSpecial != null)
+            SoundManager.playLoop("sound/special_ship_sound.wav");
+        save.readBullets(this.bullets);
+        save.readItems(this.items);
+        save.readInventory(this.inventory);
+    }
+
     /**
      * Draws the elements associated with the screen.
      */
     private void draw() {
-        drawManager.initDrawing(this);
-
-        drawManager.drawExplosions();
-        drawManager.updateGameSpace();
+        RenderSnapshot snapshot = beginSnapshot();
 
         for (Ship s : this.ships)
             if (s != null)
-                drawManager.drawEntity(s, s.getPositionX(), s.getPositionY());
+                snapshot.addEntity(s);
 
         if (this.enemyShipSpecial != null)
-            drawManager.drawEntity(this.enemyShipSpecial,
-                    this.enemyShipSpecial.getPositionX(),
-                    this.enemyShipSpecial.getPositionY());
+            snapshot.addEntity(this.enemyShipSpecial);
 
-        enemyShipFormation.draw();
+        enemyShipFormation.draw(snapshot);
 
-        for (Bullet bullet : this.bullets)
-            drawManager.drawEntity(bullet, bullet.getPositionX(),
-                    bullet.getPositionY());
+        snapshot.addEntities(this.bullets);
 
         // draw items
-        for (Item item : this.items)
-            drawManager.drawEntity(item, item.getPositionX(),
-                    item.getPositionY());
+        snapshot.addEntities(this.items);
 
         // Aggregate UI (team score & team lives)
-        drawManager.drawScore(this, state.getScore());
-        drawManager.drawLives(this, state.getLivesRemaining(), state.isCoop());
-        drawManager.drawCoins(this, state.getCoins());
-
-        drawManager.drawLevel(this, this.state.getLevel());
-        drawManager.drawHorizontalLine(this, SEPARATION_LINE_HEIGHT - 1);
-        drawManager.drawShipCount(this, enemyShipFormation.getShipCount());
-        drawInventory(40, SEPARATION_LINE_HEIGHT - 40);
+        snapshot.setHud(SEPARATION_LINE_HEIGHT, state.getLivesRemaining(), state.isCoop(),
+                state.getCoins(), this.state.getLevel(), state.getLivesRemaining() == 1);
+        snapshot.setDeath(this.death);
+        snapshot.setScore(state.getScore());
+        snapshot.setShipCount(enemyShipFormation.getShipCount());
+        snapshot.setInventory(this.inventory);
 
         if (!this.inputDelay.checkFinished()) {
             int countdown = (int) ((INPUT_DELAY
                     - (System.currentTimeMillis() - this.gameStartTime)) / 1000);
-            drawManager.drawCountDown(this, this.state.getLevel(),
-                    countdown, this.bonusLife);
-            drawManager.drawHorizontalLine(this,
-                    this.height / 2 - this.height / 12);
-            drawManager.drawHorizontalLine(this,
-                    this.height / 2 + this.height / 12);
+            snapshot.setCountdown(countdown, this.bonusLife);
         }
 
         if (this.highScoreNotified &&
                 System.currentTimeMillis() - this.highScoreNoticeStartTime
                         < HIGH_SCORE_NOTICE_DURATION) {
-            drawManager.drawNewHighScoreNotice(this);
+            snapshot.setHighScoreNotice();
         }
 
-        // draw achievement toasts
-        drawManager.drawAchievementToasts(
-                this,
-                (this.achievementManager != null)
-                        ? this.achievementManager.getActiveToasts()
-                        : java.util.Collections.emptyList()
-        );
+        // achievement toasts
+        if (this.achievementManager != null) {
+            List<Achievement> toasts = this.achievementManager.getActiveToasts();
+            if (!toasts.isEmpty())
+                snapshot.setToast(toasts.get(toasts.size() - 1));
+        }
 
         if (this.isPaused) {
-            drawManager.drawPauseOverlay(this);
+            snapshot.setPaused();
         }
 
         // --- Revive UI (공통 헬퍼 사용) ---
-        drawReviveUiIfNeeded(drawManager);
+        captureReviveUi(snapshot);
         // -------------------
 
-        drawManager.completeDrawing(this);
+        publishSnapshot();
     }
 
     /**
@@ -471,6 +529,18 @@ public class GameScreen extends ReviveScreen {
         cleanItemsCommon(this.items);
     }
 
+    /**
+     * Offers the formation's shooters and the special ship to bots.
+     */
+    @Override
+    protected void collectTargets(final Battlefield field) {
+        for (EnemyShip shooter : this.enemyShipFormation.getShooters())
+            if (!shooter.isDestroyed())
+                field.addTarget(shooter);
+        if (this.enemyShipSpecial != null && !this.enemyShipSpecial.isDestroyed())
+            field.addTarget(this.enemyShipSpecial);
+    }
+
 
     /**
      * Manages pickups between player and items.
@@ -487,37 +557,29 @@ public class GameScreen extends ReviveScreen {
         Set<Bullet> recyclable = new HashSet<>();
         for (Bullet bullet : this.bullets) {
             if (bullet.getSpeed() > 0) {
-                // Enemy bullet vs both players
-                for (int p = 0; p < GameState.NUM_PLAYERS; p++) {
+                // Enemy bullet vs both players (shared with the simulation)
+                int p = this.levelFinished ? -1
+                        : GameRules.hitPlayer(this.state, this.ships, bullet, collision());
+                if (p >= 0) {
                     Ship ship = this.ships[p];
-                    if (ship != null && !ship.isDestroyed()
-                            && checkCollision(bullet, ship)
-                            && !this.levelFinished) {
-                        recyclable.add(bullet);
-
-                        drawManager.triggerExplosion(
-                                ship.getPositionX(), ship.getPositionY(),
-                                false,
-                                state.getLivesRemaining() == 1);
-                        ship.addHit();
+                    recyclable.add(bullet);
 
-                        ship.destroy();
-                        SoundManager.playOnce("sound/explosion.wav");
-                        state.decLife(p);
+                    drawManager.triggerExplosion(
+                            ship.getPositionX(), ship.getPositionY(),
+                            false,
+                            state.getLivesRemaining() == 0);
+                    eventBus.publish(GameEventBus.Type.PLAYER_HIT, p,
+                            state.getLivesRemaining(),
+                            ship.getPositionX(), ship.getPositionY());
 
-                        // Record damage for Survivor achievement check
-                        this.tookDamageThisLevel = true;
+                    // Record damage for Survivor achievement check
+                    this.tookDamageThisLevel = true;
 
-                        drawManager.setLastLife(
-                                state.getLivesRemaining() == 1);
-                        drawManager.setDeath(
-                                state.getLivesRemaining() == 0);
+                    this.death = state.getLivesRemaining() == 0;
 
-                        this.logger.info("Hit on player " + (p + 1)
-                                + ", team lives now: "
-                                + state.getLivesRemaining());
-                        break;
-                    }
+                    this.logger.info("Hit on player " + (p + 1)
+                            + ", team lives now: "
+                            + state.getLivesRemaining());
                 }
 
                 // --- Revive Trigger ---
@@ -529,8 +591,7 @@ public class GameScreen extends ReviveScreen {
 
             } else {
                 // Player bullet vs enemies
-                final int ownerId = bullet.getOwnerPlayerId(); // 1 or 2 (0 if unset)
-                final int pIdx = (ownerId == 2) ? 1 : 0; // default to P1 when unset
+                final int pIdx = GameRules.shooterIndex(bullet); // P1 when unset
 
                 boolean finalShip = this.enemyShipFormation.lastShip();
 
@@ -559,20 +620,17 @@ public class GameScreen extends ReviveScreen {
                         && checkCollision(bullet,
                         this.enemyShipSpecial)) {
                     int points = this.enemyShipSpecial.getPointValue();
+                    GameRules.specialKilled(this.state, pIdx, this.enemyShipSpecial,
+                            this.enemyShipSpecialExplosionCooldown);
 
-                    state.addCoins(pIdx,
-                            this.enemyShipSpecial.getCoinValue());
-                    state.addScore(pIdx, points);
-                    state.incShipsDestroyed(pIdx);
-
-                    this.enemyShipSpecial.destroy();
                     SoundManager.stop();
-                    SoundManager.playOnce("sound/explosion.wav");
+                    eventBus.publish(GameEventBus.Type.ENEMY_KILLED, pIdx, points,
+                            this.enemyShipSpecial.getPositionX(),
+                            this.enemyShipSpecial.getPositionY(), true, null);
                     drawManager.triggerExplosion(
                             this.enemyShipSpecial.getPositionX(),
                             this.enemyShipSpecial.getPositionY(),
                             true, true);
-                    this.enemyShipSpecialExplosionCooldown.reset();
                     recyclable.add(bullet);
                 }
             }
@@ -0,0 +1,97 @@
+package screen;
+
+import java.awt.Color;
+import java.util.List;
+
+import engine.GameSettings;
+import engine.InputAction;
+import engine.NetClient;
+import engine.NetProtocol;
+import engine.GameSnapshot;
+import engine.RenderSnapshot;
+import entity.FormationTemplate;
+
+/**
+ * Shows a co-op game running on another machine, flying the second ship.
+ *
+ * Every tick the player's controls go to the {@link NetClient}, with either
+ * player's keys, and the latest snapshot of the host's game is drawn. The
+ * formation is rebuilt from the level's template, so only its position and
+ * the ships still alive travel over the network.
+ */
+public class NetClientScreen extends Screen {
+
+    /** Height of the line separating the HUD from the field. */
+    private static final int SEPARATION_LINE_HEIGHT = 68;
+
+    /** Connection to the host. */
+    private final NetClient client;
+    /** Levels of the game, for the formation templates. */
+    private final List<GameSettings> levels;
+    /** Frame drawn each tick. */
+    private final RenderSnapshot frame = new RenderSnapshot();
+
+    /**
+     * Constructor, establishes the properties of the screen.
+     *
+     * @param width
+     *            Screen width.
+     * @param height
+     *            Screen height.
+     * @param fps
+     *            Frames per second, frame rate at which the game is run.
+     * @param client
+     *            Connection to the host.
+     */
+    public NetClientScreen(final int width, final int height, final int fps,
+                           final NetClient client) {
+        super(width, height, fps);
+        this.client = client;
+        this.levels = GameSettings.getGameSettings();
+        this.returnCode = 1;
+    }
+
+    /**
+     * Starts the action.
+     *
+     * @return Next screen code.
+     */
+    @Override
+    public final int run() {
+        super.run();
+        return this.returnCode;
+    }
+
+    /**
+     * Sends the controls and draws the latest snapshot.
+     */
+    @Override
+    protected final void update() {
+        super.update();
+
+        long actions = this.inputManager.getActions();
+        this.client.update(NetProtocol.controlsOf(actions, 0)
+                | NetProtocol.controlsOf(actions, 1));
+
+        if (this.inputDelay.checkFinished() && this.inputManager.isActionDown(InputAction.QUIT))
+            this.isRunning = false;
+
+        draw();
+    }
+
+    private void draw() {
+        this.frame.clear();
+        GameSnapshot snapshot = this.client.getSnapshot();
+        if (snapshot == null) {
+            this.frame.setHud(SEPARATION_LINE_HEIGHT, 0, true, 0, 0, false);
+            this.frame.setMessage(this.client.getPeer().hasPartner()
+                    ? "Waiting for the game..." : "Waiting for the host...", Color.GRAY);
+        } else {
+            int level = snapshot.getLevel();
+            FormationTemplate formation = level >= 1 && level <= this.levels.size()
+                    ? FormationTemplate.of(this.levels.get(level - 1)) : null;
+            snapshot.draw(this.frame, formation, SEPARATION_LINE_HEIGHT);
+        }
+        this.drawManager.drawSnapshot(this, this.frame);
+    }
+}
@@ -1,11 +1,14 @@
 package screen;
 
-import java.awt.event.KeyEvent;
-
 import engine.*;
 import entity.*;
+import java.nio.BufferOverflowException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.function.BiPredicate;
+import java.util.function.LongSupplier;
 
 
 /**
@@ -22,10 +25,32 @@ public abstract class ReviveScreen extends Screen {
         EXITING
     }
 
+    /** 충돌 처리에 걸린 시간 (프로파일러) */
+    private static final LatencyHistogram COLLISIONS_TIME =
+            MetricsRegistry.getInstance().histogram(MetricsRegistry.COLLISIONS);
+
     /** 게임 상태 (두 화면 공통) */
     protected final GameState state;
     /** 부활 처리 매니저 */
     protected final ReviveManager reviveManager;
+    /** 게임 이벤트 버스 (틱 끝에 한 번 dispatch) */
+    protected final GameEventBus eventBus = new GameEventBus();
+    /** 엔티티 이동을 나눠 실행하는 스케줄러 */
+    private final UpdateScheduler updateScheduler = UpdateScheduler.getInstance();
+    /** 이동 단계에서 재사용하는 총알 목록 */
+    private final List<Bullet> movingBullets = new ArrayList<>();
+    /** 이동 단계에서 재사용하는 아이템 목록 */
+    private final List<Item> movingItems = new ArrayList<>();
+    /** 플레이어 슬롯별 조종기 (키보드 또는 봇) */
+    private final ShipController[] controllers = new ShipController[GameState.NUM_PLAYERS];
+    /** 조종기가 이번 틱에 보는 전장 */
+    private final Battlefield battlefield = new Battlefield();
+    /** 스냅샷을 받아 화면을 그리는 렌더 스레드 (run() 에서 만든다) */
+    private RenderThread renderThread;
+    /** 마지막 피격으로 목숨이 다 떨어졌는지 (폭발을 크게 그린다) */
+    protected boolean death;
+    /** 규칙에 넘기는 충돌 판정 (프로파일러에 센다), 처음 쓸 때 만든다 */
+    private BiPredicate<Entity, Entity> collision;
 
     /** 현재 부활 단계 */
     protected RevivePhase revivePhase = RevivePhase.PLAYING;
@@ -34,6 +59,13 @@ public abstract class ReviveScreen extends Screen {
     /** Revive 실패 메시지 */
     protected String reviveFailMessage = "";
 
+    /** 이어하기 저장 파일 기록기 (화면마다 버퍼 하나를 재사용) */
+    private final QuickSave quickSave = new QuickSave();
+    /** 마지막 저장 후 지난 틱 수 */
+    private int ticksSinceSave;
+    /** 이어할 저장 내용, 새로 시작하면 null */
+    private QuickSave resume;
+
     /**
      * Revive 기능이 필요한 Screen 의 공통 생성자.
      */
@@ -42,6 +74,254 @@ public abstract class ReviveScreen extends Screen {
         super(width, height, fps);
         this.state = gameState;
         this.reviveManager = new ReviveManager(this.state);
+        for (int p = 0; p < GameState.NUM_PLAYERS; p++)
+            this.controllers[p] = ShipController.forSlot(p, this.inputManager);
+        subscribeSoundEffects();
+    }
+
+    /**
+     * 플레이어 슬롯의 조종기를 바꾼다 (봇 테스트 등).
+     */
+    public final void setController(final int playerIndex, final ShipController controller) {
+        this.controllers[playerIndex] = controller;
+    }
+
+    /**
+     * 렌더 스레드를 켠 채로 화면을 실행한다.
+     * 화면이 끝나면 렌더 스레드가 마지막 프레임을 다 그릴 때까지 기다린다.
+     */
+    @Override
+    public int run() {
+        this.renderThread =
+                new RenderThread(snapshot -> this.drawManager.drawSnapshot(this, snapshot));
+        this.renderThread.start();
+        try {
+            int code = super.run();
+            // 레벨이 끝났거나 메뉴로 나갔으면 이어할 게임이 없음
+            QuickSave.discard();
+            return code;
+        } finally {
+            this.renderThread.stop();
+        }
+    }
+
+    // ----------------------------------------------------------------------
+    // 렌더 스냅샷
+    // ----------------------------------------------------------------------
+
+    /**
+     * 이번 프레임을 담을 빈 스냅샷을 돌려준다.
+     */
+    protected final RenderSnapshot beginSnapshot() {
+        return this.renderThread.back();
+    }
+
+    /**
+     * 채운 스냅샷을 렌더 스레드에 넘긴다.
+     */
+    protected final void publishSnapshot() {
+        this.renderThread.publish();
+    }
+
+    // ----------------------------------------------------------------------
+    // 프로파일러 게이지 / 충돌 처리 계측
+    // ----------------------------------------------------------------------
+
+    /**
+     * {@link GameRules} 에 넘길 충돌 판정. {@link #checkCollision} 이라 계측에 포함된다.
+     */
+    protected final BiPredicate<Entity, Entity> collision() {
+        if (this.collision == null)
+            this.collision = this::checkCollision;
+        return this.collision;
+    }
+
+    /**
+     * 화면에 있는 총알/아이템 수를 프로파일러 게이지로 등록한다.
+     */
+    protected final void registerLiveGauges(final LongSupplier bullets, final LongSupplier items) {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.gauge(MetricsRegistry.LIVE_BULLETS, bullets);
+        metrics.gauge(MetricsRegistry.LIVE_ITEMS, items);
+    }
+
+    /**
+     * 충돌 처리 한 번을 실행하고 소요 시간과 JFR 이벤트를 기록한다.
+     *
+     * @param bullets
+     *            화면에 있는 총알 수
+     * @param pass
+     *            화면별 충돌 처리
+     */
+    protected final void runCollisionPass(final int bullets, final Runnable pass) {
+        CollisionPassEvent event = new CollisionPassEvent();
+        event.begin();
+        this.collisionChecks = 0;
+        this.collisionCandidates = 0;
+        this.collisionHits = 0;
+        long start = System.nanoTime();
+
+        pass.run();
+
+        COLLISIONS_TIME.recordSince(start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.bullets = bullets;
+            event.checks = this.collisionChecks;
+            event.candidates = this.collisionCandidates;
+            event.hits = this.collisionHits;
+            event.commit();
+        }
+    }
+
+    /**
+     * 화면을 떠날 때 게이지를 해제한다.
+     */
+    protected final void removeLiveGauges() {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.removeGauge(MetricsRegistry.LIVE_BULLETS);
+        metrics.removeGauge(MetricsRegistry.LIVE_ITEMS);
+    }
+
+    // ----------------------------------------------------------------------
+    // 게임 이벤트 구독
+    // ----------------------------------------------------------------------
+
+    /**
+     * 이벤트별 효과음을 구독한다.
+     */
+    private void subscribeSoundEffects() {
+        eventBus.subscribe(GameEventBus.Type.SHOT_FIRED,
+                e -> SoundManager.playOnce("sound/shoot.wav"));
+        eventBus.subscribe(GameEventBus.Type.ENEMY_KILLED,
+                e -> SoundManager.playOnce(e.isSpecial()
+                        ? "sound/explosion.wav" : "sound/invaderkilled.wav"));
+        eventBus.subscribe(GameEventBus.Type.PLAYER_HIT,
+                e -> SoundManager.playOnce("sound/explosion.wav"));
+        eventBus.subscribe(GameEventBus.Type.ITEM_PICKED,
+                e -> SoundManager.playOnce("sound/hover.wav"));
+    }
+
+    /**
+     * 점수/격추/발사 수가 바뀌는 이벤트에서만 업적 카운터를 갱신한다.
+     * 값이 바뀐 카운터의 규칙만 다시 평가된다. (매 프레임 polling 대신 사용)
+     */
+    protected void subscribeAchievements(final AchievementManager achievementManager) {
+        final AchievementEngine engine = achievementManager.getEngine();
+        GameEventBus.Listener sync = e -> {
+            engine.set(AchievementCounter.SHIPS_DESTROYED, state.getShipsDestroyed());
+            engine.set(AchievementCounter.BULLETS_SHOT, state.getBulletsShot());
+            engine.set(AchievementCounter.SCORE, state.getScore());
+            engine.evaluate();
+        };
+        eventBus.subscribe(GameEventBus.Type.ENEMY_KILLED, sync);
+        eventBus.subscribe(GameEventBus.Type.SHOT_FIRED, sync);
+        eventBus.subscribe(GameEventBus.Type.ITEM_PICKED, sync);
+        eventBus.subscribe(GameEventBus.Type.PLAYER_HIT, e -> {
+            engine.add(AchievementCounter.DAMAGE_TAKEN, 1);
+            engine.evaluate();
+        });
+    }
+
+    /**
+     * 이번 틱에 쌓인 이벤트를 한 번에 전달한다.
+     */
+    @Override
+    protected void onTickEnd() {
+        eventBus.dispatch();
+        if (++this.ticksSinceSave >= QuickSave.INTERVAL
+                && this.revivePhase == RevivePhase.PLAYING) {
+            this.ticksSinceSave = 0;
+            try {
+                if (writeQuickSave(this.quickSave))
+                    this.quickSave.save();
+            } catch (BufferOverflowException e) {
+                this.logger.fine("Quick save skipped, too many entities");
+            }
+        }
+    }
+
+    // ----------------------------------------------------------------------
+    // 이어하기 (중간 저장 / 복원)
+    // ----------------------------------------------------------------------
+
+    /**
+     * 저장된 레벨을 이어서 시작하게 한다. initialize() 전에 부른다.
+     *
+     * @param save
+     *            {@link QuickSave#load()} 로 읽은 저장 내용
+     */
+    public final void resume(final QuickSave save) {
+        this.resume = save;
+    }
+
+    /**
+     * @return 저장된 레벨을 이어서 시작하는 중이면 true
+     */
+    protected final boolean isResuming() {
+        return this.resume != null;
+    }
+
+    /**
+     * initialize() 끝에서 저장된 부활 여부와 엔티티를 되살린다.
+     * 카운트다운 동안은 아이템 효과 시간이 줄지 않도록 미룬다.
+     * 저장이 깨졌거나 화면과 맞지 않으면 아무것도 바꾸지 않고 레벨을 처음부터 시작한다.
+     *
+     * @param kind
+     *            화면 종류 ({@link QuickSave#LEVEL} / {@link QuickSave#BOSS})
+     * @param countdownMs
+     *            레벨 시작 카운트다운 (ms)
+     */
+    protected final void applyResume(final int kind, final int countdownMs) {
+        if (this.resume == null)
+            return;
+        long start = System.nanoTime();
+        try {
+            if (this.resume.getKind() != kind)
+                throw new IllegalArgumentException("saved on another screen");
+            // 화면을 바꾸기 전에 저장 내용을 끝까지 읽어 본다 (개수, 인덱스, 편대 크기)
+            QuickSave checker = this.resume.checker();
+            checkQuickSave(checker);
+            if (checker.remaining() != 0)
+                throw new IllegalArgumentException(checker.remaining() + " bytes left over");
+            this.reviveManager.restoreRevived(this.resume.getRevived());
+            readQuickSave(this.resume);
+            this.state.postponeEffects(countdownMs);
+            this.logger.info(String.format("Resumed level %d in %.2f ms",
+                    this.state.getLevel(), (System.nanoTime() - start) / 1e6));
+        } catch (RuntimeException e) {
+            this.logger.warning("Couldn't resume the saved level, starting it over: " + e);
+        } finally {
+            this.resume = null;
+        }
+    }
+
+    /**
+     * 이어하기 저장 내용을 쓴다 ({@link QuickSave#begin} 부터).
+     *
+     * @return 저장할 상태가 아니면 (레벨 종료 등) false
+     */
+    protected abstract boolean writeQuickSave(QuickSave save);
+
+    /**
+     * {@link #readQuickSave} 와 같은 순서로 {@link QuickSave#checker()} 를 읽기만 한다.
+     * 화면은 바꾸지 않으며, 저장이 이 화면과 맞지 않으면 예외를 던진다.
+     */
+    protected abstract void checkQuickSave(QuickSave checker);
+
+    /**
+     * {@link #writeQuickSave} 로 쓴 엔티티를 같은 순서로 되살린다.
+     * {@link #checkQuickSave} 를 통과한 저장만 받는다.
+     */
+    protected abstract void readQuickSave(QuickSave save);
+
+    /**
+     * 아이템 획득은 이벤트로 발행한다 (효과음은 구독자가 처리).
+     */
+    @Override
+    protected void onItemPicked(Ship ship, Item item) {
+        eventBus.publish(GameEventBus.Type.ITEM_PICKED, ship.getPlayerId() - 1, 0,
+                item.getPositionX(), item.getPositionY(), false, item.getType());
     }
 
     /**
@@ -63,15 +343,15 @@ public abstract class ReviveScreen extends Screen {
      * 실제 성공/실패 이후의 동작은 콜백으로 하위 클래스에서 구현한다.
      */
     protected void handleRevivePromptInput(InputManager inputManager) {
-        if (inputManager.isKeyDown(KeyEvent.VK_UP)) {
+        long actions = inputManager.getActions();
+        if (InputAction.UP.in(actions)) {
             reviveSelection = 0; // YES
         }
-        if (inputManager.isKeyDown(KeyEvent.VK_DOWN)) {
+        if (InputAction.DOWN.in(actions)) {
             reviveSelection = 1; // NO
         }
 
-        if (inputManager.isKeyDown(KeyEvent.VK_ENTER)
-                || inputManager.isKeyDown(KeyEvent.VK_SPACE)) {
+        if (InputAction.CONFIRM.in(actions)) {
             if (reviveSelection == 0) { // YES
                 boolean ok = reviveManager.tryRevive();
                 if (ok) {
@@ -145,22 +425,38 @@ public abstract class ReviveScreen extends Screen {
      * Revive 실패 결과 창에서의 입력 처리.
      */
     protected void handleReviveResultInput(InputManager inputManager) {
-        if (inputManager.isKeyDown(KeyEvent.VK_ENTER)
-                || inputManager.isKeyDown(KeyEvent.VK_SPACE)) {
+        if (inputManager.isActionDown(InputAction.CONFIRM)) {
             onReviveResultAcknowledged();
         }
     }
 
     /**
-     * draw() 내부에서 revive UI를 그릴 때 사용하는 공통 헬퍼.
+     * draw() 내부에서 revive UI를 스냅샷에 담을 때 사용하는 공통 헬퍼.
      */
-    protected void drawReviveUiIfNeeded(DrawManager drawManager) {
+    protected void captureReviveUi(RenderSnapshot snapshot) {
         if (this.revivePhase == RevivePhase.REVIVE_PROMPT) {
-            drawManager.drawRevivePrompt(this, this.reviveSelection);
+            snapshot.setRevivePrompt(this.reviveSelection);
         } else if (this.revivePhase == RevivePhase.REVIVE_RESULT) {
-            drawManager.drawReviveFail(this, this.reviveFailMessage);
+            snapshot.setReviveFail(this.reviveFailMessage);
         }
     }
+    /**
+     * 모든 플레이어의 이동/사격 처리.
+     * 이번 틱의 전장을 한 번 채운 뒤 슬롯마다 조종기에게 묻는다.
+     */
+    protected final void handlePlayersInput(Ship[] ships, Set<Bullet> bullets, GameState state) {
+        this.battlefield.reset(this.width, bullets);
+        collectTargets(this.battlefield);
+        for (int p = 0; p < GameState.NUM_PLAYERS; p++) {
+            handleSingleShipInput(p, ships, bullets, state);
+        }
+    }
+
+    /**
+     * 봇이 노릴 수 있는 적을 이번 틱의 전장에 담는다.
+     */
+    protected abstract void collectTargets(Battlefield field);
+
     /**
      * 플레이어 1명에 대한 이동/사격 공통 처리.
      */
@@ -172,41 +468,26 @@ public abstract class ReviveScreen extends Screen {
         if (ship == null || ship.isDestroyed())
             return;
 
-        boolean moveRight, moveLeft, fire;
-
-        if (playerIndex == 0) {
-            moveRight = inputManager.isP1RightPressed();
-            moveLeft  = inputManager.isP1LeftPressed();
-            fire      = inputManager.isP1ShootPressed();
-        } else {
-            moveRight = inputManager.isP2RightPressed();
-            moveLeft  = inputManager.isP2LeftPressed();
-            fire      = inputManager.isP2ShootPressed();
-        }
-
-        boolean isRightBorder =
-                ship.getPositionX() + ship.getWidth() + ship.getSpeed() > this.width - 1;
-        boolean isLeftBorder =
-                ship.getPositionX() - ship.getSpeed() < 1;
-
-        if (moveRight && !isRightBorder) {
-            ship.moveRight();
-        }
-        if (moveLeft && !isLeftBorder) {
-            ship.moveLeft();
-        }
-
-        if (fire && ship.shoot(bullets)) {
-            SoundManager.playOnce("sound/shoot.wav");
-            state.incBulletsShot(playerIndex);
+        // 조종기가 돌려준 액션 마스크 하나로 좌/우/발사 (규칙은 시뮬레이션과 공유)
+        long actions = this.controllers[playerIndex].control(playerIndex, ship, this.battlefield);
+        if (GameRules.steer(state, playerIndex, ship, actions, bullets, this.width)) {
+            eventBus.publish(GameEventBus.Type.SHOT_FIRED, playerIndex, 0,
+                    ship.getPositionX(), ship.getPositionY());
         }
     }
+    /**
+     * 공통: 총알을 이동시키고 화면 밖으로 나간 총알을 회수한다.
+     * 이동은 총알마다 독립적이라 장면이 크면 나눠서 실행하고,
+     * 회수는 그 뒤에 이 스레드에서 처리한다.
+     */
     protected void cleanBulletsCommon(Set<Bullet> bullets, int separationLineHeight) {
+        this.movingBullets.addAll(bullets);
+        this.updateScheduler.forEach(this.movingBullets, Bullet::update);
+        this.movingBullets.clear();
+
         Set<Bullet> recyclable = new HashSet<>();
         for (Bullet bullet : bullets) {
-            bullet.update();
-            if (bullet.getPositionY() < separationLineHeight
-                    || bullet.getPositionY() > this.height) {
+            if (GameRules.isOutside(bullet, separationLineHeight, this.height)) {
                 recyclable.add(bullet);
             }
         }
@@ -214,10 +495,16 @@ public abstract class ReviveScreen extends Screen {
         BulletPool.recycle(recyclable);
     }
 
+    /**
+     * 공통: 아이템을 떨어뜨리고 화면 밖으로 나간 아이템을 회수한다.
+     */
     protected void cleanItemsCommon(Set<Item> items) {
+        this.movingItems.addAll(items);
+        this.updateScheduler.forEach(this.movingItems, Item::update);
+        this.movingItems.clear();
+
         Set<Item> recyclableItems = new HashSet<>();
         for (Item item : items) {
-            item.update();
             if (item.getPositionY() > this.height) {
                 recyclableItems.add(item);
             }
@@ -227,7 +514,8 @@ public abstract class ReviveScreen extends Screen {
     }
 
     /**
-     * 공통: EnemyShip이 파괴되었을 때 점수/코인/드랍/사운드/파괴 처리를 수행한다.
+     * 공통: EnemyShip이 파괴되었을 때 점수/코인/드랍/파괴는 {@link GameRules#enemyKilled} 로,
+     * 폭발 이펙트와 이벤트는 여기서 처리한다.
      */
     protected void handleEnemyKilled(
             EnemyShip enemyShip,
@@ -237,11 +525,9 @@ public abstract class ReviveScreen extends Screen {
             Set<Item> items,
             EnemyShipFormation formation) {
 
-        // 점수 및 코인
+        // 점수, 코인, 아이템 드랍, 편대에서 제거 (시뮬레이션과 같은 규칙)
         int points = enemyShip.getPointValue();
-        state.addCoins(playerIndex, enemyShip.getCoinValue());
-        state.addScore(playerIndex, points);
-        state.incShipsDestroyed(playerIndex);
+        GameRules.enemyKilled(this.session, state, playerIndex, enemyShip, items, formation);
 
         // 폭발 이펙트
         drawManager.triggerExplosion(
@@ -251,17 +537,9 @@ public abstract class ReviveScreen extends Screen {
                 false
         );
 
-        // 아이템 드랍
-        Item drop = ItemManager.getInstance().obtainDrop(enemyShip);
-        if (drop != null) {
-            items.add(drop);
-        }
-
-        // 쫄몹 제거 및 사운드
-        if (formation != null) {
-            formation.destroy(enemyShip);
-        }
-        SoundManager.playOnce("sound/invaderkilled.wav");
+        // 이벤트 (사운드/업적은 구독자가 처리)
+        eventBus.publish(GameEventBus.Type.ENEMY_KILLED, playerIndex, points,
+                enemyShip.getPositionX(), enemyShip.getPositionY());
     }
 
 
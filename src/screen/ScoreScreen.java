@@ -1,6 +1,5 @@
 package screen;
 
-import java.awt.event.KeyEvent;
 import java.io.IOException;
 import java.util.*;
 
@@ -122,10 +121,9 @@ public class ScoreScreen extends Screen {
         // 화면이 전환된 직후, 사용자가 이전에 누르고 있던 키(Space, Enter 등)를
         // 뗄 때까지 입력을 처리하지 않고 기다립니다.
         // -------------------------------------------------------
+        long actions = inputManager.getActions();
         if (!this.isInputReleased) {
-            if (inputManager.isKeyDown(KeyEvent.VK_SPACE) ||
-                    inputManager.isKeyDown(KeyEvent.VK_ENTER) ||
-                    inputManager.isKeyDown(KeyEvent.VK_ESCAPE)) {
+            if ((actions & InputAction.maskOf(InputAction.CONFIRM, InputAction.BACK)) != 0) {
                 return; // 키가 눌려있으면 아무 동작 안 함
             }
             // 모든 키가 떼어졌으면 입력 허용 상태로 전환
@@ -139,8 +137,7 @@ public class ScoreScreen extends Screen {
         // -------------------------------------------------------
         if (!this.isClear) {
             // ESC: 맵으로 나가기 (Core 루프의 시작인 MapScreen으로 이동하기 위해 returnCode 2 반환)
-            if (inputManager.isKeyDown(KeyEvent.VK_ESCAPE) ||
-                    (inputManager.isKeyDown(KeyEvent.VK_SPACE))) {
+            if ((actions & InputAction.maskOf(InputAction.BACK, InputAction.SELECT)) != 0) {
                 this.returnCode = 2; // Restart
                 this.isRunning = false;
             }
@@ -152,7 +149,7 @@ public class ScoreScreen extends Screen {
         // -------------------------------------------------------
 
         // ESC 키: 메인 타이틀로 이동 (1번)
-        if (inputManager.isKeyDown(KeyEvent.VK_ESCAPE)) {
+        if (InputAction.BACK.in(actions)) {
             this.returnCode = 1; // Title
             this.isRunning = false;
             if (this.isNewRecord) {
@@ -161,7 +158,7 @@ public class ScoreScreen extends Screen {
             }
         }
         // SPACE 키: 저장 후 메인 타이틀로 이동 (1번)
-        else if (inputManager.isKeyDown(KeyEvent.VK_SPACE)) {
+        else if (InputAction.SELECT.in(actions)) {
             // [복구됨] 이름이 3글자 미만이면 에러 표시하고 진행 안 함
             if (this.name.length() < 3) {
                 this.showNameError = true;
@@ -178,7 +175,7 @@ public class ScoreScreen extends Screen {
         }
 
         // 이름 입력 (Backspace)
-        if (inputManager.isKeyDown(KeyEvent.VK_BACK_SPACE)
+        if (InputAction.ERASE.in(actions)
                 && this.selectionCooldown.checkFinished()) {
             if (this.name.length() > 0) {
                 this.name.deleteCharAt(this.name.length() - 1);
@@ -205,28 +202,9 @@ public class ScoreScreen extends Screen {
 
         Score newScore = new Score(newName, clearTime, mode);
 
-        boolean foundAndReplaced = false;
-        for (int i = 0; i < highScores.size(); i++) {
-            Score existingScore = highScores.get(i);
-            if (existingScore.getName().equals(newName)) {
-                // [확인] Time Attack이므로 시간이 더 짧을 때 갱신
-                if (newScore.getScore() < existingScore.getScore()) {
-                    highScores.set(i, newScore);
-                    foundAndReplaced = true;
-                } else {
-                    foundAndReplaced = true;
-                }
-                break;
-            }
-        }
-        if (!foundAndReplaced) highScores.add(newScore);
-
-        Collections.sort(highScores);
-        if (highScores.size() > MAX_HIGH_SCORE_NUM)
-            highScores.remove(highScores.size() - 1);
-
+        // Time Attack: 개인 최고 기록(더 짧은 시간)일 때만 저장소에 추가됨
         try {
-            Core.getFileManager().saveHighScores(highScores, mode);
+            ScoreStore.getInstance().submit(newScore);
         } catch (IOException e) {
             logger.warning("Couldn't save high scores!");
         }
@@ -1,6 +1,7 @@
 package screen;
 
 import java.awt.Insets;
+import java.awt.event.KeyEvent;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
@@ -24,6 +25,18 @@ public class Screen {
 
 	/** Milliseconds until the screen accepts user input. */
 	private static final int INPUT_DELAY = 1000;
+	/** Key toggling the profiler overlay. */
+	private static final int OVERLAY_KEY = KeyEvent.VK_F3;
+
+	/** Frame time, sleep included. */
+	private static final LatencyHistogram FRAME_TIME =
+			MetricsRegistry.getInstance().histogram(MetricsRegistry.FRAME);
+	/** Time spent in update(). */
+	private static final LatencyHistogram UPDATE_TIME =
+			MetricsRegistry.getInstance().histogram(MetricsRegistry.UPDATE);
+	/** Time spent sleeping until the next frame. */
+	private static final LatencyHistogram SLEEP_TIME =
+			MetricsRegistry.getInstance().histogram(MetricsRegistry.SLEEP);
 
 	/** Draw Manager instance. */
 	protected DrawManager drawManager;
@@ -31,6 +44,8 @@ public class Screen {
 	protected InputManager inputManager;
 	/** Application logger. */
 	protected Logger logger;
+	/** Game session the screen was created in. */
+	protected final GameSession session;
 
 	/** Screen width. */
 	protected int width;
@@ -47,6 +62,12 @@ public class Screen {
 	protected boolean isRunning;
 	/** What kind of screen goes next. */
 	protected int returnCode;
+	/** Entity pairs checked for collision since the last reset. */
+	protected int collisionChecks;
+	/** Checked pairs whose bounding boxes overlap. */
+	protected int collisionCandidates;
+	/** Pairs found colliding. */
+	protected int collisionHits;
 
     /** Item inventory for player (null for non-game screens) */
     protected ItemInventory inventory;
@@ -69,6 +90,7 @@ public class Screen {
 		this.drawManager = Core.getDrawManager();
 		this.inputManager = Core.getInputManager();
 		this.logger = Core.getLogger();
+		this.session = GameSession.current();
 		this.inputDelay = Core.getCooldown(INPUT_DELAY);
 		this.inputDelay.reset();
 		this.returnCode = 0;
@@ -90,20 +112,49 @@ public class Screen {
 		this.isRunning = true;
 
 		while (this.isRunning) {
-			long time = System.currentTimeMillis();
+			FrameEvent frameEvent = new FrameEvent();
+			frameEvent.begin();
+			long frameStart = System.nanoTime();
+			long time = this.session.tick();
+			this.session.getTimerWheel().advance(time);
+			inputManager.drainEvents();
 
 			update();
+			onTickEnd();
+			long updateNanos = System.nanoTime() - frameStart;
+			UPDATE_TIME.record(updateNanos);
+
+			if (inputManager.wasKeyPressed(OVERLAY_KEY))
+				MetricsOverlay.toggle();
 
 			time = (1000 / this.fps) - (System.currentTimeMillis() - time);
+			long sleepNanos = 0;
 			if (time > 0) {
+				long sleepStart = System.nanoTime();
 				try {
 					TimeUnit.MILLISECONDS.sleep(time);
 				} catch (InterruptedException e) {
+					this.session.stop();
 					return 0;
 				}
+				sleepNanos = System.nanoTime() - sleepStart;
+				SLEEP_TIME.record(sleepNanos);
+			}
+			FRAME_TIME.recordSince(frameStart);
+
+			long drawNanos = drawManager.takeDrawNanos();
+			frameEvent.end();
+			if (frameEvent.shouldCommit()) {
+				frameEvent.tick = this.session.getTickCount();
+				frameEvent.screen = getClass().getSimpleName();
+				frameEvent.updateNanos = updateNanos;
+				frameEvent.drawNanos = drawNanos;
+				frameEvent.sleepNanos = sleepNanos;
+				frameEvent.commit();
 			}
 		}
 
+		this.session.stop();
 		return 0;
 	}
 
@@ -113,6 +164,12 @@ public class Screen {
 	protected void update() {
 	}
 
+	/**
+	 * Called once at the end of every tick, after update().
+	 */
+	protected void onTickEnd() {
+	}
+
 	/**
 	 * Getter for screen width.
 	 *
@@ -182,7 +239,7 @@ public class Screen {
                 if (checkCollision(item, ship) && !collected.contains(item)) {
                     collected.add(item);
                     logger.info("Player " + ship.getPlayerId() + " picked up item: " + item.getType());
-                    SoundManager.playOnce("sound/hover.wav");
+                    onItemPicked(ship, item);
 
                     boolean applied = item.applyEffect(gameState, ship.getPlayerId());
 
@@ -202,18 +259,26 @@ public class Screen {
 
 
     /**
-     * Checks if two entities are colliding
+     * Called when a ship picks up an item, before its effect is applied.
+     */
+    protected void onItemPicked(Ship ship, Item item) {
+        SoundManager.playOnce("sound/hover.wav");
+    }
+
+    /**
+     * Checks if two entities are colliding, as {@link GameRules#collides},
+     * counting the checks for the profiler.
+     * Bounding boxes are tested first, then the sprite masks.
      */
     public boolean checkCollision(final Entity a, final Entity b) {
-        int centerAX = a.getPositionX() + a.getWidth() / 2;
-        int centerAY = a.getPositionY() + a.getHeight() / 2;
-        int centerBX = b.getPositionX() + b.getWidth() / 2;
-        int centerBY = b.getPositionY() + b.getHeight() / 2;
-        int maxDistanceX = a.getWidth() / 2 + b.getWidth() / 2;
-        int maxDistanceY = a.getHeight() / 2 + b.getHeight() / 2;
-        int distanceX = Math.abs(centerAX - centerBX);
-        int distanceY = Math.abs(centerAY - centerBY);
-        return distanceX < maxDistanceX && distanceY < maxDistanceY;
+        this.collisionChecks++;
+        if (!GameRules.boxesOverlap(a, b))
+            return false;
+        this.collisionCandidates++;
+        if (!CollisionMask.collides(a, b))
+            return false;
+        this.collisionHits++;
+        return true;
     }
 
     /**
@@ -1,9 +1,8 @@
 package screen;
 
-import java.awt.event.KeyEvent;
-
 import engine.Cooldown;
 import engine.Core;
+import engine.InputAction;
 import engine.SoundManager;
 
 /**
@@ -73,13 +72,14 @@ public class TitleScreen extends Screen {
 
         draw();
         if (this.selectionCooldown.checkFinished() && this.inputDelay.checkFinished()) {
-            if (inputManager.isKeyDown(KeyEvent.VK_UP) || inputManager.isKeyDown(KeyEvent.VK_W)) {
+            long actions = inputManager.getActions();
+            if (InputAction.UP.in(actions)) {
                 SoundManager.playOnce("sound/hover.wav");
                 previousMenuItem();
                 this.selectionCooldown.reset();
                 this.hoverOption = null;
             }
-            if (inputManager.isKeyDown(KeyEvent.VK_DOWN) || inputManager.isKeyDown(KeyEvent.VK_S)) {
+            if (InputAction.DOWN.in(actions)) {
                 SoundManager.playOnce("sound/hover.wav");
                 nextMenuItem();
                 this.selectionCooldown.reset();
@@ -87,7 +87,7 @@ public class TitleScreen extends Screen {
             }
 
             // Play : Adjust the case so that 1p and 2p can be determined within the play.
-            if (inputManager.isKeyDown(KeyEvent.VK_SPACE)) {
+            if (InputAction.SELECT.in(actions)) {
                 SoundManager.playOnce("sound/select.wav");
                 switch (this.menuIndex) {
                     case 0: // "Play"
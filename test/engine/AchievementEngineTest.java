@@ -0,0 +1,94 @@
+package engine;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AchievementEngineTest {
+
+    /** unlock(int) 호출만 기록하는 AchievementManager */
+    private static class RecordingManager extends AchievementManager {
+        private final Set<Integer> unlocked = new HashSet<>();
+        private final List<Integer> calls = new ArrayList<>();
+
+        @Override
+        public void unlock(int id) {
+            calls.add(id);
+            unlocked.add(id);
+        }
+
+        @Override
+        public boolean isUnlocked(int id) {
+            return unlocked.contains(id);
+        }
+    }
+
+    private static List<AchievementRule> rules() {
+        List<AchievementRule> rules = new ArrayList<>();
+        rules.add(AchievementRule.parse("SHIPS_DESTROYED,>=,1,First Blood,Defeat your first enemy."));
+        rules.add(AchievementRule.parse("-,>=,0,Survivor,Clear a round without losing a life."));
+        rules.add(AchievementRule.parse("SCORE,>=,3000,Get 3000 Score,Get more than 3,000 points"));
+        rules.add(AchievementRule.parse("DAMAGE_TAKEN,==,3,Tough,Take exactly three hits."));
+        return rules;
+    }
+
+    @Test
+    @DisplayName("규칙 파싱: 설명에 쉼표 허용, 카운터 '-' 는 수동 업적")
+    void testParseRule() {
+        AchievementRule score = AchievementRule.parse("SCORE,>=,3000,Get 3000 Score,Get more than 3,000 points");
+        assertEquals(AchievementCounter.SCORE, score.getCounter());
+        assertEquals(3000, score.getThreshold());
+        assertEquals("Get more than 3,000 points", score.getDescription());
+
+        AchievementRule manual = AchievementRule.parse("-,>=,0,Survivor,Clear a round.");
+        assertNull(manual.getCounter());
+
+        assertThrows(IllegalArgumentException.class, () -> AchievementRule.parse("SCORE,>=,3000"));
+        assertThrows(IllegalArgumentException.class, () -> AchievementRule.parse("LUCK,>=,1,A,B"));
+        assertThrows(IllegalArgumentException.class, () -> AchievementRule.parse("SCORE,<,1,A,B"));
+    }
+
+    @Test
+    @DisplayName("임계값을 넘으면 id 로 한 번만 해금")
+    void testUnlockOnThreshold() {
+        RecordingManager manager = new RecordingManager();
+        AchievementEngine engine = new AchievementEngine(manager, rules());
+
+        engine.set(AchievementCounter.SCORE, 2990);
+        assertEquals(0, engine.evaluate());
+
+        engine.set(AchievementCounter.SCORE, 3010);
+        engine.set(AchievementCounter.SHIPS_DESTROYED, 2);
+        assertEquals(2, engine.evaluate());
+        assertEquals(Set.of(0, 2), new HashSet<>(manager.calls));
+
+        engine.set(AchievementCounter.SCORE, 4000);
+        assertEquals(0, engine.evaluate());
+        assertEquals(2, manager.calls.size());
+    }
+
+    @Test
+    @DisplayName("값이 바뀌지 않은 카운터의 규칙은 다시 평가하지 않음")
+    void testOnlyChangedCountersEvaluated() {
+        RecordingManager manager = new RecordingManager();
+        AchievementEngine engine = new AchievementEngine(manager, rules());
+
+        engine.add(AchievementCounter.DAMAGE_TAKEN, 1);
+        engine.add(AchievementCounter.DAMAGE_TAKEN, 1);
+        engine.evaluate();
+        engine.add(AchievementCounter.DAMAGE_TAKEN, 1);
+        assertEquals(1, engine.evaluate());
+        assertEquals(List.of(3), manager.calls);
+
+        // 같은 값으로 set 하면 dirty 가 아님
+        engine.set(AchievementCounter.DAMAGE_TAKEN, 3);
+        assertEquals(0, engine.evaluate());
+        assertEquals(3, engine.get(AchievementCounter.DAMAGE_TAKEN));
+    }
+}
@@ -0,0 +1,119 @@
+package engine;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AchievementRepositoryTest {
+
+    @TempDir
+    Path dir;
+
+    private void writeTable() throws IOException {
+        Files.writeString(dir.resolve("achievement.csv"),
+                "mode,player,First Blood,Survivor,Clear\n"
+                        + "1,AAA,1,0,0\n"
+                        + "1,BBB,0,1,0\n"
+                        + "2,AAA,1,0,1\n");
+    }
+
+    @Test
+    @DisplayName("플레이어 플래그와 완료자 역색인 조회")
+    void testLookups() throws IOException {
+        writeTable();
+        AchievementRepository repository = new AchievementRepository(dir);
+
+        assertEquals(List.of(true, false, false), repository.getFlags("AAA"));
+        assertEquals(List.of(false, false, false), repository.getFlags("ZZZ"));
+        assertEquals(List.of("1:AAA", "2:AAA"), repository.getCompleters("first blood"));
+        assertEquals(List.of("2:AAA"), repository.getCompleters("Clear"));
+        assertTrue(repository.getCompleters("Unknown").isEmpty());
+    }
+
+    @Test
+    @DisplayName("해금은 저널에 추가되고 다시 열면 반영됨")
+    void testUnlockIsJournaled() throws IOException {
+        writeTable();
+        AchievementRepository repository = new AchievementRepository(dir);
+        String table = Files.readString(dir.resolve("achievement.csv"));
+
+        repository.unlock("BBB", "1", List.of(true, true, false));
+        repository.unlock("CCC", "2", List.of(false, false, false));
+        repository.flush();
+
+        // 테이블은 그대로, 새 해금은 저널에만 기록
+        assertEquals(table, Files.readString(dir.resolve("achievement.csv")));
+        assertEquals(List.of("1,BBB,0", "2,CCC,-1"), Files.readAllLines(dir.resolve("achievement.journal")));
+        assertEquals(List.of("1:AAA", "2:AAA", "1:BBB"), repository.getCompleters("First Blood"));
+
+        AchievementRepository reopened = new AchievementRepository(dir);
+        assertEquals(List.of(true, true, false), reopened.getFlags("BBB"));
+        assertEquals(List.of(false, false, false), reopened.getFlags("CCC"));
+        assertFalse(Files.exists(dir.resolve("achievement.journal")));
+    }
+
+    @Test
+    @DisplayName("체크포인트는 누락된 열을 추가해 테이블을 다시 씀")
+    void testCheckpointAddsColumns() throws IOException {
+        writeTable();
+        AchievementRepository repository = new AchievementRepository(dir);
+        repository.ensureColumns(List.of("First Blood", "Survivor", "Clear", "Perfect Shooter"));
+        repository.unlock("AAA", "1", List.of(false, false, false, true));
+        repository.close();
+
+        List<String> lines = Files.readAllLines(dir.resolve("achievement.csv"), StandardCharsets.UTF_8);
+        assertEquals("mode,player,First Blood,Survivor,Clear,Perfect Shooter", lines.get(0));
+        assertEquals("1,AAA,1,0,0,1", lines.get(1));
+        assertEquals("2,AAA,1,0,1,0", lines.get(3));
+        assertFalse(Files.exists(dir.resolve("achievement.csv.tmp")));
+    }
+
+    @Test
+    @DisplayName("규칙 순서가 바뀌거나 중간에 추가돼도 기존 열은 이름으로 유지됨")
+    void testColumnsMatchedByName() throws IOException {
+        writeTable();
+        AchievementRepository repository = new AchievementRepository(dir);
+        repository.ensureColumns(List.of("Perfect Shooter", "Clear", "First Blood", "Sharpshooter", "Survivor"));
+        repository.unlock("BBB", "1", List.of(false, false, false, true, false));
+        repository.close();
+
+        List<String> lines = Files.readAllLines(dir.resolve("achievement.csv"), StandardCharsets.UTF_8);
+        assertEquals("mode,player,First Blood,Survivor,Clear,Perfect Shooter,Sharpshooter", lines.get(0));
+        assertEquals("1,BBB,0,1,0,1,0", lines.get(2));
+        assertEquals(List.of("1:AAA", "2:AAA"), new AchievementRepository(dir).getCompleters("First Blood"));
+    }
+
+    @Test
+    @DisplayName("이름으로 저장한 해금은 규칙 순서를 바꾸고 새 규칙을 끼워 넣어도 유지됨")
+    void testUnlocksSurviveReorderedRules() throws IOException {
+        writeTable();
+        AchievementRepository repository = new AchievementRepository(dir);
+        repository.unlockByName("BBB", "1", List.of("Clear", "Perfect Shooter"));
+        repository.close();
+
+        List<String> reordered = List.of("Perfect Shooter", "Sharpshooter", "Clear", "Survivor", "First Blood");
+        AchievementRepository reopened = new AchievementRepository(dir);
+        assertEquals(List.of(true, false, true, true, false), reopened.getFlags("BBB", reordered));
+        assertEquals(List.of(false, false, false, false, true), reopened.getFlags("AAA", reordered));
+        assertEquals(List.of(false, false, false, false, false), reopened.getFlags("ZZZ", reordered));
+    }
+
+    @Test
+    @DisplayName("잘린 저널 줄은 무시")
+    void testTornJournalLineIgnored() throws IOException {
+        writeTable();
+        Files.writeString(dir.resolve("achievement.journal"), "1,BBB,2\n1,CCC,");
+
+        AchievementRepository repository = new AchievementRepository(dir);
+        assertEquals(List.of(false, true, true), repository.getFlags("BBB"));
+        assertEquals(List.of(false, false, false), repository.getFlags("CCC"));
+    }
+}
@@ -0,0 +1,119 @@
+package engine;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.event.KeyEvent;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActionMapTest {
+
+    /** 지정한 버튼만 눌린 장치 */
+    private static InputDevice device(final String name, final Integer... held) {
+        Set<Integer> codes = new HashSet<>(Arrays.asList(held));
+        return new InputDevice() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public boolean isDown(final int code) {
+                return codes.contains(code);
+            }
+
+            @Override
+            public boolean wasPressed(final int code) {
+                return codes.contains(code);
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("여러 바인딩 중 하나만 눌려도 액션 비트가 켜짐")
+    void testMultiBinding() {
+        ActionMap map = new ActionMap();
+        long actions = map.down(List.of(device(ActionMap.KEYBOARD, KeyEvent.VK_W)));
+
+        assertTrue(InputAction.UP.in(actions));
+        assertFalse(InputAction.DOWN.in(actions));
+        assertEquals(InputAction.UP.bit(), actions);
+    }
+
+    @Test
+    @DisplayName("다른 장치의 바인딩도 같은 액션으로 합쳐짐")
+    void testPluggableDevice() {
+        ActionMap map = new ActionMap();
+        map.bind(InputAction.P1_SHOOT, new ActionMap.Binding("pad", 0));
+
+        List<InputDevice> devices = List.of(device(ActionMap.KEYBOARD), device("pad", 0));
+        assertTrue(InputAction.P1_SHOOT.in(map.down(devices)));
+        assertFalse(InputAction.P1_SHOOT.in(map.down(List.of(device(ActionMap.KEYBOARD)))));
+    }
+
+    @Test
+    @DisplayName("버전 2 형식으로 저장하고 그대로 읽음")
+    void testFormatRoundTrip() {
+        ActionMap map = new ActionMap();
+        map.setPrimaryKey(InputAction.P1_LEFT, KeyEvent.VK_J);
+        map.bind(InputAction.CONFIRM, new ActionMap.Binding("pad", 9));
+        map.unbind(InputAction.PAUSE, new ActionMap.Binding(ActionMap.KEYBOARD, KeyEvent.VK_ESCAPE));
+
+        String text = map.format();
+        assertTrue(text.startsWith("version=" + ActionMap.VERSION), text);
+
+        ActionMap read = ActionMap.parse(Arrays.asList(text.split("\\R")));
+        assertEquals(KeyEvent.VK_J, read.getPrimaryKey(InputAction.P1_LEFT));
+        assertEquals(map.getBindings(InputAction.CONFIRM), read.getBindings(InputAction.CONFIRM));
+        assertTrue(read.getBindings(InputAction.PAUSE).isEmpty());
+        assertEquals(-1, read.getPrimaryKey(InputAction.PAUSE));
+    }
+
+    @Test
+    @DisplayName("버전 없는 예전 keyconfig 파일을 변환")
+    void testParseVersion1() {
+        ActionMap map = ActionMap.parse(List.of("65,68,32", "37,39,10"));
+        assertEquals(KeyEvent.VK_A, map.getPrimaryKey(InputAction.P1_LEFT));
+        assertEquals(KeyEvent.VK_SPACE, map.getPrimaryKey(InputAction.P1_SHOOT));
+        assertEquals(KeyEvent.VK_ENTER, map.getPrimaryKey(InputAction.P2_SHOOT));
+
+        map = ActionMap.parse(List.of("74,76,75"));
+        assertEquals(KeyEvent.VK_J, map.getPrimaryKey(InputAction.P1_LEFT));
+        assertEquals(KeyEvent.VK_LEFT, map.getPrimaryKey(InputAction.P2_LEFT));
+    }
+
+    @Test
+    @DisplayName("잘못된 줄은 건너뛰고 나머지는 기본값 유지")
+    void testParseSkipsMalformed() {
+        ActionMap map = ActionMap.parse(List.of(
+                "version=2",
+                "P1_SHOOT=key:75,key:oops",
+                "NOT_AN_ACTION=key:1"));
+        assertEquals(List.of(new ActionMap.Binding(ActionMap.KEYBOARD, KeyEvent.VK_K)),
+                map.getBindings(InputAction.P1_SHOOT));
+        assertEquals(KeyEvent.VK_D, map.getPrimaryKey(InputAction.P1_RIGHT));
+    }
+
+    @Test
+    @DisplayName("틱마다 액션 마스크를 한 번 계산")
+    void testInputManagerActions() {
+        InputManager input = new InputManager(InputManager.latencyMode("off"), new MetricsRegistry());
+        input.keyPressed(new KeyEvent(new javax.swing.JPanel(), KeyEvent.KEY_PRESSED,
+                System.currentTimeMillis(), 0, KeyEvent.VK_SPACE, ' '));
+        assertEquals(0, input.getActions());
+
+        input.drainEvents();
+        long expected = InputAction.maskOf(InputAction.P1_SHOOT, InputAction.SELECT, InputAction.CONFIRM);
+        assertEquals(expected, input.getActions());
+        assertEquals(expected, input.getActionsPressed());
+
+        input.drainEvents();
+        assertEquals(expected, input.getActions());
+        assertEquals(0, input.getActionsPressed());
+    }
+}
@@ -0,0 +1,100 @@
+package engine;
+
+import entity.Bullet;
+import entity.Entity;
+import entity.Ship;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BotControllerTest {
+
+    private static final int WIDTH = 448;
+
+    private final BotController bot = new BotController();
+    private final Ship ship = new Ship(200, 400, Entity.Team.PLAYER1, Ship.ShipType.NORMAL, null);
+    private final List<Bullet> bullets = new ArrayList<>();
+    private final Battlefield field = new Battlefield();
+
+    private long control() {
+        return bot.control(0, ship, field);
+    }
+
+    /** 아래로 내려오는 적 총알 */
+    private static Bullet enemyBullet(final int x, final int y) {
+        Bullet bullet = new Bullet(x, y, 3, 5, 4);
+        bullet.setSpeed(4);
+        return bullet;
+    }
+
+    @Test
+    @DisplayName("위협이 없고 바로 위에 적이 있으면 제자리에서 발사")
+    void testShootsTargetAbove() {
+        field.reset(WIDTH, bullets);
+        field.addTarget(new Entity(ship.getPositionX(), 100, ship.getWidth(), 16, Color.WHITE));
+
+        assertEquals(InputAction.P1_SHOOT.bit(), control());
+    }
+
+    @Test
+    @DisplayName("가장 아래에 있는 적 쪽으로 이동")
+    void testMovesUnderLowestTarget() {
+        field.reset(WIDTH, bullets);
+        field.addTarget(new Entity(20, 100, 24, 16, Color.WHITE));
+        field.addTarget(new Entity(380, 150, 24, 16, Color.WHITE));
+
+        long actions = control();
+        assertTrue(InputAction.P1_RIGHT.in(actions));
+        assertFalse(InputAction.P1_LEFT.in(actions));
+        assertFalse(InputAction.P1_SHOOT.in(actions));
+    }
+
+    @Test
+    @DisplayName("곧 맞을 총알은 반대쪽으로 피함")
+    void testDodgesIncomingBullet() {
+        bullets.add(enemyBullet(ship.getPositionX() + 2, 380));
+        field.reset(WIDTH, bullets);
+        field.addTarget(new Entity(ship.getPositionX(), 100, ship.getWidth(), 16, Color.WHITE));
+
+        long actions = control();
+        assertTrue(InputAction.P1_RIGHT.in(actions));
+        assertTrue(InputAction.P1_SHOOT.in(actions));
+    }
+
+    @Test
+    @DisplayName("벽에 붙어 있으면 반대 방향으로 피함")
+    void testDodgesAwayFromWall() {
+        ship.setPositionX(WIDTH - ship.getWidth() - 1);
+        bullets.add(enemyBullet(ship.getPositionX() + 2, 380));
+        field.reset(WIDTH, bullets);
+
+        assertEquals(InputAction.P1_LEFT.bit(), control());
+    }
+
+    @Test
+    @DisplayName("멀리 있거나 위로 가는 총알은 무시")
+    void testIgnoresHarmlessBullets() {
+        bullets.add(enemyBullet(ship.getPositionX(), 0));
+        Bullet own = new Bullet(ship.getPositionX(), 380, 3, 5, -6);
+        own.setSpeed(-6);
+        bullets.add(own);
+        field.reset(WIDTH, bullets);
+
+        assertEquals(0, BotController.dodgeDirection(ship, field));
+    }
+
+    @Test
+    @DisplayName("game.bots 값으로 봇 슬롯을 고름")
+    void testBotSlots() {
+        assertFalse(ShipController.isBot("", 0));
+        assertTrue(ShipController.isBot("2", 1));
+        assertFalse(ShipController.isBot("2", 0));
+        assertTrue(ShipController.isBot("1, 2", 0));
+        assertTrue(ShipController.isBot("ALL", 1));
+    }
+}
@@ -0,0 +1,77 @@
+package engine;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CollisionMaskTest {
+
+    /** 4x4 sprite with only the top-left and bottom-right corners solid. */
+    private static boolean[][] corners() {
+        boolean[][] image = new boolean[4][4];
+        image[0][0] = true;
+        image[3][3] = true;
+        return image;
+    }
+
+    private static boolean[][] filled(int width, int height) {
+        boolean[][] image = new boolean[width][height];
+        for (boolean[] column : image)
+            java.util.Arrays.fill(column, true);
+        return image;
+    }
+
+    @Test
+    @DisplayName("겹치는 박스라도 투명 픽셀끼리는 충돌하지 않음")
+    void testTransparentPixelsDoNotCollide() {
+        CollisionMask a = CollisionMask.of(corners(), 4, 4);
+        CollisionMask b = CollisionMask.of(corners(), 4, 4);
+
+        // a의 (1,1)~(3,3) 영역과 b의 (0,0)~(2,2) 영역이 겹침: 실제 픽셀은 없음
+        assertFalse(a.overlaps(0, 0, b, 1, 1));
+        // 같은 위치면 모서리 픽셀끼리 겹침
+        assertTrue(a.overlaps(0, 0, b, 0, 0));
+        // a의 (3,3)과 b의 (0,0)이 겹침
+        assertTrue(a.overlaps(0, 0, b, 3, 3));
+    }
+
+    @Test
+    @DisplayName("박스가 떨어져 있으면 충돌하지 않음")
+    void testDisjointBoxes() {
+        CollisionMask a = CollisionMask.of(filled(2, 2), 10, 10);
+        CollisionMask b = CollisionMask.of(filled(2, 2), 10, 10);
+
+        assertFalse(a.overlaps(0, 0, b, 10, 0));
+        assertTrue(a.overlaps(0, 0, b, 9, 9));
+    }
+
+    @Test
+    @DisplayName("64픽셀을 넘는 폭에서도 워드 경계를 넘어 검사")
+    void testWideMaskAcrossWordBoundary() {
+        boolean[][] image = new boolean[100][1];
+        image[70][0] = true;
+        CollisionMask wide = CollisionMask.of(image, 100, 1);
+        CollisionMask dot = CollisionMask.of(filled(1, 1), 1, 1);
+
+        assertEquals(2, (wide.getWidth() + 63) / 64);
+        assertTrue(wide.overlaps(5, 0, dot, 75, 0));
+        assertFalse(wide.overlaps(5, 0, dot, 74, 0));
+        assertFalse(wide.overlaps(5, 0, dot, 76, 0));
+        // 시작 오프셋이 워드 중간일 때
+        assertTrue(dot.overlaps(75, 0, wide, 5, 0));
+    }
+
+    @Test
+    @DisplayName("스프라이트를 엔티티 크기로 확대해 마스크 생성")
+    void testScaledMask() {
+        CollisionMask scaled = CollisionMask.of(corners(), 8, 8);
+        CollisionMask dot = CollisionMask.of(filled(1, 1), 1, 1);
+
+        assertEquals(8, scaled.getWidth());
+        assertEquals(8, scaled.getHeight());
+        assertTrue(scaled.overlaps(0, 0, dot, 1, 1));
+        assertFalse(scaled.overlaps(0, 0, dot, 2, 2));
+        assertTrue(scaled.overlaps(0, 0, dot, 7, 6));
+    }
+}
@@ -0,0 +1,93 @@
+package engine;
+
+import engine.ItemEffect.ItemEffectType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EffectTableTest {
+
+    private GameSession session;
+    private GameState state;
+
+    @BeforeEach
+    void setUp() {
+        // 시뮬레이션 시계로 효과 만료 시점을 직접 조절
+        session = GameSession.simulated(1, 1_000_000L);
+        session.enter();
+        state = new GameState(1, 3, true, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        session.exit();
+    }
+
+    @Test
+    @DisplayName("효과는 플레이어와 종류별 칸에서만 조회됨")
+    void testLookupByPlayerAndType() {
+        state.addEffect(0, ItemEffectType.SCOREBOOST, 2, 5);
+
+        assertTrue(state.hasEffect(0, ItemEffectType.SCOREBOOST));
+        assertEquals(Integer.valueOf(2), state.getEffectValue(0, ItemEffectType.SCOREBOOST));
+        assertEquals(2, state.getEffectValue(0, ItemEffectType.SCOREBOOST, 1));
+        assertEquals(5000, state.getEffectDuration(0, ItemEffectType.SCOREBOOST));
+
+        assertFalse(state.hasEffect(1, ItemEffectType.SCOREBOOST));
+        assertFalse(state.hasEffect(0, ItemEffectType.TRIPLESHOT));
+        assertNull(state.getEffectValue(0, ItemEffectType.TRIPLESHOT));
+        assertEquals(1, state.getEffectValue(1, ItemEffectType.SCOREBOOST, 1));
+        assertEquals(0, state.getEffectDuration(1, ItemEffectType.SCOREBOOST));
+    }
+
+    @Test
+    @DisplayName("없는 플레이어나 종류는 기본값을 돌려주고 예외를 던지지 않음")
+    void testMissingSlots() {
+        state.addEffect(GameState.NUM_PLAYERS, ItemEffectType.TRIPLESHOT, 1, 5);
+        state.addEffect(0, null, 1, 5);
+
+        for (int player : new int[] { -1, GameState.NUM_PLAYERS }) {
+            assertFalse(state.hasEffect(player, ItemEffectType.TRIPLESHOT));
+            assertNull(state.getEffectValue(player, ItemEffectType.TRIPLESHOT));
+            assertEquals(7, state.getEffectValue(player, ItemEffectType.TRIPLESHOT, 7));
+            assertEquals(0, state.getEffectDuration(player, ItemEffectType.TRIPLESHOT));
+        }
+        assertFalse(state.hasEffect(0, null));
+        assertNull(state.getEffectValue(0, null));
+        assertEquals(7, state.getEffectValue(0, null, 7));
+        assertEquals(0, state.getEffectDuration(0, null));
+        assertFalse(state.hasEffect(0, ItemEffectType.TRIPLESHOT));
+    }
+
+    @Test
+    @DisplayName("값 없는 효과는 켜져 있어도 값 조회는 기본값")
+    void testEffectWithoutValue() {
+        state.addEffect(1, ItemEffectType.BULLETSPEEDUP, null, 5);
+
+        assertTrue(state.hasEffect(1, ItemEffectType.BULLETSPEEDUP));
+        assertNull(state.getEffectValue(1, ItemEffectType.BULLETSPEEDUP));
+        assertEquals(3, state.getEffectValue(1, ItemEffectType.BULLETSPEEDUP, 3));
+    }
+
+    @Test
+    @DisplayName("켜져 있는 효과를 다시 얻으면 연장되고 만료되면 꺼짐")
+    void testExtendAndExpire() {
+        state.addEffect(0, ItemEffectType.TRIPLESHOT, 1, 1);
+        session.advance(600);
+        state.addEffect(0, ItemEffectType.TRIPLESHOT, 1, 1);
+        assertEquals(1400, state.getEffectDuration(0, ItemEffectType.TRIPLESHOT));
+
+        session.advance(1000);
+        state.updateEffects();
+        assertTrue(state.hasEffect(0, ItemEffectType.TRIPLESHOT));
+
+        session.advance(500);
+        state.updateEffects();
+        assertFalse(state.hasEffect(0, ItemEffectType.TRIPLESHOT));
+        assertEquals(0, state.getEffectValue(0, ItemEffectType.TRIPLESHOT, 0));
+        assertEquals(0, state.getEffectDuration(0, ItemEffectType.TRIPLESHOT));
+    }
+}
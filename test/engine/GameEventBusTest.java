@@ -0,0 +1,72 @@
+package engine;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameEventBusTest {
+
+    @Test
+    @DisplayName("dispatch 전까지는 구독자에게 전달되지 않고, 발행 순서대로 전달")
+    void testDispatchOrder() {
+        GameEventBus bus = new GameEventBus(8);
+        List<String> received = new ArrayList<>();
+        bus.subscribe(GameEventBus.Type.ENEMY_KILLED, e -> received.add("kill:" + e.getValue()));
+        bus.subscribe(GameEventBus.Type.SHOT_FIRED, e -> received.add("shot:" + e.getPlayerIndex()));
+
+        bus.publish(GameEventBus.Type.SHOT_FIRED, 1, 0, 0, 0);
+        bus.publish(GameEventBus.Type.ENEMY_KILLED, 0, 30, 10, 20);
+        assertTrue(received.isEmpty());
+        assertEquals(2, bus.pending());
+
+        assertEquals(2, bus.dispatch());
+        assertEquals(List.of("shot:1", "kill:30"), received);
+        assertEquals(0, bus.pending());
+    }
+
+    @Test
+    @DisplayName("구독하지 않은 타입은 무시")
+    void testUnsubscribedType() {
+        GameEventBus bus = new GameEventBus();
+        List<GameEventBus.Type> received = new ArrayList<>();
+        bus.subscribe(GameEventBus.Type.PLAYER_HIT, e -> received.add(e.getType()));
+
+        bus.publish(GameEventBus.Type.ITEM_PICKED, 0, 0, 0, 0, false, "TRIPLESHOT");
+        bus.publish(GameEventBus.Type.PLAYER_HIT, 0, 2, 0, 0);
+        bus.dispatch();
+
+        assertEquals(List.of(GameEventBus.Type.PLAYER_HIT), received);
+    }
+
+    @Test
+    @DisplayName("링이 가득 차면 먼저 dispatch 후 재사용")
+    void testRingReuseWhenFull() {
+        GameEventBus bus = new GameEventBus(4);
+        List<Integer> received = new ArrayList<>();
+        bus.subscribe(GameEventBus.Type.ENEMY_KILLED, e -> received.add(e.getValue()));
+
+        for (int i = 0; i < 10; i++)
+            bus.publish(GameEventBus.Type.ENEMY_KILLED, 0, i, 0, 0);
+        bus.dispatch();
+
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), received);
+    }
+
+    @Test
+    @DisplayName("구독자가 발행한 이벤트도 같은 dispatch 에서 전달")
+    void testPublishFromSubscriber() {
+        GameEventBus bus = new GameEventBus();
+        List<String> received = new ArrayList<>();
+        bus.subscribe(GameEventBus.Type.ENEMY_KILLED,
+                e -> bus.publish(GameEventBus.Type.ITEM_PICKED, 0, 0, 0, 0, false, "COIN"));
+        bus.subscribe(GameEventBus.Type.ITEM_PICKED, e -> received.add(e.getName()));
+
+        bus.publish(GameEventBus.Type.ENEMY_KILLED, 0, 10, 0, 0);
+        assertEquals(2, bus.dispatch());
+        assertEquals(List.of("COIN"), received);
+    }
+}
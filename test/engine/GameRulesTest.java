@@ -0,0 +1,65 @@
+package engine;
+
+import entity.Bullet;
+import entity.Entity;
+import entity.Ship;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameRulesTest {
+
+    private static Ship ship(final int x, final GameState state) {
+        return new Ship(x, 400, Entity.Team.PLAYER1, Ship.ShipType.NORMAL, state);
+    }
+
+    @Test
+    @DisplayName("적 총알은 살아 있는 첫 번째 함선만 맞히고 목숨을 하나 줄임")
+    void testHitPlayerSkipsDestroyedShips() {
+        GameState state = new GameState(1, 3, true, 0);
+        Ship first = ship(100, state);
+        Ship second = ship(200, state);
+        first.destroy();
+        Ship[] ships = { first, second, null };
+        int lives = state.getLivesRemaining();
+
+        int hit = GameRules.hitPlayer(state, ships, new Bullet(0, 0, 3, 5, 4), (a, b) -> true);
+
+        assertEquals(1, hit);
+        assertTrue(second.isDestroyed());
+        assertEquals(lives - 1, state.getLivesRemaining());
+    }
+
+    @Test
+    @DisplayName("아무도 맞지 않으면 -1 이고 목숨은 그대로")
+    void testMissKeepsLives() {
+        GameState state = new GameState(1, 3, false, 0);
+        Ship[] ships = { ship(100, state), null };
+
+        int hit = GameRules.hitPlayer(state, ships, new Bullet(0, 0, 3, 5, 4), (a, b) -> false);
+
+        assertEquals(-1, hit);
+        assertFalse(ships[0].isDestroyed());
+        assertEquals(3, state.getLivesRemaining());
+    }
+
+    @Test
+    @DisplayName("2P 총알은 2P 에게, 주인이 없으면 1P 에게 점수를 줌")
+    void testShooterIndex() {
+        Bullet bullet = new Bullet(0, 0, 3, 5, -6);
+        assertEquals(0, GameRules.shooterIndex(bullet));
+        bullet.setOwnerPlayerId(2);
+        assertEquals(1, GameRules.shooterIndex(bullet));
+        bullet.setOwnerPlayerId(1);
+        assertEquals(0, GameRules.shooterIndex(bullet));
+    }
+
+    @Test
+    @DisplayName("화면 위아래를 벗어난 총알만 밖으로 봄")
+    void testIsOutside() {
+        assertTrue(GameRules.isOutside(new Bullet(0, 60, 3, 5, -6), 68, 520));
+        assertFalse(GameRules.isOutside(new Bullet(0, 300, 3, 5, -6), 68, 520));
+        assertTrue(GameRules.isOutside(new Bullet(0, 530, 3, 5, 4), 68, 520));
+    }
+}
@@ -0,0 +1,82 @@
+package engine;
+
+import entity.Bullet;
+import entity.BulletPool;
+import entity.Entity;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameSessionTest {
+
+    @Test
+    @DisplayName("세션에 들어가지 않은 스레드는 창 세션을 사용")
+    void testWindowFallback() {
+        GameSession session = GameSession.simulated(1, 1_000L);
+        assertSame(GameSession.window(), GameSession.current());
+
+        session.enter();
+        try {
+            assertSame(session, GameSession.current());
+            assertSame(session.getTimerWheel(), Core.getTimerWheel());
+            assertSame(session.getItemManager(), ItemManager.getInstance());
+        } finally {
+            session.exit();
+        }
+        assertSame(GameSession.window(), GameSession.current());
+    }
+
+    @Test
+    @DisplayName("세션마다 풀이 따로 있음")
+    void testSeparatePools() {
+        GameSession first = GameSession.simulated(1, 1_000L);
+        GameSession second = GameSession.simulated(1, 1_000L);
+
+        first.enter();
+        try {
+            Bullet bullet = BulletPool.getBullet(0, 0, 1, 3, 5, Entity.Team.PLAYER1);
+            BulletPool.recycle(Set.of(bullet));
+            assertEquals(1, BulletPool.size());
+        } finally {
+            first.exit();
+        }
+
+        second.enter();
+        try {
+            assertEquals(0, BulletPool.size());
+        } finally {
+            second.exit();
+        }
+        assertEquals(1, first.getFreeBullets().size());
+    }
+
+    @Test
+    @DisplayName("시뮬레이션 세션의 시계와 난수는 서로 독립")
+    void testSeparateClockAndRandom() {
+        GameSession first = GameSession.simulated(42, 1_000L);
+        GameSession second = GameSession.simulated(42, 5_000L);
+
+        first.advance(16);
+        first.advance(16);
+        assertEquals(1_032L, first.now());
+        assertEquals(2, first.getTickCount());
+        assertEquals(5_000L, second.now());
+        assertEquals(0, second.getTickCount());
+
+        // 같은 시드라면 다른 세션의 추첨과 상관없이 같은 수열
+        first.nextInt(100);
+        GameSession third = GameSession.simulated(42, 1_000L);
+        third.nextInt(100);
+        assertEquals(third.nextDouble(), first.nextDouble());
+    }
+
+    @Test
+    @DisplayName("창 세션의 시계는 직접 진행할 수 없음")
+    void testWindowClockCannotAdvance() {
+        assertThrows(IllegalStateException.class, () -> GameSession.window().advance(16));
+    }
+}
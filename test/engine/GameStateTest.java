@@ -31,4 +31,16 @@ class GameStateTest {
         // then
         assertEquals(0, gameState.getBossClearTime());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("코인은 게임 상태마다 따로 관리")
+    void testCoinsPerState() {
+        GameState first = new GameState(1, 3, false, 10);
+        GameState second = new GameState(1, 3, false, 0);
+
+        first.addCoins(0, 5);
+
+        assertEquals(15, first.getCoins());
+        assertEquals(0, second.getCoins());
+    }
+}
@@ -0,0 +1,81 @@
+package engine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotReloaderTest {
+
+    @TempDir
+    Path dir;
+
+    private HotReloader reloader;
+    private ItemDB previousItems;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        previousItems = ItemDB.getShared();
+        Files.writeString(dir.resolve("level.csv"), "&\n3,2,100,2000\n");
+        Files.writeString(dir.resolve("item_db.csv"), "type,spriteType,dropTier,effectValue,effectDuration,cost\n"
+                + "COIN,ItemCoin,COMMON,1,0,0\n");
+        reloader = new HotReloader(dir);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        reloader.close();
+        ItemDB.install(previousItems);
+    }
+
+    @Test
+    @DisplayName("다시 읽은 데이터는 apply 할 때까지 적용되지 않음")
+    void testStagedUntilApplied() {
+        reloader.reloadLevels();
+        reloader.reloadItems();
+        assertSame(previousItems, ItemDB.getShared());
+
+        List<GameSettings> levels = reloader.apply();
+        assertEquals(1, levels.size());
+        assertEquals(3, levels.get(0).getFormationWidth());
+        assertNotSame(previousItems, ItemDB.getShared());
+        assertEquals(1, ItemDB.getShared().getItemData("COIN").getEffectValue());
+
+        assertNull(reloader.apply());
+    }
+
+    @Test
+    @DisplayName("잘못된 파일은 무시하고 이전 데이터를 유지")
+    void testInvalidFilesKeepPreviousData() throws IOException {
+        Files.writeString(dir.resolve("level.csv"), "&\n3,2,oops,2000\n");
+        Files.writeString(dir.resolve("item_db.csv"), "type,spriteType,dropTier,effectValue,effectDuration\n");
+
+        reloader.reloadLevels();
+        reloader.reloadItems();
+        assertNull(reloader.apply());
+        assertSame(previousItems, ItemDB.getShared());
+    }
+
+    @Test
+    @DisplayName("파일이 바뀌면 백그라운드에서 다시 읽음")
+    void testWatchesFolder() throws Exception {
+        Files.writeString(dir.resolve("level.csv"), "&\n5,1,100,2000\n&\n2,2,90,1500\n");
+
+        List<GameSettings> levels = null;
+        for (int i = 0; i < 200 && levels == null; i++) {
+            Thread.sleep(50);
+            levels = reloader.apply();
+        }
+        assertNotNull(levels, "level.csv change was not picked up");
+        assertEquals(2, levels.size());
+        assertEquals(5, levels.get(0).getFormationWidth());
+    }
+}
@@ -0,0 +1,114 @@
+package engine;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.JPanel;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InputManagerTest {
+
+    private static final JPanel SOURCE = new JPanel();
+
+    private static KeyEvent key(final int id, final int code) {
+        return new KeyEvent(SOURCE, id, System.currentTimeMillis(), 0, code, KeyEvent.CHAR_UNDEFINED);
+    }
+
+    @Test
+    @DisplayName("한 틱보다 짧은 입력도 눌림으로 처리")
+    void testTapShorterThanTick() {
+        InputManager input = new InputManager(InputManager.latencyMode("off"), new MetricsRegistry());
+
+        input.keyPressed(key(KeyEvent.KEY_PRESSED, KeyEvent.VK_SPACE));
+        input.keyReleased(key(KeyEvent.KEY_RELEASED, KeyEvent.VK_SPACE));
+        assertFalse(input.isKeyDown(KeyEvent.VK_SPACE));
+
+        assertEquals(2, input.drainEvents());
+        assertTrue(input.isKeyDown(KeyEvent.VK_SPACE));
+        assertTrue(input.wasKeyPressed(KeyEvent.VK_SPACE));
+        assertTrue(input.wasKeyReleased(KeyEvent.VK_SPACE));
+
+        input.drainEvents();
+        assertFalse(input.isKeyDown(KeyEvent.VK_SPACE));
+        assertFalse(input.wasKeyPressed(KeyEvent.VK_SPACE));
+    }
+
+    @Test
+    @DisplayName("누르고 있는 키는 첫 틱에만 눌림 이벤트")
+    void testHeldKeyEdges() {
+        InputManager input = new InputManager(InputManager.latencyMode("off"), new MetricsRegistry());
+
+        input.keyPressed(key(KeyEvent.KEY_PRESSED, KeyEvent.VK_A));
+        input.drainEvents();
+        assertTrue(input.wasKeyPressed(KeyEvent.VK_A));
+        assertEquals(KeyEvent.VK_A, input.getLastPressedKey());
+        assertEquals(-1, input.getLastPressedKey());
+
+        // 키 반복으로 들어오는 눌림은 새 눌림이 아님
+        input.keyPressed(key(KeyEvent.KEY_PRESSED, KeyEvent.VK_A));
+        input.drainEvents();
+        assertTrue(input.isKeyDown(KeyEvent.VK_A));
+        assertFalse(input.wasKeyPressed(KeyEvent.VK_A));
+
+        input.keyReleased(key(KeyEvent.KEY_RELEASED, KeyEvent.VK_A));
+        input.drainEvents();
+        assertFalse(input.isKeyDown(KeyEvent.VK_A));
+        assertTrue(input.wasKeyReleased(KeyEvent.VK_A));
+    }
+
+    @Test
+    @DisplayName("마우스 클릭은 한 번만 보고")
+    void testMouseClick() {
+        InputManager input = new InputManager(InputManager.latencyMode("off"), new MetricsRegistry());
+        long now = System.currentTimeMillis();
+
+        input.mousePressed(new MouseEvent(SOURCE, MouseEvent.MOUSE_PRESSED, now, 0, 10, 20, 1, false, 1));
+        input.drainEvents();
+        assertTrue(input.isMousePressed());
+        assertFalse(input.isMouseClicked());
+
+        input.mouseReleased(new MouseEvent(SOURCE, MouseEvent.MOUSE_RELEASED, now, 0, 30, 40, 1, false, 1));
+        input.drainEvents();
+        assertFalse(input.isMousePressed());
+        assertEquals(30, input.getMouseX());
+        assertEquals(40, input.getMouseY());
+        assertTrue(input.isMouseClicked());
+        assertFalse(input.isMouseClicked());
+    }
+
+    @Test
+    @DisplayName("입력 지연은 소비한 틱에서 기록")
+    void testLatencyRecorded() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        InputManager input = new InputManager(InputManager.latencyMode("listener"), metrics);
+
+        input.keyPressed(key(KeyEvent.KEY_PRESSED, KeyEvent.VK_D));
+        input.keyReleased(key(KeyEvent.KEY_RELEASED, KeyEvent.VK_D));
+        input.drainEvents();
+
+        LatencyHistogram latency = metrics.histogram(MetricsRegistry.INPUT_LATENCY);
+        assertEquals(2, latency.getCount());
+        assertTrue(latency.snapshot().percentile(100) >= 0);
+    }
+
+    @Test
+    @DisplayName("큐가 가득 차면 새 이벤트를 버리고 센다")
+    void testRingDropsWhenFull() {
+        InputRing ring = new InputRing(8);
+        for (int i = 0; i < ring.capacity() + 3; i++)
+            ring.offer(InputRing.KEY_PRESSED, i, 0, 0, i);
+        assertEquals(3, ring.getDropped());
+
+        List<Integer> codes = new ArrayList<>();
+        assertEquals(8, ring.drain((kind, code, x, y, time) -> codes.add(code)));
+        for (int i = 0; i < codes.size(); i++)
+            assertEquals(i, (int) codes.get(i));
+        assertEquals(0, ring.drain((kind, code, x, y, time) -> codes.add(code)));
+        assertEquals(8, codes.size());
+    }
+}
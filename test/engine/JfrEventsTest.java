@@ -0,0 +1,72 @@
+package engine;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JfrEventsTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("저장 작업마다 JFR 이벤트를 기록")
+    void testPersistenceWriteEvents() throws IOException {
+        Path file = dir.resolve("events.jfr");
+        PersistenceService service = new PersistenceService(0);
+        try (Recording recording = new Recording()) {
+            recording.enable(PersistenceWriteEvent.class);
+            recording.start();
+
+            service.submit("ok", () -> { });
+            service.submit("broken", () -> {
+                throw new IOException("disk full");
+            });
+            service.flush();
+
+            recording.stop();
+            recording.dump(file);
+        } finally {
+            service.shutdown();
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertEquals(2, events.size());
+        for (RecordedEvent event : events) {
+            assertEquals("game.PersistenceWrite", event.getEventType().getName());
+            assertEquals(event.getString("key").equals("ok"), event.getBoolean("succeeded"));
+        }
+    }
+
+    @Test
+    @DisplayName("사용자 정의 이벤트는 기본으로 활성화되어 시작 플래그만으로 기록")
+    void testFrameEventEnabledByDefault() throws IOException {
+        Path file = dir.resolve("frames.jfr");
+        try (Recording recording = new Recording()) {
+            recording.start();
+            FrameEvent event = new FrameEvent();
+            event.begin();
+            event.tick = 42;
+            event.screen = "GameScreen";
+            event.updateNanos = 1_000;
+            event.commit();
+            recording.stop();
+            recording.dump(file);
+        }
+
+        RecordedEvent frame = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals("game.Frame"))
+                .findFirst().orElseThrow();
+        assertEquals(42, frame.getLong("tick"));
+        assertEquals("GameScreen", frame.getString("screen"));
+    }
+}
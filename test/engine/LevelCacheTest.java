@@ -0,0 +1,127 @@
+package engine;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LevelCacheTest {
+
+    @TempDir
+    Path dir;
+
+    private static final String LEVELS = String.join("\n",
+            "// comment",
+            "&",
+            "3,2,100,2000",
+            "0,0,0,0",
+            "2,1,2,3,#ee4266",
+            "&",
+            "",
+            "4,1,90,1500",
+            "");
+
+    @Test
+    @DisplayName("셀 오버라이드를 평탄한 배열로 컴파일")
+    void testCompile() {
+        List<CompiledLevel> levels = LevelCompiler.compile(List.of(LEVELS.split("\n")), "level.csv");
+
+        assertEquals(2, levels.size());
+        CompiledLevel first = levels.get(0);
+        assertEquals(3, first.getWidth());
+        assertEquals(5, first.getShipCount());
+        assertFalse(first.isPresent(0, 0));
+        assertEquals(2, first.getHpMultiplier(2, 1));
+        assertEquals(3, first.getRewardMultiplier(2, 1));
+        assertEquals(new Color(0xee4266), first.getColor(2, 1));
+        assertEquals(1, first.getHpMultiplier(1, 1));
+        assertNull(first.getColor(1, 1));
+        assertEquals(4, levels.get(1).getShipCount());
+
+        GameSettings settings = first.toGameSettings();
+        assertEquals(2, settings.getChangeDataList().size());
+        assertEquals(2, settings.getChangeDataList().get(1).x);
+        assertSame(first, settings.getCompiledLevel());
+    }
+
+    @Test
+    @DisplayName("모든 오류를 줄 번호와 함께 보고")
+    void testErrorsHaveLineNumbers() {
+        List<String> lines = List.of(
+                "&",
+                "3,2,100",
+                "&",
+                "3,2,100,2000",
+                "5,0,1,1",
+                "0,0,x,1",
+                "0,1,1,1,#12",
+                "0,1,1,1",
+                "0,1,1,1");
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> LevelCompiler.compile(lines, "level.csv"));
+        String[] errors = e.getMessage().split(System.lineSeparator());
+        assertEquals(5, errors.length, e.getMessage());
+        assertTrue(errors[0].startsWith("level.csv:2: "));
+        assertTrue(errors[1].startsWith("level.csv:5: "));
+        assertTrue(errors[2].startsWith("level.csv:6: "));
+        assertTrue(errors[3].startsWith("level.csv:7: "));
+        assertTrue(errors[4].startsWith("level.csv:9: "));
+    }
+
+    @Test
+    @DisplayName("캐시 왕복: 같은 결과, 소스가 바뀌면 다시 컴파일")
+    void testCacheRoundTrip() throws IOException {
+        Path source = dir.resolve("level.csv");
+        Path cache = dir.resolve("level.cache");
+        Files.writeString(source, LEVELS);
+
+        List<GameSettings> compiled = LevelCache.load(source, cache);
+        assertTrue(Files.exists(cache));
+        List<GameSettings> cached = LevelCache.load(source, cache);
+        assertEquals(compiled.size(), cached.size());
+        for (int i = 0; i < compiled.size(); i++)
+            assertEquals(compiled.get(i).getCompiledLevel(), cached.get(i).getCompiledLevel());
+        assertSame(cached.get(0), cached.get(0));
+
+        Files.writeString(source, LEVELS + "&\n1,1,10,100\n");
+        Files.setLastModifiedTime(source, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+        assertEquals(3, LevelCache.load(source, cache).size());
+    }
+
+    @Test
+    @DisplayName("핫 리로드로 캐시가 다시 쓰여도 이미 받은 목록은 예전 스테이지를 돌려줌")
+    void testListSurvivesCacheRewrite() throws IOException {
+        Path source = dir.resolve("level.csv");
+        Path cache = dir.resolve("level.cache");
+        Files.writeString(source, LEVELS);
+        List<GameSettings> compiled = LevelCache.load(source, cache);
+        List<GameSettings> cached = LevelCache.load(source, cache);
+
+        Files.writeString(source, "1,1,10,100\n&\n" + LEVELS);
+        Files.setLastModifiedTime(source, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+        List<GameSettings> reloaded = LevelCache.load(source, cache);
+        assertEquals(compiled.size() + 1, reloaded.size());
+
+        for (int i = 0; i < compiled.size(); i++)
+            assertEquals(compiled.get(i).getCompiledLevel(), cached.get(i).getCompiledLevel());
+    }
+
+    @Test
+    @DisplayName("게임의 level.csv 는 유효함")
+    void testShippedLevelsCompile() throws IOException {
+        List<GameSettings.StageData> stages = GameSettings.parseStages(Paths.get("res", "level.csv"));
+        assertFalse(stages.isEmpty());
+        for (GameSettings.StageData stage : stages)
+            assertTrue(stage.settings.getCompiledLevel().getShipCount() > 0);
+    }
+}
@@ -0,0 +1,92 @@
+package engine;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsExporterTest {
+
+    @TempDir
+    Path dir;
+
+    private static MetricsRegistry registry() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        metrics.histogram("frame.total").record(16_000_000);
+        metrics.gauge("pool.bullets", () -> 12);
+        metrics.counter("shots").add(3);
+        return metrics;
+    }
+
+    @Test
+    @DisplayName("CSV 내보내기는 구간별 값만 기록")
+    void testCsvExportCoversInterval() throws IOException {
+        MetricsRegistry metrics = registry();
+        Path file = dir.resolve("metrics.csv");
+        MetricsExporter exporter = new MetricsExporter(metrics, file, 1 << 20);
+
+        metrics.histogram("frame.total").record(20_000_000);
+        exporter.export();
+        exporter.export();
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals("time,metric,value", lines.get(0));
+        List<String> counts = lines.stream().filter(l -> l.contains(",frame.total.count,")).toList();
+        assertEquals(2, counts.size());
+        assertTrue(counts.get(0).endsWith(",1"));
+        assertTrue(counts.get(1).endsWith(",0"));
+        assertTrue(lines.stream().anyMatch(l -> l.endsWith(",pool.bullets,12")));
+        assertTrue(lines.stream().anyMatch(l -> l.endsWith(",shots,3")));
+    }
+
+    @Test
+    @DisplayName("JSON 파일은 크기를 넘으면 회전")
+    void testJsonRotation() throws IOException {
+        MetricsRegistry metrics = registry();
+        Path file = dir.resolve("metrics.json");
+        MetricsExporter exporter = new MetricsExporter(metrics, file, 300);
+
+        for (int i = 0; i < MetricsExporter.KEPT_FILES + 3; i++)
+            exporter.export();
+
+        assertTrue(Files.exists(file));
+        assertTrue(Files.exists(dir.resolve("metrics.json.1")));
+        assertTrue(Files.exists(dir.resolve("metrics.json." + MetricsExporter.KEPT_FILES)));
+        assertFalse(Files.exists(dir.resolve("metrics.json." + (MetricsExporter.KEPT_FILES + 1))));
+        String line = Files.readAllLines(file).get(0);
+        assertTrue(line.startsWith("{\"time\":"), line);
+        assertTrue(line.contains("\"pool.bullets\":12"), line);
+    }
+
+    @Test
+    @DisplayName("HTTP 엔드포인트는 마지막 내보내기를 제공")
+    void testEndpoint() throws IOException {
+        MetricsRegistry metrics = registry();
+        MetricsExporter exporter = new MetricsExporter(metrics, null, 1 << 20);
+        int port = exporter.serve(0);
+        try {
+            metrics.histogram("frame.total").record(18_000_000);
+            exporter.export();
+            HttpURLConnection connection = (HttpURLConnection)
+                    URI.create("http://127.0.0.1:" + port + "/metrics").toURL().openConnection();
+            assertEquals(200, connection.getResponseCode());
+            try (InputStream in = connection.getInputStream()) {
+                String body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                assertEquals(exporter.getLatest(), body);
+                assertTrue(body.contains("\"frame.total\":{\"count\":1,\"p50Ms\":"), body);
+            }
+        } finally {
+            exporter.close();
+        }
+    }
+}
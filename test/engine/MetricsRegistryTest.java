@@ -0,0 +1,77 @@
+package engine;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRegistryTest {
+
+    @Test
+    @DisplayName("히스토그램 백분위수는 6% 이내로 정확")
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long ms = 1; ms <= 100; ms++)
+            histogram.record(ms * 1_000_000);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(100, snapshot.getCount());
+        assertEquals(50_000_000, snapshot.percentile(50), 50_000_000 * 0.07);
+        assertEquals(99_000_000, snapshot.percentile(99), 99_000_000 * 0.07);
+        assertEquals(100_000_000, snapshot.percentile(100));
+        assertTrue(snapshot.percentile(50) >= 50_000_000);
+    }
+
+    @Test
+    @DisplayName("작은 값은 정확히, 범위 밖 값은 잘라서 기록")
+    void testBounds() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(7);
+        assertEquals(7, histogram.snapshot().percentile(100));
+
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(3, snapshot.getCount());
+        assertEquals(0, snapshot.percentile(1));
+        assertEquals((1L << 40) - 1, snapshot.percentile(100));
+        assertEquals(0, new LatencyHistogram().snapshot().percentile(99));
+    }
+
+    @Test
+    @DisplayName("스냅샷 차이는 그 사이에 기록된 값만 포함")
+    void testSince() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 10; i++)
+            histogram.record(1_000);
+        LatencyHistogram.Snapshot before = histogram.snapshot();
+        for (int i = 0; i < 4; i++)
+            histogram.record(2_000_000);
+
+        LatencyHistogram.Snapshot window = histogram.snapshot().since(before);
+        assertEquals(4, window.getCount());
+        assertEquals(2_000_000, window.percentile(50), 2_000_000 * 0.07);
+    }
+
+    @Test
+    @DisplayName("이름별 지표는 한 번만 생성되고 게이지는 읽을 때 계산")
+    void testRegistry() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        assertSame(metrics.histogram("a"), metrics.histogram("a"));
+        assertSame(metrics.counter("c"), metrics.counter("c"));
+
+        metrics.counter("c").increment();
+        metrics.counter("c").add(4);
+        assertEquals(5, metrics.counter("c").get());
+
+        int[] value = { 3 };
+        metrics.gauge("g", () -> value[0]);
+        value[0] = 8;
+        assertEquals(8, metrics.readGauge("g"));
+        metrics.removeGauge("g");
+        assertEquals(0, metrics.readGauge("g"));
+        assertEquals(0, metrics.readGauge("missing"));
+
+        assertTrue(MetricsRegistry.getInstance().getGauges().containsKey(MetricsRegistry.GC_COUNT));
+    }
+}
@@ -0,0 +1,141 @@
+package engine;
+
+import entity.Bullet;
+import entity.Entity;
+import entity.Item;
+import entity.Ship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NetHostTest {
+
+    private static final int WIDTH = 448;
+    private static final int ROOM = 7;
+
+    /** 호스트 화면처럼 원격 입력으로 두 번째 함선을 움직임 */
+    private static void move(final Ship ship, final long actions) {
+        InputAction[] keys = InputAction.ofPlayer(1);
+        if (keys[1].in(actions) && ship.getPositionX() + ship.getWidth() + ship.getSpeed() <= WIDTH - 1)
+            ship.moveRight();
+        if (keys[0].in(actions) && ship.getPositionX() - ship.getSpeed() >= 1)
+            ship.moveLeft();
+    }
+
+    /** 클라이언트 대신 입력 프레임을 직접 보냄 */
+    private static void sendInput(final NetPeer peer, final int tick, final int... controls) {
+        ByteBuffer frame = peer.begin(NetProtocol.INPUT);
+        frame.putInt(tick);
+        frame.putInt(NetProtocol.NO_BASE);
+        frame.put((byte) controls.length);
+        for (int bits : controls)
+            frame.put((byte) bits);
+        peer.send();
+    }
+
+    /** 호스트가 원하는 조작을 적용할 때까지 폴링 */
+    private static boolean awaitControls(final NetHost host, final NetPeer client, final int controls)
+            throws InterruptedException {
+        ShipController remote = host.remoteController();
+        for (int i = 0; i < 200; i++) {
+            while (client.receive() != 0) {
+                // 환영 메시지만 처리
+            }
+            host.poll();
+            if (remote.control(1, null, null) == NetProtocol.actionsOf(controls, 1))
+                return true;
+            Thread.sleep(2);
+        }
+        return false;
+    }
+
+    @Test
+    @DisplayName("잘린 프레임과 엉뚱한 틱은 버리고, 새로 들어온 클라이언트는 1틱부터 받아들임")
+    void testBadInputDropped() throws Exception {
+        try (NetRelay relay = new NetRelay(0)) {
+            InetSocketAddress address = new InetSocketAddress("127.0.0.1", relay.getPort());
+            NetHost host = new NetHost(new NetPeer(address, ROOM, NetProtocol.ROLE_HOST), null);
+            NetPeer client = new NetPeer(address, ROOM, NetProtocol.ROLE_CLIENT);
+
+            client.begin(NetProtocol.INPUT).putShort((short) 1);
+            client.send();
+            client.begin(NetProtocol.INPUT).putInt(5).putInt(NetProtocol.NO_BASE).put((byte) 4).put((byte) 1);
+            client.send();
+            sendInput(client, 1, NetProtocol.RIGHT);
+            assertTrue(awaitControls(host, client, NetProtocol.RIGHT), "first");
+
+            sendInput(client, 1_000_000, NetProtocol.LEFT);
+            sendInput(client, 2, NetProtocol.RIGHT, NetProtocol.SHOOT);
+            assertTrue(awaitControls(host, client, NetProtocol.SHOOT), "jump");
+
+            client.close();
+            NetPeer restarted = new NetPeer(address, ROOM, NetProtocol.ROLE_CLIENT);
+            for (int i = 0; i < 50 && !restarted.isJoined(); i++) {
+                restarted.receive();
+                Thread.sleep(2);
+            }
+            sendInput(restarted, 1, NetProtocol.LEFT);
+            assertTrue(awaitControls(host, restarted, NetProtocol.LEFT));
+
+            restarted.close();
+            host.close();
+        }
+    }
+
+    @Test
+    @DisplayName("로컬 릴레이로 입력과 스냅샷을 주고받고 예측 위치가 호스트와 맞춰짐")
+    void testCoopThroughRelay() throws Exception {
+        try (NetRelay relay = new NetRelay(0)) {
+            InetSocketAddress address = new InetSocketAddress("127.0.0.1", relay.getPort());
+            NetHost host = new NetHost(new NetPeer(address, ROOM, NetProtocol.ROLE_HOST), null);
+            NetClient client = new NetClient(new NetPeer(address, ROOM, NetProtocol.ROLE_CLIENT), WIDTH);
+
+            GameState state = new GameState(1, 3, true, 0);
+            Ship[] ships = {
+                    new Ship(100, 490, Entity.Team.PLAYER1, Ship.ShipType.NORMAL, state),
+                    new Ship(200, 490, Entity.Team.PLAYER2, Ship.ShipType.NORMAL, state) };
+            ships[1].setPlayerId(2);
+            List<Bullet> bullets = new ArrayList<>();
+            List<Item> items = new ArrayList<>();
+            ShipController remote = host.remoteController();
+
+            // 30틱 동안 오른쪽, 이후 입력 없이 정착할 때까지
+            for (int i = 0; i < 400; i++) {
+                client.update(i < 30 ? NetProtocol.RIGHT : 0);
+                host.poll();
+                move(ships[1], remote.control(1, ships[1], null));
+                host.publish(state, ships, null, null, bullets, items);
+                if (i > 60 && client.getSnapshot() != null
+                        && client.getSnapshot().inputAck >= 30
+                        && client.getPredictedX() == ships[1].getPositionX())
+                    break;
+                Thread.sleep(2);
+            }
+
+            assertNotNull(client.getSnapshot());
+            assertTrue(ships[1].getPositionX() > 200, "host x " + ships[1].getPositionX());
+            assertEquals(ships[1].getPositionX(), client.getPredictedX());
+            assertEquals(100, client.getSnapshot().shipX[0]);
+
+            assertTrue(host.getPeer().getBytesSent() > 0);
+            assertTrue(client.getPeer().getBytesSent() > 0);
+            long toClient = relay.getBytesForwarded(ROOM, NetProtocol.ROLE_CLIENT);
+            assertTrue(toClient > 0);
+            // 기준과의 차이만 보내므로 스냅샷마다 예산 안
+            long perSnapshot = client.getPeer().getBytesReceived()
+                    / Math.max(1, client.getPeer().getPacketsReceived());
+            assertTrue(perSnapshot < SnapshotCodec.DELTA_BUDGET, "bytes per snapshot " + perSnapshot);
+            assertEquals(0, host.getOverBudget());
+
+            client.close();
+            host.close();
+        }
+    }
+}
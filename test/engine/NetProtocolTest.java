@@ -0,0 +1,21 @@
+package engine;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NetProtocolTest {
+
+    @Test
+    @DisplayName("입력 비트는 받는 쪽 플레이어의 액션으로 바뀜")
+    void testControls() {
+        long p1 = InputAction.maskOf(InputAction.P1_LEFT, InputAction.P1_SHOOT);
+        int controls = NetProtocol.controlsOf(p1, 0);
+        assertEquals(NetProtocol.LEFT | NetProtocol.SHOOT, controls);
+        assertEquals(0, NetProtocol.controlsOf(p1, 1));
+
+        long p2 = NetProtocol.actionsOf(controls, 1);
+        assertEquals(InputAction.maskOf(InputAction.P2_LEFT, InputAction.P2_SHOOT), p2);
+    }
+}
@@ -0,0 +1,73 @@
+package engine;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NetRelayTest {
+
+    private static final int ROOM = 11;
+
+    /** 릴레이의 응답을 조금 기다리며 받아 둔다 */
+    private static void settle(final NetPeer... peers) throws InterruptedException {
+        for (int i = 0; i < 50; i++) {
+            for (NetPeer peer : peers)
+                while (peer.receive() != 0) {
+                    // 환영 메시지만 필요함
+                }
+            Thread.sleep(2);
+        }
+    }
+
+    @Test
+    @DisplayName("살아 있는 플레이어의 자리는 다른 주소가 HELLO 로 빼앗을 수 없음")
+    void testSeatNotTakenOver() throws Exception {
+        try (NetRelay relay = new NetRelay(0)) {
+            InetSocketAddress address = new InetSocketAddress("127.0.0.1", relay.getPort());
+            NetPeer host = new NetPeer(address, ROOM, NetProtocol.ROLE_HOST);
+            settle(host);
+            assertTrue(host.isJoined());
+
+            NetPeer intruder = new NetPeer(address, ROOM, NetProtocol.ROLE_HOST);
+            settle(intruder);
+            assertFalse(intruder.isJoined());
+
+            NetPeer client = new NetPeer(address, ROOM, NetProtocol.ROLE_CLIENT);
+            settle(host, client);
+            assertTrue(client.isJoined());
+            assertTrue(client.hasPartner());
+
+            intruder.close();
+            client.close();
+            host.close();
+        }
+    }
+
+    @Test
+    @DisplayName("두 플레이어가 모두 나가거나 오래 조용하면 방이 사라짐")
+    void testRoomsExpire() throws Exception {
+        try (NetRelay relay = new NetRelay(0)) {
+            InetSocketAddress address = new InetSocketAddress("127.0.0.1", relay.getPort());
+            NetPeer host = new NetPeer(address, ROOM, NetProtocol.ROLE_HOST);
+            NetPeer client = new NetPeer(address, ROOM, NetProtocol.ROLE_CLIENT);
+            settle(host, client);
+            assertEquals(1, relay.getRoomCount());
+            host.close();
+            client.close();
+            Thread.sleep(100);
+            assertEquals(0, relay.getRoomCount());
+
+            NetPeer idle = new NetPeer(address, ROOM + 1, NetProtocol.ROLE_HOST);
+            settle(idle);
+            assertEquals(1, relay.getRoomCount());
+            relay.expire(System.currentTimeMillis());
+            assertEquals(1, relay.getRoomCount());
+            relay.expire(System.currentTimeMillis() + NetRelay.ROOM_TIMEOUT_MS);
+            assertEquals(0, relay.getRoomCount());
+            idle.close();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package engine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistenceServiceTest {
+
+    @TempDir
+    Path dir;
+
+    /** 디바운스가 길어 flush 전에는 아무것도 쓰이지 않음 */
+    private final PersistenceService service = new PersistenceService(60_000);
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("같은 키의 쓰기는 마지막 것만 실행")
+    void testCoalescesByKey() {
+        List<String> written = Collections.synchronizedList(new ArrayList<>());
+        service.submit("a", () -> written.add("a1"));
+        service.submit("b", () -> written.add("b1"));
+        service.submit("a", () -> written.add("a2"));
+
+        assertEquals(2, service.getPendingWrites());
+        assertTrue(written.isEmpty());
+
+        service.flush();
+        assertEquals(List.of("a2", "b1"), written);
+        assertEquals(0, service.getPendingWrites());
+        assertEquals(2, service.getCompletedWrites());
+        assertEquals(1, service.getCoalescedWrites());
+    }
+
+    @Test
+    @DisplayName("파일은 임시 파일을 거쳐 원자적으로 교체")
+    void testWriteFileAtomically() throws IOException {
+        Path target = dir.resolve("keyconfig.txt");
+        Files.writeString(target, "old");
+
+        service.writeFile(target, "65,68,32".getBytes(StandardCharsets.UTF_8));
+        assertEquals("old", Files.readString(target));
+
+        service.flush();
+        assertEquals("65,68,32", Files.readString(target));
+        assertFalse(Files.exists(dir.resolve("keyconfig.txt.tmp")));
+        assertTrue(service.getLastFlushLatencyMs() >= 0);
+    }
+
+    @Test
+    @DisplayName("실패한 쓰기는 집계되고 다른 쓰기를 막지 않음")
+    void testFailedWriteCounted() {
+        List<String> written = new ArrayList<>();
+        service.submit("bad", () -> { throw new IOException("disk full"); });
+        service.submit("good", () -> written.add("good"));
+
+        service.flush();
+        assertEquals(1, service.getFailedWrites());
+        assertEquals(List.of("good"), written);
+    }
+
+    @Test
+    @DisplayName("종료 시 대기 중인 쓰기를 모두 실행하고 이후 쓰기는 즉시 실행")
+    void testShutdownFlushes() {
+        List<String> written = Collections.synchronizedList(new ArrayList<>());
+        service.submit("a", () -> written.add("a"));
+
+        service.shutdown();
+        assertEquals(List.of("a"), written);
+
+        service.submit("b", () -> written.add("b"));
+        assertEquals(List.of("a", "b"), written);
+    }
+
+    @Test
+    @DisplayName("디바운스가 지나면 백그라운드에서 기록")
+    void testWritesAfterDebounce() throws InterruptedException {
+        PersistenceService fast = new PersistenceService(10);
+        try {
+            List<String> written = Collections.synchronizedList(new ArrayList<>());
+            fast.submit("a", () -> written.add("a"));
+            for (int i = 0; i < 200 && written.isEmpty(); i++)
+                Thread.sleep(5);
+            assertEquals(List.of("a"), written);
+        } finally {
+            fast.shutdown();
+        }
+    }
+}
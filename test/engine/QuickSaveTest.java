@@ -0,0 +1,336 @@
+package engine;
+
+import engine.ItemEffect.ItemEffectType;
+import entity.Bullet;
+import entity.BulletPool;
+import entity.EnemyShip;
+import entity.EnemyShipFormation;
+import entity.Entity;
+import entity.Item;
+import entity.ItemPool;
+import entity.Ship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuickSaveTest {
+
+    private static final GameSettings SETTINGS = new GameSettings(6, 4, 60, 1500);
+
+    /** 저장된 바이트를 처음부터 다시 읽는다 */
+    private static QuickSave reread(final QuickSave written) throws Exception {
+        Path file = Files.createTempFile("quicksave", ".bin");
+        try {
+            written.save(file);
+            PersistenceService.getInstance().flush();
+            return QuickSave.read(ByteBuffer.wrap(Files.readAllBytes(file)));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static GameState playedState() {
+        GameState state = new GameState(3, 3, true, 75);
+        state.addScore(0, 1200);
+        state.addScore(1, 340);
+        state.incBulletsShot(0);
+        state.incBulletsShot(1);
+        state.incBulletsShot(1);
+        state.incShipsDestroyed(1);
+        state.decLife(0);
+        state.setBossClearTime(5400);
+        state.addEffect(0, ItemEffectType.SCOREBOOST, 2, 10);
+        state.addEffect(1, ItemEffectType.TRIPLESHOT, null, 4);
+        return state;
+    }
+
+    @Test
+    @DisplayName("플레이어별 기록, 남은 효과 시간, 부활 여부가 그대로 복원됨")
+    void testGameStateRoundTrip() throws Exception {
+        GameState state = playedState();
+        ReviveManager revive = new ReviveManager(state);
+        revive.restoreRevived(new boolean[] {false, true, true, false, false, false});
+
+        QuickSave save = new QuickSave();
+        save.begin(QuickSave.BOSS, Ship.ShipType.MOVE_FAST, Ship.ShipType.NORMAL, state, revive);
+        QuickSave loaded = reread(save);
+
+        assertEquals(QuickSave.BOSS, loaded.getKind());
+        assertEquals(Ship.ShipType.MOVE_FAST, loaded.getShipTypeP1());
+        assertEquals(Ship.ShipType.NORMAL, loaded.getShipTypeP2());
+        assertArrayEquals(revive.getRevived(), loaded.getRevived());
+
+        GameState restored = loaded.getState();
+        assertEquals(3, restored.getLevel());
+        assertTrue(restored.isCoop());
+        assertEquals(state.getTeamLives(), restored.getTeamLives());
+        assertEquals(state.getTeamLivesCap(), restored.getTeamLivesCap());
+        assertEquals(75, restored.getCoins());
+        assertEquals(5400, restored.getBossClearTime());
+        for (int p = 0; p < GameState.NUM_PLAYERS; p++) {
+            assertEquals(state.getScore(p), restored.getScore(p));
+            assertEquals(state.getBulletsShot(p), restored.getBulletsShot(p));
+            assertEquals(state.getShipsDestroyed(p), restored.getShipsDestroyed(p));
+        }
+
+        assertEquals(2, restored.getEffectValue(0, ItemEffectType.SCOREBOOST, 0));
+        assertTrue(restored.hasEffect(1, ItemEffectType.TRIPLESHOT));
+        assertFalse(restored.hasEffect(0, ItemEffectType.TRIPLESHOT));
+        assertEquals(10_000, restored.getEffectDuration(0, ItemEffectType.SCOREBOOST), 500);
+        assertEquals(4_000, restored.getEffectDuration(1, ItemEffectType.TRIPLESHOT), 500);
+
+        // 카운트다운만큼 미루면 그 시간은 효과에서 빠지지 않음
+        restored.postponeEffects(6000);
+        assertEquals(16_000, restored.getEffectDuration(0, ItemEffectType.SCOREBOOST), 500);
+    }
+
+    @Test
+    @DisplayName("편대, 총알, 아이템, 함선 위치가 저장한 그대로 복원됨")
+    void testEntitiesRoundTrip() throws Exception {
+        GameState state = playedState();
+        Ship[] ships = {
+                new Ship(140, 490, Entity.Team.PLAYER1, Ship.ShipType.NORMAL, state),
+                new Ship(300, 490, Entity.Team.PLAYER2, Ship.ShipType.NORMAL, state) };
+        EnemyShipFormation formation = new EnemyShipFormation(SETTINGS);
+        formation.attach(448, 520);
+        Iterator<EnemyShip> enemies = formation.iterator();
+        formation.destroy(enemies.next());
+        formation.destroy(enemies.next());
+        for (int i = 0; i < 200; i++)
+            formation.update();
+        Set<Bullet> bullets = new HashSet<>();
+        Bullet shot = BulletPool.getBullet(150, 300, -6, 6, 10, Entity.Team.PLAYER1);
+        shot.setOwnerPlayerId(1);
+        shot.setPlayerId(1);
+        bullets.add(shot);
+        Bullet aimed = BulletPool.getBullet(40, 200, 4, 6, 10, Entity.Team.ENEMY);
+        aimed.setSpeedX(-2);
+        bullets.add(aimed);
+        Set<Item> items = new HashSet<>();
+        items.add(ItemPool.getItem(ItemDB.getShared().getItemData("COIN"), 90, 250, 2));
+        ItemInventory inventory = new ItemInventory(state, 0);
+        inventory.addItem(ItemEffectType.SCOREBOOST);
+
+        QuickSave save = new QuickSave();
+        save.begin(QuickSave.LEVEL, Ship.ShipType.NORMAL, Ship.ShipType.NORMAL, state,
+                new ReviveManager(state));
+        save.writeShips(ships);
+        save.writeFormation(formation);
+        save.writeSpecial(null);
+        save.writeBullets(bullets);
+        save.writeItems(items);
+        save.writeInventory(inventory);
+        assertTrue(save.size() < 512, "save of " + save.size() + " B");
+        QuickSave loaded = reread(save);
+
+        GameState restoredState = loaded.getState();
+        Ship[] restoredShips = {
+                new Ship(0, 490, Entity.Team.PLAYER1, Ship.ShipType.NORMAL, restoredState),
+                new Ship(0, 490, Entity.Team.PLAYER2, Ship.ShipType.NORMAL, restoredState) };
+        EnemyShipFormation restored = new EnemyShipFormation(SETTINGS);
+        restored.attach(448, 520);
+        Set<Bullet> restoredBullets = new HashSet<>();
+        Set<Item> restoredItems = new HashSet<>();
+        ItemInventory restoredInventory = new ItemInventory(restoredState, 0);
+        loaded.readShips(restoredShips);
+        loaded.readFormation(restored);
+        assertNull(loaded.readSpecial());
+        loaded.readBullets(restoredBullets);
+        loaded.readItems(restoredItems);
+        loaded.readInventory(restoredInventory);
+
+        assertEquals(140, restoredShips[0].getPositionX());
+        assertEquals(300, restoredShips[1].getPositionX());
+
+        BitSet alive = new BitSet();
+        BitSet restoredAlive = new BitSet();
+        formation.fillAliveMask(alive);
+        restored.fillAliveMask(restoredAlive);
+        assertEquals(alive, restoredAlive);
+        assertEquals(formation.getShipCount(), restored.getShipCount());
+        assertEquals(formation.getOriginX(), restored.getOriginX());
+        assertEquals(formation.getOriginY(), restored.getOriginY());
+        assertEquals(formation.getDirection(), restored.getDirection());
+        assertEquals(formation.getMovementInterval(), restored.getMovementInterval());
+        assertEquals(formation.getShooters().size(), restored.getShooters().size());
+        List<Integer> positions = new ArrayList<>();
+        for (EnemyShip ship : formation)
+            positions.add(ship.getPositionX() * 1000 + ship.getPositionY());
+        List<Integer> restoredPositions = new ArrayList<>();
+        for (EnemyShip ship : restored)
+            restoredPositions.add(ship.getPositionX() * 1000 + ship.getPositionY());
+        positions.sort(null);
+        restoredPositions.sort(null);
+        assertEquals(positions, restoredPositions);
+
+        assertEquals(2, restoredBullets.size());
+        for (Bullet bullet : restoredBullets) {
+            if (bullet.getTeam() == Entity.Team.PLAYER1) {
+                assertEquals(shot.getPositionX(), bullet.getPositionX());
+                assertEquals(-6, bullet.getSpeed());
+                assertEquals(1, bullet.getOwnerPlayerId());
+            } else {
+                assertEquals(aimed.getPositionX(), bullet.getPositionX());
+                assertEquals(-2, bullet.getSpeedX());
+            }
+        }
+        assertEquals(1, restoredItems.size());
+        Item item = restoredItems.iterator().next();
+        assertEquals("COIN", item.getType());
+        assertEquals(items.iterator().next().getPositionX(), item.getPositionX());
+        assertEquals(ItemEffectType.SCOREBOOST, restoredInventory.getSlot(0));
+    }
+
+    @Test
+    @DisplayName("검사용 읽기는 아무것도 바꾸지 않고, 화면과 맞지 않거나 잘린 저장을 복원 전에 거부함")
+    void testCheckerRejectsBeforeRestoring() throws Exception {
+        GameState state = playedState();
+        Ship[] ships = {
+                new Ship(140, 490, Entity.Team.PLAYER1, Ship.ShipType.NORMAL, state), null };
+        EnemyShipFormation formation = new EnemyShipFormation(SETTINGS);
+        formation.attach(448, 520);
+        Set<Bullet> bullets = new HashSet<>();
+        bullets.add(BulletPool.getBullet(150, 300, -6, 6, 10, Entity.Team.PLAYER1));
+        Set<Item> items = new HashSet<>();
+        items.add(ItemPool.getItem(ItemDB.getShared().getItemData("COIN"), 90, 250, 2));
+        ItemInventory inventory = new ItemInventory(state, 0);
+        inventory.addItem(ItemEffectType.SCOREBOOST);
+
+        QuickSave save = new QuickSave();
+        save.begin(QuickSave.LEVEL, Ship.ShipType.NORMAL, Ship.ShipType.NORMAL, state,
+                new ReviveManager(state));
+        save.writeShips(ships);
+        save.writeFormation(formation);
+        save.writeSpecial(null);
+        save.writeBullets(bullets);
+        save.writeItems(items);
+        save.writeInventory(inventory);
+        QuickSave loaded = reread(save);
+
+        Ship[] targetShips = {
+                new Ship(0, 490, Entity.Team.PLAYER1, Ship.ShipType.NORMAL, state), null };
+        EnemyShipFormation target = new EnemyShipFormation(SETTINGS);
+        target.attach(448, 520);
+        Set<Bullet> targetBullets = new HashSet<>();
+        Set<Item> targetItems = new HashSet<>();
+        ItemInventory targetInventory = new ItemInventory(state, 0);
+        int before = loaded.remaining();
+
+        QuickSave checker = loaded.checker();
+        checker.readShips(targetShips);
+        checker.readFormation(target);
+        assertNull(checker.readSpecial());
+        checker.readBullets(targetBullets);
+        checker.readItems(targetItems);
+        checker.readInventory(targetInventory);
+        assertEquals(0, checker.remaining());
+        assertEquals(before, loaded.remaining());
+        assertEquals(0, targetShips[0].getPositionX());
+        assertEquals(formation.getOriginY(), target.getOriginY());
+        assertTrue(targetBullets.isEmpty());
+        assertTrue(targetItems.isEmpty());
+        assertNull(targetInventory.getSlot(0));
+
+        // 다른 크기의 편대로는 복원하지 않음
+        QuickSave mismatch = loaded.checker();
+        mismatch.readShips(targetShips);
+        EnemyShipFormation smaller = new EnemyShipFormation(new GameSettings(2, 2, 60, 1500));
+        assertThrows(IllegalArgumentException.class, () -> mismatch.readFormation(smaller));
+        assertThrows(IllegalStateException.class, () -> loaded.readFormation(24));
+
+        // 잘린 저장은 끝까지 읽기 전에 실패
+        Path file = Files.createTempFile("quicksave", ".bin");
+        save.save(file);
+        PersistenceService.getInstance().flush();
+        byte[] bytes = Files.readAllBytes(file);
+        Files.deleteIfExists(file);
+        QuickSave truncated = QuickSave.read(ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length - 3)));
+        QuickSave truncatedChecker = truncated.checker();
+        assertThrows(RuntimeException.class, () -> {
+            truncatedChecker.readShips(targetShips);
+            truncatedChecker.readFormation(target);
+            truncatedChecker.readSpecial();
+            truncatedChecker.readBullets(targetBullets);
+            truncatedChecker.readItems(targetItems);
+            truncatedChecker.readInventory(targetInventory);
+        });
+        assertTrue(targetBullets.isEmpty());
+    }
+
+    @Test
+    @DisplayName("저장 파일은 비동기로 쓰이고, 폐기하면 지워지며, 깨진 파일은 무시됨")
+    void testFileLifecycle() throws Exception {
+        Path dir = Files.createTempDirectory("quicksave");
+        Path file = dir.resolve("quicksave.bin");
+        GameState state = playedState();
+
+        QuickSave save = new QuickSave();
+        save.begin(QuickSave.LEVEL, Ship.ShipType.NORMAL, Ship.ShipType.NORMAL, state,
+                new ReviveManager(state));
+        save.save(file);
+        PersistenceService.getInstance().flush();
+        assertNotNull(QuickSave.load(file));
+
+        QuickSave.discard(file);
+        PersistenceService.getInstance().flush();
+        assertFalse(Files.exists(file));
+        assertNull(QuickSave.load(file));
+
+        Files.write(file, new byte[] {1, 2, 3, 4, 5});
+        assertNull(QuickSave.load(file));
+        PersistenceService.getInstance().flush();
+        assertFalse(Files.exists(file));
+        Files.deleteIfExists(dir);
+    }
+
+    @Test
+    @DisplayName("꽉 찬 화면도 한 프레임(16ms) 안에 복원됨")
+    void testRestoreWithinFrame() throws Exception {
+        GameState state = playedState();
+        EnemyShipFormation formation = new EnemyShipFormation(SETTINGS);
+        formation.attach(448, 520);
+        Set<Bullet> bullets = new HashSet<>();
+        for (int i = 0; i < 150; i++)
+            bullets.add(BulletPool.getBullet(10 + i * 2, 100 + i, i % 2 == 0 ? 4 : -6, 6, 10,
+                    i % 2 == 0 ? Entity.Team.ENEMY : Entity.Team.PLAYER1));
+        QuickSave save = new QuickSave();
+        save.begin(QuickSave.LEVEL, Ship.ShipType.NORMAL, Ship.ShipType.NORMAL, state,
+                new ReviveManager(state));
+        save.writeFormation(formation);
+        save.writeBullets(bullets);
+        Path file = Files.createTempFile("quicksave", ".bin");
+        save.save(file);
+        PersistenceService.getInstance().flush();
+        byte[] bytes = Files.readAllBytes(file);
+        Files.deleteIfExists(file);
+
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < 20; round++) {
+            EnemyShipFormation restored = new EnemyShipFormation(SETTINGS);
+            restored.attach(448, 520);
+            Set<Bullet> restoredBullets = new HashSet<>();
+            long start = System.nanoTime();
+            QuickSave loaded = QuickSave.read(ByteBuffer.wrap(bytes));
+            loaded.readFormation(restored);
+            loaded.readBullets(restoredBullets);
+            best = Math.min(best, System.nanoTime() - start);
+            assertEquals(150, restoredBullets.size());
+            BulletPool.recycle(restoredBullets);
+            restored.recycle();
+        }
+        assertTrue(best < 16_000_000L, "restore took " + best / 1e6 + " ms");
+    }
+}
@@ -0,0 +1,103 @@
+package engine;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RenderThreadTest {
+
+    @Test
+    @DisplayName("삼중 버퍼는 마지막으로 게시된 값만 넘김")
+    void testTripleBufferKeepsLatest() {
+        TripleBuffer<int[]> buffer = new TripleBuffer<>(() -> new int[1]);
+        assertNull(buffer.takeLatest());
+
+        buffer.back()[0] = 1;
+        buffer.publish();
+        buffer.back()[0] = 2;
+        buffer.publish();
+
+        assertEquals(2, buffer.takeLatest()[0]);
+        assertNull(buffer.takeLatest());
+    }
+
+    @Test
+    @DisplayName("읽는 중인 값은 생산자가 다시 쓰지 않음")
+    void testTripleBufferNeverHandsOutFront() {
+        TripleBuffer<int[]> buffer = new TripleBuffer<>(() -> new int[1]);
+        buffer.back()[0] = 7;
+        buffer.publish();
+        int[] front = buffer.takeLatest();
+
+        for (int i = 0; i < 10; i++) {
+            assertNotSame(front, buffer.back());
+            buffer.back()[0] = 100 + i;
+            buffer.publish();
+        }
+        assertEquals(7, front[0]);
+        assertEquals(109, buffer.takeLatest()[0]);
+    }
+
+    @Test
+    @DisplayName("스레드를 끄면 게시하는 스레드에서 바로 그림")
+    void testInlineRendering() {
+        List<RenderSnapshot> drawn = new ArrayList<>();
+        RenderThread renderer = new RenderThread(drawn::add, false);
+        renderer.start();
+
+        RenderSnapshot snapshot = renderer.back();
+        snapshot.setScore(120);
+        renderer.publish();
+        renderer.stop();
+
+        assertEquals(1, drawn.size());
+        assertSame(snapshot, drawn.get(0));
+        assertEquals(120, drawn.get(0).score);
+    }
+
+    @Test
+    @DisplayName("렌더 스레드는 게시된 스냅샷을 다른 스레드에서 그림")
+    void testThreadedRendering() throws InterruptedException {
+        CountDownLatch drawn = new CountDownLatch(1);
+        AtomicReference<String> thread = new AtomicReference<>();
+        AtomicReference<Integer> score = new AtomicReference<>();
+        RenderThread renderer = new RenderThread(snapshot -> {
+            thread.set(Thread.currentThread().getName());
+            score.set(snapshot.score);
+            drawn.countDown();
+        }, true);
+        renderer.start();
+        try {
+            renderer.back().setScore(300);
+            renderer.publish();
+            assertTrue(drawn.await(5, TimeUnit.SECONDS));
+        } finally {
+            renderer.stop();
+        }
+        assertEquals("render", thread.get());
+        assertEquals(300, (int) score.get());
+    }
+
+    @Test
+    @DisplayName("새로 받은 스냅샷은 비어 있음")
+    void testBackIsCleared() {
+        RenderThread renderer = new RenderThread(snapshot -> { }, false);
+        RenderSnapshot snapshot = renderer.back();
+        snapshot.setScore(5);
+        snapshot.setPaused();
+        snapshot.setCountdown(3, true);
+
+        renderer.back();
+        assertEquals(-1, snapshot.score);
+        assertFalse(snapshot.paused);
+        assertEquals(-1, snapshot.countdown);
+        assertEquals(0, snapshot.getEntityCount());
+    }
+}
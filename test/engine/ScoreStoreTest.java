@@ -0,0 +1,95 @@
+package engine;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScoreStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("로그가 없으면 기존 CSV 를 가져옴")
+    void testImportsLegacyCsv() throws IOException {
+        Files.writeString(dir.resolve("1Pscores.csv"), "player,score\nAAA,30000\nBBB,20000\n");
+
+        ScoreStore store = new ScoreStore(dir);
+
+        List<Score> top = store.getTopScores("1P");
+        assertEquals(2, top.size());
+        assertEquals("BBB", top.get(0).getName());
+        assertTrue(Files.exists(dir.resolve("scores.log")));
+    }
+
+    @Test
+    @DisplayName("개인 최고 기록만 추가되고 다시 열어도 유지")
+    void testSubmitKeepsPersonalBest() throws IOException {
+        ScoreStore store = new ScoreStore(dir);
+
+        assertTrue(store.submit(new Score("AAA", 50000, "1P")));
+        assertFalse(store.submit(new Score("AAA", 60000, "1P")));
+        assertTrue(store.submit(new Score("AAA", 40000, "1P")));
+        assertTrue(store.submit(new Score("AAA", 45000, "2P")));
+        store.close();
+
+        ScoreStore reopened = new ScoreStore(dir);
+        assertEquals(40000, reopened.getBest("1P", "AAA").getScore());
+        assertEquals(2, reopened.getScoresByPlayer("AAA").size());
+        assertEquals(1, reopened.getScoresByMode("1P").size());
+    }
+
+    @Test
+    @DisplayName("모드별 상위 K 개만 순위표에 유지")
+    void testTopKPerMode() throws IOException {
+        ScoreStore store = new ScoreStore(dir);
+        for (int i = 0; i < ScoreStore.TOP_K + 3; i++)
+            store.submit(new Score("P" + i, 10000 + i * 1000, "1P"));
+
+        List<Score> top = store.getTopScores("1P");
+        assertEquals(ScoreStore.TOP_K, top.size());
+        assertEquals("P0", top.get(0).getName());
+        assertEquals(ScoreStore.TOP_K + 3, store.getScoresByMode("1P").size());
+        assertEquals(3, store.getScoresByClearTime("1P", 12000).size());
+        assertTrue(store.getTopScores("2P").isEmpty());
+        store.close();
+    }
+
+    @Test
+    @DisplayName("충돌로 잘린 마지막 줄은 무시")
+    void testIgnoresTornLastLine() throws IOException {
+        Files.writeString(dir.resolve("scores.log"), "1P,AAA,30000\n1P,BBB,3");
+
+        ScoreStore store = new ScoreStore(dir);
+        assertNotNull(store.getBest("1P", "AAA"));
+        assertNull(store.getBest("1P", "BBB"));
+
+        // 압축 후 새 기록이 정상적으로 추가됨
+        store.submit(new Score("CCC", 20000, "1P"));
+        store.close();
+        List<String> lines = Files.readAllLines(dir.resolve("scores.log"), StandardCharsets.UTF_8);
+        assertEquals(List.of("1P,AAA,30000", "1P,CCC,20000"), lines);
+    }
+
+    @Test
+    @DisplayName("대체된 기록이 쌓이면 압축")
+    void testCompaction() throws IOException {
+        ScoreStore store = new ScoreStore(dir);
+        for (int t = 100000; t > 100000 - 40; t--)
+            store.submit(new Score("AAA", t, "1P"));
+        store.close();
+
+        List<String> lines = Files.readAllLines(dir.resolve("scores.log"), StandardCharsets.UTF_8);
+        assertTrue(lines.size() < 40, "log was not compacted: " + lines.size());
+        assertEquals(99961, new ScoreStore(dir).getBest("1P", "AAA").getScore());
+        assertFalse(Files.exists(dir.resolve("scores.log.tmp")));
+    }
+}
@@ -0,0 +1,94 @@
+package engine;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationTest {
+
+    private static final List<GameSettings> LEVELS = List.of(
+            new GameSettings(3, 2, 60, 1500),
+            new GameSettings(4, 2, 50, 1200));
+    private static final int MAX_TICKS = 2 * 60 * Simulation.FPS;
+
+    private static Simulation.Result play(final long seed) {
+        return new Simulation(LEVELS, seed, MAX_TICKS, null).run();
+    }
+
+    private static void assertSameGame(final Simulation.Result expected, final Simulation.Result actual) {
+        assertEquals(expected.ticks, actual.ticks);
+        assertEquals(expected.score, actual.score);
+        assertEquals(expected.bulletsShot, actual.bulletsShot);
+        assertEquals(expected.livesLost, actual.livesLost);
+        assertEquals(expected.itemsDropped, actual.itemsDropped);
+    }
+
+    @Test
+    @DisplayName("같은 시드는 같은 게임을 재현")
+    void testSeedIsRepeatable() {
+        Simulation.Result first = play(7);
+        Simulation.Result second = play(7);
+
+        assertSameGame(first, second);
+        assertTrue(first.ticks > 0);
+        assertTrue(first.bulletsShot > 0);
+        assertEquals(first.ticks, first.tickTime.getCount());
+    }
+
+    @Test
+    @DisplayName("병렬로 돌려도 순서대로 돌린 결과와 같음")
+    void testParallelGamesAreIsolated() throws Exception {
+        List<Simulation.Result> sequential = new ArrayList<>();
+        for (long seed = 1; seed <= 6; seed++)
+            sequential.add(play(seed));
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<Simulation.Result>> futures = new ArrayList<>();
+            for (long seed = 1; seed <= 6; seed++) {
+                final long s = seed;
+                futures.add(executor.submit(() -> play(s)));
+            }
+            for (int i = 0; i < futures.size(); i++)
+                assertSameGame(sequential.get(i), futures.get(i).get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("시뮬레이션이 끝나면 게임 시계와 타이머 휠을 돌려놓음")
+    void testRestoresThreadState() {
+        TimerWheel shared = Core.getTimerWheel();
+        play(3);
+
+        assertSame(shared, Core.getTimerWheel());
+        assertTrue(Math.abs(GameClock.now() - System.currentTimeMillis()) < 60_000);
+    }
+
+    @Test
+    @DisplayName("격자 옵션의 모든 조합을 만들고 레벨 값을 바꿈")
+    void testGrid() {
+        Map<String, String> options = BatchRunner.parseOptions(new String[] {
+                "--speed", "40,80", "--weights", "50/25/20/5,0/1/1/1", "--games", "3" });
+        List<BatchRunner.GridPoint> grid = BatchRunner.grid(options);
+        assertEquals(4, grid.size());
+
+        List<GameSettings> applied = grid.get(0).apply(LEVELS);
+        assertEquals(40, applied.get(1).getBaseSpeed());
+        assertEquals(4, applied.get(1).getFormationWidth());
+        assertEquals(0.0, grid.get(3).weights[0]);
+
+        String line = BatchRunner.formatLine(grid.get(0), List.of(play(1), play(2)));
+        assertEquals(BatchRunner.HEADER.split(",").length, line.split(",", -1).length, line);
+        assertTrue(line.startsWith(",,40,,50.0/25.0/20.0/5.0,2,"), line);
+    }
+}
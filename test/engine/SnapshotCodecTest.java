@@ -0,0 +1,180 @@
+package engine;
+
+import entity.Bullet;
+import entity.BulletPool;
+import entity.Entity;
+import entity.Item;
+import entity.Ship;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotCodecTest {
+
+    private static final List<GameSettings> LEVELS = List.of(
+            new GameSettings(5, 4, 60, 1500),
+            new GameSettings(6, 4, 50, 1200));
+
+    private static GameSnapshot capture(final int tick, final int shipX, final int bulletY) {
+        GameState state = new GameState(2, 3, true, 40);
+        state.addScore(0, 120);
+        Ship[] ships = {
+                new Ship(100, 490, Entity.Team.PLAYER1, Ship.ShipType.NORMAL, state),
+                new Ship(shipX, 490, Entity.Team.PLAYER2, Ship.ShipType.MOVE_FAST, state) };
+        ships[1].setPlayerId(2);
+        List<Bullet> bullets = new ArrayList<>();
+        bullets.add(BulletPool.getBullet(111, bulletY, -6, 6, 10, Entity.Team.PLAYER1));
+        bullets.add(BulletPool.getBullet(50, 200, 4, 6, 10, Entity.Team.NEUTRAL));
+        List<Item> items = new ArrayList<>();
+
+        GameSnapshot snapshot = new GameSnapshot();
+        snapshot.capture(tick, 7, state, ships, null, null, bullets, items);
+        return snapshot;
+    }
+
+    private static byte[] encode(final SnapshotCodec codec, final GameSnapshot current,
+                                 final GameSnapshot base) {
+        ByteBuffer buffer = ByteBuffer.allocate(NetProtocol.MAX_DATAGRAM);
+        codec.encode(current, base, buffer);
+        byte[] bytes = new byte[buffer.position()];
+        buffer.flip().get(bytes);
+        return bytes;
+    }
+
+    private static GameSnapshot decode(final SnapshotCodec codec, final GameSnapshot base,
+                                       final byte[] bytes) {
+        GameSnapshot snapshot = new GameSnapshot();
+        codec.decode(base, ByteBuffer.wrap(bytes), snapshot);
+        return snapshot;
+    }
+
+    @Test
+    @DisplayName("가변 길이 정수와 지그재그 정수를 그대로 읽음")
+    void testVarints() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        int[] values = { 0, 1, 127, 128, 300, 1 << 20, Integer.MAX_VALUE };
+        for (int value : values)
+            SnapshotCodec.writeVarint(buffer, value);
+        assertEquals(1 + 1 + 1 + 2 + 2 + 3 + 5, buffer.position());
+        int[] signed = { 0, -1, 1, -64, 63, -300, Integer.MIN_VALUE };
+        for (int value : signed)
+            SnapshotCodec.writeZigzag(buffer, value);
+
+        buffer.flip();
+        for (int value : values)
+            assertEquals(value, SnapshotCodec.readVarint(buffer));
+        for (int value : signed)
+            assertEquals(value, SnapshotCodec.readZigzag(buffer));
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    @DisplayName("생존 슬롯은 한 바이트에 여덟 개씩")
+    void testBits() {
+        BitSet alive = new BitSet();
+        alive.set(0);
+        alive.set(7);
+        alive.set(8);
+        alive.set(54);
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        SnapshotCodec.writeBits(buffer, alive, 55);
+        assertEquals(7, buffer.position());
+
+        buffer.flip();
+        BitSet read = new BitSet();
+        SnapshotCodec.readBits(buffer, read, 55);
+        assertEquals(alive, read);
+    }
+
+    @Test
+    @DisplayName("기준 없이 쓰면 전체가 그대로 복원")
+    void testKeyframe() {
+        GameSnapshot sent = capture(10, 200, 301);
+        GameSnapshot read = decode(SnapshotCodec.EXACT, null, encode(SnapshotCodec.EXACT, sent, null));
+
+        assertEquals(10, read.getTick());
+        assertEquals(7, read.inputAck);
+        assertEquals(2, read.getLevel());
+        assertEquals(sent.score, read.score);
+        assertEquals(40, read.coins);
+        assertEquals(200, read.shipX[1]);
+        assertEquals(sent.shipSpeed[1], read.shipSpeed[1]);
+        assertEquals(sent.shipSprite[0], read.shipSprite[0]);
+        assertEquals(2, read.bulletCount);
+        assertEquals(301, read.bulletY[0]);
+        assertEquals(sent.bulletX[1], read.bulletX[1]);
+        assertEquals(sent.bulletSprite[0], read.bulletSprite[0]);
+        assertEquals(sent.bulletPlayer[0], read.bulletPlayer[0]);
+        assertArrayEquals(encode(SnapshotCodec.EXACT, sent, null),
+                encode(SnapshotCodec.EXACT, read, null));
+    }
+
+    @Test
+    @DisplayName("총알 위치는 2픽셀 단위로 양자화")
+    void testBulletQuantization() {
+        GameSnapshot sent = capture(10, 200, 301);
+        GameSnapshot read = decode(SnapshotCodec.NETWORK, null, encode(SnapshotCodec.NETWORK, sent, null));
+
+        assertEquals(300, read.bulletY[0]);
+        assertEquals(sent.bulletX[1] / 2 * 2, read.bulletX[1]);
+        assertEquals(200, read.shipX[1]);
+    }
+
+    @Test
+    @DisplayName("기준과의 차이만 써도 같은 스냅샷이 되고 훨씬 작음")
+    void testDelta() {
+        GameSnapshot base = capture(10, 200, 301);
+        GameSnapshot current = capture(12, 212, 289);
+        byte[] whole = encode(SnapshotCodec.NETWORK, current, null);
+        // 받는 쪽의 기준은 양자화된 스냅샷
+        GameSnapshot received = decode(SnapshotCodec.NETWORK, null, encode(SnapshotCodec.NETWORK, base, null));
+        byte[] delta = encode(SnapshotCodec.NETWORK, current, received);
+
+        assertTrue(delta.length * 2 < whole.length, delta.length + " vs " + whole.length);
+        assertArrayEquals(encode(SnapshotCodec.EXACT, decode(SnapshotCodec.NETWORK, null, whole), null),
+                encode(SnapshotCodec.EXACT, decode(SnapshotCodec.NETWORK, received, delta), null));
+        assertArrayEquals(encode(SnapshotCodec.NETWORK, current, base), delta);
+    }
+
+    @Test
+    @DisplayName("잘못된 바이트는 예외")
+    void testMalformed() {
+        byte[] whole = encode(SnapshotCodec.EXACT, capture(10, 200, 301), null);
+        GameSnapshot into = new GameSnapshot();
+        assertThrows(RuntimeException.class, () -> SnapshotCodec.EXACT.decode(null,
+                ByteBuffer.wrap(whole, 0, whole.length - 3), into));
+
+        ByteBuffer tooMany = ByteBuffer.allocate(32);
+        for (int i = 0; i < 7; i++)
+            tooMany.put((byte) 0);
+        SnapshotCodec.writeVarint(tooMany, GameSnapshot.MAX_SLOTS + 1);
+        tooMany.flip();
+        assertThrows(IllegalArgumentException.class, () -> SnapshotCodec.EXACT.decode(null, tooMany, into));
+
+        GameSnapshot base = new GameSnapshot();
+        assertThrows(IllegalArgumentException.class, () -> SnapshotCodec.EXACT.decode(base,
+                ByteBuffer.wrap(whole), base));
+    }
+
+    @Test
+    @DisplayName("시뮬레이션 게임의 스냅샷은 크기 예산 안")
+    void testSizeBudget() {
+        DrawManager.getInstance();
+        List<GameSnapshot> recorded = SnapshotBenchmark.record(LEVELS, 3, 60 * Simulation.FPS);
+        SnapshotBenchmark.Sizes sizes = new SnapshotBenchmark.Sizes();
+        SnapshotBenchmark.measure(SnapshotCodec.NETWORK, recorded, sizes);
+
+        assertTrue(sizes.count > 100);
+        assertEquals(0, sizes.overBudget);
+        assertTrue(sizes.keyframeMax <= SnapshotCodec.KEYFRAME_BUDGET);
+        assertTrue(sizes.deltaMax <= SnapshotCodec.DELTA_BUDGET);
+        assertTrue(sizes.deltaAverage() < sizes.keyframeAverage());
+    }
+}
@@ -0,0 +1,97 @@
+package engine;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTest {
+
+    @Test
+    @DisplayName("마감 시간 전에는 실행되지 않고, 마감 이후 advance에서 실행")
+    void testFiresAtDeadline() {
+        TimerWheel wheel = new TimerWheel(10, 0);
+        List<String> fired = new ArrayList<>();
+
+        wheel.scheduleAt(35, () -> fired.add("a"));
+
+        assertEquals(0, wheel.advance(30));
+        assertTrue(fired.isEmpty());
+        assertEquals(1, wheel.advance(40));
+        assertEquals(List.of("a"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("상위 레벨 타이머도 하위 슬롯으로 내려와 정확히 만료")
+    void testCascadeAcrossLevels() {
+        TimerWheel wheel = new TimerWheel(1, 0);
+        List<Long> fired = new ArrayList<>();
+        long[] deadlines = { 63, 64, 65, 4095, 4096, 300_000, 20_000_000 };
+
+        for (long deadline : deadlines)
+            wheel.scheduleAt(deadline, () -> fired.add(deadline));
+
+        for (long deadline : deadlines) {
+            wheel.advance(deadline - 1);
+            assertFalse(fired.contains(deadline), "fired early: " + deadline);
+            wheel.advance(deadline);
+            assertTrue(fired.contains(deadline), "not fired: " + deadline);
+        }
+        assertEquals(deadlines.length, fired.size());
+    }
+
+    @Test
+    @DisplayName("취소된 타이머는 실행되지 않음")
+    void testCancel() {
+        TimerWheel wheel = new TimerWheel(10, 0);
+        List<String> fired = new ArrayList<>();
+
+        TimerWheel.Timeout timeout = wheel.scheduleAt(100, () -> fired.add("a"));
+        assertTrue(timeout.isPending());
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+
+        wheel.advance(1000);
+        assertTrue(fired.isEmpty());
+        assertFalse(timeout.isPending());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("콜백 안에서 다른 타이머를 취소하거나 새로 등록 가능")
+    void testTaskCanCancelAndSchedule() {
+        TimerWheel wheel = new TimerWheel(10, 0);
+        List<String> fired = new ArrayList<>();
+
+        TimerWheel.Timeout second = wheel.scheduleAt(50, () -> fired.add("second"));
+        wheel.scheduleAt(50, () -> {
+            fired.add("first");
+            second.cancel();
+            wheel.scheduleAt(0, () -> fired.add("late"));
+        });
+
+        wheel.advance(50);
+        assertTrue(fired.contains("first"));
+        assertFalse(fired.contains("second"));
+        // 이미 지난 마감 시간은 다음 tick에서 실행
+        wheel.advance(60);
+        assertTrue(fired.contains("late"));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("작업 없이 기간만 표시하는 타이머")
+    void testPeriodWithoutTask() {
+        TimerWheel wheel = new TimerWheel(10, 0);
+        TimerWheel.Timeout period = wheel.scheduleAt(20, null);
+
+        wheel.advance(10);
+        assertTrue(period.isPending());
+        wheel.advance(20);
+        assertFalse(period.isPending());
+    }
+}
@@ -0,0 +1,86 @@
+package engine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpdateSchedulerTest {
+
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private UpdateScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null)
+            scheduler.shutdown();
+    }
+
+    @Test
+    @DisplayName("임계값 미만이면 호출 스레드에서 순서대로 실행")
+    void testSmallSceneStaysOnCallingThread() {
+        scheduler = new UpdateScheduler(100, 4, metrics);
+        List<Integer> order = new ArrayList<>();
+        Thread caller = Thread.currentThread();
+
+        scheduler.forRange(99, i -> {
+            assertSame(caller, Thread.currentThread());
+            order.add(i);
+        });
+
+        assertEquals(99, order.size());
+        for (int i = 0; i < order.size(); i++)
+            assertEquals(i, (int) order.get(i));
+        assertEquals(0, metrics.counter(MetricsRegistry.PARALLEL_UPDATES).get());
+    }
+
+    @Test
+    @DisplayName("임계값 이상이면 나눠 실행하고 모든 원소를 한 번씩 갱신")
+    void testLargeSceneUpdatesEveryElementOnce() {
+        scheduler = new UpdateScheduler(100, 4, metrics);
+        int count = 10_000;
+        AtomicIntegerArray updates = new AtomicIntegerArray(count);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        scheduler.forRange(count, i -> {
+            updates.incrementAndGet(i);
+            threads.add(Thread.currentThread().getName());
+        });
+
+        for (int i = 0; i < count; i++)
+            assertEquals(1, updates.get(i));
+        assertTrue(threads.stream().anyMatch(name -> name.startsWith("update-")), threads.toString());
+        assertEquals(1, metrics.counter(MetricsRegistry.PARALLEL_UPDATES).get());
+    }
+
+    @Test
+    @DisplayName("원소당 엔티티 수를 임계값에 반영")
+    void testEntitiesPerItemCountTowardsThreshold() {
+        scheduler = new UpdateScheduler(400, 4, metrics);
+        assertFalse(scheduler.shouldSplit(9, 40));
+        assertTrue(scheduler.shouldSplit(10, 40));
+
+        List<int[]> explosions = new ArrayList<>();
+        for (int i = 0; i < 10; i++)
+            explosions.add(new int[1]);
+        scheduler.forEach(explosions, 40, e -> e[0]++);
+        for (int[] e : explosions)
+            assertEquals(1, e[0]);
+    }
+
+    @Test
+    @DisplayName("임계값 0 또는 스레드 1개면 나누지 않음")
+    void testDisabled() {
+        scheduler = new UpdateScheduler(0, 4, metrics);
+        assertFalse(scheduler.shouldSplit(1_000_000, 1));
+        scheduler = new UpdateScheduler(1, 1, metrics);
+        assertFalse(scheduler.shouldSplit(1_000_000, 1));
+    }
+}
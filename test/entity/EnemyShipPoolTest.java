@@ -0,0 +1,75 @@
+package entity;
+
+import engine.DrawManager.SpriteType;
+import engine.GameSettings;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnemyShipPoolTest {
+
+    @Test
+    @DisplayName("반환된 함선은 같은 종류로만 재사용되고 완전히 초기화됨")
+    void testRecycledShipIsReset() {
+        EnemyShip ship = EnemyShipPool.getEnemyShip(SpriteType.EnemyShipB1, 10, 20, 1, 20, 3, Color.RED);
+        ship.hit();
+        assertTrue(ship.isDestroyed());
+        EnemyShipPool.recycle(ship);
+        EnemyShipPool.recycle(ship);
+
+        EnemyShip other = EnemyShipPool.getEnemyShip(SpriteType.EnemyShipA1, 0, 0, 2, 10, 2, Color.WHITE);
+        assertNotSame(ship, other);
+
+        EnemyShip reused = EnemyShipPool.getEnemyShip(SpriteType.EnemyShipB1, 30, 40, 3, 60, 9, Color.BLUE);
+        assertSame(ship, reused);
+        assertFalse(reused.isDestroyed());
+        assertEquals(SpriteType.EnemyShipB1, reused.getSpriteType());
+        assertEquals(30, reused.getPositionX());
+        assertEquals(40, reused.getPositionY());
+        assertEquals(3, reused.getHealth());
+        assertEquals(60, reused.getPointValue());
+        assertEquals(9, reused.getCoinValue());
+        assertEquals(Color.BLUE, reused.getColor());
+        assertNotSame(reused, EnemyShipPool.getEnemyShip(SpriteType.EnemyShipB1, 0, 0, 1, 1, 1, Color.WHITE));
+    }
+
+    @Test
+    @DisplayName("특수 함선은 재사용되어도 시작 상태로 돌아감")
+    void testSpecialShipReused() {
+        EnemyShip special = EnemyShipPool.getSpecialShip();
+        special.move(300, 0);
+        special.destroy();
+        EnemyShipPool.recycle(special);
+
+        EnemyShip again = EnemyShipPool.getSpecialShip();
+        assertSame(special, again);
+        assertEquals(SpriteType.EnemyShipSpecial, again.getSpriteType());
+        assertEquals(-32, again.getPositionX());
+        assertEquals(16 * 2, again.getWidth());
+        assertFalse(again.isDestroyed());
+        assertEquals(100, again.getPointValue());
+    }
+
+    @Test
+    @DisplayName("미리 채운 풀로 편대를 생성하면 새 함선을 만들지 않음")
+    void testPrewarm() {
+        FormationTemplate template = FormationTemplate.of(new GameSettings(4, 5, 100, 2000));
+        EnemyShipPool.prewarm(template);
+        int freeA = EnemyShipPool.available(SpriteType.EnemyShipA1);
+        assertTrue(freeA >= 8);
+        assertTrue(EnemyShipPool.available(SpriteType.EnemyShipC1) >= 4);
+
+        List<List<EnemyShip>> columns = new ArrayList<>();
+        template.spawn(20, 100, columns, new ArrayList<>());
+
+        assertEquals(freeA - 8, EnemyShipPool.available(SpriteType.EnemyShipA1));
+        for (List<EnemyShip> column : columns)
+            EnemyShipPool.recycle(column);
+        assertEquals(freeA, EnemyShipPool.available(SpriteType.EnemyShipA1));
+    }
+}
@@ -0,0 +1,100 @@
+package entity;
+
+import engine.DrawManager.SpriteType;
+import engine.GameSettings;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FormationTemplateTest {
+
+    private static GameSettings settings() {
+        GameSettings settings = new GameSettings(3, 5, 100, 2000);
+        // 첫 열 전체 제거, (1,4) 체력 2배/보상 3배/색상 변경
+        for (int y = 0; y < 5; y++)
+            settings.getChangeDataList().add(new GameSettings.ChangeData(0, y, 0, 0));
+        settings.getChangeDataList().add(new GameSettings.ChangeData(1, 4, 2, 3, Color.RED));
+        return settings;
+    }
+
+    @Test
+    @DisplayName("같은 설정은 한 번만 컴파일")
+    void testCachedPerSettings() {
+        GameSettings settings = settings();
+        assertSame(FormationTemplate.of(settings), FormationTemplate.of(settings));
+        assertNotSame(FormationTemplate.of(settings), FormationTemplate.of(settings()));
+    }
+
+    @Test
+    @DisplayName("오버라이드를 미리 적용하고 빈 열은 제외")
+    void testCompiledShips() {
+        FormationTemplate template = FormationTemplate.of(settings());
+
+        assertEquals(3, template.getColumns());
+        assertEquals(10, template.getShipCount());
+        assertArrayEquals(new int[] {5, 10}, template.columnEnds);
+
+        // 두 번째 열(첫 번째 비어 있지 않은 열)의 맨 아래 함선
+        int last = 4;
+        assertEquals(SpriteType.EnemyShipA1, template.spriteTypes[last]);
+        assertEquals(2 * 2, template.health[last]);
+        assertEquals(10 * 3, template.points[last]);
+        assertEquals(Color.RED, template.colors[last]);
+        assertEquals(EnemyShipFormation.SEPARATION_DISTANCE, template.offsetX[last]);
+
+        assertEquals(SpriteType.EnemyShipC1, template.spriteTypes[0]);
+        assertEquals(Color.WHITE, template.colors[0]);
+    }
+
+    @Test
+    @DisplayName("스폰은 열 목록과 사수 목록을 채움")
+    void testSpawn() {
+        FormationTemplate template = FormationTemplate.of(settings());
+        List<List<EnemyShip>> columns = new ArrayList<>();
+        List<EnemyShip> shooters = new ArrayList<>();
+
+        template.spawn(20, 100, columns, shooters);
+
+        assertEquals(2, columns.size());
+        assertEquals(2, shooters.size());
+        EnemyShip shooter = shooters.get(0);
+        assertSame(columns.get(0).get(4), shooter);
+        assertEquals(20 + EnemyShipFormation.SEPARATION_DISTANCE, shooter.getPositionX());
+        assertEquals(100 + 4 * EnemyShipFormation.SEPARATION_DISTANCE, shooter.getPositionY());
+        assertEquals(4, shooter.getHealth());
+        assertEquals(30, shooter.getPointValue());
+    }
+
+    @Test
+    @DisplayName("오프셋 스폰은 기본 위치에서 함선만 옮긴 편대와 똑같이 움직임")
+    void testOffsetMovesShipsOnly() {
+        GameSettings settings = new GameSettings(5, 2, 100, 2000);
+        int offsetY = 40;
+        EnemyShipFormation offset = new EnemyShipFormation(FormationTemplate.of(settings), offsetY);
+        EnemyShipFormation moved = new EnemyShipFormation(settings);
+        for (EnemyShip ship : moved)
+            ship.move(0, offsetY);
+        offset.attach(448, 520);
+        moved.attach(448, 520);
+
+        for (int i = 0; i < 2000; i++) {
+            offset.update();
+            moved.update();
+            assertEquals(moved.getDirection(), offset.getDirection(), "frame " + i);
+        }
+        List<Integer> expected = new ArrayList<>();
+        for (EnemyShip ship : moved)
+            expected.add(ship.getPositionX() * 1000 + ship.getPositionY());
+        List<Integer> actual = new ArrayList<>();
+        for (EnemyShip ship : offset)
+            actual.add(ship.getPositionX() * 1000 + ship.getPositionY());
+        expected.sort(null);
+        actual.sort(null);
+        assertEquals(expected, actual);
+    }
+}